@@ -1,5 +1,6 @@
 package com.library.authservice.config;
 
+import com.library.common.config.ServiceWebClients;
 import com.library.common.security.filter.AuthTokenFilter;
 import com.library.common.security.CustomUserDetailsService;
 import com.library.common.security.JwtTokenProvider;
@@ -14,7 +15,6 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import static org.springframework.security.web.access.IpAddressAuthorizationManager.hasIpAddress;
 
@@ -24,9 +24,9 @@ public class SecurityConfig {
 
     @Bean
     public CustomUserDetailsService customUserDetailsService(
-            WebClient webClient
+            ServiceWebClients serviceWebClients
             ) {
-        return new CustomUserDetailsService(webClient);
+        return new CustomUserDetailsService(serviceWebClients);
     }
 
     @Bean
@@ -0,0 +1,10 @@
+package com.library.authservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Auth Service does not scan com.library.common, so the virtual-thread diagnostics are imported explicitly.
+@Configuration
+@Import(com.library.common.config.VirtualThreadConfig.class)
+public class ThreadingConfig {
+}
@@ -5,6 +5,7 @@ import com.library.authservice.dto.JwtResponse;
 import com.library.authservice.dto.LoginRequest;
 import com.library.authservice.dto.RegistrationRequest;
 import com.library.authservice.exception.RegistrationConflictException;
+import com.library.common.config.ServiceWebClients;
 import com.library.common.dto.UserDTO;
 import com.library.common.exception.ServiceCommunicationException;
 import com.library.common.security.CustomUserDetails;
@@ -20,7 +21,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
@@ -30,12 +30,13 @@ public class AuthServiceImpl implements AuthService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
-    private final WebClient webClient;
+    private final ServiceWebClients serviceWebClients;
 
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
 
+    private final static String USER_SERVICE = "USER-SERVICE";
     private final static String userServiceUrl = "http://USER-SERVICE/api/users";
 
     @Override
@@ -51,7 +52,7 @@ public class AuthServiceImpl implements AuthService {
         );
 
         try {
-            webClient.post()
+            serviceWebClients.forService(USER_SERVICE).post()
                     .uri(userServiceUrl)
                     .bodyValue(userToCreate)
                     .retrieve()
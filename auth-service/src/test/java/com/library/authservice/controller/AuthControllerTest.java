@@ -6,6 +6,7 @@ import com.library.authservice.dto.LoginRequest;
 import com.library.authservice.dto.RegistrationRequest;
 import com.library.authservice.exception.RegistrationConflictException;
 import com.library.authservice.service.AuthService;
+import com.library.common.config.ServiceWebClients;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,7 +19,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -34,7 +34,7 @@ class AuthControllerTest {
     private MockMvc mockMvc;
 
     @MockBean
-    private WebClient webClient;
+    private ServiceWebClients serviceWebClients;
 
     @MockBean
     private AuthService authService;
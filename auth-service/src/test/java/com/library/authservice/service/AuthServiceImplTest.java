@@ -5,6 +5,7 @@ import com.library.authservice.dto.JwtResponse;
 import com.library.authservice.dto.LoginRequest;
 import com.library.authservice.dto.RegistrationRequest;
 import com.library.authservice.exception.RegistrationConflictException;
+import com.library.common.config.ServiceWebClients;
 import com.library.common.dto.UserDTO;
 import com.library.common.exception.ServiceCommunicationException;
 import com.library.common.security.CustomUserDetails;
@@ -43,6 +44,8 @@ class AuthServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
+    private ServiceWebClients serviceWebClients;
+    @Mock
     private WebClient webClient;
     @Mock
     private AuthenticationManager authenticationManager;
@@ -83,6 +86,7 @@ class AuthServiceImplTest {
 
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
 
+        when(serviceWebClients.forService("USER-SERVICE")).thenReturn(webClient);
         when(webClient.post()).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
         when(requestBodySpec.bodyValue(any(CreateUserRequest.class))).thenReturn(requestHeadersSpec);
@@ -109,6 +113,7 @@ class AuthServiceImplTest {
 
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
 
+        when(serviceWebClients.forService("USER-SERVICE")).thenReturn(webClient);
         when(webClient.post()).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
         when(requestBodySpec.bodyValue(any(CreateUserRequest.class))).thenReturn(requestHeadersSpec);
@@ -134,6 +139,7 @@ class AuthServiceImplTest {
 
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
 
+        when(serviceWebClients.forService("USER-SERVICE")).thenReturn(webClient);
         when(webClient.post()).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
         when(requestBodySpec.bodyValue(any(CreateUserRequest.class))).thenReturn(requestHeadersSpec);
@@ -159,6 +165,7 @@ class AuthServiceImplTest {
 
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
 
+        when(serviceWebClients.forService("USER-SERVICE")).thenReturn(webClient);
         when(webClient.post()).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
         when(requestBodySpec.bodyValue(any(CreateUserRequest.class))).thenReturn(requestHeadersSpec);
@@ -186,6 +193,7 @@ class AuthServiceImplTest {
 
         when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
 
+        when(serviceWebClients.forService("USER-SERVICE")).thenReturn(webClient);
         when(webClient.post()).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
         when(requestBodySpec.bodyValue(any(CreateUserRequest.class))).thenReturn(requestHeadersSpec);
@@ -2,12 +2,16 @@ package com.library.bookservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.library.bookservice", "com.library.common"})
 @EnableDiscoveryClient
+@EnableCaching
+@EnableScheduling
 public class BookServiceApplication {
 
     public static void main(String[] args) {
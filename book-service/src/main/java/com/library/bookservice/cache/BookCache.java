@@ -0,0 +1,104 @@
+package com.library.bookservice.cache;
+
+import com.library.bookservice.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class BookCache {
+
+    public static final String BOOKS_BY_ID = "books-by-id";
+    public static final String BOOK_IDS_BY_ISBN = "book-ids-by-isbn";
+    public static final String STRIPE_SUMS_BY_BOOK_ID = "book-stripe-sums";
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCache.class);
+
+    private final Cache booksById;
+    private final Cache bookIdsByIsbn;
+    private final Cache stripeSumsByBookId;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BookCache(CacheManager cacheManager, ApplicationEventPublisher eventPublisher) {
+        this.booksById = Objects.requireNonNull(cacheManager.getCache(BOOKS_BY_ID), "Missing cache: " + BOOKS_BY_ID);
+        this.bookIdsByIsbn = Objects.requireNonNull(cacheManager.getCache(BOOK_IDS_BY_ISBN), "Missing cache: " + BOOK_IDS_BY_ISBN);
+        this.stripeSumsByBookId = Objects.requireNonNull(cacheManager.getCache(STRIPE_SUMS_BY_BOOK_ID), "Missing cache: " + STRIPE_SUMS_BY_BOOK_ID);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Optional<Book> getById(UUID id) {
+        return Optional.ofNullable(booksById.get(id, Book.class));
+    }
+
+    public Optional<Book> getByIsbn(long isbn13) {
+        UUID id = bookIdsByIsbn.get(isbn13, UUID.class);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Book> book = getById(id);
+        if (book.isEmpty() || !Long.valueOf(isbn13).equals(book.get().getIsbn().getIsbn13())) {
+            bookIdsByIsbn.evict(isbn13);
+            return Optional.empty();
+        }
+        return book;
+    }
+
+    public void put(Book book) {
+        booksById.put(book.getId(), book);
+        if (book.getIsbn() != null && book.getIsbn().getIsbn13() != null) {
+            bookIdsByIsbn.put(book.getIsbn().getIsbn13(), book.getId());
+        }
+    }
+
+    // Copies held in a book's stock stripes, 0 when it has none. Every stock change evicts the book and this entry with it.
+    public Optional<Integer> getStripeSum(UUID id) {
+        return Optional.ofNullable(stripeSumsByBookId.get(id, Integer.class));
+    }
+
+    public void putStripeSum(UUID id, int stripeSum) {
+        stripeSumsByBookId.put(id, stripeSum);
+    }
+
+    public void evict(UUID id) {
+        evict(id, false);
+    }
+
+    // For a change to the catalog entry itself rather than to its stock; other replicas then re-index it for search.
+    public void evictCatalogEntry(UUID id) {
+        evict(id, true);
+    }
+
+    private void evict(UUID id, boolean catalogChanged) {
+        evictLocally(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocally(id);
+                    eventPublisher.publishEvent(new BookCacheEvictedEvent(id, catalogChanged));
+                }
+            });
+        } else {
+            eventPublisher.publishEvent(new BookCacheEvictedEvent(id, catalogChanged));
+        }
+    }
+
+    public void evictLocally(UUID id) {
+        logger.debug("Evicting cached book with ID: {}", id);
+        Book cached = booksById.get(id, Book.class);
+        booksById.evict(id);
+        stripeSumsByBookId.evict(id);
+        if (cached != null && cached.getIsbn() != null && cached.getIsbn().getIsbn13() != null) {
+            bookIdsByIsbn.evict(cached.getIsbn().getIsbn13());
+        }
+    }
+}
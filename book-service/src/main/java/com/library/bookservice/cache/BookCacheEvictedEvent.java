@@ -0,0 +1,11 @@
+package com.library.bookservice.cache;
+
+import java.util.UUID;
+
+// catalogChanged marks creates, updates and deletes, after which other replicas also re-index the book for search.
+public record BookCacheEvictedEvent(UUID bookId, boolean catalogChanged) {
+
+    public BookCacheEvictedEvent(UUID bookId) {
+        this(bookId, false);
+    }
+}
@@ -0,0 +1,78 @@
+package com.library.bookservice.cache;
+
+import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.search.BookSearchIndex;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "books.cache.invalidation.kafka-enabled", havingValue = "true")
+public class BookCacheInvalidationRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCacheInvalidationRelay.class);
+    private static final String CATALOG_CHANGED_HEADER = "book-catalog-changed";
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.UTF_8);
+
+    private final BookCache bookCache;
+    private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final String instanceId;
+
+    public BookCacheInvalidationRelay(BookCache bookCache,
+                                      BookRepository bookRepository,
+                                      BookSearchIndex bookSearchIndex,
+                                      @Qualifier("cacheInvalidationKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                                      @Value("${books.cache.invalidation.topic}") String topic,
+                                      @Value("${books.cache.invalidation.instance-id}") String instanceId) {
+        this.bookCache = bookCache;
+        this.bookRepository = bookRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.instanceId = instanceId;
+    }
+
+    @EventListener
+    public void onBookCacheEvicted(BookCacheEvictedEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.bookId().toString(), instanceId);
+        if (event.catalogChanged()) {
+            record.headers().add(CATALOG_CHANGED_HEADER, TRUE);
+        }
+        kafkaTemplate.send(record)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        logger.error("Failed to publish cache invalidation for book ID {}: {}", event.bookId(), ex.getMessage());
+                    }
+                });
+    }
+
+    @KafkaListener(topics = "${books.cache.invalidation.topic}",
+            groupId = "book-cache-${books.cache.invalidation.instance-id}",
+            containerFactory = "cacheInvalidationListenerContainerFactory")
+    public void onRemoteInvalidation(ConsumerRecord<String, String> record) {
+        if (instanceId.equals(record.value())) {
+            return;
+        }
+        logger.debug("Received cache invalidation for book ID {} from instance {}", record.key(), record.value());
+        UUID bookId = UUID.fromString(record.key());
+        bookCache.evictLocally(bookId);
+        if (record.headers().lastHeader(CATALOG_CHANGED_HEADER) != null) {
+            // Published after the other replica committed, so the row read here is the changed one or gone.
+            bookRepository.findById(bookId).ifPresentOrElse(bookSearchIndex::index, () -> bookSearchIndex.remove(bookId));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.library.bookservice.config;
+
+import com.library.bookservice.importer.BookCatalogImporter;
+import com.library.bookservice.importer.BookImportFormat;
+import com.library.bookservice.importer.BookImportReport;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "books.import.file")
+public class BookImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportRunner.class);
+
+    private final BookCatalogImporter bookCatalogImporter;
+
+    @Value("${books.import.file}")
+    private String importFile;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Path.of(importFile);
+        logger.info("Importing book catalog from file: {}", path);
+        BookImportReport report;
+        try (InputStream input = Files.newInputStream(path)) {
+            report = bookCatalogImporter.importCatalog(input, BookImportFormat.fromFileName(path.getFileName().toString()));
+        }
+        report.getErrors().forEach(error ->
+                logger.warn("Rejected line {} (ISBN {}): {}", error.line(), error.isbn(), error.message()));
+        if (report.isErrorsTruncated()) {
+            logger.warn("Only the first {} of {} rejected rows were reported.", report.getErrors().size(), report.getRejected());
+        }
+    }
+}
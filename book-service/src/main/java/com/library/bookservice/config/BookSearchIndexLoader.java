@@ -0,0 +1,36 @@
+package com.library.bookservice.config;
+
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.facet.BookFacetIndex;
+import com.library.bookservice.search.BookSearchIndex;
+import com.library.bookservice.service.BookService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndexLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndexLoader.class);
+
+    private final BookService bookService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookFacetIndex bookFacetIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        logger.info("Rebuilding book search index and facets...");
+        long start = System.currentTimeMillis();
+        bookSearchIndex.clear();
+        bookFacetIndex.clear();
+        bookService.streamBooks(new BookFilter(), book -> {
+            bookSearchIndex.index(book);
+            bookFacetIndex.index(book);
+        });
+        logger.info("Book search index and facets rebuilt with {} books in {} ms.", bookSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
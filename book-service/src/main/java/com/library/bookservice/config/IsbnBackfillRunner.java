@@ -0,0 +1,103 @@
+package com.library.bookservice.config;
+
+import com.library.bookservice.model.valueobjects.IsbnParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Rows written before the isbn13 column existed have no numeric key until this runs; it only touches those rows.
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "books.isbn-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class IsbnBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IsbnBackfillRunner.class);
+
+    private static final String UPDATE_SQL = "UPDATE books SET isbn13 = ? WHERE id = ? AND isbn13 IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public IsbnBackfillRunner(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${books.isbn-backfill.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    public int backfill() {
+        List<IsbnKey> keys = new ArrayList<>();
+        List<String> unparseable = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, isbn FROM books WHERE isbn13 IS NULL", (RowCallbackHandler) rs -> {
+            String isbn = rs.getString(2);
+            long isbn13 = IsbnParser.toIsbn13(isbn);
+            if (isbn13 == IsbnParser.INVALID) {
+                unparseable.add(isbn);
+            } else {
+                keys.add(new IsbnKey(rs.getObject(1, UUID.class), isbn13));
+            }
+        });
+        if (keys.isEmpty() && unparseable.isEmpty()) {
+            logger.debug("All books already have a numeric ISBN key.");
+            return 0;
+        }
+
+        int updated = 0;
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            updated += update(keys.subList(from, Math.min(from + chunkSize, keys.size())));
+        }
+        logger.info("Backfilled numeric ISBN keys for {} of {} books.", updated, keys.size() + unparseable.size());
+        if (!unparseable.isEmpty()) {
+            logger.warn("{} books have an ISBN that fails checksum validation and can only be found by its exact value: {}",
+                    unparseable.size(), unparseable.subList(0, Math.min(unparseable.size(), 20)));
+        }
+        return updated;
+    }
+
+    private int update(List<IsbnKey> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, chunk, chunk.size(),
+                    (ps, key) -> {
+                        ps.setLong(1, key.isbn13());
+                        ps.setObject(2, key.id());
+                    }));
+            return chunk.size();
+        } catch (DataAccessException batchFailure) {
+            logger.warn("Batch ISBN backfill of {} books failed, retrying row by row: {}", chunk.size(), batchFailure.getMessage());
+        }
+        int updated = 0;
+        for (IsbnKey key : chunk) {
+            try {
+                updated += jdbcTemplate.update(UPDATE_SQL, key.isbn13(), key.id());
+            } catch (DataAccessException rowFailure) {
+                logger.warn("Book ID {} shares ISBN {} with another book and was left without a numeric key: {}",
+                        key.id(), key.isbn13(), rowFailure.getMostSpecificCause().getMessage());
+            }
+        }
+        return updated;
+    }
+
+    private record IsbnKey(UUID id, long isbn13) {
+    }
+}
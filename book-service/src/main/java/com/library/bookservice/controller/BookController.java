@@ -1,7 +1,28 @@
 package com.library.bookservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.bookservice.dto.BookBatchRequest;
+import com.library.bookservice.dto.BookDtoMapper;
+import com.library.bookservice.dto.BookETag;
+import com.library.bookservice.dto.BookFacetsResponse;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.dto.BookPageResponse;
+import com.library.bookservice.dto.BookSortField;
+import com.library.bookservice.dto.BookStockAdjustmentRequest;
+import com.library.bookservice.event.BookEventStream;
+import com.library.bookservice.exception.InvalidQuantityException;
+import com.library.bookservice.exception.PreconditionRequiredException;
+import com.library.bookservice.importer.BookCatalogImporter;
+import com.library.bookservice.importer.BookImportFormat;
+import com.library.bookservice.importer.BookImportReport;
+import com.library.bookservice.metrics.BookRevalidationMetrics;
 import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookHold;
+import com.library.bookservice.service.BookHoldService;
 import com.library.bookservice.service.BookService;
+import com.library.bookservice.stock.BookStockAdjuster;
+import com.library.bookservice.stock.BookStockAdjustmentReport;
+import com.library.common.dto.BookDTO;
 import com.library.common.dto.ResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,16 +30,28 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -29,9 +62,94 @@ public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_FACET_VALUES = 1000;
+    private static final int MAX_STREAMED_BOOKS = 100;
+
     private final BookService bookService;
+    private final BookCatalogImporter bookCatalogImporter;
+    private final BookHoldService bookHoldService;
+    private final ObjectMapper objectMapper;
+    private final BookRevalidationMetrics bookRevalidationMetrics;
+    private final BookEventStream bookEventStream;
+    private final BookStockAdjuster bookStockAdjuster;
+
+    @Value("${books.holds.default-ttl-seconds:300}")
+    private long defaultHoldTtlSeconds;
+
+    @Value("${books.holds.max-ttl-seconds:1800}")
+    private long maxHoldTtlSeconds;
+
+    @Operation(summary = "Get books page", description = "Retrieves a page of books using keyset pagination. Pass the returned nextCursor to fetch the following page.")
+    @Parameter(name = "genre", description = "Only books of the given genre", example = "Fantasy")
+    @Parameter(name = "author", description = "Only books of the given author", example = "Andrzej Sapkowski")
+    @Parameter(name = "available", description = "Only books with (true) or without (false) available copies", example = "true")
+    @Parameter(name = "sort", description = "Sort order of the listing (ID or TITLE)", example = "TITLE")
+    @Parameter(name = "cursor", description = "Opaque cursor returned with the previous page")
+    @Parameter(name = "size", description = "Number of books per page (1-" + MAX_PAGE_SIZE + ")", example = "20")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page of books",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookPageResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or sort order",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BookPageResponse> getBooks(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "ID") BookSortField sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        logger.info("Received request to get page of books sorted by {}.", sort);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        BookPageResponse page = bookService.getBooks(new BookFilter(genre, author, available), sort, cursor, pageSize);
+        logger.debug("Returning {} books. Has next page: {}", page.getSize(), page.isHasNext());
+        return ResponseEntity.ok(page);
+    }
 
-    @Operation(summary = "Get all books", description = "Retrieves a list of all existing books.")
+    @Operation(summary = "Stream books", description = "Streams all books matching the filters as newline-delimited JSON.")
+    @Parameter(name = "genre", description = "Only books of the given genre", example = "Fantasy")
+    @Parameter(name = "author", description = "Only books of the given author", example = "Andrzej Sapkowski")
+    @Parameter(name = "available", description = "Only books with (true) or without (false) available copies", example = "true")
+    @ApiResponse(responseCode = "200", description = "Successfully started streaming books",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = Book.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamBooks(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Boolean available) {
+        logger.info("Received request to stream books.");
+        BookFilter filter = new BookFilter(genre, author, available);
+        StreamingResponseBody body = outputStream -> bookService.streamBooks(filter, book -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(book));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Get all books", description = "Retrieves a list of all existing books in one response. Requires the explicit unpaged=true opt-in.")
+    @Parameter(name = "unpaged", description = "Must be true to receive the whole catalog as a single list", required = true, example = "true")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved list of books",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = Book.class)))
@@ -41,7 +159,7 @@ public class BookController {
     @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
-    @GetMapping
+    @GetMapping(params = "unpaged=true")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<Book>> getAllBooks() {
         logger.info("Received request to get all books.");
@@ -50,11 +168,90 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
-    @Operation(summary = "Get book by ID", description = "Retrieves a single book by their unique ID.")
+    @Operation(summary = "Search books", description = "Full-text search over title, author, publisher and genre. Results are ranked by relevance and the last word is matched as a prefix.")
+    @Parameter(name = "q", description = "Search phrase", required = true, example = "sapkowski wiedz")
+    @Parameter(name = "limit", description = "Maximum number of results (1-" + MAX_PAGE_SIZE + ")", example = "20")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved matching books",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = Book.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<Book>> searchBooks(@RequestParam("q") String query,
+                                                  @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        logger.info("Received request to search books for: {}", query);
+        List<Book> books = bookService.searchBooks(query, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        logger.debug("Returning {} matching books.", books.size());
+        return ResponseEntity.ok(books);
+    }
+
+    @Operation(summary = "Suggest book titles", description = "Returns titles of the best matching books for a typed prefix (autocomplete).")
+    @Parameter(name = "prefix", description = "Text typed so far", required = true, example = "hob")
+    @Parameter(name = "limit", description = "Maximum number of suggestions (1-" + MAX_SUGGESTIONS + ")", example = "10")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved title suggestions",
+            content = @Content(mediaType = "application/json"))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @GetMapping("/search/suggest")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<String>> suggestTitles(@RequestParam String prefix,
+                                                      @RequestParam(defaultValue = "" + MAX_SUGGESTIONS) int limit) {
+        logger.info("Received request to suggest titles for prefix: {}", prefix);
+        List<String> titles = bookService.suggestTitles(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+        return ResponseEntity.ok(titles);
+    }
+
+    @Operation(summary = "Get catalog facets", description = "Returns the number of books and of books with at least one available copy per genre, publisher, author and publication decade, most common values first.")
+    @Parameter(name = "limit", description = "Maximum number of values per facet (1-" + MAX_FACET_VALUES + ")", example = "20")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved facet counts",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookFacetsResponse.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @GetMapping("/facets")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BookFacetsResponse> getFacets(@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        logger.info("Received request to get book facets.");
+        return ResponseEntity.ok(bookService.getFacets(Math.max(1, Math.min(limit, MAX_FACET_VALUES))));
+    }
+
+    @Operation(summary = "Stream book changes", description = "Opens a server-sent event stream of BookStockChangedEvent and BookUpdatedEvent, in the order they were committed. Each event id is the outbox sequence number.")
+    @Parameter(name = "bookId", description = "Only events of these books (up to " + MAX_STREAMED_BOOKS + "); all books when omitted")
+    @ApiResponse(responseCode = "200", description = "Event stream opened",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    @ApiResponse(responseCode = "400", description = "Too many book IDs",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "503", description = "The stream has reached its subscriber limit",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamBookEvents(@RequestParam(name = "bookId", required = false) Set<UUID> bookIds) {
+        Set<UUID> filter = bookIds != null ? bookIds : Set.of();
+        if (filter.size() > MAX_STREAMED_BOOKS) {
+            throw new InvalidQuantityException("At most " + MAX_STREAMED_BOOKS + " books can be followed in one stream.");
+        }
+        logger.info("Received request to stream events for {} books.", filter.isEmpty() ? "all" : filter.size());
+        return bookEventStream.subscribe(filter);
+    }
+
+    @Operation(summary = "Get book by ID", description = "Retrieves a single book by their unique ID. The response carries an ETag; send it back in If-None-Match to revalidate.")
     @Parameter(description = "Unique ID of the book to retrieve", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved book",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = Book.class)))
+    @ApiResponse(responseCode = "304", description = "Not modified - The book still matches the ETag in If-None-Match")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
@@ -69,18 +266,43 @@ public class BookController {
                     schema = @Schema(implementation = ResponseDTO.class)))
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('INTERNAL_SERVICE') or hasAnyRole('ADMIN', 'EDITOR')")
-    public ResponseEntity<Book> getBookById(@PathVariable UUID id) {
+    public ResponseEntity<Book> getBookById(@PathVariable UUID id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Received request to get book by ID: {}", id);
         Book book = bookService.getBookById(id);
         logger.debug("Returning book with ID: {}", id);
-        return ResponseEntity.ok(book);
+        return conditionalRead("id", book, ifNoneMatch);
     }
 
-    @Operation(summary = "Get book by ISBN", description = "Retrieves a single book by their unique ISBN.")
+    @Operation(summary = "Get books by IDs", description = "Retrieves many books in one call for internal services. Unknown IDs are omitted from the result.")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved books keyed by ID",
+            content = @Content(mediaType = "application/json"))
+    @ApiResponse(responseCode = "400", description = "Invalid request (missing IDs or more than " + BookBatchRequest.MAX_BATCH_SIZE + " IDs)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires INTERNAL_SERVICE, ADMIN or EDITOR role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE') or hasAnyRole('ADMIN', 'EDITOR')")
+    public ResponseEntity<Map<UUID, BookDTO>> getBooksByIds(@Valid @RequestBody BookBatchRequest request) {
+        logger.info("Received request to get {} books by ID.", request.getIds().size());
+        Map<UUID, BookDTO> books = new LinkedHashMap<>();
+        bookService.getBooksByIds(request.getIds())
+                .forEach((id, book) -> books.put(id, BookDtoMapper.toDto(book)));
+        logger.debug("Returning {} of {} requested books.", books.size(), request.getIds().size());
+        return ResponseEntity.ok(books);
+    }
+
+    @Operation(summary = "Get book by ISBN", description = "Retrieves a single book by their unique ISBN. The response carries an ETag; send it back in If-None-Match to revalidate.")
     @Parameter(description = "Unique ISBN of the book to retrieve", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved book",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = Book.class)))
+    @ApiResponse(responseCode = "304", description = "Not modified - The book still matches the ETag in If-None-Match")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
@@ -92,11 +314,12 @@ public class BookController {
                     schema = @Schema(implementation = ResponseDTO.class)))
     @GetMapping("/isbn/{isbn}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn) {
+    public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Received request to get book by ISBN: {}", isbn);
         Book book = bookService.getBookByIsbn(isbn);
         logger.debug("Returning book with ISBN: {}", isbn);
-        return ResponseEntity.ok(book);
+        return conditionalRead("isbn", book, ifNoneMatch);
     }
 
     @Operation(summary = "Create a new Book", description = "Adds a new book to the system.")
@@ -124,7 +347,30 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdBook);
     }
 
-    @Operation(summary = "Update an existing book", description = "Updates details of an existing book identified by their ID.")
+    @Operation(summary = "Import a book catalog", description = "Streams a CSV (with header row) or NDJSON catalog into the database in batches. Invalid or duplicate rows are reported without aborting the import.")
+    @ApiResponse(responseCode = "200", description = "Import finished; the report lists imported and rejected rows",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookImportReport.class)))
+    @ApiResponse(responseCode = "400", description = "Unsupported content type or missing CSV header columns",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires ADMIN role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @PostMapping(value = "/import", consumes = {BookImportFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookImportReport> importBooks(HttpServletRequest request) throws IOException {
+        logger.info("Received request to import book catalog ({}).", request.getContentType());
+        BookImportReport report = bookCatalogImporter.importCatalog(request.getInputStream(),
+                BookImportFormat.fromContentType(request.getContentType()));
+        logger.info("Book catalog import finished: {} imported, {} rejected.", report.getImported(), report.getRejected());
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(summary = "Update an existing book", description = "Updates details of an existing book identified by their ID. Requires an If-Match header with the ETag the book was read with.")
     @Parameter(description = "Unique ID of the book to update", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
     @ApiResponse(responseCode = "200", description = "Book updated successfully",
             content = @Content(mediaType = "application/json",
@@ -141,16 +387,27 @@ public class BookController {
     @ApiResponse(responseCode = "404", description = "Book not found",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "412", description = "Precondition failed - The book changed since the ETag in If-Match was issued",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "428", description = "Precondition required - The If-Match header is missing",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
-    public ResponseEntity<Book> updateBook(@PathVariable UUID id, @Valid @RequestBody Book bookDetails) {
+    public ResponseEntity<Book> updateBook(@PathVariable UUID id, @Valid @RequestBody Book bookDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Received request to update book with ID: {}", id);
-        Book updatedBook = bookService.updateBook(id, bookDetails);
+        if (ifMatch == null || ifMatch.isBlank()) {
+            logger.warn("Rejected update of book ID {} without an If-Match header.", id);
+            throw new PreconditionRequiredException("Updating a book requires an If-Match header with the ETag it was read with.");
+        }
+        Book updatedBook = bookService.updateBook(id, bookDetails, ifMatch);
         logger.info("Book with ID {} updated successfully.", id);
-        return ResponseEntity.ok(updatedBook);
+        return ResponseEntity.ok().eTag(BookETag.of(updatedBook)).body(updatedBook);
     }
 
     @Operation(summary = "Delete a book", description = "Deletes a book from the system by their unique ID.")
@@ -231,6 +488,75 @@ public class BookController {
         return ResponseEntity.ok(updatedBook);
     }
 
+    @Operation(summary = "Adjust the stock of many books at once",
+            description = "Applies up to " + BookStockAdjustmentRequest.MAX_ADJUSTMENTS + " stock adjustments in one transaction. Items are applied in order against the running stock; invalid items are rejected individually and reported without affecting the others.")
+    @ApiResponse(responseCode = "200", description = "Batch processed; the report lists the outcome of every item",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookStockAdjustmentReport.class)))
+    @ApiResponse(responseCode = "400", description = "Missing, empty or oversized list of adjustments",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires ADMIN or EDITOR role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @PostMapping("/stock-adjustments")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
+    public ResponseEntity<BookStockAdjustmentReport> adjustStock(@Valid @RequestBody BookStockAdjustmentRequest request) {
+        logger.info("Received request to apply {} stock adjustments.", request.getAdjustments().size());
+        BookStockAdjustmentReport report = bookStockAdjuster.adjust(request.getAdjustments());
+        logger.info("Stock adjustments finished: {} applied, {} rejected.", report.getApplied(), report.getRejected());
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(summary = "Split stock into striped counters",
+            description = "Spreads the available copies of a high-demand book across several counters so concurrent borrows do not queue on one row. The book keeps reporting a single quantity and availableCopies.")
+    @Parameter(description = "Unique ID of the book", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
+    @ApiResponse(responseCode = "200", description = "Stock striped successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Book.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid number of stripes",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires ADMIN role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "404", description = "Book not found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @PutMapping("/{id}/stock-stripes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Book> enableStockStriping(@PathVariable UUID id, @RequestParam int count) {
+        logger.info("Received request to stripe stock of book ID {} across {} counters", id, count);
+        Book book = bookService.enableStockStriping(id, count);
+        logger.info("Stock of book ID {} striped successfully.", id);
+        return ResponseEntity.ok(book);
+    }
+
+    @Operation(summary = "Merge striped counters",
+            description = "Collapses striped stock counters of a book back into a single counter.")
+    @Parameter(description = "Unique ID of the book", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
+    @ApiResponse(responseCode = "200", description = "Stock merged successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Book.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires ADMIN role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "404", description = "Book not found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @DeleteMapping("/{id}/stock-stripes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Book> disableStockStriping(@PathVariable UUID id) {
+        logger.info("Received request to merge stock stripes of book ID {}", id);
+        Book book = bookService.disableStockStriping(id);
+        logger.info("Stock stripes of book ID {} merged successfully.", id);
+        return ResponseEntity.ok(book);
+    }
+
     @Operation(summary = "Borrow a book",
             description = "Decreases the number of available copies of a book, simulating a borrowing action.")
     @Parameter(description = "Unique ID of the book to borrow", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
@@ -254,6 +580,80 @@ public class BookController {
         return ResponseEntity.ok(borrowedBook);
     }
 
+    @Operation(summary = "Reserve a copy of a book",
+            description = "Takes one copy out of stock and holds it for a limited time. The hold must be confirmed before it expires, otherwise the copy is returned to stock automatically.")
+    @Parameter(description = "Unique ID of the book to reserve", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
+    @ApiResponse(responseCode = "201", description = "Copy reserved",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookHold.class)))
+    @ApiResponse(responseCode = "400", description = "No available copies to reserve",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires INTERNAL_SERVICE or ADMIN role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "404", description = "Book not found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @PostMapping("/{id}/holds")
+    @PreAuthorize("hasAnyRole('INTERNAL_SERVICE', 'ADMIN')")
+    public ResponseEntity<BookHold> reserveBook(@PathVariable UUID id,
+                                                @RequestParam(required = false) Long ttlSeconds) {
+        long ttl = Math.min(Math.max(ttlSeconds != null ? ttlSeconds : defaultHoldTtlSeconds, 1), maxHoldTtlSeconds);
+        logger.info("Received request to reserve book with ID: {} for {} seconds", id, ttl);
+        BookHold hold = bookHoldService.reserve(id, Duration.ofSeconds(ttl));
+        logger.info("Book with ID {} reserved with hold {}.", id, hold.getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @Operation(summary = "Confirm a hold",
+            description = "Turns a hold into a permanent stock decrease. Confirming an already confirmed hold is a no-op.")
+    @Parameter(description = "Unique ID of the hold to confirm", required = true)
+    @ApiResponse(responseCode = "200", description = "Hold confirmed",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookHold.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires INTERNAL_SERVICE or ADMIN role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "404", description = "Hold not found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "409", description = "Hold already expired or released",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @PostMapping("/holds/{holdId}/confirm")
+    @PreAuthorize("hasAnyRole('INTERNAL_SERVICE', 'ADMIN')")
+    public ResponseEntity<BookHold> confirmHold(@PathVariable UUID holdId) {
+        logger.info("Received request to confirm hold with ID: {}", holdId);
+        BookHold hold = bookHoldService.confirm(holdId);
+        logger.info("Hold with ID {} confirmed.", holdId);
+        return ResponseEntity.ok(hold);
+    }
+
+    @Operation(summary = "Release a hold",
+            description = "Cancels a hold and returns its copy to stock. Releasing an expired or released hold is a no-op.")
+    @Parameter(description = "Unique ID of the hold to release", required = true)
+    @ApiResponse(responseCode = "200", description = "Hold released",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookHold.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires INTERNAL_SERVICE or ADMIN role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "404", description = "Hold not found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "409", description = "Hold already confirmed",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))
+    @PostMapping("/holds/{holdId}/release")
+    @PreAuthorize("hasAnyRole('INTERNAL_SERVICE', 'ADMIN')")
+    public ResponseEntity<BookHold> releaseHold(@PathVariable UUID holdId) {
+        logger.info("Received request to release hold with ID: {}", holdId);
+        BookHold hold = bookHoldService.release(holdId);
+        logger.info("Hold with ID {} released.", holdId);
+        return ResponseEntity.ok(hold);
+    }
+
     @Operation(summary = "Return a borrowed book",
             description = "Increases the number of available copies of a book, simulating a return action.")
     @Parameter(description = "Unique ID of the book to return", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
@@ -276,4 +676,14 @@ public class BookController {
         logger.info("Book with ID {} returned successfully.", id);
         return ResponseEntity.ok(returnedBook);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<Book> conditionalRead(String lookup, Book book, String ifNoneMatch) {
+        String etag = BookETag.of(book);
+        boolean notModified = BookETag.matches(ifNoneMatch, etag, true);
+        bookRevalidationMetrics.recordRead(lookup, ifNoneMatch, notModified);
+        if (notModified) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(book);
+    }
+}
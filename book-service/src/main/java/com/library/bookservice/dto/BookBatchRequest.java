@@ -0,0 +1,22 @@
+package com.library.bookservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @NotNull(message = "Book IDs are required")
+    @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " book IDs can be requested at once")
+    private List<@NotNull UUID> ids;
+}
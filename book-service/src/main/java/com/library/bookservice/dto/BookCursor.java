@@ -0,0 +1,46 @@
+package com.library.bookservice.dto;
+
+import com.library.bookservice.exception.InvalidCursorException;
+import com.library.bookservice.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class BookCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final BookSortField sortField;
+    private final UUID id;
+    private final String title;
+
+    public static BookCursor from(Book book, BookSortField sortField) {
+        return new BookCursor(sortField, book.getId(), sortField == BookSortField.TITLE ? book.getTitle() : null);
+    }
+
+    public static BookCursor decode(String cursor, BookSortField expectedSortField) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 3);
+            BookSortField sortField = BookSortField.valueOf(parts[0]);
+            if (sortField != expectedSortField) {
+                throw new InvalidCursorException("The cursor was issued for sorting by " + sortField.name().toLowerCase() + ".");
+            }
+            UUID id = UUID.fromString(parts[1]);
+            String title = sortField == BookSortField.TITLE ? parts[2] : null;
+            return new BookCursor(sortField, id, title);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidCursorException("The cursor is malformed.");
+        }
+    }
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + id + (title != null ? SEPARATOR + title : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
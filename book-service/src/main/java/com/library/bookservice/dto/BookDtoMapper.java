@@ -0,0 +1,26 @@
+package com.library.bookservice.dto;
+
+import com.library.bookservice.model.Book;
+import com.library.common.dto.BookDTO;
+
+public final class BookDtoMapper {
+
+    private BookDtoMapper() {
+    }
+
+    public static BookDTO toDto(Book book) {
+        BookDTO.Stock stock = book.getStock() != null
+                ? new BookDTO.Stock(book.getStock().getQuantity(), book.getStock().getAvailableCopies())
+                : null;
+        return new BookDTO(
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getIsbn() != null ? book.getIsbn().getValue() : null,
+                book.getPublicationYear(),
+                book.getPublisher(),
+                book.getGenre(),
+                stock
+        );
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.bookservice.dto;
+
+import com.library.bookservice.model.Book;
+
+// Striped borrows and returns do not touch the books row, so the row version alone cannot tell whether the
+// logical number of available copies changed; the tag carries both.
+public final class BookETag {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    private BookETag() {
+    }
+
+    public static String of(Book book) {
+        return of(book.getVersion(), book.getStock() != null ? book.getStock().getAvailableCopies() : 0);
+    }
+
+    public static String of(long version, int availableCopies) {
+        return "\"" + version + "-" + availableCopies + "\"";
+    }
+
+    // If-None-Match compares weakly, If-Match strongly: a weak tag never satisfies If-Match.
+    public static boolean matches(String header, String etag, boolean weak) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(ANY)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.library.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetCount {
+    private String value;
+    private long books;
+    private long available;
+}
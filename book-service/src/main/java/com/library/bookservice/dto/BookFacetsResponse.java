@@ -0,0 +1,19 @@
+package com.library.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetsResponse {
+    private long totalBooks;
+    private long availableBooks;
+    private List<BookFacetCount> genres;
+    private List<BookFacetCount> publishers;
+    private List<BookFacetCount> authors;
+    private List<BookFacetCount> decades;
+}
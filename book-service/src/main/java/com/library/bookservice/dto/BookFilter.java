@@ -0,0 +1,14 @@
+package com.library.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFilter {
+    private String genre;
+    private String author;
+    private Boolean available;
+}
@@ -0,0 +1,18 @@
+package com.library.bookservice.dto;
+
+import com.library.bookservice.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPageResponse {
+    private List<Book> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,12 @@
+package com.library.bookservice.dto;
+
+import org.springframework.data.domain.Sort;
+
+public enum BookSortField {
+    ID,
+    TITLE;
+
+    public Sort toSort() {
+        return this == TITLE ? Sort.by("title", "id") : Sort.by("id");
+    }
+}
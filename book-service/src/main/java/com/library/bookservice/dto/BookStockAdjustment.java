@@ -0,0 +1,17 @@
+package com.library.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Fields are checked per item by BookStockAdjuster so one bad line does not reject the whole batch.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookStockAdjustment {
+    private UUID bookId;
+    private BookStockAdjustmentKind kind;
+    private int delta;
+}
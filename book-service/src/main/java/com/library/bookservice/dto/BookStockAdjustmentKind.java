@@ -0,0 +1,12 @@
+package com.library.bookservice.dto;
+
+public enum BookStockAdjustmentKind {
+    // Copies coming back to the shelf, within the total quantity.
+    INCREASE,
+    // Copies taken off the shelf, the total quantity stays.
+    DECREASE,
+    // New copies received: total and available both grow.
+    RECEIVE,
+    // Copies lost or damaged: total and available both shrink.
+    WRITE_OFF
+}
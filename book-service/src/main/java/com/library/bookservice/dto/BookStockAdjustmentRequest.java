@@ -0,0 +1,21 @@
+package com.library.bookservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookStockAdjustmentRequest {
+
+    public static final int MAX_ADJUSTMENTS = 10_000;
+
+    @NotNull(message = "Adjustments are required")
+    @Size(min = 1, max = MAX_ADJUSTMENTS, message = "Between 1 and " + MAX_ADJUSTMENTS + " adjustments can be applied at once")
+    private List<@NotNull BookStockAdjustment> adjustments;
+}
@@ -0,0 +1,79 @@
+package com.library.bookservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookOutboxEvent;
+import com.library.bookservice.repository.BookOutboxRepository;
+import com.library.common.event.BookChangeType;
+import com.library.common.event.BookStockChangeReason;
+import com.library.common.event.BookStockChangedEvent;
+import com.library.common.event.BookUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class BookEventOutbox {
+
+    private static final String INSERT_SQL = "INSERT INTO book_outbox (book_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final BookOutboxRepository bookOutboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stockChanged(Book book, BookStockChangeReason reason, int delta) {
+        append(book.getId(), new BookStockChangedEvent(book.getId(), reason, delta,
+                book.getStock().getQuantity(), book.getStock().getAvailableCopies(), Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookChanged(Book book, BookChangeType change) {
+        append(book.getId(), new BookUpdatedEvent(book.getId(), change, book.getTitle(), book.getAuthor(),
+                book.getIsbn() != null ? book.getIsbn().getValue() : null,
+                book.getStock() != null ? book.getStock().getQuantity() : null,
+                book.getStock() != null ? book.getStock().getAvailableCopies() : null,
+                Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookDeleted(UUID bookId) {
+        append(bookId, new BookUpdatedEvent(bookId, BookChangeType.DELETED, null, null, null, null, null, Instant.now()));
+    }
+
+    // Bulk stock changes skip the entity path: identity keys keep Hibernate from batching the inserts.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stockChanged(List<BookStockChangedEvent> events) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, INSERT_BATCH_SIZE, (ps, event) -> {
+            ps.setObject(1, event.getBookId());
+            ps.setString(2, BookStockChangedEvent.class.getName());
+            ps.setString(3, toJson(event.getBookId(), event));
+            ps.setObject(4, now);
+        });
+    }
+
+    private void append(UUID bookId, Object event) {
+        bookOutboxRepository.save(new BookOutboxEvent(null, bookId, event.getClass().getName(),
+                toJson(bookId, event), Instant.now()));
+    }
+
+    private String toJson(UUID bookId, Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName() + " for book ID " + bookId, e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.bookservice.event;
+
+import com.library.bookservice.model.BookOutboxEvent;
+
+import java.util.List;
+
+public interface BookEventPublisher {
+    // Must only return once every event is durably handed over; throwing leaves the batch in the outbox.
+    void publish(List<BookOutboxEvent> events);
+}
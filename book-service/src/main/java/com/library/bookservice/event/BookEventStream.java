@@ -0,0 +1,98 @@
+package com.library.bookservice.event;
+
+import com.library.bookservice.exception.EventStreamUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Fans book events out to server-sent event subscribers. Sends run on one dedicated thread so a slow browser
+// never holds up the outbox relay or the Kafka listener feeding this stream.
+@Component
+public class BookEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookEventStream.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-event-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+
+    public BookEventStream(@Value("${books.events.sse.timeout-millis:1800000}") long timeoutMillis,
+                           @Value("${books.events.sse.max-subscribers:1000}") int maxSubscribers) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    // An empty set subscribes to every book.
+    public SseEmitter subscribe(Set<UUID> bookIds) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new EventStreamUnavailableException("The book event stream has reached its subscriber limit. Try again later.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(bookIds));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        logger.debug("Book event subscriber added for {} books; {} subscribers in total.",
+                bookIds.isEmpty() ? "all" : bookIds.size(), subscribers.size());
+        return emitter;
+    }
+
+    public void broadcast(long eventId, UUID bookId, String eventName, String payload) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.bookIds().isEmpty() && !subscriber.bookIds().contains(bookId)) {
+                    continue;
+                }
+                try {
+                    subscriber.emitter().send(SseEmitter.event()
+                            .id(Long.toString(eventId))
+                            .name(eventName)
+                            .data(payload, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Dropping book event subscriber after failed send: {}", e.getMessage());
+                    subscribers.remove(subscriber);
+                    subscriber.emitter().completeWithError(e);
+                }
+            }
+        });
+    }
+
+    // Events are named after their class, e.g. BookStockChangedEvent.
+    public static String eventName(String eventType) {
+        return eventType.substring(eventType.lastIndexOf('.') + 1);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private record Subscriber(SseEmitter emitter, Set<UUID> bookIds) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.library.bookservice.event;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// Every replica reads the whole topic so its SSE subscribers see changes relayed by any replica.
+@Component
+@ConditionalOnProperty(name = "books.events.kafka-enabled", havingValue = "true")
+public class BookEventStreamListener {
+
+    private final BookEventStream bookEventStream;
+
+    public BookEventStreamListener(BookEventStream bookEventStream) {
+        this.bookEventStream = bookEventStream;
+    }
+
+    @KafkaListener(topics = "${books.events.topic:book-events}",
+            groupId = "book-event-stream-${books.events.instance-id}",
+            containerFactory = "bookEventStreamListenerContainerFactory")
+    public void onBookEvent(ConsumerRecord<String, String> record) {
+        String eventId = header(record, KafkaBookEventPublisher.EVENT_ID_HEADER);
+        bookEventStream.broadcast(eventId.isEmpty() ? -1 : Long.parseLong(eventId),
+                UUID.fromString(record.key()),
+                BookEventStream.eventName(header(record, AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME)),
+                record.value());
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : "";
+    }
+}
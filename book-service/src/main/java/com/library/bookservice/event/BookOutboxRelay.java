@@ -0,0 +1,67 @@
+package com.library.bookservice.event;
+
+import com.library.bookservice.model.BookOutboxEvent;
+import com.library.bookservice.repository.BookOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Drains the outbox at least once: a batch is deleted only in the transaction that published it, so a crash
+// or failed send leaves it to be sent again. Consumers deduplicate on the book-event-id header.
+@Component
+@ConditionalOnProperty(name = "books.events.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class BookOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookOutboxRelay.class);
+
+    private final BookOutboxRepository bookOutboxRepository;
+    private final BookEventPublisher bookEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public BookOutboxRelay(BookOutboxRepository bookOutboxRepository,
+                           BookEventPublisher bookEventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${books.events.outbox.batch-size:200}") int batchSize) {
+        this.bookOutboxRepository = bookOutboxRepository;
+        this.bookEventPublisher = bookEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${books.events.outbox.poll-interval-millis:500}")
+    public int relay() {
+        int relayed = 0;
+        try {
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> relayBatch());
+                relayed += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Book outbox relay stopped after {} events, retrying on the next poll: {}", relayed, e.getMessage());
+        }
+        if (relayed > 0) {
+            logger.debug("Relayed {} book events from the outbox.", relayed);
+        }
+        return relayed;
+    }
+
+    private int relayBatch() {
+        List<BookOutboxEvent> batch = bookOutboxRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        bookEventPublisher.publish(batch);
+        bookOutboxRepository.deleteAllInBatch(batch);
+        return batch.size();
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.bookservice.event;
+
+import com.library.bookservice.model.BookOutboxEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@ConditionalOnProperty(name = "books.events.kafka-enabled", havingValue = "true")
+public class KafkaBookEventPublisher implements BookEventPublisher {
+
+    public static final String EVENT_ID_HEADER = "book-event-id";
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaBookEventPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final long sendTimeoutMillis;
+
+    public KafkaBookEventPublisher(@Qualifier("bookEventKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                                   @Value("${books.events.topic:book-events}") String topic,
+                                   @Value("${books.events.send-timeout-millis:10000}") long sendTimeoutMillis) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @Override
+    public void publish(List<BookOutboxEvent> events) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (BookOutboxEvent event : events) {
+            // Keyed by book so every consumer sees one book's changes in order.
+            ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.getBookId().toString(), event.getPayload());
+            record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getEventType().getBytes(StandardCharsets.UTF_8));
+            record.headers().add(EVENT_ID_HEADER, event.getId().toString().getBytes(StandardCharsets.UTF_8));
+            sends.add(kafkaTemplate.send(record));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing book events.", e);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Publishing {} book events to topic {} failed, they stay in the outbox: {}", events.size(), topic, e.getMessage());
+            throw new IllegalStateException("Could not publish book events.", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.bookservice.event;
+
+import com.library.bookservice.model.BookOutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Without Kafka the stream only reaches subscribers of the replica whose relay drained the outbox.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "books.events.kafka-enabled", havingValue = "false", matchIfMissing = true)
+public class LocalBookEventPublisher implements BookEventPublisher {
+
+    private final BookEventStream bookEventStream;
+
+    @Override
+    public void publish(List<BookOutboxEvent> events) {
+        events.forEach(event -> bookEventStream.broadcast(event.getId(), event.getBookId(),
+                BookEventStream.eventName(event.getEventType()), event.getPayload()));
+    }
+}
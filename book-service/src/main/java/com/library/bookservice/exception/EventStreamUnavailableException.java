@@ -0,0 +1,11 @@
+package com.library.bookservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class EventStreamUnavailableException extends RuntimeException {
+    public EventStreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -6,6 +6,7 @@ import com.library.common.exception.BookNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -75,6 +76,21 @@ public class GlobalBookExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(HoldNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<ResponseDTO> handleHoldNotFoundException(
+            HoldNotFoundException ex, HttpServletRequest request) {
+
+        ResponseDTO errorResponse = new ResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND.value(),
+                "Not Found",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(AccessForbiddenException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ResponseEntity<ResponseDTO> handleAccessForbiddenException(
@@ -104,10 +120,14 @@ public class GlobalBookExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
 
-    @ExceptionHandler(DuplicateIsbnException.class)
+    @ExceptionHandler({
+            DuplicateIsbnException.class,
+            HoldStateException.class,
+            StockConflictException.class
+    })
     @ResponseStatus(HttpStatus.CONFLICT)
-    public ResponseEntity<ResponseDTO> handleDuplicateIsbnException(
-            DuplicateIsbnException ex, HttpServletRequest request) {
+    public ResponseEntity<ResponseDTO> handleConflictExceptions(
+            RuntimeException ex, HttpServletRequest request) {
 
         ResponseDTO errorResponse = new ResponseDTO(
                 LocalDateTime.now(),
@@ -119,8 +139,60 @@ public class GlobalBookExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler({
+            PreconditionFailedException.class,
+            ObjectOptimisticLockingFailureException.class
+    })
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<ResponseDTO> handlePreconditionFailedExceptions(
+            RuntimeException ex, HttpServletRequest request) {
+
+        ResponseDTO errorResponse = new ResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex instanceof PreconditionFailedException
+                        ? ex.getMessage()
+                        : "The book was modified concurrently. Fetch it again and retry with the new ETag.",
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_REQUIRED)
+    public ResponseEntity<ResponseDTO> handlePreconditionRequiredException(
+            PreconditionRequiredException ex, HttpServletRequest request) {
+
+        ResponseDTO errorResponse = new ResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_REQUIRED.value(),
+                "Precondition Required",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_REQUIRED);
+    }
+
+    @ExceptionHandler(EventStreamUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ResponseDTO> handleEventStreamUnavailableException(
+            EventStreamUnavailableException ex, HttpServletRequest request) {
+
+        ResponseDTO errorResponse = new ResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler({
             InvalidQuantityException.class,
+            InvalidCursorException.class,
+            InvalidImportFileException.class,
             OutOfStockException.class,
             StockExceedsTotalQuantityException.class
     })
@@ -0,0 +1,13 @@
+package com.library.bookservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class HoldNotFoundException extends RuntimeException {
+    public HoldNotFoundException(UUID holdId) {
+        super("Hold with ID " + holdId + " not found.");
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.bookservice.facet;
+
+import com.library.bookservice.model.Book;
+
+import java.util.function.Function;
+
+public enum BookFacet {
+    GENRE(Book::getGenre),
+    PUBLISHER(Book::getPublisher),
+    AUTHOR(Book::getAuthor),
+    DECADE(book -> book.getPublicationYear() != null ? (book.getPublicationYear() / 10 * 10) + "s" : null);
+
+    private final Function<Book, String> extractor;
+
+    BookFacet(Function<Book, String> extractor) {
+        this.extractor = extractor;
+    }
+
+    public String valueOf(Book book) {
+        String value = extractor.apply(book);
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+}
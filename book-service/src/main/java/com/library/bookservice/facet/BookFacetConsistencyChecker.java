@@ -0,0 +1,61 @@
+package com.library.bookservice.facet;
+
+import com.library.bookservice.dto.BookFacetCount;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.service.BookService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class BookFacetConsistencyChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFacetConsistencyChecker.class);
+
+    private final BookService bookService;
+    private final BookFacetIndex bookFacetIndex;
+
+    // Stock changes made by other replicas only reach this replica's facets through this recount.
+    @Scheduled(fixedDelayString = "${books.facets.consistency-check-interval-millis:900000}",
+            initialDelayString = "${books.facets.consistency-check-interval-millis:900000}")
+    public boolean verify() {
+        long start = System.currentTimeMillis();
+        BookFacetIndex recount = new BookFacetIndex();
+        bookService.streamBooks(new BookFilter(), recount::index);
+
+        int drifted = countDrift(recount.counts(), bookFacetIndex.counts());
+        if (drifted == 0) {
+            logger.debug("Book facets match a full recount of {} books ({} ms).", recount.size(), System.currentTimeMillis() - start);
+            return true;
+        }
+        bookFacetIndex.replaceWith(recount);
+        logger.warn("Book facets drifted from a full recount on {} values; replaced them with the recount of {} books.",
+                drifted, recount.size());
+        return false;
+    }
+
+    private static int countDrift(Map<BookFacet, Map<String, BookFacetCount>> expected,
+                                  Map<BookFacet, Map<String, BookFacetCount>> actual) {
+        int drifted = 0;
+        for (BookFacet facet : BookFacet.values()) {
+            Map<String, BookFacetCount> expectedValues = expected.get(facet);
+            Map<String, BookFacetCount> actualValues = actual.get(facet);
+            Set<String> values = new HashSet<>(expectedValues.keySet());
+            values.addAll(actualValues.keySet());
+            for (String value : values) {
+                if (!Objects.equals(expectedValues.get(value), actualValues.get(value))) {
+                    drifted++;
+                }
+            }
+        }
+        return drifted;
+    }
+}
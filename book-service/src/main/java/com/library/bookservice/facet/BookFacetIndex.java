@@ -0,0 +1,226 @@
+package com.library.bookservice.facet;
+
+import com.library.bookservice.dto.BookFacetCount;
+import com.library.bookservice.dto.BookFacetsResponse;
+import com.library.bookservice.model.Book;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class BookFacetIndex {
+
+    private static final Comparator<BookFacetCount> BY_BOOKS_DESC = Comparator
+            .comparingLong(BookFacetCount::getBooks).reversed()
+            .thenComparing(BookFacetCount::getValue);
+
+    private final Map<UUID, FacetedBook> books = new HashMap<>();
+    private final Map<BookFacet, Map<String, FacetCounter>> counters = new EnumMap<>(BookFacet.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long availableBooks;
+
+    public BookFacetIndex() {
+        for (BookFacet facet : BookFacet.values()) {
+            counters.put(facet, new HashMap<>());
+        }
+    }
+
+    public void index(Book book) {
+        UUID id = book.getId();
+        FacetedBook entry = FacetedBook.of(book);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(id);
+                books.put(id, entry);
+                count(entry, 1, entry.isAvailable() ? 1 : 0);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void adjustAvailableCopies(UUID id, int delta) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                FacetedBook entry = books.get(id);
+                if (entry == null) {
+                    return;
+                }
+                FacetedBook adjusted = entry.withAvailableCopies(Math.max(0, entry.availableCopies() + delta));
+                books.put(id, adjusted);
+                if (entry.isAvailable() != adjusted.isAvailable()) {
+                    count(entry, 0, adjusted.isAvailable() ? 1 : -1);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(UUID id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearUnlocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceWith(BookFacetIndex other) {
+        Map<UUID, FacetedBook> otherBooks;
+        other.lock.readLock().lock();
+        try {
+            otherBooks = new HashMap<>(other.books);
+        } finally {
+            other.lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            clearUnlocked();
+            otherBooks.forEach((id, entry) -> {
+                books.put(id, entry);
+                count(entry, 1, entry.isAvailable() ? 1 : 0);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BookFacetsResponse snapshot(int limit) {
+        lock.readLock().lock();
+        try {
+            return new BookFacetsResponse(
+                    books.size(),
+                    availableBooks,
+                    top(BookFacet.GENRE, limit),
+                    top(BookFacet.PUBLISHER, limit),
+                    top(BookFacet.AUTHOR, limit),
+                    top(BookFacet.DECADE, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<BookFacet, Map<String, BookFacetCount>> counts() {
+        lock.readLock().lock();
+        try {
+            Map<BookFacet, Map<String, BookFacetCount>> copy = new EnumMap<>(BookFacet.class);
+            counters.forEach((facet, values) -> {
+                Map<String, BookFacetCount> facetCopy = new HashMap<>();
+                values.forEach((value, counter) -> facetCopy.put(value, new BookFacetCount(value, counter.books, counter.available)));
+                copy.put(facet, facetCopy);
+            });
+            return copy;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<BookFacetCount> top(BookFacet facet, int limit) {
+        return counters.get(facet).entrySet().stream()
+                .map(entry -> new BookFacetCount(entry.getKey(), entry.getValue().books, entry.getValue().available))
+                .sorted(BY_BOOKS_DESC)
+                .limit(limit)
+                .toList();
+    }
+
+    private void removeUnlocked(UUID id) {
+        FacetedBook entry = books.remove(id);
+        if (entry != null) {
+            count(entry, -1, entry.isAvailable() ? -1 : 0);
+        }
+    }
+
+    private void clearUnlocked() {
+        books.clear();
+        counters.values().forEach(Map::clear);
+        availableBooks = 0;
+    }
+
+    private void count(FacetedBook entry, int booksDelta, int availableDelta) {
+        availableBooks += availableDelta;
+        entry.values().forEach((facet, value) -> {
+            Map<String, FacetCounter> values = counters.get(facet);
+            FacetCounter counter = values.computeIfAbsent(value, v -> new FacetCounter());
+            counter.books += booksDelta;
+            counter.available += availableDelta;
+            if (counter.books == 0) {
+                values.remove(value);
+            }
+        });
+    }
+
+    // Changes made inside a write transaction only count once it commits; a rolled back borrow must not skew the facets.
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record FacetedBook(Map<BookFacet, String> values, int availableCopies) {
+
+        static FacetedBook of(Book book) {
+            Map<BookFacet, String> values = new EnumMap<>(BookFacet.class);
+            for (BookFacet facet : BookFacet.values()) {
+                String value = facet.valueOf(book);
+                if (value != null) {
+                    values.put(facet, value);
+                }
+            }
+            int availableCopies = book.getStock() != null ? book.getStock().getAvailableCopies() : 0;
+            return new FacetedBook(values, availableCopies);
+        }
+
+        FacetedBook withAvailableCopies(int availableCopies) {
+            return new FacetedBook(values, availableCopies);
+        }
+
+        boolean isAvailable() {
+            return availableCopies > 0;
+        }
+    }
+
+    private static final class FacetCounter {
+        private long books;
+        private long available;
+    }
+}
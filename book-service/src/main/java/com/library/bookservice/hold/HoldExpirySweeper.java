@@ -0,0 +1,74 @@
+package com.library.bookservice.hold;
+
+import com.library.bookservice.model.BookHold;
+import com.library.bookservice.service.BookHoldService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class HoldExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpirySweeper.class);
+
+    private final BookHoldService bookHoldService;
+    private final HoldExpiryWheel holdExpiryWheel;
+
+    @Value("${books.holds.backstop-batch-size:500}")
+    private int backstopBatchSize;
+
+    @Value("${books.holds.backstop-grace-millis:60000}")
+    private long backstopGraceMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveHolds() {
+        List<BookHold> holds = bookHoldService.getActiveHolds();
+        holds.forEach(hold -> holdExpiryWheel.schedule(hold.getId(), hold.getExpiresAt()));
+        logger.info("Scheduled {} active book holds for expiry.", holds.size());
+    }
+
+    @Scheduled(fixedDelayString = "${books.holds.wheel.tick-millis:1000}")
+    public void sweepExpiredHolds() {
+        List<UUID> due = holdExpiryWheel.advance(Instant.now());
+        int expired = expireAll(due);
+        if (expired > 0) {
+            logger.info("Expired {} of {} due book holds and returned their copies to stock.", expired, due.size());
+        }
+    }
+
+    // Holds created by another replica that has since gone away never reach this replica's wheel.
+    @Scheduled(fixedDelayString = "${books.holds.backstop-interval-millis:300000}",
+            initialDelayString = "${books.holds.backstop-interval-millis:300000}")
+    public void sweepMissedHolds() {
+        Instant cutoff = Instant.now().minus(Duration.ofMillis(backstopGraceMillis));
+        int expired = expireAll(bookHoldService.getOverdueHoldIds(cutoff, backstopBatchSize));
+        if (expired > 0) {
+            logger.warn("Backstop sweep expired {} book holds missed by the expiry wheel.", expired);
+        }
+    }
+
+    private int expireAll(List<UUID> holdIds) {
+        int expired = 0;
+        for (UUID holdId : holdIds) {
+            try {
+                if (bookHoldService.expire(holdId)) {
+                    expired++;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to expire hold {}: {}", holdId, e.getMessage());
+            }
+        }
+        return expired;
+    }
+}
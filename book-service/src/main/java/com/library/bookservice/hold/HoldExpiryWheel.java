@@ -0,0 +1,82 @@
+package com.library.bookservice.hold;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class HoldExpiryWheel {
+
+    private final long tickMillis;
+    private final List<Queue<Entry>> buckets;
+    private final AtomicInteger pending = new AtomicInteger();
+    private long lastTick;
+
+    @Autowired
+    public HoldExpiryWheel(@Value("${books.holds.wheel.tick-millis:1000}") long tickMillis,
+                           @Value("${books.holds.wheel.size:512}") int wheelSize) {
+        this(tickMillis, wheelSize, Instant.now());
+    }
+
+    public HoldExpiryWheel(long tickMillis, int wheelSize, Instant start) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Wheel tick and size must be greater than zero.");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+        this.lastTick = start.toEpochMilli() / tickMillis;
+    }
+
+    // Shares advance's lock: placing a hold after a concurrent advance has swept past its bucket would leave it there
+    // for a whole revolution.
+    public synchronized void schedule(UUID holdId, Instant expiresAt) {
+        // Round up so a hold is never swept before it has actually expired.
+        long deadlineTick = Math.floorDiv(expiresAt.toEpochMilli() + tickMillis - 1, tickMillis);
+        long bucketTick = Math.max(deadlineTick, lastTick + 1);
+        buckets.get(bucketIndex(bucketTick)).add(new Entry(holdId, deadlineTick));
+        pending.incrementAndGet();
+    }
+
+    public synchronized List<UUID> advance(Instant now) {
+        long nowTick = now.toEpochMilli() / tickMillis;
+        List<UUID> due = new ArrayList<>();
+        if (nowTick <= lastTick) {
+            return due;
+        }
+        long firstTick = Math.max(lastTick + 1, nowTick - buckets.size() + 1);
+        for (long tick = firstTick; tick <= nowTick; tick++) {
+            buckets.get(bucketIndex(tick)).removeIf(entry -> {
+                if (entry.deadlineTick() <= nowTick) {
+                    due.add(entry.holdId());
+                    return true;
+                }
+                return false;
+            });
+        }
+        lastTick = nowTick;
+        pending.addAndGet(-due.size());
+        return due;
+    }
+
+    public int size() {
+        return pending.get();
+    }
+
+    private int bucketIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.size());
+    }
+
+    private record Entry(UUID holdId, long deadlineTick) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.library.bookservice.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.bookservice.exception.InvalidImportFileException;
+import com.library.bookservice.facet.BookFacetIndex;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.model.valueobjects.IsbnParser;
+import com.library.bookservice.search.BookSearchIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+public class BookCatalogImporter {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCatalogImporter.class);
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "title", "author", "isbn", "publicationYear", "publisher", "genre", "quantity", "availableCopies");
+
+    private static final String INSERT_SQL = "INSERT INTO books " +
+            "(id, title, author, isbn, isbn13, publication_year, publisher, genre, quantity, available_copies, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final int chunkSize;
+
+    public BookCatalogImporter(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               Validator validator,
+                               BookSearchIndex bookSearchIndex,
+                               BookFacetIndex bookFacetIndex,
+                               @Value("${books.import.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Import chunk size must be greater than zero.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookFacetIndex = bookFacetIndex;
+        this.chunkSize = chunkSize;
+    }
+
+    public BookImportReport importCatalog(InputStream input, BookImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        Set<Long> knownIsbns = loadExistingIsbns();
+        logger.info("Starting {} catalog import in chunks of {}; {} ISBNs already in the catalog.", format, chunkSize, knownIsbns.size());
+
+        ImportProgress progress = new ImportProgress();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = format == BookImportFormat.CSV ? readCsvHeader(reader) : Map.of();
+            long lineNumber = format == BookImportFormat.CSV ? 1 : 0;
+            List<RawLine> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new RawLine(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, format, columns, knownIsbns, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, format, columns, knownIsbns, progress);
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double rowsPerSecond = progress.rowsRead * 1000.0 / elapsedMillis;
+        logger.info("Catalog import finished: {} rows read, {} imported, {} rejected in {} ms ({} rows/s).",
+                progress.rowsRead, progress.imported, progress.rejected, elapsedMillis, String.format("%.1f", rowsPerSecond));
+        return new BookImportReport(progress.rowsRead, progress.imported, progress.rejected, elapsedMillis, rowsPerSecond,
+                progress.rejected > progress.errors.size(), progress.errors);
+    }
+
+    private Set<Long> loadExistingIsbns() {
+        Set<Long> isbns = new HashSet<>();
+        jdbcTemplate.query("SELECT isbn FROM books", (RowCallbackHandler) rs -> {
+            long isbn13 = IsbnParser.toIsbn13(rs.getString(1));
+            if (isbn13 != IsbnParser.INVALID) {
+                isbns.add(isbn13);
+            }
+        });
+        return isbns;
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new InvalidImportFileException("CSV import is empty; a header row is required.");
+        }
+        List<String> names = CsvLineParser.parse(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i), i);
+        }
+        List<String> missing = CSV_COLUMNS.stream()
+                .filter(column -> !column.equals("genre") && !columns.containsKey(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidImportFileException("CSV header is missing required columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private void processChunk(List<RawLine> chunk, BookImportFormat format, Map<String, Integer> columns,
+                              Set<Long> knownIsbns, ImportProgress progress) {
+        List<ParsedRow> parsed = chunk.parallelStream()
+                .map(raw -> parse(raw, format, columns))
+                .toList();
+
+        List<ParsedRow> accepted = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            progress.rowsRead++;
+            if (row.error() != null) {
+                progress.reject(row.line(), row.isbn(), row.error());
+            } else if (!knownIsbns.add(row.book().getIsbn().getIsbn13())) {
+                progress.reject(row.line(), row.isbn(), "A book with this ISBN already exists.");
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            insert(accepted, knownIsbns, progress);
+        }
+        logger.debug("Import progress: {} rows read, {} imported, {} rejected.", progress.rowsRead, progress.imported, progress.rejected);
+    }
+
+    private void insert(List<ParsedRow> rows, Set<Long> knownIsbns, ImportProgress progress) {
+        List<Book> books = rows.stream().map(ParsedRow::book).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, books, books.size(), this::bindBook));
+            progress.imported += books.size();
+            books.forEach(book -> {
+                bookSearchIndex.index(book);
+                bookFacetIndex.index(book);
+            });
+        } catch (DataAccessException batchFailure) {
+            logger.warn("Batch insert of {} books failed, retrying row by row: {}", books.size(), batchFailure.getMessage());
+            for (ParsedRow row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bindBook(ps, row.book()));
+                    progress.imported++;
+                    bookSearchIndex.index(row.book());
+                    bookFacetIndex.index(row.book());
+                } catch (DataAccessException rowFailure) {
+                    knownIsbns.remove(row.book().getIsbn().getIsbn13());
+                    progress.reject(row.line(), row.isbn(), "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void bindBook(PreparedStatement ps, Book book) throws SQLException {
+        ps.setObject(1, book.getId());
+        ps.setString(2, book.getTitle());
+        ps.setString(3, book.getAuthor());
+        ps.setString(4, book.getIsbn().getValue());
+        ps.setLong(5, book.getIsbn().getIsbn13());
+        ps.setInt(6, book.getPublicationYear());
+        ps.setString(7, book.getPublisher());
+        ps.setString(8, book.getGenre());
+        ps.setInt(9, book.getStock().getQuantity());
+        ps.setInt(10, book.getStock().getAvailableCopies());
+    }
+
+    private ParsedRow parse(RawLine raw, BookImportFormat format, Map<String, Integer> columns) {
+        Book book;
+        try {
+            book = format == BookImportFormat.CSV ? fromCsv(raw.text(), columns) : fromJson(raw.text());
+        } catch (JsonProcessingException e) {
+            return ParsedRow.failed(raw.line(), null, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return ParsedRow.failed(raw.line(), null, e.getMessage());
+        }
+        String isbn = book.getIsbn() != null ? book.getIsbn().getValue() : null;
+        if (book.getStock() == null) {
+            return ParsedRow.failed(raw.line(), isbn, "Stock is required.");
+        }
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return ParsedRow.failed(raw.line(), isbn, message);
+        }
+        book.setId(UUID.randomUUID());
+        return new ParsedRow(raw.line(), book, isbn, null);
+    }
+
+    private Book fromCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = CsvLineParser.parse(line);
+        return new Book(
+                field(fields, columns, "title"),
+                field(fields, columns, "author"),
+                new ISBN(field(fields, columns, "isbn")),
+                parseInt(field(fields, columns, "publicationYear"), "publicationYear"),
+                field(fields, columns, "publisher"),
+                field(fields, columns, "genre"),
+                new BookStock(parseInt(field(fields, columns, "quantity"), "quantity"),
+                        parseInt(field(fields, columns, "availableCopies"), "availableCopies")));
+    }
+
+    private Book fromJson(String line) throws JsonProcessingException {
+        try {
+            return objectMapper.readValue(line, Book.class);
+        } catch (JsonProcessingException e) {
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static int parseInt(String value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + ": value is required.");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + ": '" + value + "' is not a number.");
+        }
+    }
+
+    private record RawLine(long line, String text) {
+    }
+
+    private record ParsedRow(long line, Book book, String isbn, String error) {
+        static ParsedRow failed(long line, String isbn, String error) {
+            return new ParsedRow(line, null, isbn, error);
+        }
+    }
+
+    private static final class ImportProgress {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private final List<BookImportError> errors = new ArrayList<>();
+
+        private void reject(long line, String isbn, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportError(line, isbn, message));
+            }
+        }
+    }
+}
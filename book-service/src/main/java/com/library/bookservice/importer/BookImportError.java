@@ -0,0 +1,4 @@
+package com.library.bookservice.importer;
+
+public record BookImportError(long line, String isbn, String message) {
+}
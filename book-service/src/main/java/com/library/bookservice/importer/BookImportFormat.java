@@ -0,0 +1,35 @@
+package com.library.bookservice.importer;
+
+import com.library.bookservice.exception.InvalidImportFileException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum BookImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static BookImportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new InvalidImportFileException("Unsupported import file type: " + fileName + " (expected .csv, .ndjson or .jsonl)");
+    }
+
+    public static BookImportFormat fromContentType(String contentType) {
+        MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : null;
+        if (mediaType != null && mediaType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))) {
+            return CSV;
+        }
+        if (mediaType != null && mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return NDJSON;
+        }
+        throw new InvalidImportFileException("Unsupported import content type: " + contentType + " (expected text/csv or application/x-ndjson)");
+    }
+}
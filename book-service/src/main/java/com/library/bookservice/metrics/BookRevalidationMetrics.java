@@ -0,0 +1,28 @@
+package com.library.bookservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// The 304 ratio is not_modified / (not_modified + modified); unconditional reads show how many clients never revalidate.
+@Component
+public class BookRevalidationMetrics {
+
+    private static final String METRIC = "books.reads.conditional";
+
+    private final MeterRegistry meterRegistry;
+
+    public BookRevalidationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordRead(String lookup, String ifNoneMatch, boolean notModified) {
+        String outcome = notModified ? "not_modified" : ifNoneMatch != null ? "modified" : "unconditional";
+        Counter.builder(METRIC)
+                .description("Single-book reads by revalidation outcome")
+                .tag("lookup", lookup)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,5 +1,6 @@
 package com.library.bookservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.library.bookservice.model.valueobjects.BookStock;
 import com.library.bookservice.model.valueobjects.ISBN;
 import jakarta.persistence.*;
@@ -7,7 +8,6 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -16,8 +16,9 @@ import java.util.UUID;
 @Entity
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title_id", columnList = "title, id")
+})
 public class Book {
 
     @Id
@@ -34,7 +35,8 @@ public class Book {
     @Embedded
     @Valid
     @AttributeOverrides({
-            @AttributeOverride(name = "value", column = @Column(name = "isbn", unique = true, nullable = false))
+            @AttributeOverride(name = "value", column = @Column(name = "isbn", nullable = false)),
+            @AttributeOverride(name = "isbn13", column = @Column(name = "isbn13", unique = true))
     })
     private ISBN isbn;
 
@@ -55,6 +57,24 @@ public class Book {
     })
     private BookStock stock;
 
+    // Bumped on every write to the row, including the atomic borrow and return updates; exposed to clients in the ETag.
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    public Book(UUID id, String title, String author, ISBN isbn, Integer publicationYear,
+                String publisher, String genre, BookStock stock) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.publicationYear = publicationYear;
+        this.publisher = publisher;
+        this.genre = genre;
+        this.stock = stock;
+    }
+
     public Book(String title, String author, ISBN isbn, int publicationYear,
                 String publisher, String genre, BookStock stock) {
         this.id = UUID.randomUUID();
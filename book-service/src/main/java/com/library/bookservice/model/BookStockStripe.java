@@ -0,0 +1,35 @@
+package com.library.bookservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "book_stock_stripes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_book_stock_stripes_book_stripe", columnNames = {"book_id", "stripe"})
+})
+public class BookStockStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "book_id", nullable = false, updatable = false)
+    private UUID bookId;
+
+    @Column(nullable = false, updatable = false)
+    private int stripe;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(name = "available_copies", nullable = false)
+    private int availableCopies;
+}
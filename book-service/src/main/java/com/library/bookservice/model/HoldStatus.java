@@ -0,0 +1,8 @@
+package com.library.bookservice.model;
+
+public enum HoldStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -51,4 +51,24 @@ public class BookStock {
         }
         return new BookStock(this.quantity, this.availableCopies - count);
     }
-}
\ No newline at end of file
+
+    public BookStock receive(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The quantity to be received must be greater than zero.");
+        }
+        if ((long) this.quantity + count > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The number of copies is too large. Total quantity: " + this.quantity + ", received: " + count);
+        }
+        return new BookStock(this.quantity + count, this.availableCopies + count);
+    }
+
+    public BookStock writeOff(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The quantity to be written off must be greater than zero.");
+        }
+        if (this.availableCopies - count < 0) {
+            throw new IllegalStateException("Only available copies can be written off. Available: " + this.availableCopies + ", write-off attempt: " + count);
+        }
+        return new BookStock(this.quantity - count, this.availableCopies - count);
+    }
+}
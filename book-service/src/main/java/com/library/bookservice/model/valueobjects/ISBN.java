@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import jakarta.persistence.Embeddable;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -19,13 +18,21 @@ import java.util.Objects;
 public class ISBN {
 
     @NotBlank(message = "ISBN is required.")
-    @Pattern(regexp = "^(978|979)-\\d{1,5}-\\d{1,7}-\\d{1,6}-[0-9X]$",
-            message = "Incorrect ISBN format.")
+    @ValidIsbn
     @JsonValue
     private String value;
 
+    @Setter(AccessLevel.NONE)
+    private Long isbn13;
+
     public ISBN(String value) {
+        setValue(value);
+    }
+
+    public void setValue(String value) {
         this.value = value;
+        long parsed = IsbnParser.toIsbn13(value);
+        this.isbn13 = parsed != IsbnParser.INVALID ? parsed : null;
     }
 
     @JsonCreator
@@ -38,12 +45,15 @@ public class ISBN {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ISBN isbn = (ISBN) o;
+        if (isbn13 != null || isbn.isbn13 != null) {
+            return Objects.equals(isbn13, isbn.isbn13);
+        }
         return Objects.equals(value, isbn.value);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return isbn13 != null ? Objects.hash(isbn13) : Objects.hash(value);
     }
 
     @Override
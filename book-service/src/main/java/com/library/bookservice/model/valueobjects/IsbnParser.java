@@ -0,0 +1,70 @@
+package com.library.bookservice.model.valueobjects;
+
+public final class IsbnParser {
+
+    public static final long INVALID = -1L;
+
+    private static final long ISBN_10_PREFIX = 978_000_000_000L;
+
+    private IsbnParser() {
+    }
+
+    // Accepts ISBN-10 or ISBN-13 with any hyphenation and returns the ISBN-13 digits as a number, or INVALID.
+    public static long toIsbn13(CharSequence raw) {
+        if (raw == null) {
+            return INVALID;
+        }
+        long digits = 0;
+        long allButLast = 0;
+        int count = 0;
+        int isbn10Sum = 0;
+        int isbn13Sum = 0;
+        boolean checkDigitX = false;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (checkDigitX || count == 13) {
+                return INVALID;
+            }
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                digit = 10;
+                checkDigitX = true;
+            } else {
+                return INVALID;
+            }
+            allButLast = digits;
+            digits = digits * 10 + digit;
+            isbn10Sum += digit * (10 - count);
+            isbn13Sum += digit * (count % 2 == 0 ? 1 : 3);
+            count++;
+        }
+
+        if (count == 10) {
+            return isbn10Sum % 11 == 0 ? withCheckDigit(ISBN_10_PREFIX + allButLast) : INVALID;
+        }
+        if (count == 13) {
+            long prefix = digits / 10_000_000_000L;
+            return (prefix == 978 || prefix == 979) && isbn13Sum % 10 == 0 ? digits : INVALID;
+        }
+        return INVALID;
+    }
+
+    public static boolean isValid(CharSequence raw) {
+        return toIsbn13(raw) != INVALID;
+    }
+
+    private static long withCheckDigit(long first12) {
+        int sum = 0;
+        long rest = first12;
+        for (int position = 0; position < 12; position++) {
+            sum += (int) (rest % 10) * (position % 2 == 0 ? 3 : 1);
+            rest /= 10;
+        }
+        return first12 * 10 + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,35 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.model.BookHold;
+import com.library.bookservice.model.HoldStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface BookHoldRepository extends JpaRepository<BookHold, UUID> {
+
+    List<BookHold> findByStatus(HoldStatus status);
+
+    List<BookHold> findByStatusAndExpiresAtBeforeOrderByExpiresAt(HoldStatus status, Instant cutoff, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookHold h SET h.status = com.library.bookservice.model.HoldStatus.CONFIRMED, h.resolvedAt = :now " +
+            "WHERE h.id = :id AND h.status = com.library.bookservice.model.HoldStatus.HELD AND h.expiresAt > :now")
+    int confirmHeld(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookHold h SET h.status = com.library.bookservice.model.HoldStatus.RELEASED, h.resolvedAt = :now " +
+            "WHERE h.id = :id AND h.status = com.library.bookservice.model.HoldStatus.HELD")
+    int releaseHeld(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookHold h SET h.status = com.library.bookservice.model.HoldStatus.EXPIRED, h.resolvedAt = :now " +
+            "WHERE h.id = :id AND h.status = com.library.bookservice.model.HoldStatus.HELD AND h.expiresAt <= :now")
+    int expireHeld(@Param("id") UUID id, @Param("now") Instant now);
+}
@@ -0,0 +1,16 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.model.BookOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.List;
+
+public interface BookOutboxRepository extends JpaRepository<BookOutboxEvent, Long> {
+
+    // Relays on other replicas wait on these rows instead of skipping them, so events leave in id order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<BookOutboxEvent> findAllByOrderByIdAsc(Limit limit);
+}
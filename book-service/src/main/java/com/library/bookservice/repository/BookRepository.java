@@ -1,10 +1,42 @@
 package com.library.bookservice.repository;
 
 import com.library.bookservice.model.Book;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 import java.util.UUID;
 
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, JpaSpecificationExecutor<Book>, BookStockUpdates {
     Optional<Book> findByIsbnValue(String value);
-}
\ No newline at end of file
+
+    @Query("SELECT b FROM Book b WHERE b.isbn.isbn13 = :isbn13")
+    Optional<Book> findByIsbn13(@Param("isbn13") long isbn13);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.stock.availableCopies = b.stock.availableCopies - 1, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.stock.availableCopies > 0")
+    int decrementAvailableCopies(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.stock.availableCopies = b.stock.availableCopies + 1, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.stock.availableCopies < b.stock.quantity")
+    int incrementAvailableCopies(@Param("id") UUID id);
+
+    // Returns the striped counter cannot place in a stripe go to the row, as long as row and stripes together stay
+    // below the quantity.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.stock.availableCopies = b.stock.availableCopies + 1, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.stock.availableCopies + " +
+            "(SELECT COALESCE(SUM(s.availableCopies), 0) FROM BookStockStripe s WHERE s.bookId = :id) < b.stock.quantity")
+    int incrementAvailableCopiesBesideStripes(@Param("id") UUID id);
+}
@@ -0,0 +1,61 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.dto.BookCursor;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.dto.BookSortField;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookStockStripe;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matching(BookFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getGenre() != null && !filter.getGenre().isBlank()) {
+                predicates.add(cb.equal(root.get("genre"), filter.getGenre()));
+            }
+            if (filter.getAuthor() != null && !filter.getAuthor().isBlank()) {
+                predicates.add(cb.equal(root.get("author"), filter.getAuthor()));
+            }
+            if (filter.getAvailable() != null) {
+                Subquery<Integer> stripeWithCopies = query.subquery(Integer.class);
+                Root<BookStockStripe> stripe = stripeWithCopies.from(BookStockStripe.class);
+                stripeWithCopies.select(cb.literal(1)).where(
+                        cb.equal(stripe.get("bookId"), root.get("id")),
+                        cb.greaterThan(stripe.get("availableCopies"), 0));
+                predicates.add(filter.getAvailable()
+                        ? cb.or(cb.greaterThan(root.get("stock").get("availableCopies"), 0), cb.exists(stripeWithCopies))
+                        : cb.and(cb.equal(root.get("stock").get("availableCopies"), 0), cb.not(cb.exists(stripeWithCopies))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Book> after(BookCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            if (cursor.getSortField() == BookSortField.TITLE) {
+                return cb.or(
+                        cb.greaterThan(root.get("title"), cursor.getTitle()),
+                        cb.and(
+                                cb.equal(root.get("title"), cursor.getTitle()),
+                                cb.greaterThan(root.get("id"), cursor.getId())
+                        )
+                );
+            }
+            return cb.greaterThan(root.get("id"), cursor.getId());
+        };
+    }
+}
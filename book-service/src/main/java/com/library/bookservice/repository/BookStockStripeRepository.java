@@ -0,0 +1,42 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.model.BookStockStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BookStockStripeRepository extends JpaRepository<BookStockStripe, UUID> {
+
+    @Query("SELECT s.stripe FROM BookStockStripe s WHERE s.bookId = :bookId ORDER BY s.stripe")
+    List<Integer> findStripesByBookId(@Param("bookId") UUID bookId);
+
+    List<BookStockStripe> findByBookId(UUID bookId);
+
+    @Query("SELECT COALESCE(SUM(s.availableCopies), 0) FROM BookStockStripe s WHERE s.bookId = :bookId")
+    int sumAvailableCopies(@Param("bookId") UUID bookId);
+
+    @Query("SELECT s.bookId, SUM(s.availableCopies) FROM BookStockStripe s GROUP BY s.bookId")
+    List<Object[]> sumAvailableCopiesByBook();
+
+    @Query("SELECT s.bookId, SUM(s.availableCopies) FROM BookStockStripe s WHERE s.bookId IN :bookIds GROUP BY s.bookId")
+    List<Object[]> sumAvailableCopiesByBook(@Param("bookIds") Collection<UUID> bookIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookStockStripe s SET s.availableCopies = s.availableCopies - 1 " +
+            "WHERE s.bookId = :bookId AND s.stripe = :stripe AND s.availableCopies > 0")
+    int decrementAvailableCopies(@Param("bookId") UUID bookId, @Param("stripe") int stripe);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookStockStripe s SET s.availableCopies = s.availableCopies + 1 " +
+            "WHERE s.bookId = :bookId AND s.stripe = :stripe AND s.availableCopies < s.capacity")
+    int incrementAvailableCopies(@Param("bookId") UUID bookId, @Param("stripe") int stripe);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BookStockStripe s WHERE s.bookId = :bookId")
+    int deleteByBookId(@Param("bookId") UUID bookId);
+}
@@ -0,0 +1,14 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.model.Book;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// Stock updates that hand back the changed book, so a successful borrow or return needs no second read.
+public interface BookStockUpdates {
+
+    Optional<Book> decrementAvailableCopiesReturning(UUID id);
+
+    Optional<Book> incrementAvailableCopiesReturning(UUID id);
+}
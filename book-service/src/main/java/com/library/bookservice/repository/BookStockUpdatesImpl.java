@@ -0,0 +1,71 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.model.Book;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// PostgreSQL returns the changed row with UPDATE ... RETURNING and H2 with SELECT ... FROM FINAL TABLE (UPDATE ...);
+// other databases read the row after the update. Like the @Modifying updates, these flush and clear the persistence
+// context first, so a book loaded earlier in the transaction cannot stand in for the returned row.
+@RequiredArgsConstructor
+public class BookStockUpdatesImpl implements BookStockUpdates {
+
+    private static final String DECREMENT = "UPDATE books SET available_copies = available_copies - 1, version = version + 1 "
+            + "WHERE id = :id AND available_copies > 0";
+    private static final String INCREMENT = "UPDATE books SET available_copies = available_copies + 1, version = version + 1 "
+            + "WHERE id = :id AND available_copies < quantity";
+
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+    private volatile String databaseProduct;
+
+    @Override
+    public Optional<Book> decrementAvailableCopiesReturning(UUID id) {
+        return updateReturning(DECREMENT, id);
+    }
+
+    @Override
+    public Optional<Book> incrementAvailableCopiesReturning(UUID id) {
+        return updateReturning(INCREMENT, id);
+    }
+
+    private Optional<Book> updateReturning(String update, UUID id) {
+        entityManager.flush();
+        entityManager.clear();
+        String sql = switch (databaseProduct()) {
+            case "PostgreSQL" -> update + " RETURNING *";
+            case "H2" -> "SELECT * FROM FINAL TABLE (" + update + ")";
+            default -> null;
+        };
+        if (sql == null) {
+            if (entityManager.createNativeQuery(update).setParameter("id", id).executeUpdate() == 0) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(entityManager.find(Book.class, id));
+        }
+        @SuppressWarnings("unchecked")
+        List<Book> books = entityManager.createNativeQuery(sql, Book.class).setParameter("id", id).getResultList();
+        return books.stream().findFirst();
+    }
+
+    private String databaseProduct() {
+        String product = databaseProduct;
+        if (product == null) {
+            try {
+                product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            } catch (MetaDataAccessException e) {
+                product = "";
+            }
+            databaseProduct = product;
+        }
+        return product;
+    }
+}
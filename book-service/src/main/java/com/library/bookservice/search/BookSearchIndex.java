@@ -0,0 +1,233 @@
+package com.library.bookservice.search;
+
+import com.library.bookservice.model.Book;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+public class BookSearchIndex {
+
+    private static final int TITLE_WEIGHT = 4;
+    private static final int AUTHOR_WEIGHT = 3;
+    private static final int PUBLISHER_WEIGHT = 1;
+    private static final int GENRE_WEIGHT = 1;
+    private static final int MAX_PREFIX_TERMS = 200;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    private final Map<UUID, IndexedBook> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Book book) {
+        afterCommit(() -> indexNow(book));
+    }
+
+    public void remove(UUID bookId) {
+        afterCommit(() -> removeNow(bookId));
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<UUID> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String prefixTerm = terms.get(terms.size() - 1);
+        List<String> exactTerms = terms.subList(0, terms.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            Map<UUID, Double> scores = new HashMap<>();
+            for (String term : new LinkedHashSet<>(exactTerms)) {
+                accumulate(scores, postings.get(term), 1.0);
+            }
+            Map<UUID, Double> prefixScores = new HashMap<>();
+            for (Map.Entry<String, Map<UUID, Integer>> entry : prefixRange(prefixTerm).entrySet()) {
+                double boost = entry.getKey().equals(prefixTerm) ? 1.0 : 0.5;
+                Map<UUID, Double> termScores = new HashMap<>();
+                accumulate(termScores, entry.getValue(), boost);
+                termScores.forEach((id, score) -> prefixScores.merge(id, score, Math::max));
+            }
+            prefixScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+            return topIds(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        List<UUID> ids = search(prefix, limit * 2);
+        lock.readLock().lock();
+        try {
+            Set<String> titles = new LinkedHashSet<>();
+            for (UUID id : ids) {
+                IndexedBook document = documents.get(id);
+                if (document != null) {
+                    titles.add(document.title());
+                }
+                if (titles.size() == limit) {
+                    break;
+                }
+            }
+            return new ArrayList<>(titles);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('ł', 'l')
+                .replace('Ł', 'L')
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void indexNow(Book book) {
+        Map<String, Integer> termWeights = new HashMap<>();
+        addTerms(termWeights, book.getTitle(), TITLE_WEIGHT);
+        addTerms(termWeights, book.getAuthor(), AUTHOR_WEIGHT);
+        addTerms(termWeights, book.getPublisher(), PUBLISHER_WEIGHT);
+        addTerms(termWeights, book.getGenre(), GENRE_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(book.getId());
+            termWeights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(book.getId(), weight));
+            documents.put(book.getId(), new IndexedBook(book.getTitle(), termWeights.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeNow(UUID bookId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addTerms(Map<String, Integer> termWeights, String field, int weight) {
+        for (String term : tokenize(field)) {
+            termWeights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void removeUnlocked(UUID bookId) {
+        IndexedBook previous = documents.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<UUID, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(bookId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private NavigableMap<String, Map<UUID, Integer>> prefixRange(String prefix) {
+        NavigableMap<String, Map<UUID, Integer>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() <= MAX_PREFIX_TERMS) {
+            return range;
+        }
+        NavigableMap<String, Map<UUID, Integer>> limited = new TreeMap<>();
+        for (Map.Entry<String, Map<UUID, Integer>> entry : range.entrySet()) {
+            limited.put(entry.getKey(), entry.getValue());
+            if (limited.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        return limited;
+    }
+
+    private void accumulate(Map<UUID, Double> scores, Map<UUID, Integer> termPostings, double boost) {
+        if (termPostings == null || termPostings.isEmpty()) {
+            return;
+        }
+        double idf = Math.log(1.0 + (double) documents.size() / termPostings.size());
+        termPostings.forEach((id, weight) -> scores.merge(id, weight * idf * boost, Double::sum));
+    }
+
+    private List<UUID> topIds(Map<UUID, Double> scores, int limit) {
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(entry -> documents.get(entry.getKey()).title()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // A rolled back create, update or delete must leave the index as it was, so changes apply once the transaction commits.
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record IndexedBook(String title, Set<String> terms) {
+        private IndexedBook {
+            terms = new HashSet<>(terms);
+        }
+    }
+}
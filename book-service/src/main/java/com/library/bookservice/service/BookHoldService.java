@@ -0,0 +1,17 @@
+package com.library.bookservice.service;
+
+import com.library.bookservice.model.BookHold;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface BookHoldService {
+    BookHold reserve(UUID bookId, Duration ttl);
+    BookHold confirm(UUID holdId);
+    BookHold release(UUID holdId);
+    boolean expire(UUID holdId);
+    List<UUID> getOverdueHoldIds(Instant cutoff, int limit);
+    List<BookHold> getActiveHolds();
+}
@@ -0,0 +1,156 @@
+package com.library.bookservice.service;
+
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.event.BookEventOutbox;
+import com.library.bookservice.exception.HoldNotFoundException;
+import com.library.bookservice.exception.HoldStateException;
+import com.library.bookservice.exception.OutOfStockException;
+import com.library.bookservice.facet.BookFacetIndex;
+import com.library.bookservice.hold.HoldExpiryWheel;
+import com.library.bookservice.model.BookHold;
+import com.library.bookservice.model.HoldStatus;
+import com.library.bookservice.repository.BookHoldRepository;
+import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.stock.StripedStockCounter;
+import com.library.common.event.BookStockChangeReason;
+import com.library.common.exception.BookNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class BookHoldServiceImpl implements BookHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookHoldServiceImpl.class);
+
+    private final BookHoldRepository bookHoldRepository;
+    private final BookRepository bookRepository;
+    private final BookCache bookCache;
+    private final HoldExpiryWheel holdExpiryWheel;
+    private final StripedStockCounter stripedStockCounter;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookEventOutbox bookEventOutbox;
+
+    @Override
+    @Transactional
+    public BookHold reserve(UUID bookId, Duration ttl) {
+        logger.info("Attempting to reserve a copy of book ID {} for {}", bookId, ttl);
+        if (!stripedStockCounter.take(bookId)) {
+            if (!bookRepository.existsById(bookId)) {
+                logger.warn("Book not found for reservation, ID: {}", bookId);
+                throw new BookNotFoundException(bookId);
+            }
+            logger.warn("No copies available to reserve for book ID: {}", bookId);
+            throw new OutOfStockException("No copies of book with ID " + bookId + " are available for borrowing.");
+        }
+
+        Instant now = Instant.now();
+        BookHold hold = bookHoldRepository.save(new BookHold(null, bookId, HoldStatus.HELD, now, now.plus(ttl), null));
+        bookCache.evict(bookId);
+        bookFacetIndex.adjustAvailableCopies(bookId, -1);
+        recordStockChange(bookId, BookStockChangeReason.HELD, -1);
+        // A rolled back hold is harmless here: expiring an unknown hold updates no rows.
+        holdExpiryWheel.schedule(hold.getId(), hold.getExpiresAt());
+        logger.info("Hold {} placed on book ID {} until {}", hold.getId(), bookId, hold.getExpiresAt());
+        return hold;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = HoldStateException.class)
+    public BookHold confirm(UUID holdId) {
+        logger.info("Attempting to confirm hold with ID: {}", holdId);
+        if (bookHoldRepository.confirmHeld(holdId, Instant.now()) == 1) {
+            logger.info("Hold {} confirmed.", holdId);
+            return findHold(holdId);
+        }
+
+        BookHold hold = findHold(holdId);
+        if (hold.getStatus() == HoldStatus.CONFIRMED) {
+            logger.debug("Hold {} was already confirmed.", holdId);
+            return hold;
+        }
+        if (hold.getStatus() == HoldStatus.HELD) {
+            expire(holdId);
+        }
+        logger.warn("Hold {} cannot be confirmed, it has {}.", holdId, hold.getStatus() == HoldStatus.RELEASED ? "been released" : "expired");
+        throw new HoldStateException("Hold with ID " + holdId + " can no longer be confirmed because it has "
+                + (hold.getStatus() == HoldStatus.RELEASED ? "been released." : "expired."));
+    }
+
+    @Override
+    @Transactional
+    public BookHold release(UUID holdId) {
+        logger.info("Attempting to release hold with ID: {}", holdId);
+        if (bookHoldRepository.releaseHeld(holdId, Instant.now()) == 1) {
+            BookHold hold = findHold(holdId);
+            returnCopy(hold);
+            logger.info("Hold {} released and its copy returned to stock.", holdId);
+            return hold;
+        }
+
+        BookHold hold = findHold(holdId);
+        if (hold.getStatus() == HoldStatus.CONFIRMED) {
+            logger.warn("Hold {} cannot be released because it was already confirmed.", holdId);
+            throw new HoldStateException("Hold with ID " + holdId + " has already been confirmed and cannot be released.");
+        }
+        logger.debug("Hold {} was already {}.", holdId, hold.getStatus());
+        return hold;
+    }
+
+    @Override
+    @Transactional
+    public boolean expire(UUID holdId) {
+        if (bookHoldRepository.expireHeld(holdId, Instant.now()) == 0) {
+            return false;
+        }
+        returnCopy(findHold(holdId));
+        logger.debug("Hold {} expired and its copy returned to stock.", holdId);
+        return true;
+    }
+
+    @Override
+    public List<UUID> getOverdueHoldIds(Instant cutoff, int limit) {
+        return bookHoldRepository.findByStatusAndExpiresAtBeforeOrderByExpiresAt(HoldStatus.HELD, cutoff, Limit.of(limit)).stream()
+                .map(BookHold::getId)
+                .toList();
+    }
+
+    @Override
+    public List<BookHold> getActiveHolds() {
+        return bookHoldRepository.findByStatus(HoldStatus.HELD);
+    }
+
+    private BookHold findHold(UUID holdId) {
+        return bookHoldRepository.findById(holdId)
+                .orElseThrow(() -> {
+                    logger.warn("Hold not found, ID: {}", holdId);
+                    return new HoldNotFoundException(holdId);
+                });
+    }
+
+    private void returnCopy(BookHold hold) {
+        if (stripedStockCounter.giveBack(hold.getBookId())) {
+            bookFacetIndex.adjustAvailableCopies(hold.getBookId(), 1);
+            recordStockChange(hold.getBookId(), BookStockChangeReason.HOLD_RETURNED, 1);
+        } else {
+            logger.warn("Could not return the copy held by {} to book ID {}: book missing or all copies already available.", hold.getId(), hold.getBookId());
+        }
+        bookCache.evict(hold.getBookId());
+    }
+
+    private void recordStockChange(UUID bookId, BookStockChangeReason reason, int delta) {
+        bookRepository.findById(bookId).ifPresent(book -> {
+            stripedStockCounter.applyTo(book);
+            bookEventOutbox.stockChanged(book, reason, delta);
+        });
+    }
+}
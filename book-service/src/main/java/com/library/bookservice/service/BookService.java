@@ -1,18 +1,33 @@
 package com.library.bookservice.service;
 
+import com.library.bookservice.dto.BookFacetsResponse;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.dto.BookPageResponse;
+import com.library.bookservice.dto.BookSortField;
 import com.library.bookservice.model.Book;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface BookService {
     List<Book> getAllBooks();
+    BookPageResponse getBooks(BookFilter filter, BookSortField sortField, String cursor, int size);
+    void streamBooks(BookFilter filter, Consumer<Book> consumer);
     Book getBookById(UUID id);
+    Map<UUID, Book> getBooksByIds(Collection<UUID> ids);
     Book getBookByIsbn(String isbnValue);
+    List<Book> searchBooks(String query, int limit);
+    List<String> suggestTitles(String prefix, int limit);
+    BookFacetsResponse getFacets(int limit);
     Book createBook(Book book);
-    Book updateBook(UUID id, Book bookDetails);
+    Book updateBook(UUID id, Book bookDetails, String ifMatch);
     void deleteBook(UUID id);
     Book increaseBookQuantity(UUID id, int count);
     Book decreaseBookQuantity(UUID id, int count);
     Book borrowBook(UUID id);
     Book returnBook(UUID id);
+    Book enableStockStriping(UUID id, int stripes);
+    Book disableStockStriping(UUID id);
 }
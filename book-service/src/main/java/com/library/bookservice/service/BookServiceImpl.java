@@ -1,17 +1,48 @@
 package com.library.bookservice.service;
 
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.dto.BookCursor;
+import com.library.bookservice.dto.BookETag;
+import com.library.bookservice.dto.BookFacetsResponse;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.dto.BookPageResponse;
+import com.library.bookservice.dto.BookSortField;
 import com.library.common.exception.BookNotFoundException;
+import com.library.bookservice.event.BookEventOutbox;
 import com.library.bookservice.exception.*;
+import com.library.bookservice.facet.BookFacetIndex;
 import com.library.bookservice.model.Book;
 import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.model.valueobjects.IsbnParser;
 import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.repository.BookSpecifications;
+import com.library.bookservice.search.BookSearchIndex;
+import com.library.bookservice.stock.StockConflictRetrier;
+import com.library.bookservice.stock.StripedStockCounter;
+import com.library.common.event.BookChangeType;
+import com.library.common.event.BookStockChangeReason;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,58 +51,164 @@ public class BookServiceImpl implements BookService {
     private static final Logger logger = LoggerFactory.getLogger(BookServiceImpl.class);
 
     private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookCache bookCache;
+    private final StripedStockCounter stripedStockCounter;
+    private final BookFacetIndex bookFacetIndex;
+    private final StockConflictRetrier stockConflictRetrier;
+    private final BookEventOutbox bookEventOutbox;
 
     @Override
     public List<Book> getAllBooks() {
         logger.debug("Fetching all books.");
-        return bookRepository.findAll();
+        List<Book> books = bookRepository.findAll();
+        stripedStockCounter.applyTo(books);
+        return books;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookPageResponse getBooks(BookFilter filter, BookSortField sortField, String cursor, int size) {
+        logger.debug("Fetching page of {} books sorted by {} after cursor: {}", size, sortField, cursor);
+        BookCursor after = cursor != null && !cursor.isBlank() ? BookCursor.decode(cursor, sortField) : null;
+        Specification<Book> specification = BookSpecifications.matching(filter)
+                .and(BookSpecifications.after(after));
+
+        List<Book> books = bookRepository.findBy(specification, query -> query
+                .sortBy(sortField.toSort())
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = books.size() > size;
+        List<Book> content = hasNext ? new ArrayList<>(books.subList(0, size)) : books;
+        stripedStockCounter.applyTo(content);
+        String nextCursor = hasNext ? BookCursor.from(content.get(content.size() - 1), sortField).encode() : null;
+        return new BookPageResponse(content, content.size(), nextCursor, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBooks(BookFilter filter, Consumer<Book> consumer) {
+        logger.debug("Streaming books matching filter: {}", filter);
+        Map<UUID, Integer> stripedAvailability = stripedStockCounter.stripedAvailability();
+        try (Stream<Book> books = bookRepository.findBy(BookSpecifications.matching(filter), query -> query
+                .sortBy(BookSortField.ID.toSort())
+                .stream())) {
+            books.forEach(book -> {
+                stripedStockCounter.applyTo(book, stripedAvailability);
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
     }
 
     @Override
     public Book getBookById(UUID id) {
         logger.debug("Fetching book by ID: {}", id);
-        return bookRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Book not found for ID: {}", id);
-                    return new BookNotFoundException(id);
-                });
+        return bookCache.getById(id).orElseGet(() -> {
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(() -> {
+                        logger.warn("Book not found for ID: {}", id);
+                        return new BookNotFoundException(id);
+                    });
+            stripedStockCounter.applyTo(book);
+            bookCache.put(book);
+            return book;
+        });
+    }
+
+    @Override
+    public Map<UUID, Book> getBooksByIds(Collection<UUID> ids) {
+        logger.debug("Fetching {} books by ID in one query.", ids.size());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<Book> books = bookRepository.findAllById(new HashSet<>(ids));
+        stripedStockCounter.applyTo(books);
+        return books.stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
     }
 
     @Override
     public Book getBookByIsbn(String isbnValue) {
         logger.debug("Fetching book by ISBN: {}", isbnValue);
-        return bookRepository.findByIsbnValue(isbnValue)
-                .orElseThrow(() -> {
-                    logger.warn("Book not found for ISBN: {}", isbnValue);
-                    return new BookNotFoundException(isbnValue);
-                });
+        long isbn13 = IsbnParser.toIsbn13(isbnValue);
+        if (isbn13 == IsbnParser.INVALID) {
+            // Rows saved before checksums were enforced can only be found by their exact value.
+            return loadByIsbn(isbnValue, bookRepository.findByIsbnValue(isbnValue));
+        }
+        return bookCache.getByIsbn(isbn13)
+                .orElseGet(() -> loadByIsbn(isbnValue, bookRepository.findByIsbn13(isbn13)));
+    }
+
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        logger.debug("Searching books for query: {}", query);
+        List<UUID> rankedIds = bookSearchIndex.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        List<Book> books = bookRepository.findAllById(rankedIds);
+        stripedStockCounter.applyTo(books);
+        Map<UUID, Book> booksById = books.stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public List<String> suggestTitles(String prefix, int limit) {
+        logger.debug("Suggesting book titles for prefix: {}", prefix);
+        return bookSearchIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public BookFacetsResponse getFacets(int limit) {
+        logger.debug("Fetching book facets, top {} values each.", limit);
+        return bookFacetIndex.snapshot(limit);
     }
 
     @Override
+    @Transactional
     public Book createBook(Book book) {
         logger.info("Attempting to create new book with ISBN: {}", book.getIsbn().getValue());
-        if (bookRepository.findByIsbnValue(book.getIsbn().getValue()).isPresent()) {
+        if (isbnTaken(book.getIsbn())) {
             logger.warn("Duplicate ISBN detected: {}", book.getIsbn().getValue());
             throw new DuplicateIsbnException("The book with the ISBN number given already exists.");
         }
         Book createdBook = bookRepository.save(book);
+        bookSearchIndex.index(createdBook);
+        bookFacetIndex.index(createdBook);
+        bookCache.evictCatalogEntry(createdBook.getId());
+        bookEventOutbox.bookChanged(createdBook, BookChangeType.CREATED);
         logger.info("Book created successfully with ID: {}", createdBook.getId());
         return createdBook;
     }
 
     @Override
-    public Book updateBook(UUID id, Book bookDetails) {
+    @Transactional
+    public Book updateBook(UUID id, Book bookDetails, String ifMatch) {
         logger.info("Attempting to update book with ID: {}", id);
         Book existingBook = bookRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.warn("Book not found for update, ID: {}", id);
                     return new BookNotFoundException(id);
                 });
+        String currentETag = BookETag.of(existingBook.getVersion(), stripedStockCounter.availableCopies(existingBook));
+        if (!BookETag.matches(ifMatch, currentETag, false)) {
+            logger.warn("Rejected update of book ID {}: If-Match {} does not match current ETag {}", id, ifMatch, currentETag);
+            throw new PreconditionFailedException("The book was modified since it was read. Fetch it again and retry with the new ETag.");
+        }
+        // A writer that commits between this check and the flush fails the version check instead.
+        int stripes = stripedStockCounter.unstripe(id);
 
         existingBook.setTitle(bookDetails.getTitle());
         existingBook.setAuthor(bookDetails.getAuthor());
         if (bookDetails.getIsbn() != null && !existingBook.getIsbn().equals(bookDetails.getIsbn())) {
-            if (bookRepository.findByIsbnValue(bookDetails.getIsbn().getValue()).isPresent()) {
+            if (isbnTaken(bookDetails.getIsbn())) {
                 logger.warn("New ISBN already exists for another book: {}", bookDetails.getIsbn().getValue());
                 throw new DuplicateIsbnException("The new ISBN already exists in the database.");
             }
@@ -85,19 +222,29 @@ public class BookServiceImpl implements BookService {
             existingBook.setStock(new BookStock(bookDetails.getStock().getQuantity(), bookDetails.getStock().getAvailableCopies()));
         }
 
-        Book updatedBook = bookRepository.save(existingBook);
+        Book updatedBook = restripe(bookRepository.save(existingBook), stripes);
+        bookSearchIndex.index(updatedBook);
+        bookFacetIndex.index(updatedBook);
+        bookCache.evictCatalogEntry(id);
+        bookEventOutbox.bookChanged(updatedBook, BookChangeType.UPDATED);
         logger.info("Book with ID {} updated successfully.", id);
         return updatedBook;
     }
 
     @Override
+    @Transactional
     public void deleteBook(UUID id) {
         logger.info("Attempting to delete book with ID: {}", id);
         if (!bookRepository.existsById(id)) {
             logger.warn("Book not found for deletion, ID: {}", id);
             throw new BookNotFoundException(id);
         }
+        stripedStockCounter.unstripe(id);
         bookRepository.deleteById(id);
+        bookSearchIndex.remove(id);
+        bookFacetIndex.remove(id);
+        bookCache.evictCatalogEntry(id);
+        bookEventOutbox.bookDeleted(id);
         logger.info("Book with ID {} deleted successfully.", id);
     }
 
@@ -108,23 +255,29 @@ public class BookServiceImpl implements BookService {
             logger.warn("Invalid quantity to increase for book ID {}: {}", id, count);
             throw new InvalidQuantityException("The quantity to be increased must be greater than zero.");
         }
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Book not found for quantity increase, ID: {}", id);
-                    return new BookNotFoundException(id);
-                });
-        int currentAvailable = book.getStock().getAvailableCopies();
-        int totalQuantity = book.getStock().getQuantity();
-        int newAvailable = currentAvailable + count;
+        return stockConflictRetrier.execute(id, () -> {
+            int stripes = stripedStockCounter.unstripe(id);
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(() -> {
+                        logger.warn("Book not found for quantity increase, ID: {}", id);
+                        return new BookNotFoundException(id);
+                    });
+            int currentAvailable = book.getStock().getAvailableCopies();
+            int totalQuantity = book.getStock().getQuantity();
+            int newAvailable = currentAvailable + count;
 
-        if (newAvailable > totalQuantity) {
-            logger.warn("Stock exceeds total quantity for book ID {}. Current available: {}, total: {}, requested increase: {}", id, currentAvailable, totalQuantity, count);
-            throw new StockExceedsTotalQuantityException("The number of copies available must not exceed the total number.");
-        }
-        book.setStock(new BookStock(totalQuantity, newAvailable));
-        Book updatedBook = bookRepository.save(book);
-        logger.info("Quantity for book ID {} increased successfully to available: {}", id, newAvailable);
-        return updatedBook;
+            if (newAvailable > totalQuantity) {
+                logger.warn("Stock exceeds total quantity for book ID {}. Current available: {}, total: {}, requested increase: {}", id, currentAvailable, totalQuantity, count);
+                throw new StockExceedsTotalQuantityException("The number of copies available must not exceed the total number.");
+            }
+            book.setStock(new BookStock(totalQuantity, newAvailable));
+            Book updatedBook = restripe(bookRepository.save(book), stripes);
+            bookCache.evict(id);
+            bookFacetIndex.adjustAvailableCopies(id, count);
+            bookEventOutbox.stockChanged(updatedBook, BookStockChangeReason.INCREASED, count);
+            logger.info("Quantity for book ID {} increased successfully to available: {}", id, newAvailable);
+            return updatedBook;
+        });
     }
 
     @Override
@@ -134,66 +287,127 @@ public class BookServiceImpl implements BookService {
             logger.warn("Invalid quantity to decrease for book ID {}: {}", id, count);
             throw new InvalidQuantityException("The quantity to be reduced must be greater than zero.");
         }
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Book not found for quantity decrease, ID: {}", id);
-                    return new BookNotFoundException(id);
-                });
-        int currentAvailable = book.getStock().getAvailableCopies();
-        int totalQuantity = book.getStock().getQuantity();
-        int newAvailable = currentAvailable - count;
+        return stockConflictRetrier.execute(id, () -> {
+            int stripes = stripedStockCounter.unstripe(id);
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(() -> {
+                        logger.warn("Book not found for quantity decrease, ID: {}", id);
+                        return new BookNotFoundException(id);
+                    });
+            int currentAvailable = book.getStock().getAvailableCopies();
+            int totalQuantity = book.getStock().getQuantity();
+            int newAvailable = currentAvailable - count;
 
-        if (newAvailable < 0) {
-            logger.warn("Insufficient quantity available for book ID {}. Current available: {}, requested decrease: {}", id, currentAvailable, count);
-            throw new OutOfStockException("Insufficient quantity available. Cannot decrease by " + count + " as only " + currentAvailable + " are available.");
-        }
+            if (newAvailable < 0) {
+                logger.warn("Insufficient quantity available for book ID {}. Current available: {}, requested decrease: {}", id, currentAvailable, count);
+                throw new OutOfStockException("Insufficient quantity available. Cannot decrease by " + count + " as only " + currentAvailable + " are available.");
+            }
 
-        book.setStock(new BookStock(
-                totalQuantity,
-                newAvailable
-        ));
-        Book updatedBook = bookRepository.save(book);
-        logger.info("Quantity for book ID {} decreased successfully to available: {}", id, newAvailable);
-        return updatedBook;
+            book.setStock(new BookStock(
+                    totalQuantity,
+                    newAvailable
+            ));
+            Book updatedBook = restripe(bookRepository.save(book), stripes);
+            bookCache.evict(id);
+            bookFacetIndex.adjustAvailableCopies(id, -count);
+            bookEventOutbox.stockChanged(updatedBook, BookStockChangeReason.DECREASED, -count);
+            logger.info("Quantity for book ID {} decreased successfully to available: {}", id, newAvailable);
+            return updatedBook;
+        });
     }
 
     @Override
+    @Transactional
     public Book borrowBook(UUID id) {
         logger.info("Attempting to borrow book with ID: {}", id);
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Book not found for borrowing, ID: {}", id);
-                    return new BookNotFoundException(id);
-                });
-
-        if (book.getStock().getAvailableCopies() <= 0) {
+        Optional<Book> taken = stripedStockCounter.takeAndGet(id);
+        if (taken.isEmpty()) {
+            if (!bookRepository.existsById(id)) {
+                logger.warn("Book not found for borrowing, ID: {}", id);
+                throw new BookNotFoundException(id);
+            }
             logger.warn("No copies available for borrowing for book ID: {}", id);
             throw new OutOfStockException("No copies of book with ID " + id + " are available for borrowing.");
         }
 
-        book.setStock(book.getStock().decrementAvailableCopies(1));
-        Book borrowedBook = bookRepository.save(book);
+        Book borrowedBook = taken.get();
+        bookCache.evict(id);
+        bookFacetIndex.adjustAvailableCopies(id, -1);
+        bookEventOutbox.stockChanged(borrowedBook, BookStockChangeReason.BORROWED, -1);
         logger.info("Book with ID {} borrowed successfully. Available copies: {}", id, borrowedBook.getStock().getAvailableCopies());
         return borrowedBook;
     }
 
     @Override
+    @Transactional
     public Book returnBook(UUID id) {
         logger.info("Attempting to return book with ID: {}", id);
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Book not found for return, ID: {}", id);
-                    return new BookNotFoundException(id);
-                });
-
-        if (book.getStock().getAvailableCopies() >= book.getStock().getQuantity()) {
-            logger.warn("Cannot return book with ID {} as all copies are already available. Available: {}, Total: {}", id, book.getStock().getAvailableCopies(), book.getStock().getQuantity());
+        Optional<Book> givenBack = stripedStockCounter.giveBackAndGet(id);
+        if (givenBack.isEmpty()) {
+            if (!bookRepository.existsById(id)) {
+                logger.warn("Book not found for return, ID: {}", id);
+                throw new BookNotFoundException(id);
+            }
+            logger.warn("Cannot return book with ID {} as all copies are already available.", id);
             throw new InvalidQuantityException("Cannot return book with ID " + id + " as all copies are already available.");
         }
 
-        book.setStock(book.getStock().incrementAvailableCopies(1));
-        Book returnedBook = bookRepository.save(book);
+        Book returnedBook = givenBack.get();
+        bookCache.evict(id);
+        bookFacetIndex.adjustAvailableCopies(id, 1);
+        bookEventOutbox.stockChanged(returnedBook, BookStockChangeReason.RETURNED, 1);
         logger.info("Book with ID {} returned successfully. Available copies: {}", id, returnedBook.getStock().getAvailableCopies());
         return returnedBook;
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public Book enableStockStriping(UUID id, int stripes) {
+        logger.info("Attempting to split stock of book ID {} across {} stripes", id, stripes);
+        stripedStockCounter.stripe(id, stripes);
+        bookCache.evict(id);
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException(id));
+        stripedStockCounter.applyTo(book);
+        logger.info("Stock of book ID {} is now striped across {} counters.", id, stripes);
+        return book;
+    }
+
+    @Override
+    @Transactional
+    public Book disableStockStriping(UUID id) {
+        logger.info("Attempting to merge stock stripes of book ID {}", id);
+        int stripes = stripedStockCounter.unstripe(id);
+        bookCache.evict(id);
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException(id));
+        logger.info("Merged {} stock stripes of book ID {} into a single counter.", stripes, id);
+        return book;
+    }
+
+    private Book restripe(Book book, int stripes) {
+        int restripes = Math.min(stripes, book.getStock().getQuantity());
+        if (restripes < 2) {
+            return book;
+        }
+        stripedStockCounter.stripe(book.getId(), restripes);
+        stripedStockCounter.applyTo(book);
+        return book;
+    }
+
+    private Book loadByIsbn(String isbnValue, Optional<Book> found) {
+        Book book = found.orElseThrow(() -> {
+            logger.warn("Book not found for ISBN: {}", isbnValue);
+            return new BookNotFoundException(isbnValue);
+        });
+        stripedStockCounter.applyTo(book);
+        bookCache.put(book);
+        return book;
+    }
+
+    private boolean isbnTaken(ISBN isbn) {
+        return isbn.getIsbn13() != null
+                ? bookRepository.findByIsbn13(isbn.getIsbn13()).isPresent()
+                : bookRepository.findByIsbnValue(isbn.getValue()).isPresent();
+    }
+}
@@ -0,0 +1,228 @@
+package com.library.bookservice.stock;
+
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.dto.BookStockAdjustment;
+import com.library.bookservice.event.BookEventOutbox;
+import com.library.bookservice.facet.BookFacetIndex;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.common.event.BookStockChangeReason;
+import com.library.common.event.BookStockChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+// Applies a whole intake or audit in one transaction: the touched rows are locked once in id order, every item is
+// checked against the running stock in memory, and the net result per book is written with one batched update.
+@Component
+public class BookStockAdjuster {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookStockAdjuster.class);
+
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    private static final String UPDATE_SQL =
+            "UPDATE books SET quantity = ?, available_copies = ?, version = version + 1 WHERE id = ?";
+
+    // The order PostgreSQL and H2 sort uuid columns in; UUID.compareTo compares the halves as signed numbers.
+    private static final Comparator<UUID> DATABASE_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedStockCounter stripedStockCounter;
+    private final EntityManager entityManager;
+    private final BookEventOutbox bookEventOutbox;
+    private final BookCache bookCache;
+    private final BookFacetIndex bookFacetIndex;
+
+    public BookStockAdjuster(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             StripedStockCounter stripedStockCounter,
+                             EntityManager entityManager,
+                             BookEventOutbox bookEventOutbox,
+                             BookCache bookCache,
+                             BookFacetIndex bookFacetIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripedStockCounter = stripedStockCounter;
+        this.entityManager = entityManager;
+        this.bookEventOutbox = bookEventOutbox;
+        this.bookCache = bookCache;
+        this.bookFacetIndex = bookFacetIndex;
+    }
+
+    public BookStockAdjustmentReport adjust(List<BookStockAdjustment> adjustments) {
+        long start = System.nanoTime();
+        BookStockAdjustmentReport report = transactionTemplate.execute(status -> apply(adjustments));
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Stock adjustment batch finished: {} requested, {} applied, {} rejected, {} books changed in {} ms.",
+                report.getRequested(), report.getApplied(), report.getRejected(), report.getBooksChanged(), report.getElapsedMillis());
+        return report;
+    }
+
+    private BookStockAdjustmentReport apply(List<BookStockAdjustment> adjustments) {
+        List<UUID> bookIds = adjustments.stream()
+                .map(BookStockAdjustment::getBookId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted(DATABASE_ORDER)
+                .toList();
+        Map<UUID, StockRow> rows = lockStock(bookIds);
+        Map<UUID, Integer> stripes = collapseStripes(rows);
+
+        List<BookStockAdjustmentResult> results = new ArrayList<>(adjustments.size());
+        int applied = 0;
+        for (int i = 0; i < adjustments.size(); i++) {
+            BookStockAdjustmentResult result = applyTo(i, adjustments.get(i), rows);
+            results.add(result);
+            if (result.applied()) {
+                applied++;
+            }
+        }
+
+        List<StockRow> changed = rows.values().stream().filter(StockRow::changed).toList();
+        if (!changed.isEmpty()) {
+            write(changed);
+        }
+        stripes.forEach((bookId, stripeCount) -> restripe(rows.get(bookId), stripeCount));
+        return new BookStockAdjustmentReport(adjustments.size(), applied, adjustments.size() - applied, changed.size(), 0, results);
+    }
+
+    // IN lists of at most MAX_IDS_PER_QUERY ids work on every database. The ids come sorted in the database's order, so
+    // each chunk is a contiguous range and concurrent batches still lock their rows in one global order.
+    private Map<UUID, StockRow> lockStock(List<UUID> bookIds) {
+        Map<UUID, StockRow> rows = new LinkedHashMap<>();
+        for (int from = 0; from < bookIds.size(); from += StripedStockCounter.MAX_IDS_PER_QUERY) {
+            List<UUID> chunk = bookIds.subList(from, Math.min(bookIds.size(), from + StripedStockCounter.MAX_IDS_PER_QUERY));
+            jdbcTemplate.query("SELECT id, quantity, available_copies FROM books WHERE id IN ("
+                            + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY id FOR UPDATE",
+                    (RowCallbackHandler) rs -> {
+                        UUID id = rs.getObject(1, UUID.class);
+                        rows.put(id, new StockRow(id, rs.getInt(2), rs.getInt(3)));
+                    }, chunk.toArray());
+        }
+        return rows;
+    }
+
+    // Striped books are merged back into their row for the duration of the batch, like a single-book adjustment.
+    private Map<UUID, Integer> collapseStripes(Map<UUID, StockRow> rows) {
+        Map<UUID, Integer> stripes = new HashMap<>();
+        for (UUID bookId : stripedStockCounter.stripedAvailability(rows.keySet()).keySet()) {
+            StockRow row = rows.get(bookId);
+            if (row == null) {
+                continue;
+            }
+            int stripeCount = stripedStockCounter.unstripe(bookId);
+            if (stripeCount > 0) {
+                stripes.put(bookId, stripeCount);
+                row.reset(jdbcTemplate.queryForObject("SELECT available_copies FROM books WHERE id = ?", Integer.class, bookId));
+                // Restriping moves the row's copies into the stripes even when the adjustment is rejected.
+                bookCache.evict(bookId);
+            }
+        }
+        if (!stripes.isEmpty()) {
+            // The merged entities are stale once the batch update below runs.
+            entityManager.clear();
+        }
+        return stripes;
+    }
+
+    // The stock rules and their messages are BookStock's; an item that breaks one is rejected with its message.
+    private static BookStockAdjustmentResult applyTo(int index, BookStockAdjustment adjustment, Map<UUID, StockRow> rows) {
+        UUID bookId = adjustment.getBookId();
+        int delta = adjustment.getDelta();
+        if (bookId == null || adjustment.getKind() == null) {
+            return BookStockAdjustmentResult.rejected(index, bookId, adjustment.getKind(), delta, "Book ID and kind are required.");
+        }
+        StockRow row = rows.get(bookId);
+        if (row == null) {
+            return BookStockAdjustmentResult.rejected(index, bookId, adjustment.getKind(), delta, "Book with ID " + bookId + " not found.");
+        }
+
+        BookStock stock = new BookStock(row.quantity, row.available);
+        BookStock adjusted;
+        try {
+            adjusted = switch (adjustment.getKind()) {
+                case INCREASE -> stock.incrementAvailableCopies(delta);
+                case DECREASE -> stock.decrementAvailableCopies(delta);
+                case RECEIVE -> stock.receive(delta);
+                case WRITE_OFF -> stock.writeOff(delta);
+            };
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return BookStockAdjustmentResult.rejected(index, bookId, adjustment.getKind(), delta, e.getMessage());
+        }
+        row.quantity = adjusted.getQuantity();
+        row.available = adjusted.getAvailableCopies();
+        return BookStockAdjustmentResult.applied(index, bookId, adjustment.getKind(), delta, row.quantity, row.available);
+    }
+
+    private void write(List<StockRow> changed) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, changed, UPDATE_BATCH_SIZE, (ps, row) -> {
+            ps.setInt(1, row.quantity);
+            ps.setInt(2, row.available);
+            ps.setObject(3, row.id);
+        });
+        Instant now = Instant.now();
+        bookEventOutbox.stockChanged(changed.stream()
+                .map(row -> new BookStockChangedEvent(row.id, BookStockChangeReason.ADJUSTED, row.availableDelta(),
+                        row.quantity, row.available, now))
+                .toList());
+        for (StockRow row : changed) {
+            bookCache.evict(row.id);
+            bookFacetIndex.adjustAvailableCopies(row.id, row.availableDelta());
+        }
+    }
+
+    private void restripe(StockRow row, int stripeCount) {
+        int restripes = Math.min(stripeCount, row.quantity);
+        if (restripes >= 2) {
+            stripedStockCounter.stripe(row.id, restripes);
+        }
+    }
+
+    private static final class StockRow {
+        private final UUID id;
+        private final int originalQuantity;
+        private int originalAvailable;
+        private int quantity;
+        private int available;
+
+        private StockRow(UUID id, int quantity, int available) {
+            this.id = id;
+            this.originalQuantity = quantity;
+            this.originalAvailable = available;
+            this.quantity = quantity;
+            this.available = available;
+        }
+
+        private void reset(int available) {
+            this.originalAvailable = available;
+            this.available = available;
+        }
+
+        private int availableDelta() {
+            return available - originalAvailable;
+        }
+
+        private boolean changed() {
+            return quantity != originalQuantity || available != originalAvailable;
+        }
+    }
+}
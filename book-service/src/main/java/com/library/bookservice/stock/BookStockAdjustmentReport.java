@@ -0,0 +1,19 @@
+package com.library.bookservice.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookStockAdjustmentReport {
+    private int requested;
+    private int applied;
+    private int rejected;
+    private int booksChanged;
+    private long elapsedMillis;
+    private List<BookStockAdjustmentResult> results;
+}
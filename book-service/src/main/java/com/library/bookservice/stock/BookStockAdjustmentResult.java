@@ -0,0 +1,19 @@
+package com.library.bookservice.stock;
+
+import com.library.bookservice.dto.BookStockAdjustmentKind;
+
+import java.util.UUID;
+
+// Quantity and available copies are the book's stock right after this item, or null when it was rejected.
+public record BookStockAdjustmentResult(int index, UUID bookId, BookStockAdjustmentKind kind, int delta,
+                                        boolean applied, Integer quantity, Integer availableCopies, String error) {
+
+    static BookStockAdjustmentResult applied(int index, UUID bookId, BookStockAdjustmentKind kind, int delta,
+                                             int quantity, int availableCopies) {
+        return new BookStockAdjustmentResult(index, bookId, kind, delta, true, quantity, availableCopies, null);
+    }
+
+    static BookStockAdjustmentResult rejected(int index, UUID bookId, BookStockAdjustmentKind kind, int delta, String error) {
+        return new BookStockAdjustmentResult(index, bookId, kind, delta, false, null, null, error);
+    }
+}
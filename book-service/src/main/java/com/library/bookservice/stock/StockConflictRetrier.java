@@ -0,0 +1,72 @@
+package com.library.bookservice.stock;
+
+import com.library.bookservice.exception.StockConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Runs a stock mutation in its own transaction and replays it when a concurrent writer bumped the book version
+// first. Each attempt re-reads the row, so a replay sees the winner's stock before applying its own change.
+@Component
+public class StockConflictRetrier {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockConflictRetrier.class);
+
+    private static final long MAX_BACKOFF_MILLIS = 50;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRetries;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public StockConflictRetrier(PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${books.stock.max-conflict-retries:3}") int maxRetries) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRetries = maxRetries;
+        this.retries = Counter.builder("books.stock.conflict.retries")
+                .description("Stock mutations replayed after losing an optimistic version check")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("books.stock.conflict.exhausted")
+                .description("Stock mutations that still conflicted after the last retry")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(UUID bookId, Supplier<T> mutation) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> mutation.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxRetries) {
+                    exhausted.increment();
+                    logger.warn("Stock change for book ID {} still conflicted after {} retries.", bookId, maxRetries);
+                    throw new StockConflictException("The stock of book with ID " + bookId + " is being changed concurrently. Try again.");
+                }
+                retries.increment();
+                logger.debug("Stock change for book ID {} lost a concurrent update, retry {} of {}.", bookId, attempt + 1, maxRetries);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static void backOff(int attempt) {
+        // Jitter keeps writers that collided once from colliding again in lockstep.
+        long bound = Math.min(MAX_BACKOFF_MILLIS, 5L << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockConflictException("Interrupted while retrying a conflicting stock change.");
+        }
+    }
+}
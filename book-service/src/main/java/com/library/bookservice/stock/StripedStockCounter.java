@@ -0,0 +1,240 @@
+package com.library.bookservice.stock;
+
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.exception.InvalidQuantityException;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookStockStripe;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.repository.BookStockStripeRepository;
+import com.library.common.exception.BookNotFoundException;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// While a book is striped its books row holds none of the available copies; they live in the stripe rows.
+// The logical number of available copies is always the row value plus the sum of the stripes.
+@Component
+@RequiredArgsConstructor
+public class StripedStockCounter {
+
+    public static final int MAX_STRIPES = 64;
+    public static final int MAX_IDS_PER_QUERY = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedStockCounter.class);
+
+    private final BookRepository bookRepository;
+    private final BookStockStripeRepository stripeRepository;
+    private final EntityManager entityManager;
+    private final BookCache bookCache;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean take(UUID bookId) {
+        List<Integer> stripes = stripeRepository.findStripesByBookId(bookId);
+        if (takeFromStripe(bookId, stripes)) {
+            return true;
+        }
+        // Copies returned to the row by a replica that had not yet seen the stripes.
+        return bookRepository.decrementAvailableCopies(bookId) == 1;
+    }
+
+    // take for callers that answer with the book: the row comes back from the update itself, and only a copy taken
+    // from a stripe needs the book read.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Book> takeAndGet(UUID bookId) {
+        List<Integer> stripes = stripeRepository.findStripesByBookId(bookId);
+        if (takeFromStripe(bookId, stripes)) {
+            return bookRepository.findById(bookId).map(this::withStripes);
+        }
+        Optional<Book> book = bookRepository.decrementAvailableCopiesReturning(bookId);
+        return stripes.isEmpty() ? book : book.map(this::withStripes);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean giveBack(UUID bookId) {
+        List<Integer> stripes = stripeRepository.findStripesByBookId(bookId);
+        if (stripes.isEmpty()) {
+            return bookRepository.incrementAvailableCopies(bookId) == 1;
+        }
+        return giveBackToStripes(bookId, stripes);
+    }
+
+    // giveBack for callers that answer with the book; see takeAndGet.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Book> giveBackAndGet(UUID bookId) {
+        List<Integer> stripes = stripeRepository.findStripesByBookId(bookId);
+        if (stripes.isEmpty()) {
+            return bookRepository.incrementAvailableCopiesReturning(bookId);
+        }
+        if (!giveBackToStripes(bookId, stripes)) {
+            return Optional.empty();
+        }
+        return bookRepository.findById(bookId).map(this::withStripes);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stripe(UUID bookId, int stripeCount) {
+        Book book = bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new BookNotFoundException(bookId));
+        collapse(book);
+        int quantity = book.getStock().getQuantity();
+        int available = book.getStock().getAvailableCopies();
+        if (stripeCount < 2 || stripeCount > Math.min(MAX_STRIPES, quantity)) {
+            throw new InvalidQuantityException("The number of stock stripes must be between 2 and " + Math.min(MAX_STRIPES, quantity) + " for this book.");
+        }
+
+        for (int i = 0; i < stripeCount; i++) {
+            int capacity = quantity / stripeCount + (i < quantity % stripeCount ? 1 : 0);
+            int stripeAvailable = available / stripeCount + (i < available % stripeCount ? 1 : 0);
+            stripeRepository.save(new BookStockStripe(null, bookId, i, capacity, stripeAvailable));
+        }
+        book.setStock(new BookStock(quantity, 0));
+        bookRepository.saveAndFlush(book);
+        logger.info("Stock of book ID {} split across {} stripes ({} of {} copies available).", bookId, stripeCount, available, quantity);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int unstripe(UUID bookId) {
+        // Unstriped books are not locked here; writers of their row are kept apart by the version check.
+        if (stripeRepository.findStripesByBookId(bookId).isEmpty()) {
+            return 0;
+        }
+        Book book = bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new BookNotFoundException(bookId));
+        int stripeCount = collapse(book);
+        if (stripeCount > 0) {
+            bookRepository.saveAndFlush(book);
+            logger.info("Stock stripes of book ID {} merged back into a single counter.", bookId);
+        }
+        return stripeCount;
+    }
+
+    // Write paths call this inside their transaction, so the book's own stripes are read and the sum is not cached.
+    public void applyTo(Book book) {
+        if (book != null) {
+            applyTo(book, stripeRepository.sumAvailableCopies(book.getId()));
+        }
+    }
+
+    // Reads only the stripes of the listed books that are not cached yet, and caches their sums until the book is evicted.
+    public void applyTo(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        Map<UUID, Integer> stripeSums = new HashMap<>();
+        List<UUID> uncached = new ArrayList<>();
+        for (Book book : books) {
+            bookCache.getStripeSum(book.getId()).ifPresentOrElse(sum -> stripeSums.put(book.getId(), sum), () -> uncached.add(book.getId()));
+        }
+        if (!uncached.isEmpty()) {
+            Map<UUID, Integer> loaded = stripedAvailability(uncached);
+            for (UUID bookId : uncached) {
+                int sum = loaded.getOrDefault(bookId, 0);
+                bookCache.putStripeSum(bookId, sum);
+                stripeSums.put(bookId, sum);
+            }
+        }
+        books.forEach(book -> applyTo(book, stripeSums));
+    }
+
+    public int availableCopies(Book book) {
+        int available = book.getStock().getAvailableCopies() + stripeRepository.sumAvailableCopies(book.getId());
+        return Math.min(book.getStock().getQuantity(), available);
+    }
+
+    public Map<UUID, Integer> stripedAvailability() {
+        return toMap(stripeRepository.sumAvailableCopiesByBook());
+    }
+
+    // Striped books among the given ones. Beyond MAX_IDS_PER_QUERY ids one pass over the few stripe rows is cheaper.
+    public Map<UUID, Integer> stripedAvailability(Collection<UUID> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        if (bookIds.size() > MAX_IDS_PER_QUERY) {
+            return stripedAvailability();
+        }
+        return toMap(stripeRepository.sumAvailableCopiesByBook(bookIds));
+    }
+
+    public void applyTo(Book book, Map<UUID, Integer> stripedAvailability) {
+        Integer stripeAvailable = stripedAvailability.get(book.getId());
+        if (stripeAvailable != null) {
+            applyTo(book, stripeAvailable);
+        }
+    }
+
+    private void applyTo(Book book, int stripeAvailable) {
+        if (stripeAvailable == 0 || book.getStock() == null) {
+            return;
+        }
+        // The logical count must never be flushed back into the row.
+        if (entityManager.contains(book)) {
+            entityManager.detach(book);
+        }
+        BookStock stock = book.getStock();
+        book.setStock(new BookStock(stock.getQuantity(), Math.min(stock.getQuantity(), stock.getAvailableCopies() + stripeAvailable)));
+    }
+
+    private static Map<UUID, Integer> toMap(List<Object[]> sums) {
+        Map<UUID, Integer> striped = new HashMap<>();
+        for (Object[] row : sums) {
+            striped.put((UUID) row[0], ((Number) row[1]).intValue());
+        }
+        return striped;
+    }
+
+    private boolean takeFromStripe(UUID bookId, List<Integer> stripes) {
+        if (stripes.isEmpty()) {
+            return false;
+        }
+        int start = ThreadLocalRandom.current().nextInt(stripes.size());
+        for (int i = 0; i < stripes.size(); i++) {
+            if (stripeRepository.decrementAvailableCopies(bookId, stripes.get((start + i) % stripes.size())) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean giveBackToStripes(UUID bookId, List<Integer> stripes) {
+        int start = ThreadLocalRandom.current().nextInt(stripes.size());
+        for (int i = 0; i < stripes.size(); i++) {
+            if (stripeRepository.incrementAvailableCopies(bookId, stripes.get((start + i) % stripes.size())) == 1) {
+                return true;
+            }
+        }
+        // The stripes were merged back meanwhile, or every stripe is at its capacity after a quantity change.
+        return bookRepository.incrementAvailableCopiesBesideStripes(bookId) == 1;
+    }
+
+    private Book withStripes(Book book) {
+        applyTo(book);
+        return book;
+    }
+
+    private int collapse(Book book) {
+        List<BookStockStripe> stripes = stripeRepository.findByBookId(book.getId());
+        if (stripes.isEmpty()) {
+            return 0;
+        }
+        int stripeAvailable = stripes.stream().mapToInt(BookStockStripe::getAvailableCopies).sum();
+        stripeRepository.deleteByBookId(book.getId());
+        BookStock stock = book.getStock();
+        book.setStock(new BookStock(stock.getQuantity(), Math.min(stock.getQuantity(), stock.getAvailableCopies() + stripeAvailable)));
+        return stripes.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.library.bookservice.cache;
+
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BookCache Unit Tests")
+class BookCacheTest {
+
+    private ApplicationEventPublisher eventPublisher;
+    private BookCache bookCache;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(BookCache.BOOKS_BY_ID, BookCache.BOOK_IDS_BY_ISBN,
+                BookCache.STRIPE_SUMS_BY_BOOK_ID);
+        bookCache = new BookCache(cacheManager, eventPublisher);
+        book = new Book(UUID.randomUUID(), "Lalka", "Bolesław Prus", new ISBN("978-83-7327-729-8"), 1890, "Pub", "Novel", new BookStock(3, 3));
+    }
+
+    @Test
+    @DisplayName("Should return a cached book by ID and by ISBN")
+    void put_shouldCacheBookByIdAndIsbn() {
+        bookCache.put(book);
+
+        assertEquals(book, bookCache.getById(book.getId()).orElseThrow());
+        assertEquals(book, bookCache.getByIsbn(9788373277298L).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should drop both entries and broadcast the eviction")
+    void evict_shouldRemoveEntriesAndPublishEvent() {
+        bookCache.put(book);
+
+        bookCache.evict(book.getId());
+
+        assertTrue(bookCache.getById(book.getId()).isEmpty());
+        assertTrue(bookCache.getByIsbn(9788373277298L).isEmpty());
+        verify(eventPublisher, times(1)).publishEvent(new BookCacheEvictedEvent(book.getId()));
+    }
+
+    @Test
+    @DisplayName("Should mark evictions of changed catalog entries so other replicas re-index the book")
+    void evictCatalogEntry_shouldPublishCatalogChange() {
+        bookCache.put(book);
+
+        bookCache.evictCatalogEntry(book.getId());
+
+        assertTrue(bookCache.getById(book.getId()).isEmpty());
+        verify(eventPublisher, times(1)).publishEvent(new BookCacheEvictedEvent(book.getId(), true));
+    }
+
+    @Test
+    @DisplayName("Should not broadcast evictions received from other replicas")
+    void evictLocally_shouldNotPublishEvent() {
+        bookCache.put(book);
+
+        bookCache.evictLocally(book.getId());
+
+        assertTrue(bookCache.getById(book.getId()).isEmpty());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should ignore a stale ISBN mapping after the book's ISBN changed")
+    void getByIsbn_shouldIgnoreStaleMapping() {
+        bookCache.put(book);
+        Book renumbered = new Book(book.getId(), book.getTitle(), book.getAuthor(), new ISBN("978-83-7327-730-4"), 1890, "Pub", "Novel", new BookStock(3, 3));
+        bookCache.put(renumbered);
+
+        assertTrue(bookCache.getByIsbn(9788373277298L).isEmpty());
+        assertEquals(renumbered, bookCache.getByIsbn(9788373277304L).orElseThrow());
+    }
+}
@@ -0,0 +1,76 @@
+package com.library.bookservice.config;
+
+import com.library.bookservice.model.Book;
+import com.library.bookservice.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = IsbnBackfillRunnerTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("IsbnBackfillRunner Tests")
+class IsbnBackfillRunnerTest {
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should fill numeric keys for legacy rows, skipping invalid and duplicate ISBNs")
+    void backfill_shouldFillMissingKeys() {
+        UUID solaris = insertLegacyRow("978-83-08-05244-0");
+        UUID tenDigit = insertLegacyRow("83-7578-065-0");
+        UUID sameBookOtherHyphenation = insertLegacyRow("9788375780659");
+        UUID badChecksum = insertLegacyRow("978-83-08-05244-6");
+
+        IsbnBackfillRunner runner = new IsbnBackfillRunner(jdbcTemplate, transactionManager, 2);
+
+        assertEquals(2, runner.backfill());
+        assertEquals(9788308052440L, bookRepository.findByIsbn13(9788308052440L).orElseThrow().getIsbn().getIsbn13());
+        assertEquals(solaris, bookRepository.findByIsbn13(9788308052440L).orElseThrow().getId());
+        UUID keyed = bookRepository.findByIsbn13(9788375780659L).orElseThrow().getId();
+        assertTrue(keyed.equals(tenDigit) || keyed.equals(sameBookOtherHyphenation));
+        assertNull(isbn13Of(badChecksum));
+        assertEquals(0, runner.backfill());
+    }
+
+    private UUID insertLegacyRow(String isbn) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO books (id, title, author, isbn, publication_year, publisher, genre, quantity, available_copies) " +
+                "VALUES (?, 'Legacy', 'Author', ?, 1990, 'Pub', 'Genre', 1, 1)", id, isbn);
+        return id;
+    }
+
+    private Long isbn13Of(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT isbn13 FROM books WHERE id = ?", Long.class, id);
+    }
+}
@@ -2,10 +2,38 @@ package com.library.bookservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.library.bookservice.config.BookDataLoader;
+import com.library.bookservice.config.IsbnBackfillRunner;
+import com.library.bookservice.dto.BookBatchRequest;
+import com.library.bookservice.dto.BookFacetCount;
+import com.library.bookservice.dto.BookFacetsResponse;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.dto.BookPageResponse;
+import com.library.bookservice.dto.BookSortField;
+import com.library.bookservice.dto.BookStockAdjustment;
+import com.library.bookservice.dto.BookStockAdjustmentKind;
+import com.library.bookservice.dto.BookStockAdjustmentRequest;
+import com.library.bookservice.importer.BookCatalogImporter;
+import com.library.bookservice.importer.BookImportError;
+import com.library.bookservice.importer.BookImportFormat;
+import com.library.bookservice.importer.BookImportReport;
+import com.library.bookservice.metrics.BookRevalidationMetrics;
 import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookHold;
+import com.library.bookservice.model.HoldStatus;
 import com.library.bookservice.model.valueobjects.BookStock;
 import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.event.BookEventOutbox;
+import com.library.bookservice.event.BookOutboxRelay;
+import com.library.bookservice.event.BookEventStream;
+import com.library.bookservice.exception.HoldStateException;
+import com.library.bookservice.exception.PreconditionFailedException;
+import com.library.bookservice.service.BookHoldService;
 import com.library.bookservice.service.BookService;
+import com.library.bookservice.stock.BookStockAdjuster;
+import com.library.bookservice.stock.BookStockAdjustmentReport;
+import com.library.bookservice.stock.BookStockAdjustmentResult;
+import com.library.bookservice.stock.StockConflictRetrier;
+import com.library.bookservice.stock.StripedStockCounter;
 import com.library.common.exception.BookNotFoundException;
 import com.library.common.security.CustomUserDetails;
 import com.library.common.security.CustomUserDetailsService;
@@ -17,21 +45,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -46,15 +85,45 @@ class BookControllerTest {
     @MockBean
     private BookDataLoader bookDataLoader;
 
+    @MockBean
+    private IsbnBackfillRunner isbnBackfillRunner;
+
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookCatalogImporter bookCatalogImporter;
+
+    @MockBean
+    private BookHoldService bookHoldService;
+
+    @MockBean
+    private StripedStockCounter stripedStockCounter;
+
+    @MockBean
+    private StockConflictRetrier stockConflictRetrier;
+
+    @MockBean
+    private BookRevalidationMetrics bookRevalidationMetrics;
+
+    @MockBean
+    private BookEventOutbox bookEventOutbox;
+
+    @MockBean
+    private BookOutboxRelay bookOutboxRelay;
+
+    @MockBean
+    private BookStockAdjuster bookStockAdjuster;
+
     @MockBean
     private CustomUserDetailsService userDetailsService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private BookEventStream bookEventStream;
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
@@ -84,7 +153,7 @@ class BookControllerTest {
         book1.setId(book1Id);
         book1.setTitle("Test Book 1");
         book1.setAuthor("Author A");
-        book1.setIsbn(new ISBN("978-83-1234-567-8"));
+        book1.setIsbn(new ISBN("978-83-1234-567-5"));
         book1.setPublicationYear(2020);
         book1.setPublisher("Publisher X");
         book1.setGenre("Fiction");
@@ -94,7 +163,7 @@ class BookControllerTest {
         book2.setId(book2Id);
         book2.setTitle("Test Book 2");
         book2.setAuthor("Author B");
-        book2.setIsbn(new ISBN("978-83-1234-567-9"));
+        book2.setIsbn(new ISBN("978-83-1234-568-2"));
         book2.setPublicationYear(2021);
         book2.setPublisher("Publisher Y");
         book2.setGenre("Science");
@@ -141,13 +210,14 @@ class BookControllerTest {
     }
 
     @Test
-    @DisplayName("GET /api/books should return 200 OK and all books for authenticated user")
+    @DisplayName("GET /api/books?unpaged=true should return 200 OK and all books for authenticated user")
     @WithMockUser(roles = "USER")
     void getAllBooks_shouldReturnListOfBooks_forAuthenticatedUser() throws Exception {
         List<Book> books = Arrays.asList(book1, book2);
         when(bookService.getAllBooks()).thenReturn(books);
 
         mockMvc.perform(get("/api/books")
+                        .param("unpaged", "true")
                         .cookie(userJwtCookie)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -169,6 +239,341 @@ class BookControllerTest {
         verifyNoInteractions(bookService);
     }
 
+    @Test
+    @DisplayName("GET /api/books should return 200 OK and first page of books for authenticated user")
+    @WithMockUser(roles = "USER")
+    void getBooks_shouldReturnPageOfBooks_forAuthenticatedUser() throws Exception {
+        BookPageResponse page = new BookPageResponse(List.of(book1), 1, "next-cursor", true);
+        when(bookService.getBooks(any(BookFilter.class), eq(BookSortField.TITLE), isNull(), eq(1))).thenReturn(page);
+
+        mockMvc.perform(get("/api/books")
+                        .param("genre", "Fiction")
+                        .param("sort", "TITLE")
+                        .param("size", "1")
+                        .cookie(userJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(book1Id.toString())))
+                .andExpect(jsonPath("$.nextCursor", is("next-cursor")))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+
+        verify(bookService, times(1)).getBooks(new BookFilter("Fiction", null, null), BookSortField.TITLE, null, 1);
+        verify(bookService, never()).getAllBooks();
+    }
+
+    @Test
+    @DisplayName("GET /api/books should cap the requested page size")
+    @WithMockUser(roles = "USER")
+    void getBooks_shouldCapPageSize() throws Exception {
+        when(bookService.getBooks(any(BookFilter.class), any(BookSortField.class), any(), anyInt()))
+                .thenReturn(new BookPageResponse(List.of(), 0, null, false));
+
+        mockMvc.perform(get("/api/books")
+                        .param("size", "100000")
+                        .cookie(userJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        verify(bookService, times(1)).getBooks(new BookFilter(), BookSortField.ID, null, 100);
+    }
+
+    @Test
+    @DisplayName("GET /api/books with NDJSON accept header should stream books line by line")
+    @WithMockUser(roles = "USER")
+    void streamBooks_shouldWriteOneBookPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(1);
+            consumer.accept(book1);
+            consumer.accept(book2);
+            return null;
+        }).when(bookService).streamBooks(any(BookFilter.class), any());
+
+        MvcResult asyncResult = mockMvc.perform(get("/api/books")
+                        .cookie(userJwtCookie)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(book1Id, objectMapper.readValue(lines[0], Book.class).getId());
+        assertEquals(book2Id, objectMapper.readValue(lines[1], Book.class).getId());
+    }
+
+    @Test
+    @DisplayName("GET /api/books/events should stream committed changes of the followed books as server-sent events")
+    @WithMockUser(roles = "USER")
+    void streamBookEvents_shouldSendFollowedBookEvents() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(get("/api/books/events")
+                        .param("bookId", book1Id.toString())
+                        .cookie(userJwtCookie)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        bookEventStream.broadcast(41, book2Id, "BookStockChangedEvent", "{\"bookId\":\"" + book2Id + "\"}");
+        bookEventStream.broadcast(42, book1Id, "BookStockChangedEvent", "{\"bookId\":\"" + book1Id + "\",\"delta\":-1}");
+
+        String body = "";
+        for (int attempt = 0; attempt < 100 && !body.contains("id:42"); attempt++) {
+            Thread.sleep(20);
+            body = asyncResult.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("id:42\nevent:BookStockChangedEvent\ndata:{\"bookId\":\"" + book1Id + "\",\"delta\":-1}"), body);
+        assertFalse(body.contains(book2Id.toString()), body);
+        asyncResult.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    @DisplayName("GET /api/books/search should return 200 OK and ranked books for authenticated user")
+    @WithMockUser(roles = "USER")
+    void searchBooks_shouldReturnRankedBooks_forAuthenticatedUser() throws Exception {
+        when(bookService.searchBooks("author b", 20)).thenReturn(List.of(book2, book1));
+
+        mockMvc.perform(get("/api/books/search")
+                        .param("q", "author b")
+                        .cookie(userJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(book2Id.toString())));
+
+        verify(bookService, times(1)).searchBooks("author b", 20);
+    }
+
+    @Test
+    @DisplayName("GET /api/books/search/suggest should return 200 OK and title suggestions")
+    @WithMockUser(roles = "USER")
+    void suggestTitles_shouldReturnSuggestions_forAuthenticatedUser() throws Exception {
+        when(bookService.suggestTitles("test", 10)).thenReturn(List.of("Test Book 1", "Test Book 2"));
+
+        mockMvc.perform(get("/api/books/search/suggest")
+                        .param("prefix", "test")
+                        .cookie(userJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("Test Book 1")));
+    }
+
+    @Test
+    @DisplayName("GET /api/books/facets should return 200 OK and facet counts for authenticated user")
+    @WithMockUser(roles = "USER")
+    void getFacets_shouldReturnFacetCounts_forAuthenticatedUser() throws Exception {
+        BookFacetsResponse facets = new BookFacetsResponse(2, 1,
+                List.of(new BookFacetCount("Fiction", 2, 1)),
+                List.of(new BookFacetCount("Publisher A", 2, 1)),
+                List.of(new BookFacetCount("Author A", 1, 1), new BookFacetCount("Author B", 1, 0)),
+                List.of(new BookFacetCount("2020s", 2, 1)));
+        when(bookService.getFacets(1000)).thenReturn(facets);
+
+        mockMvc.perform(get("/api/books/facets")
+                        .param("limit", "5000")
+                        .cookie(userJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBooks", is(2)))
+                .andExpect(jsonPath("$.genres[0].value", is("Fiction")))
+                .andExpect(jsonPath("$.authors", hasSize(2)))
+                .andExpect(jsonPath("$.decades[0].available", is(1)));
+
+        verify(bookService, times(1)).getFacets(1000);
+    }
+
+    @Test
+    @DisplayName("POST /api/books/batch should return 200 OK and books keyed by ID for ADMIN")
+    @WithMockUser(roles = "ADMIN")
+    void getBooksByIds_shouldReturnBooksKeyedById_asAdmin() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        List<UUID> ids = List.of(book1Id, book2Id, missingId);
+        when(bookService.getBooksByIds(ids)).thenReturn(Map.of(book1Id, book1, book2Id, book2));
+
+        mockMvc.perform(post("/api/books/batch")
+                        .cookie(adminJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookBatchRequest(ids))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + book1Id + "'].title", is(book1.getTitle())))
+                .andExpect(jsonPath("$['" + book2Id + "'].isbn", is(book2.getIsbn().getValue())))
+                .andExpect(jsonPath("$['" + book2Id + "'].stock.availableCopies", is(15)))
+                .andExpect(jsonPath("$['" + missingId + "']").doesNotExist());
+
+        verify(bookService, times(1)).getBooksByIds(ids);
+    }
+
+    @Test
+    @DisplayName("POST /api/books/batch should return 403 Forbidden for ROLE_USER")
+    @WithMockUser(roles = "USER")
+    void getBooksByIds_shouldReturnForbidden_asUser() throws Exception {
+        mockMvc.perform(post("/api/books/batch")
+                        .cookie(userJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookBatchRequest(List.of(book1Id)))))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    @DisplayName("POST /api/books/batch should return 400 Bad Request when too many IDs are requested")
+    @WithMockUser(roles = "ADMIN")
+    void getBooksByIds_shouldReturnBadRequest_whenTooManyIds() throws Exception {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(BookBatchRequest.MAX_BATCH_SIZE + 1).toList();
+
+        mockMvc.perform(post("/api/books/batch")
+                        .cookie(adminJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookBatchRequest(ids))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    @DisplayName("POST /api/books/import should stream a CSV catalog and return the import report for ADMIN")
+    @WithMockUser(roles = "ADMIN")
+    void importBooks_shouldReturnReport_asAdmin() throws Exception {
+        BookImportReport report = new BookImportReport(2, 1, 1, 10, 200.0, false,
+                List.of(new BookImportError(3, "bad-isbn", "isbn.value: Incorrect ISBN format.")));
+        when(bookCatalogImporter.importCatalog(any(), eq(BookImportFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/api/books/import")
+                        .cookie(adminJwtCookie)
+                        .contentType(BookImportFormat.TEXT_CSV_VALUE)
+                        .content("title,author,isbn,publicationYear,publisher,genre,quantity,availableCopies\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[0].isbn", is("bad-isbn")));
+
+        verify(bookCatalogImporter, times(1)).importCatalog(any(), eq(BookImportFormat.CSV));
+    }
+
+    @Test
+    @DisplayName("POST /api/books/import should return 403 Forbidden for EDITOR")
+    @WithMockUser(roles = "EDITOR")
+    void importBooks_shouldReturnForbidden_asEditor() throws Exception {
+        mockMvc.perform(post("/api/books/import")
+                        .cookie(editorJwtCookie)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bookCatalogImporter);
+    }
+
+    @Test
+    @DisplayName("POST /api/books/{id}/holds should return 201 Created with a hold capped at the maximum TTL")
+    @WithMockUser(roles = "INTERNAL_SERVICE")
+    void reserveBook_shouldReturnCreatedHold() throws Exception {
+        Instant now = Instant.now();
+        UUID holdId = UUID.randomUUID();
+        when(bookHoldService.reserve(book1Id, Duration.ofSeconds(1800)))
+                .thenReturn(new BookHold(holdId, book1Id, HoldStatus.HELD, now, now.plusSeconds(1800), null));
+
+        mockMvc.perform(post("/api/books/{id}/holds", book1Id)
+                        .param("ttlSeconds", "86400"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(holdId.toString())))
+                .andExpect(jsonPath("$.bookId", is(book1Id.toString())))
+                .andExpect(jsonPath("$.status", is("HELD")));
+
+        verify(bookHoldService, times(1)).reserve(book1Id, Duration.ofSeconds(1800));
+    }
+
+    @Test
+    @DisplayName("POST /api/books/holds/{holdId}/confirm should return 409 Conflict when the hold expired")
+    @WithMockUser(roles = "INTERNAL_SERVICE")
+    void confirmHold_shouldReturnConflictWhenExpired() throws Exception {
+        UUID holdId = UUID.randomUUID();
+        when(bookHoldService.confirm(holdId)).thenThrow(new HoldStateException("Hold with ID " + holdId + " can no longer be confirmed because it has expired."));
+
+        mockMvc.perform(post("/api/books/holds/{holdId}/confirm", holdId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Hold with ID " + holdId + " can no longer be confirmed because it has expired.")));
+    }
+
+    @Test
+    @DisplayName("POST /api/books/holds/{holdId}/release should return 200 OK with the released hold")
+    @WithMockUser(roles = "INTERNAL_SERVICE")
+    void releaseHold_shouldReturnReleasedHold() throws Exception {
+        Instant now = Instant.now();
+        UUID holdId = UUID.randomUUID();
+        when(bookHoldService.release(holdId))
+                .thenReturn(new BookHold(holdId, book1Id, HoldStatus.RELEASED, now, now.plusSeconds(300), now));
+
+        mockMvc.perform(post("/api/books/holds/{holdId}/release", holdId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("RELEASED")));
+    }
+
+    @Test
+    @DisplayName("Hold endpoints should return 403 Forbidden for USER")
+    @WithMockUser(roles = "USER")
+    void holdEndpoints_shouldReturnForbidden_asUser() throws Exception {
+        UUID holdId = UUID.randomUUID();
+
+        mockMvc.perform(post("/api/books/{id}/holds", book1Id)
+                        .cookie(userJwtCookie))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/books/holds/{holdId}/confirm", holdId)
+                        .cookie(userJwtCookie))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/books/holds/{holdId}/release", holdId)
+                        .cookie(userJwtCookie))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bookHoldService);
+    }
+
+    @Test
+    @DisplayName("PUT /api/books/{id}/stock-stripes should return 200 OK with the logical stock for ADMIN")
+    @WithMockUser(roles = "ADMIN")
+    void enableStockStriping_shouldReturnBook_asAdmin() throws Exception {
+        when(bookService.enableStockStriping(book1Id, 4)).thenReturn(book1);
+
+        mockMvc.perform(put("/api/books/{id}/stock-stripes", book1Id)
+                        .cookie(adminJwtCookie)
+                        .param("count", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock.quantity", is(10)))
+                .andExpect(jsonPath("$.stock.availableCopies", is(5)));
+
+        verify(bookService, times(1)).enableStockStriping(book1Id, 4);
+    }
+
+    @Test
+    @DisplayName("PUT /api/books/{id}/stock-stripes should return 403 Forbidden for EDITOR")
+    @WithMockUser(roles = "EDITOR")
+    void enableStockStriping_shouldReturnForbidden_asEditor() throws Exception {
+        mockMvc.perform(put("/api/books/{id}/stock-stripes", book1Id)
+                        .cookie(editorJwtCookie)
+                        .param("count", "4"))
+                .andExpect(status().isForbidden());
+
+        verify(bookService, never()).enableStockStriping(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/books/{id}/stock-stripes should return 200 OK for ADMIN")
+    @WithMockUser(roles = "ADMIN")
+    void disableStockStriping_shouldReturnBook_asAdmin() throws Exception {
+        when(bookService.disableStockStriping(book1Id)).thenReturn(book1);
+
+        mockMvc.perform(delete("/api/books/{id}/stock-stripes", book1Id)
+                        .cookie(adminJwtCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(book1Id.toString())));
+    }
+
     @Test
     @DisplayName("GET /api/books/{id} should return 200 OK and book when found for ADMIN")
     @WithMockUser(roles = "ADMIN")
@@ -201,6 +606,33 @@ class BookControllerTest {
         verify(bookService, times(1)).getBookById(book1Id);
     }
 
+    @Test
+    @DisplayName("GET /api/books/{id} should return an ETag and 304 Not Modified when it still matches for INTERNAL_SERVICE")
+    @WithMockUser(roles = "INTERNAL_SERVICE")
+    void getBookById_shouldReturnNotModifiedForMatchingETag() throws Exception {
+        book1.setVersion(3);
+        String etag = "\"3-" + book1.getStock().getAvailableCopies() + "\"";
+        when(bookService.getBookById(book1Id)).thenReturn(book1);
+
+        mockMvc.perform(get("/api/books/{id}", book1Id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(get("/api/books/{id}", book1Id)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"2-1\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/books/{id}", book1Id)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-1\""))
+                .andExpect(status().isOk());
+
+        verify(bookRevalidationMetrics).recordRead("id", null, false);
+        verify(bookRevalidationMetrics).recordRead("id", "W/\"2-1\", " + etag, true);
+        verify(bookRevalidationMetrics).recordRead("id", "\"2-1\"", false);
+    }
+
     @Test
     @DisplayName("GET /api/books/{id} should return 403 Forbidden for ROLE_USER")
     @WithMockUser(roles = "USER")
@@ -265,7 +697,7 @@ class BookControllerTest {
         Book newBook = new Book();
         newBook.setTitle("New Book");
         newBook.setAuthor("New Author");
-        newBook.setIsbn(new ISBN("978-83-1234-567-8"));
+        newBook.setIsbn(new ISBN("978-83-1234-567-5"));
         newBook.setPublicationYear(2023);
         newBook.setPublisher("New Publisher");
         newBook.setStock(new BookStock(5, 5));
@@ -274,7 +706,7 @@ class BookControllerTest {
         createdBook.setId(UUID.randomUUID());
         createdBook.setTitle("New Book");
         createdBook.setAuthor("New Author");
-        createdBook.setIsbn(new ISBN("978-83-1234-567-8"));
+        createdBook.setIsbn(new ISBN("978-83-1234-567-5"));
         createdBook.setPublicationYear(2023);
         createdBook.setPublisher("New Publisher");
         createdBook.setStock(new BookStock(5, 5));
@@ -299,7 +731,7 @@ class BookControllerTest {
         Book newBook = new Book();
         newBook.setTitle("New Book");
         newBook.setAuthor("New Author");
-        newBook.setIsbn(new ISBN("978-83-1234-567-8"));
+        newBook.setIsbn(new ISBN("978-83-1234-567-5"));
         newBook.setPublicationYear(2023);
         newBook.setPublisher("New Publisher");
         newBook.setStock(new BookStock(5, 5));
@@ -334,18 +766,52 @@ class BookControllerTest {
         updatedBook.setPublicationYear(2022);
         updatedBook.setStock(new BookStock(12, 7));
 
-        when(bookService.updateBook(eq(book1Id), any(Book.class))).thenReturn(updatedBook);
+        updatedBook.setVersion(4);
+        when(bookService.updateBook(eq(book1Id), any(Book.class), eq("\"3-10\""))).thenReturn(updatedBook);
 
         mockMvc.perform(put("/api/books/{id}", book1Id)
                         .cookie(adminJwtCookie)
+                        .header(HttpHeaders.IF_MATCH, "\"3-10\"")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updatedBook)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-7\""))
                 .andExpect(jsonPath("$.id", is(book1Id.toString())))
                 .andExpect(jsonPath("$.title", is(updatedBook.getTitle())))
+                .andExpect(jsonPath("$.version", is(4)))
                 .andExpect(jsonPath("$.stock.quantity", is(updatedBook.getStock().getQuantity())));
 
-        verify(bookService, times(1)).updateBook(eq(book1Id), any(Book.class));
+        verify(bookService, times(1)).updateBook(eq(book1Id), any(Book.class), eq("\"3-10\""));
+    }
+
+    @Test
+    @DisplayName("PUT /api/books/{id} should return 428 Precondition Required without If-Match for ADMIN")
+    @WithMockUser(roles = "ADMIN")
+    void updateBook_shouldRequireIfMatch_asAdmin() throws Exception {
+        mockMvc.perform(put("/api/books/{id}", book1Id)
+                        .cookie(adminJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book1)))
+                .andExpect(status().isPreconditionRequired())
+                .andExpect(jsonPath("$.status", is(428)));
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    @DisplayName("PUT /api/books/{id} should return 412 Precondition Failed for a stale If-Match for EDITOR")
+    @WithMockUser(roles = "EDITOR")
+    void updateBook_shouldRejectStaleIfMatch_asEditor() throws Exception {
+        when(bookService.updateBook(eq(book1Id), any(Book.class), eq("\"2-10\"")))
+                .thenThrow(new PreconditionFailedException("The book was modified since it was read."));
+
+        mockMvc.perform(put("/api/books/{id}", book1Id)
+                        .cookie(editorJwtCookie)
+                        .header(HttpHeaders.IF_MATCH, "\"2-10\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book1)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message", is("The book was modified since it was read.")));
     }
 
     @Test
@@ -481,6 +947,45 @@ class BookControllerTest {
         verifyNoInteractions(bookService);
     }
 
+    @Test
+    @DisplayName("POST /api/books/stock-adjustments should report the outcome of every item for EDITOR")
+    @WithMockUser(roles = "EDITOR")
+    void adjustStock_shouldReturnPerItemResults_asEditor() throws Exception {
+        List<BookStockAdjustment> adjustments = List.of(
+                new BookStockAdjustment(book1Id, BookStockAdjustmentKind.RECEIVE, 3),
+                new BookStockAdjustment(book2Id, BookStockAdjustmentKind.INCREASE, 50));
+        when(bookStockAdjuster.adjust(adjustments)).thenReturn(new BookStockAdjustmentReport(2, 1, 1, 1, 4, List.of(
+                new BookStockAdjustmentResult(0, book1Id, BookStockAdjustmentKind.RECEIVE, 3, true, 13, 8, null),
+                new BookStockAdjustmentResult(1, book2Id, BookStockAdjustmentKind.INCREASE, 50, false, null, null,
+                        "The number of copies available must not exceed the total number."))));
+
+        mockMvc.perform(post("/api/books/stock-adjustments")
+                        .cookie(editorJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookStockAdjustmentRequest(adjustments))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.results[0].availableCopies", is(8)))
+                .andExpect(jsonPath("$.results[1].applied", is(false)))
+                .andExpect(jsonPath("$.results[1].error", is("The number of copies available must not exceed the total number.")));
+
+        verify(bookStockAdjuster).adjust(adjustments);
+    }
+
+    @Test
+    @DisplayName("POST /api/books/stock-adjustments should reject an empty batch with 400 Bad Request")
+    @WithMockUser(roles = "ADMIN")
+    void adjustStock_shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/books/stock-adjustments")
+                        .cookie(adminJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"adjustments\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookStockAdjuster);
+    }
+
     @Test
     @DisplayName("PUT /api/books/{id}/borrow should borrow book successfully for authenticated user")
     @WithMockUser(roles = "USER")
@@ -0,0 +1,137 @@
+package com.library.bookservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookOutboxEvent;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.repository.BookOutboxRepository;
+import com.library.bookservice.repository.BookRepository;
+import com.library.common.event.BookChangeType;
+import com.library.common.event.BookStockChangeReason;
+import com.library.common.event.BookStockChangedEvent;
+import com.library.common.event.BookUpdatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = BookOutboxRelayTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BookOutboxRelay Tests")
+class BookOutboxRelayTest {
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookOutboxRepository bookOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<BookOutboxEvent> published = new ArrayList<>();
+    private TransactionTemplate transactionTemplate;
+    private BookEventOutbox outbox;
+    private boolean brokerDown;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outbox = new BookEventOutbox(bookOutboxRepository, jdbcTemplate, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookOutboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should relay events in commit order in batches and remove them from the outbox")
+    void relay_shouldPublishInOrderAndDrainOutbox() throws Exception {
+        Book book = book();
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.bookChanged(book, BookChangeType.CREATED);
+            for (int i = 0; i < 4; i++) {
+                outbox.stockChanged(book, BookStockChangeReason.BORROWED, -1);
+            }
+            outbox.bookDeleted(book.getId());
+        });
+
+        int relayed = relay(2).relay();
+
+        assertEquals(6, relayed);
+        assertEquals(0, bookOutboxRepository.count());
+        assertEquals(published.stream().map(BookOutboxEvent::getId).sorted().toList(),
+                published.stream().map(BookOutboxEvent::getId).toList());
+        BookUpdatedEvent created = objectMapper.readValue(published.get(0).getPayload(), BookUpdatedEvent.class);
+        assertEquals(BookChangeType.CREATED, created.getChange());
+        assertEquals("978-83-08-05244-0", created.getIsbn());
+        BookStockChangedEvent borrowed = objectMapper.readValue(published.get(1).getPayload(), BookStockChangedEvent.class);
+        assertEquals(-1, borrowed.getDelta());
+        assertEquals(2, borrowed.getAvailableCopies());
+        assertEquals(BookStockChangedEvent.class.getName(), published.get(1).getEventType());
+        assertEquals(BookChangeType.DELETED,
+                objectMapper.readValue(published.get(5).getPayload(), BookUpdatedEvent.class).getChange());
+    }
+
+    @Test
+    @DisplayName("Should keep events of a rolled back change and of a failed publish in the outbox")
+    void relay_shouldNotLoseOrLeakEvents() {
+        Book book = book();
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            outbox.stockChanged(book, BookStockChangeReason.INCREASED, 1);
+            throw new IllegalStateException("Stock update failed");
+        }));
+        assertEquals(0, bookOutboxRepository.count());
+
+        transactionTemplate.executeWithoutResult(status -> outbox.stockChanged(book, BookStockChangeReason.RETURNED, 1));
+        brokerDown = true;
+        BookOutboxRelay relay = relay(10);
+
+        assertEquals(0, relay.relay());
+        assertEquals(1, bookOutboxRepository.count());
+
+        brokerDown = false;
+        assertEquals(1, relay.relay());
+        assertEquals(0, bookOutboxRepository.count());
+    }
+
+    private BookOutboxRelay relay(int batchSize) {
+        return new BookOutboxRelay(bookOutboxRepository, events -> {
+            if (brokerDown) {
+                throw new IllegalStateException("Broker unavailable");
+            }
+            published.addAll(events);
+        }, transactionManager, batchSize);
+    }
+
+    private static Book book() {
+        return new Book(UUID.randomUUID(), "Solaris", "Stanisław Lem", new ISBN("978-83-08-05244-0"), 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookStock(3, 2));
+    }
+}
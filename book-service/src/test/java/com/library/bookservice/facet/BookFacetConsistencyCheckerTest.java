@@ -0,0 +1,69 @@
+package com.library.bookservice.facet;
+
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookFacetConsistencyChecker Unit Tests")
+class BookFacetConsistencyCheckerTest {
+
+    @Mock
+    private BookService bookService;
+
+    private BookFacetIndex bookFacetIndex;
+    private BookFacetConsistencyChecker checker;
+    private List<Book> catalog;
+
+    @BeforeEach
+    void setUp() {
+        bookFacetIndex = new BookFacetIndex();
+        checker = new BookFacetConsistencyChecker(bookService, bookFacetIndex);
+        catalog = List.of(
+                new Book(UUID.randomUUID(), "Lalka", "Bolesław Prus", new ISBN("978-83-7779-052-6"), 1890, "Świat Książki", "Realizm", new BookStock(3, 3)),
+                new Book(UUID.randomUUID(), "Solaris", "Stanisław Lem", new ISBN("978-83-08-05244-0"), 1961, "Wydawnictwo Literackie", "Science Fiction", new BookStock(2, 0)));
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(1);
+            catalog.forEach(consumer);
+            return null;
+        }).when(bookService).streamBooks(any(BookFilter.class), any());
+    }
+
+    @Test
+    @DisplayName("Should report consistent facets when they match a full recount")
+    void verify_shouldPassWhenFacetsMatchRecount() {
+        catalog.forEach(bookFacetIndex::index);
+
+        assertTrue(checker.verify());
+        assertEquals(1, bookFacetIndex.snapshot(10).getAvailableBooks());
+    }
+
+    @Test
+    @DisplayName("Should replace drifted facets with the full recount")
+    void verify_shouldRepairDriftedFacets() {
+        catalog.forEach(bookFacetIndex::index);
+        bookFacetIndex.adjustAvailableCopies(catalog.get(1).getId(), 1);
+        bookFacetIndex.remove(catalog.get(0).getId());
+
+        assertFalse(checker.verify());
+        assertEquals(2, bookFacetIndex.size());
+        assertEquals(1, bookFacetIndex.snapshot(10).getAvailableBooks());
+        assertTrue(checker.verify());
+    }
+}
@@ -0,0 +1,139 @@
+package com.library.bookservice.facet;
+
+import com.library.bookservice.dto.BookFacetCount;
+import com.library.bookservice.dto.BookFacetsResponse;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookFacetIndex Tests")
+class BookFacetIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFacetIndexTest.class);
+
+    private BookFacetIndex index;
+    private Book witcher;
+    private Book bloodOfElves;
+    private Book solaris;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookFacetIndex();
+        witcher = book("Ostatnie Życzenie", "Andrzej Sapkowski", 1993, "SuperNOWA", "Fantasy", 5, 5);
+        bloodOfElves = book("Krew Elfów", "Andrzej Sapkowski", 1994, "SuperNOWA", "Fantasy", 2, 0);
+        solaris = book("Solaris", "Stanisław Lem", 1961, "Wydawnictwo Literackie", null, 3, 1);
+        List.of(witcher, bloodOfElves, solaris).forEach(index::index);
+    }
+
+    @Test
+    @DisplayName("Should count books and available books per facet value, most common first")
+    void snapshot_shouldCountBooksPerFacetValue() {
+        BookFacetsResponse facets = index.snapshot(10);
+
+        assertEquals(3, facets.getTotalBooks());
+        assertEquals(2, facets.getAvailableBooks());
+        assertEquals(List.of(new BookFacetCount("Fantasy", 2, 1)), facets.getGenres());
+        assertEquals(new BookFacetCount("Andrzej Sapkowski", 2, 1), facets.getAuthors().get(0));
+        assertEquals(new BookFacetCount("Stanisław Lem", 1, 1), facets.getAuthors().get(1));
+        assertEquals(List.of(new BookFacetCount("1990s", 2, 1), new BookFacetCount("1960s", 1, 1)), facets.getDecades());
+        assertEquals(1, index.snapshot(1).getPublishers().size());
+    }
+
+    @Test
+    @DisplayName("Should move a book between facet values on update and drop empty values on removal")
+    void indexAndRemove_shouldKeepCountsIncremental() {
+        solaris.setGenre("Science Fiction");
+        solaris.setAuthor("S. Lem");
+        index.index(solaris);
+        index.remove(bloodOfElves.getId());
+
+        BookFacetsResponse facets = index.snapshot(10);
+
+        assertEquals(2, facets.getTotalBooks());
+        assertEquals(List.of(new BookFacetCount("Fantasy", 1, 1), new BookFacetCount("Science Fiction", 1, 1)), facets.getGenres());
+        assertTrue(facets.getAuthors().stream().noneMatch(count -> count.getValue().equals("Stanisław Lem")));
+        assertEquals(List.of(new BookFacetCount("1960s", 1, 1), new BookFacetCount("1990s", 1, 1)), facets.getDecades());
+    }
+
+    @Test
+    @DisplayName("Should only change available counts when a book runs out of or regains copies")
+    void adjustAvailableCopies_shouldTrackAvailabilityTransitions() {
+        index.adjustAvailableCopies(solaris.getId(), -1);
+        index.adjustAvailableCopies(witcher.getId(), -1);
+        index.adjustAvailableCopies(bloodOfElves.getId(), 1);
+        index.adjustAvailableCopies(UUID.randomUUID(), 1);
+
+        BookFacetsResponse facets = index.snapshot(10);
+
+        assertEquals(2, facets.getAvailableBooks());
+        assertEquals(List.of(new BookFacetCount("Fantasy", 2, 2)), facets.getGenres());
+        assertEquals(new BookFacetCount("Stanisław Lem", 1, 0), facets.getAuthors().get(1));
+    }
+
+    @Test
+    @DisplayName("Should match a full recount after a long run of incremental changes and answer faster than one")
+    void incrementalCounts_shouldMatchFullRecount() {
+        int catalogSize = 50_000;
+        List<Book> catalog = new ArrayList<>(catalogSize);
+        BookFacetIndex live = new BookFacetIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            Book book = randomBook(i);
+            catalog.add(book);
+            live.index(book);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 20_000; i++) {
+            Book book = catalog.get(random.nextInt(catalogSize));
+            int available = book.getStock().getAvailableCopies();
+            if (random.nextBoolean() && available > 0) {
+                book.setStock(new BookStock(book.getStock().getQuantity(), available - 1));
+                live.adjustAvailableCopies(book.getId(), -1);
+            } else if (available < book.getStock().getQuantity()) {
+                book.setStock(new BookStock(book.getStock().getQuantity(), available + 1));
+                live.adjustAvailableCopies(book.getId(), 1);
+            } else {
+                book.setGenre("Genre " + random.nextInt(40));
+                live.index(book);
+            }
+        }
+
+        long recountStart = System.nanoTime();
+        BookFacetIndex recount = new BookFacetIndex();
+        catalog.forEach(recount::index);
+        BookFacetsResponse recounted = recount.snapshot(20);
+        long recountNanos = System.nanoTime() - recountStart;
+
+        long snapshotStart = System.nanoTime();
+        BookFacetsResponse incremental = live.snapshot(20);
+        long snapshotNanos = System.nanoTime() - snapshotStart;
+
+        assertEquals(recount.counts(), live.counts());
+        assertEquals(recounted, incremental);
+        logger.info("Facets over {} books: incremental snapshot {} us, full recount {} us.",
+                catalogSize, snapshotNanos / 1_000, recountNanos / 1_000);
+    }
+
+    private static Book randomBook(int i) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int quantity = 1 + random.nextInt(5);
+        return book("Book " + i, "Author " + random.nextInt(2_000), 1900 + random.nextInt(125),
+                "Publisher " + random.nextInt(200), "Genre " + random.nextInt(40), quantity, random.nextInt(quantity + 1));
+    }
+
+    private static Book book(String title, String author, int year, String publisher, String genre, int quantity, int available) {
+        return new Book(UUID.randomUUID(), title, author, new ISBN("978-83-0000-" + UUID.randomUUID().toString().substring(0, 4)),
+                year, publisher, genre, new BookStock(quantity, available));
+    }
+}
@@ -0,0 +1,118 @@
+package com.library.bookservice.hold;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HoldExpiryWheel Unit Tests")
+class HoldExpiryWheelTest {
+
+    private static final int SCHEDULERS = 4;
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00Z");
+
+    private HoldExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HoldExpiryWheel(1000, 8, START);
+    }
+
+    @Test
+    @DisplayName("Should return a hold only once its deadline has passed")
+    void advance_shouldReturnHoldOnlyAfterDeadline() {
+        UUID holdId = UUID.randomUUID();
+        wheel.schedule(holdId, START.plusMillis(2500));
+
+        assertTrue(wheel.advance(START.plusSeconds(2)).isEmpty());
+        assertEquals(List.of(holdId), wheel.advance(START.plusSeconds(3)));
+        assertTrue(wheel.advance(START.plusSeconds(4)).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should keep holds due after more than one revolution until their round comes")
+    void advance_shouldHandleDeadlinesBeyondOneRevolution() {
+        UUID soon = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+        wheel.schedule(soon, START.plusSeconds(3));
+        wheel.schedule(later, START.plusSeconds(11));
+
+        assertEquals(List.of(soon), wheel.advance(START.plusSeconds(3)));
+        assertTrue(wheel.advance(START.plusSeconds(10)).isEmpty());
+        assertEquals(List.of(later), wheel.advance(START.plusSeconds(11)));
+    }
+
+    @Test
+    @DisplayName("Should sweep everything due when the clock jumps past a whole revolution")
+    void advance_shouldSweepAllBucketsAfterLongPause() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        wheel.schedule(first, START.plusSeconds(2));
+        wheel.schedule(second, START.plusSeconds(7));
+
+        List<UUID> due = wheel.advance(START.plusSeconds(60));
+
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of(first, second)));
+    }
+
+    @Test
+    @DisplayName("Should sweep a hold scheduled with a deadline already in the past on the next tick")
+    void schedule_shouldPlaceOverdueHoldInNextBucket() {
+        wheel.advance(START.plusSeconds(5));
+        UUID overdue = UUID.randomUUID();
+        wheel.schedule(overdue, START.plusSeconds(1));
+
+        assertEquals(List.of(overdue), wheel.advance(START.plusSeconds(6)));
+    }
+
+    @Test
+    @DisplayName("Should sweep every overdue hold on the next tick while the clock is advanced concurrently")
+    void schedule_shouldNotLoseHoldsScheduledDuringAdvance() throws Exception {
+        int ticks = 50_000;
+        HoldExpiryWheel wideWheel = new HoldExpiryWheel(1, ticks + 1, START);
+        AtomicBoolean ticking = new AtomicBoolean(true);
+        AtomicInteger scheduled = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(SCHEDULERS);
+        ExecutorService schedulers = Executors.newFixedThreadPool(SCHEDULERS);
+        try {
+            for (int i = 0; i < SCHEDULERS; i++) {
+                schedulers.submit(() -> {
+                    started.countDown();
+                    while (ticking.get()) {
+                        wideWheel.schedule(UUID.randomUUID(), START);
+                        scheduled.incrementAndGet();
+                    }
+                });
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Set<UUID> swept = new HashSet<>();
+            for (int tick = 1; tick <= ticks; tick++) {
+                swept.addAll(wideWheel.advance(START.plusMillis(tick)));
+            }
+            ticking.set(false);
+            schedulers.shutdown();
+            assertTrue(schedulers.awaitTermination(10, TimeUnit.SECONDS));
+            swept.addAll(wideWheel.advance(START.plusMillis(ticks + 1)));
+
+            assertEquals(scheduled.get(), swept.size());
+            assertEquals(0, wideWheel.size());
+        } finally {
+            schedulers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.library.bookservice.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.bookservice.exception.InvalidImportFileException;
+import com.library.bookservice.facet.BookFacetIndex;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.search.BookSearchIndex;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = BookCatalogImporterTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BookCatalogImporter Tests")
+class BookCatalogImporterTest {
+
+    private static final String CSV_HEADER = "title,author,isbn,publicationYear,publisher,genre,quantity,availableCopies";
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookSearchIndex bookSearchIndex;
+    private BookFacetIndex bookFacetIndex;
+    private BookCatalogImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        bookSearchIndex = new BookSearchIndex();
+        bookFacetIndex = new BookFacetIndex();
+        importer = new BookCatalogImporter(jdbcTemplate, transactionManager, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), bookSearchIndex, bookFacetIndex, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should batch insert valid CSV rows and report invalid ones by line")
+    void importCatalog_shouldInsertValidCsvRowsAndReportErrors() throws IOException {
+        String csv = String.join("\n",
+                CSV_HEADER,
+                "Solaris,Stanisław Lem,978-83-08-05244-0,1961,Wydawnictwo Literackie,Science Fiction,2,2",
+                "\"Zbrodnia i Kara\",Fiodor Dostojewski,978-83-7327-020-6,1866,Zysk i S-ka,\"Klasyka, Psychologiczna\",4,4",
+                "Broken,Author,not-an-isbn,2000,Pub,Genre,1,1",
+                "",
+                "Diuna,Frank Herbert,978-83-7648-527-0,nineteen,Rebis,Science Fiction,6,6",
+                "Hobbit,J.R.R. Tolkien,978-83-281-2296-3,1937,Amber,Fantasy,3,7");
+
+        BookImportReport report = importer.importCatalog(stream(csv), BookImportFormat.CSV);
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertFalse(report.isErrorsTruncated());
+        assertEquals(List.of(4L, 6L, 7L), report.getErrors().stream().map(BookImportError::line).toList());
+        assertEquals("not-an-isbn", report.getErrors().get(0).isbn());
+        assertTrue(report.getErrors().get(1).message().contains("publicationYear"));
+
+        Book imported = bookRepository.findByIsbnValue("978-83-7327-020-6").orElseThrow();
+        assertEquals("Klasyka, Psychologiczna", imported.getGenre());
+        assertEquals(4, imported.getStock().getAvailableCopies());
+        assertEquals(2, bookSearchIndex.size());
+        assertEquals(2, bookFacetIndex.size());
+    }
+
+    @Test
+    @DisplayName("Should skip ISBNs already in the catalog or repeated within the file")
+    void importCatalog_shouldRejectDuplicateIsbns() throws IOException {
+        bookRepository.save(new Book("Lalka", "Bolesław Prus", new ISBN("978-83-7779-052-6"), 1890, "Świat Książki", "Realizm", new BookStock(3, 3)));
+        String ndjson = String.join("\n",
+                "{\"title\":\"Lalka\",\"author\":\"Bolesław Prus\",\"isbn\":\"978-83-7779-052-6\",\"publicationYear\":1890,\"publisher\":\"Pub\",\"stock\":{\"quantity\":1,\"availableCopies\":1}}",
+                "{\"title\":\"1984\",\"author\":\"George Orwell\",\"isbn\":\"978-83-7758-000-4\",\"publicationYear\":1949,\"publisher\":\"W.A.B.\",\"stock\":{\"quantity\":5,\"availableCopies\":5}}",
+                "{\"title\":\"1984\",\"author\":\"George Orwell\",\"isbn\":\"978-83-7758-000-4\",\"publicationYear\":1949,\"publisher\":\"W.A.B.\",\"stock\":{\"quantity\":5,\"availableCopies\":5}}",
+                "{\"title\":");
+
+        BookImportReport report = importer.importCatalog(stream(ndjson), BookImportFormat.NDJSON);
+
+        assertEquals(4, report.getRowsRead());
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(1L, 3L, 4L), report.getErrors().stream().map(BookImportError::line).toList());
+        assertTrue(report.getErrors().get(2).message().startsWith("Malformed JSON"));
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should refuse a CSV file without the required header columns")
+    void importCatalog_shouldRejectCsvWithoutHeader() {
+        String csv = "Solaris,Stanisław Lem,978-83-08-05244-0,1961,Wydawnictwo Literackie,Science Fiction,2,2";
+
+        assertThrows(InvalidImportFileException.class, () -> importer.importCatalog(stream(csv), BookImportFormat.CSV));
+        assertEquals(0, bookRepository.count());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
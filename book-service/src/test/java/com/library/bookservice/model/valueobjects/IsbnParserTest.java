@@ -0,0 +1,107 @@
+package com.library.bookservice.model.valueobjects;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IsbnParser Tests")
+class IsbnParserTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IsbnParserTest.class);
+
+    // The format check ISBN used before numeric keys were introduced.
+    private static final Pattern LEGACY_PATTERN = Pattern.compile("^(978|979)-\\d{1,5}-\\d{1,7}-\\d{1,6}-[0-9X]$");
+
+    @Test
+    @DisplayName("Should map every hyphenation of an ISBN-13 to the same key")
+    void toIsbn13_shouldIgnoreHyphenation() {
+        assertEquals(9788375780659L, IsbnParser.toIsbn13("978-83-7578-065-9"));
+        assertEquals(9788375780659L, IsbnParser.toIsbn13("9788375780659"));
+        assertEquals(9788375780659L, IsbnParser.toIsbn13("978 83 7578 065 9"));
+        assertEquals(9791032305690L, IsbnParser.toIsbn13("979-10-323-0569-0"));
+    }
+
+    @Test
+    @DisplayName("Should convert a valid ISBN-10, including an X check digit, to its ISBN-13 key")
+    void toIsbn13_shouldConvertIsbn10() {
+        assertEquals(9788375780659L, IsbnParser.toIsbn13("83-7578-065-0"));
+        assertEquals(9780306406157L, IsbnParser.toIsbn13("0-306-40615-2"));
+        assertEquals(9780804429573L, IsbnParser.toIsbn13("080442957X"));
+        assertEquals(9780804429573L, IsbnParser.toIsbn13("0-8044-2957-x"));
+    }
+
+    @Test
+    @DisplayName("Should reject wrong checksums, lengths, prefixes and characters")
+    void toIsbn13_shouldRejectInvalidInput() {
+        List<String> invalid = List.of("978-83-7578-065-0", "83-7578-065-1", "978837578065", "97883757806590",
+                "977-83-7578-065-2", "X806405158", "0-306-4061X-2", "080442957X1", "978-83-7578-065-9a", "", "123");
+        invalid.forEach(isbn -> assertEquals(IsbnParser.INVALID, IsbnParser.toIsbn13(isbn), isbn));
+        assertEquals(IsbnParser.INVALID, IsbnParser.toIsbn13(null));
+    }
+
+    @Test
+    @DisplayName("Should derive the numeric key and compare ISBNs by it")
+    void isbn_shouldCompareByNumericKey() {
+        ISBN hyphenated = new ISBN("978-83-7578-065-9");
+        ISBN plain = ISBN.fromString("9788375780659");
+
+        assertEquals(9788375780659L, hyphenated.getIsbn13());
+        assertEquals(hyphenated, plain);
+        assertEquals(hyphenated.hashCode(), plain.hashCode());
+        assertNull(new ISBN("123").getIsbn13());
+        assertNotEquals(new ISBN("123"), new ISBN("124"));
+    }
+
+    @Test
+    @DisplayName("Should time the parser against the legacy regex on the same inputs")
+    void toIsbn13_comparedWithLegacyRegex() {
+        List<String> samples = List.of("978-83-7578-065-9", "978-83-04-04285-8", "978-83-08-05244-0",
+                "978-83-7327-020-6", "978-83-281-2296-3", "not-an-isbn");
+        int iterations = 200_000;
+        long sink = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            sink += runRegex(samples, iterations) + runParser(samples, iterations);
+        }
+
+        long regexStart = System.nanoTime();
+        sink += runRegex(samples, iterations);
+        long regexNanos = System.nanoTime() - regexStart;
+        long parserStart = System.nanoTime();
+        sink += runParser(samples, iterations);
+        long parserNanos = System.nanoTime() - parserStart;
+
+        assertTrue(sink > 0);
+        logger.info("Validated {} ISBNs: legacy regex {} ms, parser {} ms.", iterations * samples.size(),
+                regexNanos / 1_000_000, parserNanos / 1_000_000);
+    }
+
+    private static long runRegex(List<String> samples, int iterations) {
+        long matches = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String sample : samples) {
+                if (LEGACY_PATTERN.matcher(sample).matches()) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static long runParser(List<String> samples, int iterations) {
+        long valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String sample : samples) {
+                if (IsbnParser.toIsbn13(sample) != IsbnParser.INVALID) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,137 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Borrows one contended book from parallel threads through the former read-modify-write path and through the
+// conditional UPDATE, and compares their rates. Runs with mvn -Pbenchmarks test; the run size can be changed with
+// -Dbooks.benchmark.borrows.
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = BookBorrowThroughputBenchmarkTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Borrow throughput benchmark")
+class BookBorrowThroughputBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookBorrowThroughputBenchmarkTest.class);
+
+    private static final int THREAD_POOL_SIZE = 32;
+    private static final int BORROWS = Integer.getInteger("books.benchmark.borrows", 3_000);
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Conditional borrows should outpace read-modify-write borrows of one contended book")
+    void decrementAvailableCopies_throughputComparedWithReadModifyWrite() throws Exception {
+        Book book = bookRepository.save(new Book("Contended Book", "Author", new ISBN("978-83-0000-000-5"), 2024,
+                "Publisher", "Genre", new BookStock(2 * BORROWS, 2 * BORROWS)));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(THREAD_POOL_SIZE, () -> tx.execute(status -> bookRepository.decrementAvailableCopies(book.getId())));
+
+        long start = System.nanoTime();
+        assertEquals(BORROWS / 2, runConcurrently(BORROWS / 2, () -> borrowByReadModifyWrite(tx, book.getId(), conflicts)));
+        long readModifyWriteNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        assertEquals(BORROWS, runConcurrently(BORROWS,
+                () -> tx.execute(status -> bookRepository.decrementAvailableCopies(book.getId()))));
+        long conditionalNanos = System.nanoTime() - start;
+
+        assertEquals(2 * BORROWS - THREAD_POOL_SIZE - BORROWS / 2 - BORROWS,
+                bookRepository.findById(book.getId()).orElseThrow().getStock().getAvailableCopies());
+        double readModifyWritePerSecond = BORROWS / 2 * 1e9 / readModifyWriteNanos;
+        double conditionalPerSecond = BORROWS * 1e9 / conditionalNanos;
+        logger.info("Borrows of one book from {} threads: read-modify-write {} per second with {} version conflicts "
+                        + "retried; conditional update {} per second.", THREAD_POOL_SIZE,
+                Math.round(readModifyWritePerSecond), conflicts.get(), Math.round(conditionalPerSecond));
+        assertTrue(conditionalPerSecond > readModifyWritePerSecond);
+    }
+
+    // The borrow path before the conditional update: load the book, check and decrement in memory, then save. The
+    // version check turns lost updates into conflicts, which are retried as a client would.
+    private int borrowByReadModifyWrite(TransactionTemplate tx, UUID bookId, AtomicInteger conflicts) {
+        while (true) {
+            try {
+                return tx.execute(status -> {
+                    Book book = bookRepository.findById(bookId).orElseThrow();
+                    if (book.getStock().getAvailableCopies() <= 0) {
+                        return 0;
+                    }
+                    book.setStock(book.getStock().decrementAvailableCopies(1));
+                    bookRepository.saveAndFlush(book);
+                    return 1;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+            }
+        }
+    }
+
+    private int runConcurrently(int requests, IntSupplier request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return request.getAsInt();
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                succeeded += result.get(60, TimeUnit.SECONDS);
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookHold;
+import com.library.bookservice.model.HoldStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = BookHoldRepositoryTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BookHoldRepository Tests")
+class BookHoldRepositoryTest {
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookHoldRepository bookHoldRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        bookHoldRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should only move a hold out of HELD once")
+    void transitions_shouldApplyOnlyToHeldHolds() {
+        Instant now = Instant.now();
+        BookHold live = saveHold(now.plusSeconds(60));
+        BookHold lapsed = saveHold(now.minusSeconds(60));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        assertEquals(Integer.valueOf(0), tx.execute(status -> bookHoldRepository.expireHeld(live.getId(), now)));
+        assertEquals(Integer.valueOf(1), tx.execute(status -> bookHoldRepository.confirmHeld(live.getId(), now)));
+        assertEquals(Integer.valueOf(0), tx.execute(status -> bookHoldRepository.releaseHeld(live.getId(), now)));
+
+        assertEquals(Integer.valueOf(0), tx.execute(status -> bookHoldRepository.confirmHeld(lapsed.getId(), now)));
+        assertEquals(Integer.valueOf(1), tx.execute(status -> bookHoldRepository.expireHeld(lapsed.getId(), now)));
+        assertEquals(Integer.valueOf(0), tx.execute(status -> bookHoldRepository.expireHeld(lapsed.getId(), now)));
+
+        assertEquals(HoldStatus.CONFIRMED, bookHoldRepository.findById(live.getId()).orElseThrow().getStatus());
+        assertEquals(HoldStatus.EXPIRED, bookHoldRepository.findById(lapsed.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should list overdue held holds oldest first")
+    void findOverdue_shouldReturnOldestHeldHoldsFirst() {
+        Instant now = Instant.now();
+        BookHold older = saveHold(now.minusSeconds(600));
+        BookHold newer = saveHold(now.minusSeconds(300));
+        saveHold(now.plusSeconds(300));
+
+        List<BookHold> overdue = bookHoldRepository.findByStatusAndExpiresAtBeforeOrderByExpiresAt(HoldStatus.HELD, now, Limit.of(10));
+
+        assertEquals(List.of(older.getId(), newer.getId()), overdue.stream().map(BookHold::getId).toList());
+    }
+
+    private BookHold saveHold(Instant expiresAt) {
+        return bookHoldRepository.save(new BookHold(null, UUID.randomUUID(), HoldStatus.HELD, Instant.now(), expiresAt, null));
+    }
+}
@@ -0,0 +1,220 @@
+package com.library.bookservice.repository;
+
+import com.library.bookservice.dto.BookCursor;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.dto.BookSortField;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = BookRepositoryTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BookRepository Tests")
+class BookRepositoryTest {
+
+    private static final int CONCURRENT_REQUESTS = 300;
+    private static final int THREAD_POOL_SIZE = 32;
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Parallel borrows should never drive available copies below zero")
+    void decrementAvailableCopies_shouldNeverGoNegativeUnderConcurrentBorrows() throws Exception {
+        Book book = saveBook(new BookStock(50, 50));
+
+        int successfulBorrows = runConcurrently(() -> bookRepository.decrementAvailableCopies(book.getId()));
+
+        Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(50, successfulBorrows);
+        assertEquals(0, reloaded.getStock().getAvailableCopies());
+        assertEquals(50, reloaded.getStock().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Parallel returns should never drive available copies above total quantity")
+    void incrementAvailableCopies_shouldNeverExceedQuantityUnderConcurrentReturns() throws Exception {
+        Book book = saveBook(new BookStock(50, 10));
+
+        int successfulReturns = runConcurrently(() -> bookRepository.incrementAvailableCopies(book.getId()));
+
+        Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(40, successfulReturns);
+        assertEquals(50, reloaded.getStock().getAvailableCopies());
+    }
+
+    @Test
+    @DisplayName("Conditional updates should affect no rows for a missing book")
+    void conditionalUpdates_shouldAffectNoRowsForMissingBook() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        UUID missingId = UUID.randomUUID();
+
+        assertEquals(Integer.valueOf(0), tx.execute(status -> bookRepository.decrementAvailableCopies(missingId)));
+        assertEquals(Integer.valueOf(0), tx.execute(status -> bookRepository.incrementAvailableCopies(missingId)));
+    }
+
+    @Test
+    @DisplayName("Returning updates should hand back the changed book, and nothing when no row changed")
+    void returningUpdates_shouldReturnChangedBook() {
+        Book book = saveBook(new BookStock(2, 1));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Book borrowed = tx.execute(status -> bookRepository.decrementAvailableCopiesReturning(book.getId()).orElseThrow());
+        assertEquals(0, borrowed.getStock().getAvailableCopies());
+        assertEquals(2, borrowed.getStock().getQuantity());
+        assertEquals(1, borrowed.getVersion());
+        assertEquals("Contended Book", borrowed.getTitle());
+        assertTrue(tx.execute(status -> bookRepository.decrementAvailableCopiesReturning(book.getId())).isEmpty());
+
+        Book returned = tx.execute(status -> {
+            bookRepository.findById(book.getId()).orElseThrow();
+            return bookRepository.incrementAvailableCopiesReturning(book.getId()).orElseThrow();
+        });
+        assertEquals(1, returned.getStock().getAvailableCopies());
+        assertEquals(2, returned.getVersion());
+        tx.executeWithoutResult(status -> bookRepository.incrementAvailableCopies(book.getId()));
+        assertTrue(tx.execute(status -> bookRepository.incrementAvailableCopiesReturning(book.getId())).isEmpty());
+        assertTrue(tx.execute(status -> bookRepository.decrementAvailableCopiesReturning(UUID.randomUUID())).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Keyset pages sorted by title should cover every matching book exactly once")
+    void findBy_shouldPageThroughFilteredBooksByTitleKeyset() {
+        List<String> titles = List.of("Diuna", "Lalka", "Solaris", "Lalka", "Hobbit", "Solaris", "1984");
+        List<String> isbns = List.of("978-83-0000-100-2", "978-83-0000-101-9", "978-83-0000-102-6", "978-83-0000-103-3",
+                "978-83-0000-104-0", "978-83-0000-105-7", "978-83-0000-106-4");
+        for (int i = 0; i < titles.size(); i++) {
+            saveBook(titles.get(i), isbns.get(i), i % 3 == 0 ? "Dystopia" : "Fantasy", new BookStock(2, i % 2));
+        }
+        saveBook("Out of filter", "978-83-0000-020-3", "Fantasy", new BookStock(1, 0));
+        BookFilter filter = new BookFilter("Fantasy", null, true);
+
+        List<Book> seen = new ArrayList<>();
+        BookCursor cursor = null;
+        do {
+            Specification<Book> specification = BookSpecifications.matching(filter).and(BookSpecifications.after(cursor));
+            List<Book> page = bookRepository.findBy(specification, query -> query
+                    .sortBy(BookSortField.TITLE.toSort())
+                    .limit(2)
+                    .all());
+            seen.addAll(page);
+            cursor = page.size() == 2 ? BookCursor.from(page.get(1), BookSortField.TITLE) : null;
+        } while (cursor != null);
+
+        List<Book> expected = bookRepository.findAll(BookSpecifications.matching(filter), BookSortField.TITLE.toSort());
+        assertEquals(expected.stream().map(Book::getId).toList(), seen.stream().map(Book::getId).toList());
+        assertTrue(seen.stream().allMatch(book -> "Fantasy".equals(book.getGenre()) && book.getStock().getAvailableCopies() > 0));
+    }
+
+    @Test
+    @DisplayName("Should find a book by its numeric ISBN-13 key whatever hyphenation it was saved with")
+    void findByIsbn13_shouldMatchNormalizedKey() {
+        Book saved = saveBook("Solaris", "978-83-08-05244-0", "Science Fiction", new BookStock(1, 1));
+
+        assertEquals(saved.getId(), bookRepository.findByIsbn13(9788308052440L).orElseThrow().getId());
+        assertTrue(bookRepository.findByIsbn13(9788308052441L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should bump the version on entity saves and atomic stock updates and reject stale writes")
+    void version_shouldGuardConcurrentWrites() {
+        Book saved = bookRepository.save(new Book("Solaris", "Stanisław Lem", new ISBN("978-83-08-05244-0"), 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookStock(3, 3)));
+        assertEquals(0, saved.getVersion());
+
+        Book stale = bookRepository.findById(saved.getId()).orElseThrow();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> bookRepository.decrementAvailableCopies(saved.getId()));
+        assertEquals(1, bookRepository.findById(saved.getId()).orElseThrow().getVersion());
+
+        Book current = bookRepository.findById(saved.getId()).orElseThrow();
+        current.setTitle("Solaris (wydanie II)");
+        assertEquals(2, bookRepository.save(current).getVersion());
+
+        stale.setTitle("Lost update");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookRepository.save(stale));
+        Book reloaded = bookRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Solaris (wydanie II)", reloaded.getTitle());
+        assertEquals(2, reloaded.getStock().getAvailableCopies());
+    }
+
+    private Book saveBook(BookStock stock) {
+        return saveBook("Contended Book", "978-83-0000-000-5", "Genre", stock);
+    }
+
+    private Book saveBook(String title, String isbn, String genre, BookStock stock) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn(new ISBN(isbn));
+        book.setPublicationYear(2024);
+        book.setPublisher("Publisher");
+        book.setGenre(genre);
+        book.setStock(stock);
+        return bookRepository.save(book);
+    }
+
+    private int runConcurrently(IntSupplier update) throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tx.execute(status -> update.getAsInt());
+                }));
+            }
+            start.countDown();
+
+            int affectedRows = 0;
+            for (Future<Integer> result : results) {
+                affectedRows += result.get(30, TimeUnit.SECONDS);
+            }
+            return affectedRows;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
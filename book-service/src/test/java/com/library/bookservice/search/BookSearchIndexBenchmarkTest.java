@@ -0,0 +1,122 @@
+package com.library.bookservice.search;
+
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Builds the in-memory index over a synthetic catalog and reports search and suggest latency and the heap the index
+// holds. Runs with mvn -Pbenchmarks test; the catalog size can be changed with -Dbooks.benchmark.search-books.
+@Tag("benchmark")
+@DisplayName("BookSearchIndex benchmark")
+class BookSearchIndexBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndexBenchmarkTest.class);
+
+    private static final int BOOKS = Integer.getInteger("books.benchmark.search-books", 1_000_000);
+    private static final int QUERIES = Integer.getInteger("books.benchmark.search-queries", 2_000);
+    private static final ISBN ISBN = new ISBN("978-83-08-05244-0");
+
+    private final Random random = new Random(42);
+    private final String[] titleWords = words("t", 20_000);
+    private final String[] authors = words("a", 5_000);
+    private final String[] publishers = words("p", 300);
+    private final String[] genres = words("g", 40);
+
+    @Test
+    @DisplayName("search and suggest latency and heap use over a large catalog")
+    void search_latencyAndHeapOverLargeCatalog() {
+        long heapBefore = usedHeap();
+        BookSearchIndex index = new BookSearchIndex();
+        long start = System.nanoTime();
+        for (int i = 0; i < BOOKS; i++) {
+            index.index(new Book(UUID.randomUUID(), titleWord() + " " + titleWord() + " " + titleWord(),
+                    pick(authors) + " " + pick(authors), ISBN, 1900 + i % 125, pick(publishers), pick(genres),
+                    new BookStock(1, 1)));
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapMegabytes = (usedHeap() - heapBefore) / (1024 * 1024);
+        assertEquals(BOOKS, index.size());
+
+        for (int i = 0; i < QUERIES / 10; i++) {
+            index.search(titleWord() + " " + prefix(titleWord()), 20);
+            index.suggest(prefix(titleWord()), 10);
+        }
+        long[] searches = new long[QUERIES];
+        long[] suggestions = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = titleWord() + " " + prefix(pick(authors));
+            start = System.nanoTime();
+            List<UUID> found = index.search(query, 20);
+            searches[i] = System.nanoTime() - start;
+            assertTrue(found.size() <= 20);
+
+            String prefix = prefix(titleWord());
+            start = System.nanoTime();
+            index.suggest(prefix, 10);
+            suggestions[i] = System.nanoTime() - start;
+        }
+
+        logger.info("Indexed {} books in {} ms holding about {} MB of heap. Over {} queries: search p50 {} us, p99 {} us; "
+                        + "suggest p50 {} us, p99 {} us.", BOOKS, buildMillis, heapMegabytes, QUERIES,
+                micros(percentile(searches, 50)), micros(percentile(searches, 99)),
+                micros(percentile(suggestions, 50)), micros(percentile(suggestions, 99)));
+        assertTrue(percentile(searches, 50) <= percentile(searches, 99));
+    }
+
+    // Title words follow a skewed distribution so common words carry long posting lists, as real titles do.
+    private String titleWord() {
+        double skewed = Math.pow(random.nextDouble(), 3);
+        return titleWords[(int) (skewed * titleWords.length)];
+    }
+
+    private String pick(String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private String prefix(String word) {
+        return word.substring(0, Math.min(word.length(), 3 + random.nextInt(2)));
+    }
+
+    private static String[] words(String prefix, int count) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder word = new StringBuilder(prefix);
+            for (int n = i + 1; n > 0; n /= 26) {
+                word.append((char) ('a' + n % 26));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+}
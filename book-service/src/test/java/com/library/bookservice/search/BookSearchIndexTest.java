@@ -0,0 +1,135 @@
+package com.library.bookservice.search;
+
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookSearchIndex Unit Tests")
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+    private Book witcher;
+    private Book solaris;
+    private Book hobbit;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        witcher = new Book(UUID.randomUUID(), "Wiedźmin: Ostatnie Życzenie", "Andrzej Sapkowski", new ISBN("978-83-7578-065-9"), 1993, "SuperNOWA", "Fantasy", new BookStock(5, 5));
+        solaris = new Book(UUID.randomUUID(), "Solaris", "Stanisław Lem", new ISBN("978-83-08-05244-0"), 1961, "Wydawnictwo Literackie", "Science Fiction", new BookStock(2, 2));
+        hobbit = new Book(UUID.randomUUID(), "Hobbit, czyli tam i z powrotem", "J.R.R. Tolkien", new ISBN("978-83-281-2296-3"), 1937, "Amber", "Fantasy", new BookStock(7, 7));
+        index.index(witcher);
+        index.index(solaris);
+        index.index(hobbit);
+    }
+
+    @Test
+    @DisplayName("Should find books ignoring case and diacritics")
+    void search_shouldIgnoreCaseAndDiacritics() {
+        assertEquals(List.of(witcher.getId()), index.search("WIEDZMIN", 10));
+        assertEquals(List.of(solaris.getId()), index.search("stanislaw", 10));
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above genre-only matches")
+    void search_shouldRankTitleMatchesFirst() {
+        Book fantasyTitle = new Book(UUID.randomUUID(), "Fantasy Atlas", "Someone", new ISBN("978-83-0000-002-9"), 2001, "Pub", "Reference", new BookStock(1, 1));
+        index.index(fantasyTitle);
+
+        List<UUID> result = index.search("fantasy", 10);
+
+        assertEquals(3, result.size());
+        assertEquals(fantasyTitle.getId(), result.get(0));
+    }
+
+    @Test
+    @DisplayName("Should rank books matching more query terms higher")
+    void search_shouldRankBooksMatchingMoreTermsHigher() {
+        List<UUID> result = index.search("fantasy tolkien", 10);
+
+        assertEquals(hobbit.getId(), result.get(0));
+        assertTrue(result.contains(witcher.getId()));
+    }
+
+    @Test
+    @DisplayName("Should match the last query word as a prefix")
+    void search_shouldMatchLastWordAsPrefix() {
+        assertEquals(List.of(hobbit.getId()), index.search("hob", 10));
+        assertEquals(List.of(witcher.getId()), index.search("andrzej sapk", 10));
+    }
+
+    @Test
+    @DisplayName("Should suggest titles for a prefix")
+    void suggest_shouldReturnTitlesForPrefix() {
+        assertEquals(List.of("Solaris"), index.suggest("sol", 5));
+        assertTrue(index.suggest("", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop stale terms when a book is reindexed")
+    void index_shouldReplaceTermsOfReindexedBook() {
+        solaris.setTitle("Niezwyciężony");
+        index.index(solaris);
+
+        assertTrue(index.search("solaris", 10).isEmpty());
+        assertEquals(List.of(solaris.getId()), index.search("niezwyciezony", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Should stop returning removed books")
+    void remove_shouldDropBookFromResults() {
+        index.remove(hobbit.getId());
+
+        assertTrue(index.search("tolkien", 10).isEmpty());
+        assertEquals(List.of(witcher.getId()), index.search("fantasy", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should apply changes made in a transaction only once it commits")
+    void indexAndRemove_shouldWaitForCommit() {
+        Book lalka = new Book(UUID.randomUUID(), "Lalka", "Bolesław Prus", new ISBN("978-83-7327-729-8"), 1890, "Pub", "Novel", new BookStock(3, 3));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(lalka);
+            index.remove(solaris.getId());
+
+            assertTrue(index.search("lalka", 10).isEmpty());
+            assertEquals(List.of(solaris.getId()), index.search("solaris", 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(lalka.getId()), index.search("lalka", 10));
+        assertTrue(index.search("solaris", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave the index untouched when the transaction rolls back")
+    void index_shouldIgnoreRolledBackChanges() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(hobbit.getId());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(hobbit.getId()), index.search("tolkien", 10));
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,208 @@
+package com.library.bookservice.service;
+
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.exception.HoldNotFoundException;
+import com.library.bookservice.exception.HoldStateException;
+import com.library.bookservice.event.BookEventOutbox;
+import com.library.bookservice.exception.OutOfStockException;
+import com.library.bookservice.facet.BookFacetIndex;
+import com.library.bookservice.hold.HoldExpiryWheel;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookHold;
+import com.library.bookservice.model.HoldStatus;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.repository.BookHoldRepository;
+import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.stock.StripedStockCounter;
+import com.library.common.event.BookStockChangeReason;
+import com.library.common.exception.BookNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookHoldServiceImpl Unit Tests")
+class BookHoldServiceImplTest {
+
+    @Mock
+    private BookHoldRepository bookHoldRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private StripedStockCounter stripedStockCounter;
+
+    @Mock
+    private HoldExpiryWheel holdExpiryWheel;
+
+    @Mock
+    private BookFacetIndex bookFacetIndex;
+
+    @Mock
+    private BookEventOutbox bookEventOutbox;
+
+    @InjectMocks
+    private BookHoldServiceImpl bookHoldService;
+
+    private UUID bookId;
+    private UUID holdId;
+
+    @BeforeEach
+    void setUp() {
+        bookId = UUID.randomUUID();
+        holdId = UUID.randomUUID();
+    }
+
+    private BookHold hold(HoldStatus status) {
+        Instant now = Instant.now();
+        return new BookHold(holdId, bookId, status, now, now.plusSeconds(300), null);
+    }
+
+    @Test
+    @DisplayName("Should take a copy out of stock and schedule the hold for expiry")
+    void reserve_shouldDecrementStockAndScheduleExpiry() {
+        Book book = new Book(bookId, "Solaris", "Stanisław Lem", new ISBN("978-83-08-05244-0"), 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookStock(3, 2));
+        when(stripedStockCounter.take(bookId)).thenReturn(true);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookHoldRepository.save(any(BookHold.class))).thenAnswer(invocation -> {
+            BookHold saved = invocation.getArgument(0);
+            saved.setId(holdId);
+            return saved;
+        });
+
+        BookHold result = bookHoldService.reserve(bookId, Duration.ofMinutes(5));
+
+        assertEquals(HoldStatus.HELD, result.getStatus());
+        assertEquals(Duration.ofMinutes(5), Duration.between(result.getCreatedAt(), result.getExpiresAt()));
+        verify(holdExpiryWheel, times(1)).schedule(holdId, result.getExpiresAt());
+        verify(bookCache, times(1)).evict(bookId);
+        verify(bookFacetIndex, times(1)).adjustAvailableCopies(bookId, -1);
+        verify(bookEventOutbox, times(1)).stockChanged(book, BookStockChangeReason.HELD, -1);
+    }
+
+    @Test
+    @DisplayName("Should refuse a hold when no copies are available")
+    void reserve_shouldThrowOutOfStockExceptionWhenNoCopiesAvailable() {
+        when(stripedStockCounter.take(bookId)).thenReturn(false);
+        when(bookRepository.existsById(bookId)).thenReturn(true);
+
+        assertThrows(OutOfStockException.class, () -> bookHoldService.reserve(bookId, Duration.ofMinutes(5)));
+        verify(bookHoldRepository, never()).save(any(BookHold.class));
+        verifyNoInteractions(holdExpiryWheel, bookEventOutbox);
+    }
+
+    @Test
+    @DisplayName("Should refuse a hold on an unknown book")
+    void reserve_shouldThrowBookNotFoundExceptionWhenBookMissing() {
+        when(stripedStockCounter.take(bookId)).thenReturn(false);
+        when(bookRepository.existsById(bookId)).thenReturn(false);
+
+        assertThrows(BookNotFoundException.class, () -> bookHoldService.reserve(bookId, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    @DisplayName("Should confirm a live hold without touching stock")
+    void confirm_shouldConfirmHeldHold() {
+        when(bookHoldRepository.confirmHeld(eq(holdId), any(Instant.class))).thenReturn(1);
+        when(bookHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(HoldStatus.CONFIRMED)));
+
+        BookHold result = bookHoldService.confirm(holdId);
+
+        assertEquals(HoldStatus.CONFIRMED, result.getStatus());
+        verify(stripedStockCounter, never()).giveBack(any());
+    }
+
+    @Test
+    @DisplayName("Should treat confirming an already confirmed hold as a no-op")
+    void confirm_shouldBeIdempotent() {
+        when(bookHoldRepository.confirmHeld(eq(holdId), any(Instant.class))).thenReturn(0);
+        when(bookHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(HoldStatus.CONFIRMED)));
+
+        assertEquals(HoldStatus.CONFIRMED, bookHoldService.confirm(holdId).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should expire a lapsed hold that the sweeper has not reached yet and refuse to confirm it")
+    void confirm_shouldExpireLapsedHoldAndThrow() {
+        when(bookHoldRepository.confirmHeld(eq(holdId), any(Instant.class))).thenReturn(0);
+        when(bookHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(HoldStatus.HELD)));
+        when(bookHoldRepository.expireHeld(eq(holdId), any(Instant.class))).thenReturn(1);
+        when(stripedStockCounter.giveBack(bookId)).thenReturn(true);
+
+        HoldStateException thrown = assertThrows(HoldStateException.class, () -> bookHoldService.confirm(holdId));
+
+        assertEquals("Hold with ID " + holdId + " can no longer be confirmed because it has expired.", thrown.getMessage());
+        verify(stripedStockCounter, times(1)).giveBack(bookId);
+    }
+
+    @Test
+    @DisplayName("Should throw HoldNotFoundException for an unknown hold")
+    void confirm_shouldThrowHoldNotFoundExceptionWhenMissing() {
+        when(bookHoldRepository.confirmHeld(eq(holdId), any(Instant.class))).thenReturn(0);
+        when(bookHoldRepository.findById(holdId)).thenReturn(Optional.empty());
+
+        assertThrows(HoldNotFoundException.class, () -> bookHoldService.confirm(holdId));
+    }
+
+    @Test
+    @DisplayName("Should return the held copy to stock on release")
+    void release_shouldReturnCopyToStock() {
+        when(bookHoldRepository.releaseHeld(eq(holdId), any(Instant.class))).thenReturn(1);
+        when(bookHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(HoldStatus.RELEASED)));
+        when(stripedStockCounter.giveBack(bookId)).thenReturn(true);
+
+        assertEquals(HoldStatus.RELEASED, bookHoldService.release(holdId).getStatus());
+        verify(stripedStockCounter, times(1)).giveBack(bookId);
+        verify(bookCache, times(1)).evict(bookId);
+        verify(bookFacetIndex, times(1)).adjustAvailableCopies(bookId, 1);
+    }
+
+    @Test
+    @DisplayName("Should refuse to release a confirmed hold")
+    void release_shouldThrowHoldStateExceptionWhenConfirmed() {
+        when(bookHoldRepository.releaseHeld(eq(holdId), any(Instant.class))).thenReturn(0);
+        when(bookHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(HoldStatus.CONFIRMED)));
+
+        assertThrows(HoldStateException.class, () -> bookHoldService.release(holdId));
+        verify(stripedStockCounter, never()).giveBack(any());
+    }
+
+    @Test
+    @DisplayName("Should not return stock twice when releasing an expired hold")
+    void release_shouldBeNoOpForExpiredHold() {
+        when(bookHoldRepository.releaseHeld(eq(holdId), any(Instant.class))).thenReturn(0);
+        when(bookHoldRepository.findById(holdId)).thenReturn(Optional.of(hold(HoldStatus.EXPIRED)));
+
+        assertEquals(HoldStatus.EXPIRED, bookHoldService.release(holdId).getStatus());
+        verify(stripedStockCounter, never()).giveBack(any());
+    }
+
+    @Test
+    @DisplayName("Should skip holds that were confirmed or released before expiry")
+    void expire_shouldReturnFalseWhenHoldNoLongerHeld() {
+        when(bookHoldRepository.expireHeld(eq(holdId), any(Instant.class))).thenReturn(0);
+
+        assertFalse(bookHoldService.expire(holdId));
+        verifyNoInteractions(bookRepository);
+    }
+}
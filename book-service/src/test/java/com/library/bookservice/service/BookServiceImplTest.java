@@ -1,14 +1,30 @@
 package com.library.bookservice.service;
 
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.dto.BookCursor;
+import com.library.bookservice.dto.BookFacetsResponse;
+import com.library.bookservice.dto.BookFilter;
+import com.library.bookservice.dto.BookPageResponse;
+import com.library.bookservice.dto.BookSortField;
+import com.library.bookservice.event.BookEventOutbox;
 import com.library.bookservice.exception.DuplicateIsbnException;
+import com.library.bookservice.exception.InvalidCursorException;
 import com.library.bookservice.exception.InvalidQuantityException;
 import com.library.bookservice.exception.OutOfStockException;
+import com.library.bookservice.exception.PreconditionFailedException;
 import com.library.bookservice.exception.StockExceedsTotalQuantityException;
+import com.library.bookservice.facet.BookFacetIndex;
 import com.library.bookservice.model.Book;
 import com.library.bookservice.model.valueobjects.ISBN;
 import com.library.bookservice.model.valueobjects.BookStock;
 import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.search.BookSearchIndex;
+import com.library.bookservice.stock.StockConflictRetrier;
+import com.library.bookservice.stock.StripedStockCounter;
+import com.library.common.event.BookChangeType;
+import com.library.common.event.BookStockChangeReason;
 import com.library.common.exception.BookNotFoundException;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,11 +32,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +54,27 @@ class BookServiceImplTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private StripedStockCounter stripedStockCounter;
+
+    @Mock
+    private BookFacetIndex bookFacetIndex;
+
+    @Mock
+    private StockConflictRetrier stockConflictRetrier;
+
+    @Mock
+    private BookEventOutbox bookEventOutbox;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -44,8 +87,10 @@ class BookServiceImplTest {
     void setUp() {
         book1Id = UUID.randomUUID();
         book2Id = UUID.randomUUID();
-        book1 = new Book(book1Id, "Wiedźmin: Ostatnie Życzenie", "Andrzej Sapkowski", new ISBN("978-83-7578-065-0"), 1993, "SuperNOWA", "Fantasy", new BookStock(5, 5));
-        book2 = new Book(book2Id, "Pan Tadeusz", "Adam Mickiewicz", new ISBN("978-83-04-04285-0"), 1834, "Wydawnictwo MG", "Epopeja Narodowa", new BookStock(3, 3));
+        book1 = new Book(book1Id, "Wiedźmin: Ostatnie Życzenie", "Andrzej Sapkowski", new ISBN("978-83-7578-065-9"), 1993, "SuperNOWA", "Fantasy", new BookStock(5, 5));
+        book2 = new Book(book2Id, "Pan Tadeusz", "Adam Mickiewicz", new ISBN("978-83-04-04285-8"), 1834, "Wydawnictwo MG", "Epopeja Narodowa", new BookStock(3, 3));
+        lenient().when(stockConflictRetrier.execute(any(UUID.class), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
@@ -61,6 +106,86 @@ class BookServiceImplTest {
         verify(bookRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Should return a page with a next cursor when more books are available")
+    void getBooks_shouldReturnPageWithNextCursorWhenMoreBooksAvailable() {
+        when(bookRepository.findBy(any(Specification.class), any())).thenReturn(Arrays.asList(book1, book2));
+
+        BookPageResponse result = bookService.getBooks(new BookFilter(), BookSortField.TITLE, null, 1);
+
+        assertEquals(1, result.getSize());
+        assertEquals(book1.getId(), result.getContent().get(0).getId());
+        assertTrue(result.isHasNext());
+        BookCursor cursor = BookCursor.decode(result.getNextCursor(), BookSortField.TITLE);
+        assertEquals(book1.getId(), cursor.getId());
+        assertEquals(book1.getTitle(), cursor.getTitle());
+    }
+
+    @Test
+    @DisplayName("Should return the last page without a next cursor")
+    void getBooks_shouldReturnLastPageWithoutNextCursor() {
+        String cursor = BookCursor.from(book1, BookSortField.ID).encode();
+        when(bookRepository.findBy(any(Specification.class), any())).thenReturn(List.of(book2));
+
+        BookPageResponse result = bookService.getBooks(new BookFilter("Fantasy", null, true), BookSortField.ID, cursor, 10);
+
+        assertEquals(1, result.getSize());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidCursorException for a malformed cursor")
+    void getBooks_shouldThrowInvalidCursorExceptionForMalformedCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> bookService.getBooks(new BookFilter(), BookSortField.ID, "not-a-cursor", 10));
+        verify(bookRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidCursorException for a cursor issued for a different sort order")
+    void getBooks_shouldThrowInvalidCursorExceptionForCursorOfDifferentSortOrder() {
+        String cursor = BookCursor.from(book1, BookSortField.ID).encode();
+
+        assertThrows(InvalidCursorException.class,
+                () -> bookService.getBooks(new BookFilter(), BookSortField.TITLE, cursor, 10));
+    }
+
+    @Test
+    @DisplayName("Should pass every streamed book to the consumer and detach it afterwards")
+    void streamBooks_shouldConsumeAndDetachEveryBook() {
+        when(bookRepository.findBy(any(Specification.class), any())).thenReturn(Stream.of(book1, book2));
+        List<Book> consumed = new ArrayList<>();
+
+        bookService.streamBooks(new BookFilter(), consumed::add);
+
+        assertEquals(List.of(book1, book2), consumed);
+        verify(entityManager, times(1)).detach(book1);
+        verify(entityManager, times(1)).detach(book2);
+    }
+
+    @Test
+    @DisplayName("Should return search results in index rank order")
+    void searchBooks_shouldReturnBooksInRankOrder() {
+        when(bookSearchIndex.search("fantasy", 10)).thenReturn(List.of(book2Id, book1Id));
+        when(bookRepository.findAllById(List.of(book2Id, book1Id))).thenReturn(Arrays.asList(book1, book2));
+
+        List<Book> result = bookService.searchBooks("fantasy", 10);
+
+        assertEquals(List.of(book2, book1), result);
+    }
+
+    @Test
+    @DisplayName("Should not query the repository when the search has no hits")
+    void searchBooks_shouldSkipRepositoryWhenNoHits() {
+        when(bookSearchIndex.search("nothing", 10)).thenReturn(List.of());
+
+        List<Book> result = bookService.searchBooks("nothing", 10);
+
+        assertTrue(result.isEmpty());
+        verify(bookRepository, never()).findAllById(any());
+    }
+
     @Test
     @DisplayName("Should return a book when found by ID")
     void getBookById_shouldReturnBookWhenFound() {
@@ -76,6 +201,28 @@ class BookServiceImplTest {
         verify(bookRepository, times(1)).findById(book1Id);
     }
 
+    @Test
+    @DisplayName("Should return a cached book without querying the repository")
+    void getBookById_shouldReturnCachedBookWithoutRepositoryLookup() {
+        when(bookCache.getById(book1Id)).thenReturn(Optional.of(book1));
+
+        Book result = bookService.getBookById(book1Id);
+
+        assertEquals(book1, result);
+        verifyNoInteractions(bookRepository);
+        verify(bookCache, never()).put(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Should cache a book loaded from the repository on a miss")
+    void getBookById_shouldCacheBookOnMiss() {
+        when(bookRepository.findById(book1Id)).thenReturn(Optional.of(book1));
+
+        bookService.getBookById(book1Id);
+
+        verify(bookCache, times(1)).put(book1);
+    }
+
     @Test
     @DisplayName("Should throw BookNotFoundException when book not found by ID")
     void getBookById_shouldThrowBookNotFoundExceptionWhenNotFound() {
@@ -89,10 +236,31 @@ class BookServiceImplTest {
         verify(bookRepository, times(1)).findById(book1Id);
     }
 
+    @Test
+    @DisplayName("Should return books keyed by ID using a single query")
+    void getBooksByIds_shouldReturnBooksKeyedById() {
+        UUID missingId = UUID.randomUUID();
+        when(bookRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(book1, book2));
+
+        Map<UUID, Book> result = bookService.getBooksByIds(List.of(book1Id, book2Id, missingId, book1Id));
+
+        assertEquals(2, result.size());
+        assertEquals(book1, result.get(book1Id));
+        assertEquals(book2, result.get(book2Id));
+        verify(bookRepository, times(1)).findAllById(Set.of(book1Id, book2Id, missingId));
+    }
+
+    @Test
+    @DisplayName("Should not query the repository for an empty ID list")
+    void getBooksByIds_shouldReturnEmptyMapForNoIds() {
+        assertTrue(bookService.getBooksByIds(List.of()).isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
     @Test
     @DisplayName("Should return a book when found by ISBN")
     void getBookByIsbn_shouldReturnBookWhenFound() {
-        when(bookRepository.findByIsbnValue(book1.getIsbn().getValue())).thenReturn(Optional.of(book1));
+        when(bookRepository.findByIsbn13(book1.getIsbn().getIsbn13())).thenReturn(Optional.of(book1));
 
         Book result = bookService.getBookByIsbn(book1.getIsbn().getValue());
 
@@ -102,7 +270,30 @@ class BookServiceImplTest {
         assertEquals(book1.getAuthor(), result.getAuthor());
         assertEquals(book1.getIsbn(), result.getIsbn());
 
-        verify(bookRepository, times(1)).findByIsbnValue(book1.getIsbn().getValue());
+        verify(bookRepository, times(1)).findByIsbn13(book1.getIsbn().getIsbn13());
+    }
+
+    @Test
+    @DisplayName("Should find a book by ISBN regardless of hyphenation or ISBN-10 form")
+    void getBookByIsbn_shouldNormalizeHyphenationAndIsbn10() {
+        when(bookRepository.findByIsbn13(9788375780659L)).thenReturn(Optional.of(book1));
+
+        assertEquals(book1, bookService.getBookByIsbn("9788375780659"));
+        assertEquals(book1, bookService.getBookByIsbn("83-7578-065-0"));
+
+        verify(bookRepository, times(2)).findByIsbn13(9788375780659L);
+        verify(bookRepository, never()).findByIsbnValue(any());
+    }
+
+    @Test
+    @DisplayName("Should return a cached book by ISBN without querying the repository")
+    void getBookByIsbn_shouldReturnCachedBookWithoutRepositoryLookup() {
+        when(bookCache.getByIsbn(book1.getIsbn().getIsbn13())).thenReturn(Optional.of(book1));
+
+        Book result = bookService.getBookByIsbn(book1.getIsbn().getValue());
+
+        assertEquals(book1, result);
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
@@ -122,28 +313,31 @@ class BookServiceImplTest {
     @Test
     @DisplayName("Should create and return a new book successfully")
     void createBook_shouldCreateAndReturnBook() {
-        Book newBook = new Book(null, "New Book", "New Author", new ISBN("978-12-3456-789-0"), 2023, "Publisher", "Genre", new BookStock(10, 10));
-        when(bookRepository.findByIsbnValue(newBook.getIsbn().getValue())).thenReturn(Optional.empty());
+        Book newBook = new Book(null, "New Book", "New Author", new ISBN("978-12-3456-789-7"), 2023, "Publisher", "Genre", new BookStock(10, 10));
+        when(bookRepository.findByIsbn13(newBook.getIsbn().getIsbn13())).thenReturn(Optional.empty());
         when(bookRepository.save(any(Book.class))).thenReturn(newBook);
 
         Book createdBook = bookService.createBook(newBook);
 
         assertNotNull(createdBook);
         assertEquals(newBook.getTitle(), createdBook.getTitle());
-        verify(bookRepository, times(1)).findByIsbnValue(newBook.getIsbn().getValue());
+        verify(bookRepository, times(1)).findByIsbn13(newBook.getIsbn().getIsbn13());
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookSearchIndex, times(1)).index(any(Book.class));
+        verify(bookFacetIndex, times(1)).index(newBook);
+        verify(bookEventOutbox, times(1)).bookChanged(newBook, BookChangeType.CREATED);
     }
 
     @Test
     @DisplayName("Should throw DuplicateIsbnException when ISBN already exists during book creation")
     void createBook_shouldThrowDuplicateIsbnExceptionWhenIsbnExists() {
-        Book existingBook = new Book(null, "Existing Book", "Author", new ISBN("978-83-7578-065-0"), 2000, "Pub", "Gen", new BookStock(1, 1));
-        when(bookRepository.findByIsbnValue(existingBook.getIsbn().getValue())).thenReturn(Optional.of(existingBook));
+        Book existingBook = new Book(null, "Existing Book", "Author", new ISBN("978-83-7578-065-9"), 2000, "Pub", "Gen", new BookStock(1, 1));
+        when(bookRepository.findByIsbn13(existingBook.getIsbn().getIsbn13())).thenReturn(Optional.of(existingBook));
 
         DuplicateIsbnException thrown = assertThrows(DuplicateIsbnException.class, () -> bookService.createBook(existingBook));
 
         assertEquals("The book with the ISBN number given already exists.", thrown.getMessage());
-        verify(bookRepository, times(1)).findByIsbnValue(existingBook.getIsbn().getValue());
+        verify(bookRepository, times(1)).findByIsbn13(existingBook.getIsbn().getIsbn13());
         verify(bookRepository, never()).save(any(Book.class));
     }
 
@@ -154,36 +348,39 @@ class BookServiceImplTest {
                 book1.getPublicationYear(), book1.getPublisher(), book1.getGenre(),
                 new BookStock(book1.getStock().getQuantity(), book1.getStock().getAvailableCopies()));
 
-        Book updatedDetails = new Book(null, "Updated Title", "Updated Author", new ISBN("978-83-7578-065-1"), 2000, "Updated Pub", "Updated Gen", new BookStock(7, 7));
+        Book updatedDetails = new Book(null, "Updated Title", "Updated Author", new ISBN("978-83-7578-066-6"), 2000, "Updated Pub", "Updated Gen", new BookStock(7, 7));
 
+        existingBookCopy.setVersion(2);
         when(bookRepository.findById(book1Id)).thenReturn(Optional.of(existingBookCopy));
-        when(bookRepository.findByIsbnValue(updatedDetails.getIsbn().getValue())).thenReturn(Optional.empty());
+        when(stripedStockCounter.availableCopies(existingBookCopy)).thenReturn(5);
+        when(bookRepository.findByIsbn13(updatedDetails.getIsbn().getIsbn13())).thenReturn(Optional.empty());
         when(bookRepository.save(any(Book.class))).thenReturn(updatedDetails);
 
-        Book result = bookService.updateBook(book1Id, updatedDetails);
+        Book result = bookService.updateBook(book1Id, updatedDetails, "\"2-5\"");
 
         assertNotNull(result);
         assertEquals("Updated Title", result.getTitle());
         assertEquals("Updated Author", result.getAuthor());
-        assertEquals("978-83-7578-065-1", result.getIsbn().getValue());
+        assertEquals("978-83-7578-066-6", result.getIsbn().getValue());
         assertEquals(7, result.getStock().getQuantity());
         verify(bookRepository, times(1)).findById(book1Id);
         verify(bookRepository, times(1)).save(argThat(book ->
                 book.getId().equals(book1Id) &&
                         book.getTitle().equals("Updated Title") &&
-                        book.getIsbn().getValue().equals("978-83-7578-065-1")
+                        book.getIsbn().getValue().equals("978-83-7578-066-6")
         ));
-        verify(bookRepository, times(1)).findByIsbnValue(updatedDetails.getIsbn().getValue());
+        verify(bookRepository, times(1)).findByIsbn13(updatedDetails.getIsbn().getIsbn13());
+        verify(bookEventOutbox, times(1)).bookChanged(result, BookChangeType.UPDATED);
     }
 
     @Test
     @DisplayName("Should throw BookNotFoundException when book not found for update")
     void updateBook_shouldThrowBookNotFoundExceptionWhenNotFound() {
-        Book updatedDetails = new Book(book1Id, "Updated Title", "Updated Author", new ISBN("978-83-7578-065-1"), 2000, "Updated Pub", "Updated Gen", new BookStock(7, 7));
+        Book updatedDetails = new Book(book1Id, "Updated Title", "Updated Author", new ISBN("978-83-7578-066-6"), 2000, "Updated Pub", "Updated Gen", new BookStock(7, 7));
         when(bookRepository.findById(book1Id)).thenReturn(Optional.empty());
 
         BookNotFoundException thrown = assertThrows(BookNotFoundException.class, () -> {
-            bookService.updateBook(book1Id, updatedDetails);
+            bookService.updateBook(book1Id, updatedDetails, "\"0-5\"");
         });
 
         assertEquals("Book with ID " + book1Id + " not found.", thrown.getMessage());
@@ -194,18 +391,36 @@ class BookServiceImplTest {
     @Test
     @DisplayName("Should throw DuplicateIsbnException when new ISBN already exists during book update")
     void updateBook_shouldThrowDuplicateIsbnExceptionWhenNewIsbnExists() {
-        Book existingBookWithNewIsbn = new Book(UUID.randomUUID(), "Another Book", "Another Author", new ISBN("978-83-7578-065-1"), 2005, "Other Pub", "Other Gen", new BookStock(1, 1));
-        Book updatedDetails = new Book(book1Id, "Updated Title", "Updated Author", new ISBN("978-83-7578-065-1"), 2000, "Updated Pub", "Updated Gen", new BookStock(7, 7));
+        Book existingBookWithNewIsbn = new Book(UUID.randomUUID(), "Another Book", "Another Author", new ISBN("978-83-7578-066-6"), 2005, "Other Pub", "Other Gen", new BookStock(1, 1));
+        Book updatedDetails = new Book(book1Id, "Updated Title", "Updated Author", new ISBN("978-83-7578-066-6"), 2000, "Updated Pub", "Updated Gen", new BookStock(7, 7));
 
         when(bookRepository.findById(book1Id)).thenReturn(Optional.of(book1));
-        when(bookRepository.findByIsbnValue(updatedDetails.getIsbn().getValue())).thenReturn(Optional.of(existingBookWithNewIsbn));
+        when(stripedStockCounter.availableCopies(book1)).thenReturn(5);
+        when(bookRepository.findByIsbn13(updatedDetails.getIsbn().getIsbn13())).thenReturn(Optional.of(existingBookWithNewIsbn));
 
-        DuplicateIsbnException thrown = assertThrows(DuplicateIsbnException.class, () -> bookService.updateBook(book1Id, updatedDetails));
+        DuplicateIsbnException thrown = assertThrows(DuplicateIsbnException.class, () -> bookService.updateBook(book1Id, updatedDetails, "*"));
 
         assertEquals("The new ISBN already exists in the database.", thrown.getMessage());
         verify(bookRepository, times(1)).findById(book1Id);
-        verify(bookRepository, times(1)).findByIsbnValue(updatedDetails.getIsbn().getValue());
+        verify(bookRepository, times(1)).findByIsbn13(updatedDetails.getIsbn().getIsbn13());
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Should reject an update whose If-Match no longer matches the book's ETag")
+    void updateBook_shouldThrowPreconditionFailedExceptionForStaleETag() {
+        book1.setVersion(3);
+        Book updatedDetails = new Book(null, "Updated Title", "Updated Author", book1.getIsbn(), 2000, "Updated Pub", "Updated Gen", new BookStock(7, 7));
+        when(bookRepository.findById(book1Id)).thenReturn(Optional.of(book1));
+        when(stripedStockCounter.availableCopies(book1)).thenReturn(4);
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateBook(book1Id, updatedDetails, "\"3-5\""));
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateBook(book1Id, updatedDetails, "W/\"3-4\""));
+
+        verify(stripedStockCounter, never()).unstripe(any(UUID.class));
         verify(bookRepository, never()).save(any(Book.class));
+        verify(bookCache, never()).evict(any(UUID.class));
+        verifyNoInteractions(bookEventOutbox);
     }
 
     @Test
@@ -218,6 +433,10 @@ class BookServiceImplTest {
 
         verify(bookRepository, times(1)).existsById(book1Id);
         verify(bookRepository, times(1)).deleteById(book1Id);
+        verify(bookSearchIndex, times(1)).remove(book1Id);
+        verify(bookFacetIndex, times(1)).remove(book1Id);
+        verify(bookCache, times(1)).evictCatalogEntry(book1Id);
+        verify(bookEventOutbox, times(1)).bookDeleted(book1Id);
     }
 
     @Test
@@ -239,7 +458,7 @@ class BookServiceImplTest {
                 book1Id,
                 "Test Book Title",
                 "Test Author",
-                new ISBN("978-1234567890"),
+                new ISBN("978-1234567897"),
                 2020,
                 "Test Publisher",
                 "Fiction",
@@ -256,6 +475,7 @@ class BookServiceImplTest {
         assertEquals(10, result.getStock().getQuantity());
         verify(bookRepository, times(1)).findById(book1Id);
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookEventOutbox, times(1)).stockChanged(result, BookStockChangeReason.INCREASED, 2);
     }
 
     @Test
@@ -287,7 +507,7 @@ class BookServiceImplTest {
                 book1Id,
                 "Test Book Title",
                 "Test Author",
-                new ISBN("978-1234567890"),
+                new ISBN("978-1234567897"),
                 2020,
                 "Test Publisher",
                 "Fiction",
@@ -363,86 +583,132 @@ class BookServiceImplTest {
     @Test
     @DisplayName("Should decrease available copies when borrowing a book")
     void borrowBook_shouldDecreaseAvailableCopies() {
-        Book bookWithStock = new Book(UUID.randomUUID(), "Borrowable Book", "Author", new ISBN("978-99-999-999-9"), 2000, "Pub", "Gen", new BookStock(5, 5));
-        when(bookRepository.findById(bookWithStock.getId())).thenReturn(Optional.of(bookWithStock));
-        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Book borrowedBook = new Book(UUID.randomUUID(), "Borrowable Book", "Author", new ISBN("978-99-9999-999-1"), 2000, "Pub", "Gen", new BookStock(5, 4));
+        when(stripedStockCounter.takeAndGet(borrowedBook.getId())).thenReturn(Optional.of(borrowedBook));
 
-        Book result = bookService.borrowBook(bookWithStock.getId());
+        Book result = bookService.borrowBook(borrowedBook.getId());
 
         assertNotNull(result);
-        assertEquals(4, result.getStock().getAvailableCopies()); // 5 - 1 = 4
-        assertEquals(5, result.getStock().getQuantity()); // Całkowita ilość bez zmian
-        verify(bookRepository, times(1)).findById(bookWithStock.getId());
-        verify(bookRepository, times(1)).save(bookWithStock);
+        assertEquals(4, result.getStock().getAvailableCopies());
+        assertEquals(5, result.getStock().getQuantity());
+        verify(stripedStockCounter, times(1)).takeAndGet(borrowedBook.getId());
+        verify(bookRepository, never()).findById(any(UUID.class));
+        verify(bookRepository, never()).existsById(any(UUID.class));
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookCache, times(1)).evict(borrowedBook.getId());
+        verify(bookFacetIndex, times(1)).adjustAvailableCopies(borrowedBook.getId(), -1);
+        verify(bookEventOutbox, times(1)).stockChanged(borrowedBook, BookStockChangeReason.BORROWED, -1);
     }
 
     @Test
     @DisplayName("Should throw BookNotFoundException when book not found for borrowing")
     void borrowBook_shouldThrowBookNotFoundExceptionWhenBookNotFound() {
-        when(bookRepository.findById(book1Id)).thenReturn(Optional.empty());
+        when(stripedStockCounter.takeAndGet(book1Id)).thenReturn(Optional.empty());
+        when(bookRepository.existsById(book1Id)).thenReturn(false);
 
         BookNotFoundException thrown = assertThrows(BookNotFoundException.class, () -> {
             bookService.borrowBook(book1Id);
         });
 
         assertEquals("Book with ID " + book1Id + " not found.", thrown.getMessage());
-        verify(bookRepository, times(1)).findById(book1Id);
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(stripedStockCounter, times(1)).takeAndGet(book1Id);
+        verify(bookRepository, never()).findById(any(UUID.class));
     }
 
     @Test
     @DisplayName("Should throw OutOfStockException when no copies are available for borrowing")
     void borrowBook_shouldThrowOutOfStockExceptionWhenNoCopiesAvailable() {
-        Book bookNoStock = new Book(UUID.randomUUID(), "No Stock", "Author", new ISBN("978-00-000-000-0"), 2000, "Pub", "Gen", new BookStock(5, 0));
-        when(bookRepository.findById(bookNoStock.getId())).thenReturn(Optional.of(bookNoStock));
+        UUID bookNoStockId = UUID.randomUUID();
+        when(stripedStockCounter.takeAndGet(bookNoStockId)).thenReturn(Optional.empty());
+        when(bookRepository.existsById(bookNoStockId)).thenReturn(true);
 
-        OutOfStockException thrown = assertThrows(OutOfStockException.class, () -> bookService.borrowBook(bookNoStock.getId()));
+        OutOfStockException thrown = assertThrows(OutOfStockException.class, () -> bookService.borrowBook(bookNoStockId));
 
-        assertEquals("No copies of book with ID " + bookNoStock.getId() + " are available for borrowing.", thrown.getMessage());
-        verify(bookRepository, times(1)).findById(bookNoStock.getId());
-        verify(bookRepository, never()).save(any(Book.class));
+        assertEquals("No copies of book with ID " + bookNoStockId + " are available for borrowing.", thrown.getMessage());
+        verify(stripedStockCounter, times(1)).takeAndGet(bookNoStockId);
+        verify(bookRepository, never()).findById(any(UUID.class));
     }
 
     @Test
     @DisplayName("Should increase available copies when returning a book")
     void returnBook_shouldIncreaseAvailableCopies() {
-        Book borrowedBook = new Book(UUID.randomUUID(), "Borrowed Book", "Author", new ISBN("978-11-111-111-1"), 2000, "Pub", "Gen", new BookStock(5, 3));
-        when(bookRepository.findById(borrowedBook.getId())).thenReturn(Optional.of(borrowedBook));
-        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Book returnedBook = new Book(UUID.randomUUID(), "Borrowed Book", "Author", new ISBN("978-11-1111-111-3"), 2000, "Pub", "Gen", new BookStock(5, 4));
+        when(stripedStockCounter.giveBackAndGet(returnedBook.getId())).thenReturn(Optional.of(returnedBook));
 
-        Book result = bookService.returnBook(borrowedBook.getId());
+        Book result = bookService.returnBook(returnedBook.getId());
 
         assertNotNull(result);
-        assertEquals(4, result.getStock().getAvailableCopies()); // 3 + 1 = 4
-        assertEquals(5, result.getStock().getQuantity()); // Całkowita ilość bez zmian
-        verify(bookRepository, times(1)).findById(borrowedBook.getId());
-        verify(bookRepository, times(1)).save(borrowedBook);
+        assertEquals(4, result.getStock().getAvailableCopies());
+        assertEquals(5, result.getStock().getQuantity());
+        verify(stripedStockCounter, times(1)).giveBackAndGet(returnedBook.getId());
+        verify(bookRepository, never()).findById(any(UUID.class));
+        verify(bookRepository, never()).existsById(any(UUID.class));
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookFacetIndex, times(1)).adjustAvailableCopies(returnedBook.getId(), 1);
     }
 
     @Test
     @DisplayName("Should throw BookNotFoundException when book not found for returning")
     void returnBook_shouldThrowBookNotFoundExceptionWhenBookNotFound() {
-        when(bookRepository.findById(book1Id)).thenReturn(Optional.empty());
+        when(stripedStockCounter.giveBackAndGet(book1Id)).thenReturn(Optional.empty());
+        when(bookRepository.existsById(book1Id)).thenReturn(false);
 
         BookNotFoundException thrown = assertThrows(BookNotFoundException.class, () -> {
             bookService.returnBook(book1Id);
         });
 
         assertEquals("Book with ID " + book1Id + " not found.", thrown.getMessage());
-        verify(bookRepository, times(1)).findById(book1Id);
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(stripedStockCounter, times(1)).giveBackAndGet(book1Id);
+        verify(bookRepository, never()).findById(any(UUID.class));
     }
 
     @Test
     @DisplayName("Should throw InvalidQuantityException when all copies are already available upon returning")
     void returnBook_shouldThrowInvalidQuantityExceptionWhenAllCopiesAreAlreadyAvailable() {
-        Book fullStockBook = new Book(UUID.randomUUID(), "Full Stock Book", "Author", new ISBN("978-22-222-222-2"), 2000, "Pub", "Gen", new BookStock(5, 5));
-        when(bookRepository.findById(fullStockBook.getId())).thenReturn(Optional.of(fullStockBook));
+        UUID fullStockBookId = UUID.randomUUID();
+        when(stripedStockCounter.giveBackAndGet(fullStockBookId)).thenReturn(Optional.empty());
+        when(bookRepository.existsById(fullStockBookId)).thenReturn(true);
 
-        InvalidQuantityException thrown = assertThrows(InvalidQuantityException.class, () -> bookService.returnBook(fullStockBook.getId()));
+        InvalidQuantityException thrown = assertThrows(InvalidQuantityException.class, () -> bookService.returnBook(fullStockBookId));
 
-        assertEquals("Cannot return book with ID " + fullStockBook.getId() + " as all copies are already available.", thrown.getMessage()); // Poprawiony komunikat
-        verify(bookRepository, times(1)).findById(fullStockBook.getId());
-        verify(bookRepository, never()).save(any(Book.class));
+        assertEquals("Cannot return book with ID " + fullStockBookId + " as all copies are already available.", thrown.getMessage());
+        verify(stripedStockCounter, times(1)).giveBackAndGet(fullStockBookId);
+        verify(bookRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    @DisplayName("Should stripe stock, evict the cached book and return it with its logical availability")
+    void enableStockStriping_shouldStripeAndEvict() {
+        when(bookRepository.findById(book1Id)).thenReturn(Optional.of(book1));
+
+        Book result = bookService.enableStockStriping(book1Id, 4);
+
+        assertSame(book1, result);
+        verify(stripedStockCounter, times(1)).stripe(book1Id, 4);
+        verify(stripedStockCounter, times(1)).applyTo(book1);
+        verify(bookCache, times(1)).evict(book1Id);
+    }
+
+    @Test
+    @DisplayName("Should merge stock stripes and evict the cached book")
+    void disableStockStriping_shouldUnstripeAndEvict() {
+        when(stripedStockCounter.unstripe(book1Id)).thenReturn(4);
+        when(bookRepository.findById(book1Id)).thenReturn(Optional.of(book1));
+
+        Book result = bookService.disableStockStriping(book1Id);
+
+        assertSame(book1, result);
+        verify(stripedStockCounter, times(1)).unstripe(book1Id);
+        verify(bookCache, times(1)).evict(book1Id);
+    }
+
+    @Test
+    @DisplayName("Should return facet counts from the in-memory facet index")
+    void getFacets_shouldReturnSnapshotFromFacetIndex() {
+        BookFacetsResponse facets = new BookFacetsResponse(2, 2, List.of(), List.of(), List.of(), List.of());
+        when(bookFacetIndex.snapshot(20)).thenReturn(facets);
+
+        assertSame(facets, bookService.getFacets(20));
+        verifyNoInteractions(bookRepository);
     }
-}
\ No newline at end of file
+}
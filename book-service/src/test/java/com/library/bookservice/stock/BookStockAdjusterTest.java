@@ -0,0 +1,218 @@
+package com.library.bookservice.stock;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.dto.BookStockAdjustment;
+import com.library.bookservice.dto.BookStockAdjustmentKind;
+import com.library.bookservice.event.BookEventOutbox;
+import com.library.bookservice.facet.BookFacetIndex;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.repository.BookOutboxRepository;
+import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.repository.BookStockStripeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = BookStockAdjusterTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BookStockAdjuster Tests")
+class BookStockAdjusterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookStockAdjusterTest.class);
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStockStripeRepository stripeRepository;
+
+    @Autowired
+    private BookOutboxRepository bookOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StripedStockCounter stripedStockCounter;
+    private BookStockAdjuster adjuster;
+
+    @BeforeEach
+    void setUp() {
+        BookCache bookCache = new BookCache(new CaffeineCacheManager(BookCache.BOOKS_BY_ID, BookCache.BOOK_IDS_BY_ISBN,
+                BookCache.STRIPE_SUMS_BY_BOOK_ID), event -> {
+        });
+        stripedStockCounter = new StripedStockCounter(bookRepository, stripeRepository, entityManager, bookCache);
+        BookEventOutbox outbox = new BookEventOutbox(bookOutboxRepository, jdbcTemplate, JsonMapper.builder().findAndAddModules().build());
+        adjuster = new BookStockAdjuster(jdbcTemplate, transactionManager, stripedStockCounter, entityManager,
+                outbox, bookCache, new BookFacetIndex());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookOutboxRepository.deleteAll();
+        stripeRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should apply items in order against the running stock and reject invalid ones individually")
+    void adjust_shouldApplyValidItemsAndReportRejections() {
+        Book solaris = bookRepository.save(book("978-83-08-05244-0", 5, 2));
+        Book lalka = bookRepository.save(book("978-83-7779-052-6", 3, 3));
+        UUID missing = UUID.randomUUID();
+
+        BookStockAdjustmentReport report = adjuster.adjust(List.of(
+                new BookStockAdjustment(solaris.getId(), BookStockAdjustmentKind.INCREASE, 3),
+                new BookStockAdjustment(solaris.getId(), BookStockAdjustmentKind.INCREASE, 1),
+                new BookStockAdjustment(solaris.getId(), BookStockAdjustmentKind.RECEIVE, 4),
+                new BookStockAdjustment(lalka.getId(), BookStockAdjustmentKind.WRITE_OFF, 1),
+                new BookStockAdjustment(lalka.getId(), BookStockAdjustmentKind.DECREASE, 5),
+                new BookStockAdjustment(missing, BookStockAdjustmentKind.RECEIVE, 1),
+                new BookStockAdjustment(lalka.getId(), BookStockAdjustmentKind.DECREASE, 0),
+                new BookStockAdjustment(lalka.getId(), null, 1)));
+
+        assertEquals(8, report.getRequested());
+        assertEquals(3, report.getApplied());
+        assertEquals(5, report.getRejected());
+        assertEquals(2, report.getBooksChanged());
+        List<BookStockAdjustmentResult> results = report.getResults();
+        assertEquals(5, results.get(0).availableCopies());
+        assertEquals("All copies of the book are now available. Available: 5, total quantity: 5", results.get(1).error());
+        assertEquals(9, results.get(2).quantity());
+        assertEquals(9, results.get(2).availableCopies());
+        assertEquals(2, results.get(3).quantity());
+        assertEquals("The book is not currently available for loan. Available: 2, loan attempt: 5", results.get(4).error());
+        assertEquals("Book with ID " + missing + " not found.", results.get(5).error());
+        assertEquals("The number to be reduced must be greater than zero.", results.get(6).error());
+        assertFalse(results.get(7).applied());
+
+        Book adjustedSolaris = bookRepository.findById(solaris.getId()).orElseThrow();
+        assertEquals(new BookStock(9, 9), adjustedSolaris.getStock());
+        assertEquals(solaris.getVersion() + 1, adjustedSolaris.getVersion());
+        assertEquals(new BookStock(2, 2), bookRepository.findById(lalka.getId()).orElseThrow().getStock());
+        assertEquals(2, bookOutboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should adjust a striped book through its logical stock and split it again afterwards")
+    void adjust_shouldKeepStripedBooksStriped() {
+        Book book = bookRepository.save(book("978-83-7327-020-6", 8, 6));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> stripedStockCounter.stripe(book.getId(), 4));
+
+        BookStockAdjustmentReport report = adjuster.adjust(List.of(
+                new BookStockAdjustment(book.getId(), BookStockAdjustmentKind.RECEIVE, 2),
+                new BookStockAdjustment(book.getId(), BookStockAdjustmentKind.INCREASE, 2)));
+
+        assertEquals(2, report.getApplied());
+        assertEquals(10, report.getResults().get(1).availableCopies());
+        assertEquals(4, stripeRepository.findStripesByBookId(book.getId()).size());
+        Book adjusted = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(10, adjusted.getStock().getQuantity());
+        assertEquals(10, stripedStockCounter.availableCopies(adjusted));
+    }
+
+    @Test
+    @DisplayName("Should lock and adjust more books than fit in one IN list")
+    void adjust_shouldSpanSeveralIdChunks() {
+        List<UUID> ids = insertBooks(StripedStockCounter.MAX_IDS_PER_QUERY + 500);
+        List<BookStockAdjustment> adjustments = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            adjustments.add(new BookStockAdjustment(id, BookStockAdjustmentKind.WRITE_OFF, 1));
+        }
+
+        BookStockAdjustmentReport report = adjuster.adjust(adjustments);
+
+        assertEquals(ids.size(), report.getApplied());
+        assertEquals(ids.size(), report.getBooksChanged());
+        assertEquals(new BookStock(9, 4), bookRepository.findById(ids.get(0)).orElseThrow().getStock());
+        assertEquals(new BookStock(9, 4), bookRepository.findById(ids.get(ids.size() - 1)).orElseThrow().getStock());
+    }
+
+    // Runs with mvn -Pbenchmarks test; it reports the time on H2 and asserts only the outcome.
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Should apply ten thousand adjustments in a single batch")
+    void adjust_benchmarkTenThousandAdjustments() {
+        int books = 5_000;
+        List<UUID> ids = insertBooks(books);
+        List<BookStockAdjustment> adjustments = new ArrayList<>(2 * books);
+        for (UUID id : ids) {
+            adjustments.add(new BookStockAdjustment(id, BookStockAdjustmentKind.RECEIVE, 2));
+            adjustments.add(new BookStockAdjustment(id, BookStockAdjustmentKind.DECREASE, 3));
+        }
+
+        adjuster.adjust(adjustments.subList(0, 2_000));
+        long start = System.nanoTime();
+        BookStockAdjustmentReport report = adjuster.adjust(adjustments);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(10_000, report.getApplied());
+        assertEquals(books, report.getBooksChanged());
+        assertEquals(new BookStock(12, 4), bookRepository.findById(ids.get(books - 1)).orElseThrow().getStock());
+        logger.info("Applied {} stock adjustments to {} books in {} ms.", report.getApplied(), books, elapsedMillis);
+    }
+
+    private List<UUID> insertBooks(int books) {
+        List<UUID> ids = new ArrayList<>(books);
+        List<Object[]> rows = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            rows.add(new Object[]{id, "Title " + i, "Author", isbn13(i), Long.parseLong(isbn13(i)), 2000, "Publisher", "Genre", 10, 5});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books " +
+                "(id, title, author, isbn, isbn13, publication_year, publisher, genre, quantity, available_copies, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", rows);
+        return ids;
+    }
+
+    private static Book book(String isbn, int quantity, int available) {
+        return new Book(UUID.randomUUID(), "Title " + isbn, "Author", new ISBN(isbn), 2000, "Publisher", "Genre",
+                new BookStock(quantity, available));
+    }
+
+    private static String isbn13(int n) {
+        String digits = String.format("979%09d", n);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,88 @@
+package com.library.bookservice.stock;
+
+import com.library.bookservice.exception.OutOfStockException;
+import com.library.bookservice.exception.StockConflictException;
+import com.library.bookservice.model.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockConflictRetrier Unit Tests")
+class StockConflictRetrierTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockConflictRetrier retrier;
+    private UUID bookId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retrier = new StockConflictRetrier(transactionManager, meterRegistry, 3);
+        bookId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should replay a mutation in a fresh transaction until it stops conflicting")
+    void execute_shouldRetryOptimisticLockConflicts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retrier.execute(bookId, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Book.class, bookId);
+            }
+            return "updated";
+        });
+
+        assertEquals("updated", result);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(2, meterRegistry.counter("books.stock.conflict.retries").count());
+        assertEquals(0, meterRegistry.counter("books.stock.conflict.exhausted").count());
+    }
+
+    @Test
+    @DisplayName("Should give up with a conflict after the configured number of retries")
+    void execute_shouldStopAfterMaxRetries() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(StockConflictException.class, () -> retrier.execute(bookId, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Book.class, bookId);
+        }));
+
+        assertEquals(4, attempts.get());
+        assertEquals(3, meterRegistry.counter("books.stock.conflict.retries").count());
+        assertEquals(1, meterRegistry.counter("books.stock.conflict.exhausted").count());
+    }
+
+    @Test
+    @DisplayName("Should not retry business failures")
+    void execute_shouldNotRetryOtherExceptions() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OutOfStockException.class, () -> retrier.execute(bookId, () -> {
+            attempts.incrementAndGet();
+            throw new OutOfStockException("No copies left.");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, meterRegistry.counter("books.stock.conflict.retries").count());
+    }
+}
@@ -0,0 +1,256 @@
+package com.library.bookservice.stock;
+
+import com.library.bookservice.cache.BookCache;
+import com.library.bookservice.exception.InvalidQuantityException;
+import com.library.bookservice.model.Book;
+import com.library.bookservice.model.BookStockStripe;
+import com.library.bookservice.model.valueobjects.BookStock;
+import com.library.bookservice.model.valueobjects.ISBN;
+import com.library.bookservice.repository.BookRepository;
+import com.library.bookservice.repository.BookStockStripeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = StripedStockCounterTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("StripedStockCounter Tests")
+class StripedStockCounterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedStockCounterTest.class);
+
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStockStripeRepository stripeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private BookCache bookCache;
+    private StripedStockCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        bookCache = new BookCache(new CaffeineCacheManager(BookCache.BOOKS_BY_ID, BookCache.BOOK_IDS_BY_ISBN,
+                BookCache.STRIPE_SUMS_BY_BOOK_ID), event -> {
+        });
+        counter = new StripedStockCounter(bookRepository, stripeRepository, entityManager, bookCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripeRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should move available copies into evenly sized stripes and report their sum")
+    void stripe_shouldDistributeCopiesAcrossStripes() {
+        Book book = saveBook("978-83-08-05244-0", 10, 7);
+
+        transactionTemplate.executeWithoutResult(status -> counter.stripe(book.getId(), 4));
+
+        List<BookStockStripe> stripes = stripeRepository.findByBookId(book.getId());
+        assertEquals(4, stripes.size());
+        assertEquals(10, stripes.stream().mapToInt(BookStockStripe::getCapacity).sum());
+        assertEquals(7, stripes.stream().mapToInt(BookStockStripe::getAvailableCopies).sum());
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getStock().getAvailableCopies());
+
+        Book loaded = bookRepository.findById(book.getId()).orElseThrow();
+        counter.applyTo(loaded);
+        assertEquals(7, loaded.getStock().getAvailableCopies());
+        assertEquals(10, loaded.getStock().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Should reject stripe counts outside the allowed range")
+    void stripe_shouldRejectInvalidStripeCount() {
+        Book book = saveBook("978-83-08-05244-0", 3, 3);
+
+        assertThrows(InvalidQuantityException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> counter.stripe(book.getId(), 4)));
+        assertThrows(InvalidQuantityException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> counter.stripe(book.getId(), 1)));
+        assertTrue(stripeRepository.findByBookId(book.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should take and give back copies across stripes and merge them back into the row")
+    void takeAndGiveBack_shouldKeepLogicalCountAcrossStripes() {
+        Book book = saveBook("978-83-08-05244-0", 4, 4);
+        transactionTemplate.executeWithoutResult(status -> counter.stripe(book.getId(), 2));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> counter.take(book.getId())));
+        }
+        assertEquals(Boolean.FALSE, transactionTemplate.execute(status -> counter.take(book.getId())));
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> counter.giveBack(book.getId())));
+
+        Integer merged = transactionTemplate.execute(status -> counter.unstripe(book.getId()));
+
+        assertEquals(2, merged);
+        assertTrue(stripeRepository.findByBookId(book.getId()).isEmpty());
+        assertEquals(1, bookRepository.findById(book.getId()).orElseThrow().getStock().getAvailableCopies());
+    }
+
+    @Test
+    @DisplayName("Should hand back the book with its logical count after taking or giving back, striped or not")
+    void takeAndGetAndGiveBackAndGet_shouldReturnLogicalCount() {
+        Book singleRow = saveBook("978-83-08-05244-0", 3, 3);
+        Book striped = saveBook("978-83-7327-020-6", 4, 4);
+        transactionTemplate.executeWithoutResult(status -> counter.stripe(striped.getId(), 2));
+
+        for (Book book : List.of(singleRow, striped)) {
+            int quantity = book.getStock().getQuantity();
+            Book taken = transactionTemplate.execute(status -> counter.takeAndGet(book.getId()).orElseThrow());
+            assertEquals(quantity - 1, taken.getStock().getAvailableCopies());
+            Book givenBack = transactionTemplate.execute(status -> counter.giveBackAndGet(book.getId()).orElseThrow());
+            assertEquals(quantity, givenBack.getStock().getAvailableCopies());
+            assertTrue(transactionTemplate.execute(status -> counter.giveBackAndGet(book.getId())).isEmpty());
+        }
+        assertEquals(0, bookRepository.findById(striped.getId()).orElseThrow().getStock().getAvailableCopies());
+    }
+
+    @Test
+    @DisplayName("Should give back to the row when every stripe is full, but never beyond the quantity")
+    void giveBack_shouldFallBackToRow_whenStripesAreFull() {
+        Book book = saveBook("978-83-08-05244-0", 4, 4);
+        transactionTemplate.executeWithoutResult(status -> counter.stripe(book.getId(), 2));
+        assertEquals(Boolean.FALSE, transactionTemplate.execute(status -> counter.giveBack(book.getId())));
+        // A fifth copy on the quantity that the stripe capacities do not cover.
+        transactionTemplate.executeWithoutResult(status -> {
+            Book loaded = bookRepository.findById(book.getId()).orElseThrow();
+            loaded.setStock(new BookStock(5, 0));
+            bookRepository.save(loaded);
+        });
+
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> counter.giveBack(book.getId())));
+        assertEquals(Boolean.FALSE, transactionTemplate.execute(status -> counter.giveBack(book.getId())));
+
+        Book loaded = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(1, loaded.getStock().getAvailableCopies());
+        assertEquals(5, counter.availableCopies(loaded));
+    }
+
+    @Test
+    @DisplayName("Should never over-lend under concurrent borrowing, striped or not")
+    void take_shouldNotOverLendUnderConcurrency() throws Exception {
+        Book singleRow = saveBook("978-83-08-05244-0", 50, 50);
+        Book striped = saveBook("978-83-7327-020-6", 50, 50);
+        transactionTemplate.executeWithoutResult(status -> counter.stripe(striped.getId(), 8));
+
+        assertEquals(50, borrowConcurrently(singleRow.getId(), 120, "single row"));
+        assertEquals(50, borrowConcurrently(striped.getId(), 120, "8 stripes"));
+
+        Book loaded = bookRepository.findById(striped.getId()).orElseThrow();
+        counter.applyTo(loaded);
+        assertEquals(0, loaded.getStock().getAvailableCopies());
+    }
+
+    @Test
+    @DisplayName("Should apply the stripes of listed books from the cache until a stock change evicts the book")
+    void applyTo_shouldCacheStripeSumsOfListedBooksUntilEvicted() {
+        Book striped = saveBook("978-83-08-05244-0", 10, 10);
+        Book single = saveBook("978-83-7327-020-6", 5, 3);
+        transactionTemplate.executeWithoutResult(status -> counter.stripe(striped.getId(), 2));
+
+        List<Book> listed = bookRepository.findAllById(List.of(striped.getId(), single.getId()));
+        counter.applyTo(listed);
+        assertEquals(Optional.of(10), bookCache.getStripeSum(striped.getId()));
+        assertEquals(Optional.of(0), bookCache.getStripeSum(single.getId()));
+        assertEquals(Set.of(10, 3), availableCopies(listed));
+
+        transactionTemplate.executeWithoutResult(status -> counter.take(striped.getId()));
+        List<Book> cached = bookRepository.findAllById(List.of(striped.getId(), single.getId()));
+        counter.applyTo(cached);
+        assertEquals(Set.of(10, 3), availableCopies(cached));
+
+        bookCache.evictLocally(striped.getId());
+        List<Book> refreshed = bookRepository.findAllById(List.of(striped.getId(), single.getId()));
+        counter.applyTo(refreshed);
+        assertEquals(Set.of(9, 3), availableCopies(refreshed));
+    }
+
+    @Test
+    @DisplayName("Should read a single book's own stripes without the cache")
+    void applyTo_shouldReadSingleBookStripesDirectly() {
+        Book striped = saveBook("978-83-08-05244-0", 10, 10);
+        transactionTemplate.executeWithoutResult(status -> counter.stripe(striped.getId(), 2));
+        bookCache.putStripeSum(striped.getId(), 4);
+
+        Book loaded = bookRepository.findById(striped.getId()).orElseThrow();
+        counter.applyTo(loaded);
+
+        assertEquals(10, loaded.getStock().getAvailableCopies());
+    }
+
+    private static Set<Integer> availableCopies(List<Book> books) {
+        return books.stream().map(book -> book.getStock().getAvailableCopies()).collect(Collectors.toSet());
+    }
+
+    private int borrowConcurrently(UUID bookId, int attempts, String mode) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            long start = System.nanoTime();
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> transactionTemplate.execute(status -> counter.take(bookId))));
+            }
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (Boolean.TRUE.equals(result.get())) {
+                    succeeded++;
+                }
+            }
+            logger.info("{} concurrent borrows ({}): {} succeeded in {} ms.", attempts, mode, succeeded,
+                    (System.nanoTime() - start) / 1_000_000);
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Book saveBook(String isbn, int quantity, int available) {
+        return bookRepository.save(new Book("Solaris", "Stanisław Lem", new ISBN(isbn), 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookStock(quantity, available)));
+    }
+}
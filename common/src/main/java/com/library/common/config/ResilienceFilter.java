@@ -0,0 +1,97 @@
+package com.library.common.config;
+
+import com.library.common.exception.DownstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+
+// Outermost filter of a service client: every call goes through the service's bulkhead and circuit breaker, and GETs
+// are retried with jittered backoff while the retry budget allows it.
+class ResilienceFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceFilter.class);
+
+    static final String REJECTIONS_METRIC = "library.http.client.rejections";
+    static final String RETRIES_METRIC = "library.http.client.retries";
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    private final String target;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final RetryBudget retryBudget;
+    private final int retryMaxAttempts;
+    private final Duration retryBackoff;
+    private final MeterRegistry meterRegistry;
+
+    ResilienceFilter(String target, CircuitBreaker circuitBreaker, Bulkhead bulkhead, RetryBudget retryBudget,
+                     int retryMaxAttempts, Duration retryBackoff, MeterRegistry meterRegistry) {
+        this.target = target;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retryBudget = retryBudget;
+        this.retryMaxAttempts = retryMaxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        boolean idempotent = request.method() == HttpMethod.GET;
+        Mono<ClientResponse> call = Mono.defer(() -> next.exchange(request))
+                .flatMap(response -> idempotent && RETRYABLE_STATUSES.contains(response.statusCode().value())
+                        ? response.createException().flatMap(Mono::error)
+                        : Mono.just(response))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class, e -> rejected("circuit_open", "Circuit breaker is open, failing fast."))
+                .onErrorMap(BulkheadFullException.class, e -> rejected("bulkhead_full", "Too many concurrent calls, failing fast."));
+        retryBudget.deposit();
+        if (!idempotent) {
+            return call;
+        }
+        return call.retryWhen(Retry.backoff(retryMaxAttempts, retryBackoff)
+                .jitter(0.5)
+                .filter(this::shouldRetry)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private boolean shouldRetry(Throwable e) {
+        boolean transientFailure = e instanceof WebClientRequestException
+                || (e instanceof WebClientResponseException response && RETRYABLE_STATUSES.contains(response.getStatusCode().value()));
+        if (!transientFailure) {
+            return false;
+        }
+        if (!retryBudget.tryWithdraw()) {
+            meterRegistry.counter(RETRIES_METRIC, "target", target, "outcome", "budget_exhausted").increment();
+            logger.warn("Retry budget for {} is exhausted, not retrying: {}", target, e.getMessage());
+            return false;
+        }
+        meterRegistry.counter(RETRIES_METRIC, "target", target, "outcome", "retried").increment();
+        return true;
+    }
+
+    private DownstreamUnavailableException rejected(String reason, String message) {
+        meterRegistry.counter(REJECTIONS_METRIC, "target", target, "reason", reason).increment();
+        logger.warn("Call to {} rejected: {}", target, message);
+        return new DownstreamUnavailableException(target, message);
+    }
+}
@@ -0,0 +1,27 @@
+package com.library.common.config;
+
+// Caps retries at a fraction of recent traffic, so a struggling service is not hit with a multiple of its normal load.
+final class RetryBudget {
+
+    private final double depositPerRequest;
+    private final double maxTokens;
+    private double tokens;
+
+    RetryBudget(double depositPerRequest, int maxTokens) {
+        this.depositPerRequest = depositPerRequest;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + depositPerRequest);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package com.library.common.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.beans.PropertyDescriptor;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "library.http-clients")
+public class ServiceClientProperties {
+
+    private Client defaults = Client.defaults();
+
+    // Keyed by the lower-case service id, e.g. book-service; any setting left out falls back to the defaults.
+    private Map<String, Client> services = new HashMap<>();
+
+    public Client forService(String serviceId) {
+        Client overrides = services.get(serviceId.toLowerCase(Locale.ROOT));
+        return overrides == null ? defaults : overrides.withFallback(defaults);
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Client {
+        private Integer maxConnections;
+        private Integer pendingAcquireMaxCount;
+        private Duration pendingAcquireTimeout;
+        private Duration connectTimeout;
+        private Duration responseTimeout;
+        // Kept below the servers' keep-alive timeout so the pool drops a connection before the other side does.
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration evictionInterval;
+        private Boolean http2;
+        private Boolean compression;
+        private Boolean poolMetrics;
+        // Largest response body decoded in memory; a full 1000-id batch response is well over WebClient's 256KB default.
+        private DataSize maxInMemorySize;
+        private Float failureRateThreshold;
+        private Duration slowCallDuration;
+        private Float slowCallRateThreshold;
+        private Integer slidingWindowSize;
+        private Integer minimumNumberOfCalls;
+        private Duration openStateWait;
+        private Integer halfOpenCalls;
+        private Integer maxConcurrentCalls;
+        // GETs only; each request earns retry-budget-ratio of a retry, capped at retry-budget-max banked retries.
+        private Integer retryMaxAttempts;
+        private Duration retryBackoff;
+        private Double retryBudgetRatio;
+        private Integer retryBudgetMax;
+
+        static Client defaults() {
+            Client client = new Client();
+            client.maxConnections = 50;
+            client.pendingAcquireMaxCount = 500;
+            client.pendingAcquireTimeout = Duration.ofSeconds(2);
+            client.connectTimeout = Duration.ofSeconds(1);
+            client.responseTimeout = Duration.ofSeconds(5);
+            client.maxIdleTime = Duration.ofSeconds(15);
+            client.maxLifeTime = Duration.ofMinutes(5);
+            client.evictionInterval = Duration.ofSeconds(30);
+            client.http2 = false;
+            client.compression = true;
+            client.poolMetrics = true;
+            client.maxInMemorySize = DataSize.ofMegabytes(4);
+            client.failureRateThreshold = 50f;
+            client.slowCallDuration = Duration.ofSeconds(2);
+            client.slowCallRateThreshold = 80f;
+            client.slidingWindowSize = 20;
+            client.minimumNumberOfCalls = 10;
+            client.openStateWait = Duration.ofSeconds(10);
+            client.halfOpenCalls = 3;
+            client.maxConcurrentCalls = 25;
+            client.retryMaxAttempts = 2;
+            client.retryBackoff = Duration.ofMillis(100);
+            client.retryBudgetRatio = 0.2;
+            client.retryBudgetMax = 10;
+            return client;
+        }
+
+        Client withFallback(Client fallback) {
+            Client client = new Client();
+            BeanWrapper overrides = new BeanWrapperImpl(this);
+            BeanWrapper defaults = new BeanWrapperImpl(fallback);
+            BeanWrapper merged = new BeanWrapperImpl(client);
+            for (PropertyDescriptor property : overrides.getPropertyDescriptors()) {
+                String name = property.getName();
+                if (merged.isWritableProperty(name)) {
+                    Object value = overrides.getPropertyValue(name);
+                    merged.setPropertyValue(name, value != null ? value : defaults.getPropertyValue(name));
+                }
+            }
+            return client;
+        }
+    }
+}
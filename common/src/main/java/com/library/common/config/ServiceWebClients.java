@@ -0,0 +1,185 @@
+package com.library.common.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One long-lived WebClient per target service, each with its own connection pool, circuit breaker and bulkhead, so
+// connections are reused across requests and a slow service can only exhaust its own resources.
+public class ServiceWebClients implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceWebClients.class);
+
+    static final String REQUESTS_METRIC = "library.http.client.requests";
+    static final String ERRORS_METRIC = "library.http.client.errors";
+
+    private final WebClient.Builder baseBuilder;
+    private final ServiceClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, WebClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, ConnectionProvider> connectionProviders = new ConcurrentHashMap<>();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+    public ServiceWebClients(WebClient.Builder baseBuilder, ServiceClientProperties properties, MeterRegistry meterRegistry) {
+        this.baseBuilder = baseBuilder;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        // Breaker state, failure rates and bulkhead headroom per target, next to the request timers.
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    public WebClient forService(String serviceId) {
+        return clients.computeIfAbsent(serviceId.toLowerCase(Locale.ROOT), this::create);
+    }
+
+    private WebClient create(String target) {
+        ServiceClientProperties.Client settings = properties.forService(target);
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(target)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .maxLifeTime(settings.getMaxLifeTime())
+                .evictInBackground(settings.getEvictionInterval())
+                .metrics(settings.getPoolMetrics())
+                .build();
+        connectionProviders.put(target, connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(settings.getResponseTimeout())
+                .compress(settings.getCompression());
+        if (settings.getHttp2()) {
+            // Cleartext HTTP/2 through the HTTP/1.1 upgrade, so services that do not speak it keep working.
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        logger.info("Created HTTP client for {} with up to {} pooled connections and a {} ms response timeout.",
+                target, settings.getMaxConnections(), settings.getResponseTimeout().toMillis());
+
+        ResilienceFilter resilience = new ResilienceFilter(target, circuitBreaker(target, settings), bulkhead(target, settings),
+                new RetryBudget(settings.getRetryBudgetRatio(), settings.getRetryBudgetMax()),
+                settings.getRetryMaxAttempts(), settings.getRetryBackoff(), meterRegistry);
+        return baseBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) settings.getMaxInMemorySize().toBytes()))
+                // Ahead of the load balancer, so a retried GET can land on another instance.
+                .filters(filters -> filters.add(0, resilience))
+                .filter(metrics(target))
+                .build();
+    }
+
+    private CircuitBreaker circuitBreaker(String target, ServiceClientProperties.Client settings) {
+        return circuitBreakerRegistry.circuitBreaker(target, CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDuration())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getOpenStateWait())
+                .permittedNumberOfCallsInHalfOpenState(settings.getHalfOpenCalls())
+                // A 4xx is the caller's problem (not found, conflict), not a sign the service is unhealthy.
+                .recordException(e -> !(e instanceof WebClientResponseException response) || response.getStatusCode().is5xxServerError())
+                .recordResult(result -> result instanceof ClientResponse response && response.statusCode().is5xxServerError())
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+    }
+
+    private Bulkhead bulkhead(String target, ServiceClientProperties.Client settings) {
+        return bulkheadRegistry.bulkhead(target, BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    // Times each exchange up to the response headers and tags it by target, method and outcome.
+    private ExchangeFilterFunction metrics(String target) {
+        return (request, next) -> Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicBoolean recorded = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnSuccess(response -> {
+                        if (response != null && recorded.compareAndSet(false, true)) {
+                            record(sample, target, request, outcome(response), String.valueOf(response.statusCode().value()));
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(sample, target, request, outcome(e), "NONE");
+                            meterRegistry.counter(ERRORS_METRIC, "target", target, "exception", e.getClass().getSimpleName())
+                                    .increment();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(sample, target, request, "CANCELLED", "NONE");
+                        }
+                    });
+        });
+    }
+
+    private void record(Timer.Sample sample, String target, ClientRequest request, String outcome, String status) {
+        sample.stop(Timer.builder(REQUESTS_METRIC)
+                .tag("target", target)
+                .tag("method", request.method().name())
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .register(meterRegistry));
+    }
+
+    private static String outcome(ClientResponse response) {
+        int status = response.statusCode().value();
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return status >= 300 ? "REDIRECTION" : "SUCCESS";
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof TimeoutException || e instanceof io.netty.handler.timeout.TimeoutException) {
+            return "TIMEOUT";
+        }
+        return e instanceof IOException ? "IO_ERROR" : "UNKNOWN";
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+    }
+}
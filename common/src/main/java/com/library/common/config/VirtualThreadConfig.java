@@ -0,0 +1,25 @@
+package com.library.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Only active when spring.threads.virtual.enabled is set and the JVM is 21+; Tomcat, @Scheduled and the
+// application task executor are then switched over by Spring Boot itself.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                   @Value("${library.threads.pinning-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), threshold);
+    }
+}
@@ -1,6 +1,10 @@
 package com.library.common.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +14,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 @Configuration
+@EnableConfigurationProperties(ServiceClientProperties.class)
 public class WebClientConfig {
 
     @Value("${internal.api-key.header-name}")
@@ -25,10 +30,11 @@ public class WebClientConfig {
     }
 
     @Bean
-    public WebClient webClient(WebClient.Builder builder) {
-        return builder
-                .filter(addApiKeyHeaderFilter())
-                .build();
+    public ServiceWebClients serviceWebClients(@LoadBalanced WebClient.Builder builder,
+                                               ServiceClientProperties properties,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServiceWebClients(builder.clone().filter(addApiKeyHeaderFilter()), properties,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
     }
 
     private ExchangeFilterFunction addApiKeyHeaderFilter() {
@@ -38,4 +44,4 @@ public class WebClientConfig {
                         .build());
         });
     }
-}
\ No newline at end of file
+}
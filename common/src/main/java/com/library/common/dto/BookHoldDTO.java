@@ -0,0 +1,19 @@
+package com.library.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookHoldDTO implements Serializable {
+    private UUID id;
+    private UUID bookId;
+    private String status;
+    private Instant expiresAt;
+}
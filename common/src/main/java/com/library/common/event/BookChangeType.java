@@ -0,0 +1,7 @@
+package com.library.common.event;
+
+public enum BookChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,11 @@
+package com.library.common.event;
+
+public enum BookStockChangeReason {
+    BORROWED,
+    RETURNED,
+    HELD,
+    HOLD_RETURNED,
+    INCREASED,
+    DECREASED,
+    ADJUSTED
+}
@@ -0,0 +1,22 @@
+package com.library.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+// quantity and availableCopies are the book's stock right after the change; delta is the change itself.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookStockChangedEvent implements Serializable {
+    private UUID bookId;
+    private BookStockChangeReason reason;
+    private int delta;
+    private int quantity;
+    private int availableCopies;
+    private Instant occurredAt;
+}
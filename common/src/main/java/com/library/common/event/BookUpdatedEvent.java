@@ -0,0 +1,24 @@
+package com.library.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+// Only bookId, change and occurredAt are set for DELETED.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookUpdatedEvent implements Serializable {
+    private UUID bookId;
+    private BookChangeType change;
+    private String title;
+    private String author;
+    private String isbn;
+    private Integer quantity;
+    private Integer availableCopies;
+    private Instant occurredAt;
+}
@@ -0,0 +1,15 @@
+package com.library.common.exception;
+
+import lombok.Getter;
+
+// Raised without calling the service when its circuit breaker is open or its concurrent call limit is reached.
+@Getter
+public class DownstreamUnavailableException extends ServiceCommunicationException {
+
+    private final String reason;
+
+    public DownstreamUnavailableException(String serviceName, String reason) {
+        super(serviceName, reason);
+        this.reason = reason;
+    }
+}
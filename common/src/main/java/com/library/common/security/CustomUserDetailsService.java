@@ -1,6 +1,8 @@
 package com.library.common.security;
 
+import com.library.common.config.ServiceWebClients;
 import com.library.common.dto.UserAuthDTO;
+import com.library.common.exception.DownstreamUnavailableException;
 import com.library.common.exception.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -9,7 +11,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 @Service
@@ -18,14 +19,15 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
-    private final WebClient webClient;
+    private final ServiceWebClients serviceWebClients;
+    private final static String USER_SERVICE = "USER-SERVICE";
     private final static String userServiceInternalAuthUrl = "http://USER-SERVICE/api/users";
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UserNotFoundException {
         try {
             logger.info("Attempting to fetch user authentication data for email: {}", email);
-            UserAuthDTO userAuthDTO = webClient.get()
+            UserAuthDTO userAuthDTO = serviceWebClients.forService(USER_SERVICE).get()
                     .uri(userServiceInternalAuthUrl + "/internal/auth-data/" + email)
                     .retrieve()
                     .bodyToMono(UserAuthDTO.class)
@@ -40,6 +42,9 @@ public class CustomUserDetailsService implements UserDetailsService {
         } catch (WebClientResponseException.NotFound ex) {
             logger.warn("User not found by email: {} - Details: {}", email, ex.getMessage());
             throw new UserNotFoundException("User auth data not found for email: " + email);
+        } catch (DownstreamUnavailableException ex) {
+            logger.warn("User Service unavailable while fetching user auth data for email: {} - {}", email, ex.getReason());
+            throw ex;
         } catch (Exception ex) {
             logger.error("Error communicating with user-service to fetch user auth data for email: {}", email, ex);
             throw new RuntimeException("Error communicating with user-service to fetch user auth data: " + email, ex);
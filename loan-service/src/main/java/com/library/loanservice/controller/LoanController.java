@@ -1,6 +1,8 @@
 package com.library.loanservice.controller;
 
 import com.library.common.dto.ResponseDTO;
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.dto.LoanPageResponse;
 import com.library.loanservice.model.Loan;
 import com.library.loanservice.service.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,9 +31,38 @@ public class LoanController {
 
     private static final Logger logger = LoggerFactory.getLogger(LoanController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final LoanService loanService;
 
-    @Operation(summary = "Get all loans", description = "Retrieves a list of all existing loans.")
+    @Operation(summary = "Get loans page", description = "Retrieves a page of loans matching the filters using keyset pagination. Pass the returned nextCursor to fetch the following page.")
+    @Parameter(name = "cursor", description = "Opaque cursor returned with the previous page")
+    @Parameter(name = "size", description = "Number of loans per page (1-" + MAX_PAGE_SIZE + ")", example = "20")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page of loans",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = LoanPageResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or filter",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
+    public ResponseEntity<LoanPageResponse> getLoans(
+            @ParameterObject LoanFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        logger.info("Received request to get page of loans.");
+        return ResponseEntity.ok(getPage(filter, cursor, size));
+    }
+
+    @Operation(summary = "Get all loans", description = "Retrieves a list of all existing loans in one response. Requires the explicit unpaged=true opt-in.")
+    @Parameter(name = "unpaged", description = "Must be true to receive every loan as a single list", required = true, example = "true")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved list of loans",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = Loan.class)))
@@ -40,7 +72,7 @@ public class LoanController {
     @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
-    @GetMapping
+    @GetMapping(params = "unpaged=true")
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
     public ResponseEntity<List<Loan>> getAllLoans() {
         logger.info("Received request to get all loans.");
@@ -75,18 +107,20 @@ public class LoanController {
         return ResponseEntity.ok(loan);
     }
 
-    @Operation(summary = "Get loans by user ID", description = "Retrieves a list of all loans associated with a specific user ID.")
-    @Parameter(description = "Unique ID of the user whose loans are to be retrieved", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of loans",
+    @Operation(summary = "Get loans by user ID", description = "Retrieves a page of the loans of a specific user ID matching the filters. An empty page means the user has no such loans.")
+    @Parameter(name = "userId", description = "Unique ID of the user whose loans are to be retrieved", required = true, example = "a1b2c3d4-e5f6-7890-1234-567890abcdef")
+    @Parameter(name = "cursor", description = "Opaque cursor returned with the previous page")
+    @Parameter(name = "size", description = "Number of loans per page (1-" + MAX_PAGE_SIZE + ")", example = "20")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page of loans",
             content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = Loan.class)))
-    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+                    schema = @Schema(implementation = LoanPageResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or filter",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
-    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires USER role)",
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
-    @ApiResponse(responseCode = "404", description = "Loans for the specified user ID not found",
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires USER role)",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
@@ -94,27 +128,32 @@ public class LoanController {
                     schema = @Schema(implementation = ResponseDTO.class)))
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR') or (hasRole('USER') and #userId == authentication.principal.id)")
-    public ResponseEntity<List<Loan>> getLoansByUserId(@PathVariable UUID userId) {
+    public ResponseEntity<LoanPageResponse> getLoansByUserId(
+            @PathVariable UUID userId,
+            @ParameterObject LoanFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         logger.info("Received request to get loans by user ID: {}", userId);
-        List<Loan> loans = loanService.getLoansByUserId(userId);
-        logger.debug("Returning {} loans for user ID: {}", loans.size(), userId);
-        return ResponseEntity.ok(loans);
+        filter.setUserId(userId);
+        return ResponseEntity.ok(getPage(filter, cursor, size));
     }
 
     @Operation(
             summary = "Get loans by book ID",
-            description = "Retrieves a list of all loans associated with a specific book ID.")
-    @Parameter(description = "Unique ID of the book whose loans are to be retrieved", required = true, example = "b1c2d3e4-f5a6-7890-1234-567890abcdef")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of loans",
+            description = "Retrieves a page of the loans of a specific book ID matching the filters. An empty page means the book has no such loans.")
+    @Parameter(name = "bookId", description = "Unique ID of the book whose loans are to be retrieved", required = true, example = "b1c2d3e4-f5a6-7890-1234-567890abcdef")
+    @Parameter(name = "cursor", description = "Opaque cursor returned with the previous page")
+    @Parameter(name = "size", description = "Number of loans per page (1-" + MAX_PAGE_SIZE + ")", example = "20")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page of loans",
             content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = Loan.class)))
-    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+                    schema = @Schema(implementation = LoanPageResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or filter",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
-    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires USER role)",
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
-    @ApiResponse(responseCode = "404", description = "Loans for the specified book ID not found",
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires USER role)",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ResponseDTO.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error - An unexpected error occurred",
@@ -122,11 +161,14 @@ public class LoanController {
                     schema = @Schema(implementation = ResponseDTO.class)))
     @GetMapping("/book/{bookId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EDITOR')")
-    public ResponseEntity<List<Loan>> getLoansByBookId(@PathVariable UUID bookId) {
+    public ResponseEntity<LoanPageResponse> getLoansByBookId(
+            @PathVariable UUID bookId,
+            @ParameterObject LoanFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         logger.info("Received request to get loans by book ID: {}", bookId);
-        List<Loan> loans = loanService.getLoansByBookId(bookId);
-        logger.debug("Returning {} loans for book ID: {}", loans.size(), bookId);
-        return ResponseEntity.ok(loans);
+        filter.setBookId(bookId);
+        return ResponseEntity.ok(getPage(filter, cursor, size));
     }
 
     @Operation(
@@ -203,4 +245,11 @@ public class LoanController {
         logger.info("Loan with ID: {} successfully returned.", loanId);
         return ResponseEntity.ok(returnedLoan);
     }
-}
\ No newline at end of file
+
+    private LoanPageResponse getPage(LoanFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LoanPageResponse page = loanService.getLoans(filter, cursor, pageSize);
+        logger.debug("Returning {} loans. Has next page: {}", page.getSize(), page.isHasNext());
+        return page;
+    }
+}
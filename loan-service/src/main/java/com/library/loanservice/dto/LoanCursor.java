@@ -0,0 +1,33 @@
+package com.library.loanservice.dto;
+
+import com.library.loanservice.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Listings run in id order, so the last id of a page is all the next one needs.
+@Getter
+@AllArgsConstructor
+public class LoanCursor {
+
+    private final UUID id;
+
+    public static LoanCursor from(LoanSummary loan) {
+        return new LoanCursor(loan.getId());
+    }
+
+    public static LoanCursor decode(String cursor) {
+        try {
+            return new LoanCursor(UUID.fromString(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("The cursor is malformed.");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.loanservice.dto;
+
+import com.library.loanservice.model.LoanStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanFilter {
+
+    @Schema(description = "Only loans of the given user")
+    private UUID userId;
+
+    @Schema(description = "Only loans of the given book")
+    private UUID bookId;
+
+    @Schema(description = "Only loans in the given status", example = "BORROWED")
+    private LoanStatus status;
+
+    @Schema(description = "Only loans made on or after this day", example = "2024-06-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate loanedFrom;
+
+    @Schema(description = "Only loans made on or before this day", example = "2024-06-30")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate loanedTo;
+
+    @Schema(description = "Only loans due on or after this day", example = "2024-06-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+
+    @Schema(description = "Only loans due on or before this day", example = "2024-06-30")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+
+    @Schema(description = "Only open loans past their due date (true) or only the others (false)", example = "true")
+    private Boolean overdue;
+}
@@ -0,0 +1,17 @@
+package com.library.loanservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanPageResponse {
+    private List<LoanSummary> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,35 @@
+package com.library.loanservice.dto;
+
+import com.library.loanservice.model.LoanStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// The columns a loan listing shows, selected into this class directly instead of loading and tracking Loan entities.
+@Data
+@NoArgsConstructor
+public class LoanSummary {
+    private UUID id;
+    private UUID bookId;
+    private UUID userId;
+    private LocalDate loanDate;
+    private LocalDate dueDate;
+    private LocalDate returnDate;
+    private LoanStatus status;
+    private Double fineAmount;
+    private Double fineDue;
+
+    public LoanSummary(UUID id, UUID bookId, UUID userId, LocalDate loanDate, LocalDate dueDate, LocalDate returnDate,
+                       LoanStatus status, Double fineAmount) {
+        this.id = id;
+        this.bookId = bookId;
+        this.userId = userId;
+        this.loanDate = loanDate;
+        this.dueDate = dueDate;
+        this.returnDate = returnDate;
+        this.status = status;
+        this.fineAmount = fineAmount;
+    }
+}
@@ -38,9 +38,15 @@ public class Loan {
     @Enumerated(EnumType.STRING)
     private LoanStatus status;
 
-    // Pole na podatek lub karę za przetrzymanie - opcjonalne, na przyszłość
+    // Fine settled when the loan is returned; open loans accrue theirs from their dates, see FinePolicy.
     private Double fineAmount;
-    //TODO
+
+    // Day the overdue job moved the loan to OVERDUE; the overdue notice for that day is built from it.
+    private LocalDate overdueSince;
+
+    // Fine owed as of the request: derived for open loans, the settled fineAmount for returned ones.
+    @Transient
+    private Double fineDue;
 
     public Loan(UUID bookId, UUID userId, LocalDate loanDate, LocalDate returnDate, LoanStatus status) {
         this.bookId = bookId;
@@ -49,11 +55,4 @@ public class Loan {
         this.returnDate = returnDate;
         this.status = status;
     }
-
-    public void increaseFineAmount(double dailyFine) {
-        if (this.fineAmount == null) {
-            this.fineAmount = 0.0;
-        }
-        this.fineAmount += dailyFine;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.library.loanservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Rows are written in the transaction that changed the loan and deleted once relayed; the id fixes relay order.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "loan_outbox", indexes = @Index(name = "idx_loan_outbox_loan_id", columnList = "loan_id"))
+public class LoanOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false, updatable = false)
+    private UUID loanId;
+
+    @Column(name = "event_type", nullable = false, updatable = false)
+    private String eventType;
+
+    @Column(nullable = false, updatable = false, length = 8000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,59 @@
+package com.library.loanservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Progress of one day's overdue job over one partition of the loans. Each chunk moves its checkpoint in the
+// transaction that applies it, so a restarted job continues after the last committed chunk instead of starting over.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "loan_overdue_runs")
+@IdClass(LoanOverdueRun.Key.class)
+public class LoanOverdueRun {
+
+    @Id
+    private LocalDate runDate;
+
+    @Id
+    private int partitionIndex;
+
+    // Partitions of the day's run; every replica has to slice the loans the same way.
+    private int partitionCount;
+
+    @Column(nullable = false)
+    private UUID overdueCheckpoint;
+
+    @Column(nullable = false)
+    private UUID noticeCheckpoint;
+
+    private long markedOverdue;
+
+    private long noticesQueued;
+
+    private Instant startedAt;
+
+    private Instant markingCompletedAt;
+
+    private Instant completedAt;
+
+    // Also makes save() insert a new run, so two replicas starting the same day cannot both create it.
+    @Version
+    private Long version;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate runDate;
+        private int partitionIndex;
+    }
+}
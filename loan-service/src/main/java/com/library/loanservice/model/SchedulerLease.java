@@ -0,0 +1,35 @@
+package com.library.loanservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Claim of one replica on one run of a scheduled job, e.g. "loan-reminders/2024-06-10/0-of-1". The holder may work on
+// the run until lockedUntil; once completedAt is set the run is never repeated, not even by a replica firing late.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    @Column(nullable = false)
+    private Instant lockedUntil;
+
+    // Last loan id whose work was committed, for jobs that resume a run a previous holder could not finish.
+    private UUID checkpoint;
+
+    private Instant completedAt;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,70 @@
+package com.library.loanservice.producer;
+
+import com.library.loanservice.model.LoanOutboxEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class KafkaLoanEventPublisher implements LoanEventPublisher {
+
+    public static final String EVENT_ID_HEADER = "loan-event-id";
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaLoanEventPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final long sendTimeoutMillis;
+
+    public KafkaLoanEventPublisher(KafkaTemplate<String, String> kafkaTemplate,
+                                   @Value("${loans.events.topic:loan-events}") String topic,
+                                   @Value("${loans.events.send-timeout-millis:10000}") long sendTimeoutMillis) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @Override
+    public int publish(List<LoanOutboxEvent> events) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (LoanOutboxEvent event : events) {
+            // Keyed by loan so every consumer sees one loan's events in order.
+            ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.getLoanId().toString(), event.getPayload());
+            record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getEventType().getBytes(StandardCharsets.UTF_8));
+            record.headers().add(EVENT_ID_HEADER, event.getId().toString().getBytes(StandardCharsets.UTF_8));
+            try {
+                sends.add(kafkaTemplate.send(record));
+            } catch (RuntimeException e) {
+                // Anything after a rejected send would overtake it, so the rest of the batch waits for the next poll.
+                logger.warn("Kafka rejected loan event {} on topic {}: {}", event.getId(), topic, e.getMessage());
+                break;
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return i;
+            } catch (ExecutionException | TimeoutException e) {
+                logger.warn("Publishing loan events to topic {} failed after {} of {}, the rest stay in the outbox: {}",
+                        topic, i, events.size(), e.getMessage());
+                return i;
+            }
+        }
+        return sends.size();
+    }
+}
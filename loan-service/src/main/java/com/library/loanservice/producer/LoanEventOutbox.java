@@ -0,0 +1,73 @@
+package com.library.loanservice.producer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.dto.BookHoldDTO;
+import com.library.common.event.LoanCreatedEvent;
+import com.library.common.event.LoanOverdueEvent;
+import com.library.common.event.LoanReminderEvent;
+import com.library.common.event.LoanReturnedEvent;
+import com.library.loanservice.model.LoanOutboxEvent;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class LoanEventOutbox {
+
+    // Rows of this type are not loan events: they queue a hold confirmation for HoldConfirmationRetrier and are never
+    // relayed to Kafka.
+    public static final String HOLD_CONFIRMATION = "hold-confirmation";
+
+    private final LoanOutboxRepository loanOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void loanCreated(LoanCreatedEvent event) {
+        append(event.getLoanId(), event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void loanReturned(LoanReturnedEvent event) {
+        append(event.getLoanId(), event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void loanReminder(LoanReminderEvent event) {
+        append(event.getLoanId(), event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void loanOverdue(LoanOverdueEvent event) {
+        append(event.getLoanId(), event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void holdConfirmationPending(UUID loanId, BookHoldDTO hold) {
+        loanOutboxRepository.save(new LoanOutboxEvent(null, loanId, HOLD_CONFIRMATION, toJson(loanId, hold), Instant.now()));
+    }
+
+    // Drops the loan's events that have not been relayed yet, for a loan that is being undone.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int discard(UUID loanId) {
+        return loanOutboxRepository.deleteByLoanId(loanId);
+    }
+
+    private void append(UUID loanId, Object event) {
+        loanOutboxRepository.save(new LoanOutboxEvent(null, loanId, event.getClass().getName(), toJson(loanId, event), Instant.now()));
+    }
+
+    private String toJson(UUID loanId, Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName() + " for loan ID " + loanId, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.loanservice.producer;
+
+import com.library.loanservice.model.LoanOutboxEvent;
+
+import java.util.List;
+
+public interface LoanEventPublisher {
+    // Returns how many events from the start of the list were durably handed over. Those are removed from the
+    // outbox; the rest stay and are sent again, so a send that dies half way does not repeat what already went out.
+    int publish(List<LoanOutboxEvent> events);
+}
@@ -0,0 +1,107 @@
+package com.library.loanservice.producer;
+
+import com.library.loanservice.model.LoanOutboxEvent;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains the outbox in id order: the published part of a batch is deleted in the transaction that read it, and the
+// rest is retried on the next poll. Consumers can drop a repeat after an ambiguous send by the loan-event-id header.
+// Queued hold confirmations share the table but are left to HoldConfirmationRetrier.
+@Component
+@ConditionalOnProperty(name = "loans.events.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class LoanOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanOutboxRelay.class);
+
+    private final LoanOutboxRepository loanOutboxRepository;
+    private final LoanEventPublisher loanEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter relayedEvents;
+    private final Counter failedBatches;
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public LoanOutboxRelay(LoanOutboxRepository loanOutboxRepository,
+                           LoanEventPublisher loanEventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${loans.events.outbox.batch-size:200}") int batchSize) {
+        this.loanOutboxRepository = loanOutboxRepository;
+        this.loanEventPublisher = loanEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.relayedEvents = meterRegistry.counter("loans.outbox.relayed");
+        this.failedBatches = meterRegistry.counter("loans.outbox.failures");
+        Gauge.builder("loans.outbox.depth", depth, AtomicLong::get)
+                .description("Loan events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("loans.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age in seconds of the oldest loan event waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${loans.events.outbox.poll-interval-millis:500}")
+    public int relay() {
+        int relayed = 0;
+        try {
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> relayBatch());
+                relayed += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            logger.warn("Loan outbox relay stopped after {} events, retrying on the next poll: {}", relayed, e.getMessage());
+        }
+        if (relayed > 0) {
+            relayedEvents.increment(relayed);
+            logger.debug("Relayed {} loan events from the outbox.", relayed);
+        }
+        refreshBacklog();
+        return relayed;
+    }
+
+    private int relayBatch() {
+        List<LoanOutboxEvent> batch = loanOutboxRepository.findAllByEventTypeNotOrderByIdAsc(LoanEventOutbox.HOLD_CONFIRMATION, Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int published = loanEventPublisher.publish(batch);
+        if (published > 0) {
+            loanOutboxRepository.deleteAllInBatch(batch.subList(0, published));
+        }
+        if (published < batch.size()) {
+            failedBatches.increment();
+        }
+        return published;
+    }
+
+    private void refreshBacklog() {
+        try {
+            depth.set(loanOutboxRepository.countByEventTypeNot(LoanEventOutbox.HOLD_CONFIRMATION));
+            lagMillis.set(loanOutboxRepository.findFirstByEventTypeNotOrderByIdAsc(LoanEventOutbox.HOLD_CONFIRMATION)
+                    .map(oldest -> Math.max(0, Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis()))
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            logger.debug("Could not refresh loan outbox backlog metrics: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.model.LoanOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface LoanOutboxRepository extends JpaRepository<LoanOutboxEvent, Long> {
+
+    // Relays on other replicas wait on these rows instead of skipping them, so events leave in id order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<LoanOutboxEvent> findAllByEventTypeNotOrderByIdAsc(String eventType, Limit limit);
+
+    Optional<LoanOutboxEvent> findFirstByEventTypeNotOrderByIdAsc(String eventType);
+
+    long countByEventTypeNot(String eventType);
+
+    List<LoanOutboxEvent> findAllByEventTypeOrderByIdAsc(String eventType, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM LoanOutboxEvent e WHERE e.loanId = :loanId")
+    int deleteByLoanId(UUID loanId);
+}
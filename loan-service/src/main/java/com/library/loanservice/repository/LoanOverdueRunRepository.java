@@ -0,0 +1,21 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.model.LoanOverdueRun;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface LoanOverdueRunRepository extends JpaRepository<LoanOverdueRun, LoanOverdueRun.Key> {
+
+    // Chunks of the same run, also from another replica, apply one at a time against the latest checkpoint.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<LoanOverdueRun> findByRunDateAndPartitionIndex(LocalDate runDate, int partitionIndex);
+
+    @Query("SELECT DISTINCT r.runDate FROM LoanOverdueRun r WHERE r.completedAt IS NULL AND r.runDate < :runDate ORDER BY r.runDate")
+    List<LocalDate> findUnfinishedRunDatesBefore(LocalDate runDate);
+}
@@ -2,18 +2,33 @@ package com.library.loanservice.repository;
 
 import com.library.loanservice.model.Loan;
 import com.library.loanservice.model.LoanStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface LoanRepository extends JpaRepository<Loan, UUID> {
+public interface LoanRepository extends JpaRepository<Loan, UUID>, LoanSummaryRepository {
     List<Loan> findByUserId(UUID userId);
     List<Loan> findByBookId(UUID bookId);
     Optional<Loan> findByUserIdAndBookIdAndStatus(UUID userId, UUID bookId, LoanStatus status);
 
-    List<Loan> findByStatusAndDueDate(LoanStatus status, LocalDate dueDate);
-    List<Loan> findByStatusAndDueDateBefore(LoanStatus status, LocalDate dueDate);
-}
\ No newline at end of file
+    // Scheduled jobs walk the loans of a partition in id order, one id range per chunk.
+    @Query("SELECT l FROM Loan l WHERE l.status = :status AND l.dueDate = :dueDate AND l.id > :after AND l.id <= :last ORDER BY l.id")
+    List<Loan> findDueAfter(LoanStatus status, LocalDate dueDate, UUID after, UUID last, Limit limit);
+
+    @Query("SELECT l.id FROM Loan l WHERE l.status = :status AND l.dueDate < :today AND l.id > :after AND l.id <= :last ORDER BY l.id")
+    List<UUID> findOverdueIdsAfter(LoanStatus status, LocalDate today, UUID after, UUID last, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Loan l SET l.status = :overdue, l.overdueSince = :today "
+            + "WHERE l.status = :borrowed AND l.dueDate < :today AND l.id > :after AND l.id <= :upTo")
+    int markOverdue(LoanStatus borrowed, LoanStatus overdue, LocalDate today, UUID after, UUID upTo);
+
+    @Query("SELECT l FROM Loan l WHERE l.status = :status AND l.overdueSince = :overdueSince AND l.id > :after AND l.id <= :last ORDER BY l.id")
+    List<Loan> findOverdueSinceAfter(LoanStatus status, LocalDate overdueSince, UUID after, UUID last, Limit limit);
+}
@@ -0,0 +1,68 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.dto.LoanCursor;
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LoanSpecifications {
+
+    private LoanSpecifications() {
+    }
+
+    // Only the filters given become predicates, so each listing gets a plan for its own index.
+    public static Specification<Loan> matching(LoanFilter filter, LocalDate today) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getUserId() != null) {
+                predicates.add(cb.equal(root.get("userId"), filter.getUserId()));
+            }
+            if (filter.getBookId() != null) {
+                predicates.add(cb.equal(root.get("bookId"), filter.getBookId()));
+            }
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getLoanedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("loanDate"), filter.getLoanedFrom()));
+            }
+            if (filter.getLoanedTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("loanDate"), filter.getLoanedTo()));
+            }
+            if (filter.getDueFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), filter.getDueTo()));
+            }
+            if (filter.getOverdue() != null) {
+                Predicate overdue = overdue(root, cb, today);
+                predicates.add(filter.getOverdue() ? overdue : cb.not(overdue));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Loan> after(LoanCursor cursor) {
+        return (root, query, cb) -> cursor == null ? cb.conjunction() : cb.greaterThan(root.get("id"), cursor.getId());
+    }
+
+    // Marked by the overdue job, or past due already on a day the job has not reached yet.
+    private static Predicate overdue(Root<Loan> root, CriteriaBuilder cb, LocalDate today) {
+        return cb.or(
+                cb.equal(root.get("status"), LoanStatus.OVERDUE),
+                cb.and(
+                        cb.equal(root.get("status"), LoanStatus.BORROWED),
+                        cb.lessThan(root.get("dueDate"), today)
+                )
+        );
+    }
+}
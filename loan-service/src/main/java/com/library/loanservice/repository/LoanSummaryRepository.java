@@ -0,0 +1,12 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.dto.LoanSummary;
+import com.library.loanservice.model.Loan;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface LoanSummaryRepository {
+    // First limit loans matching the specification in id order, selected as summaries.
+    List<LoanSummary> findSummaries(Specification<Loan> specification, int limit);
+}
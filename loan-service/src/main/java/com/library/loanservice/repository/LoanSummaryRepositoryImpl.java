@@ -0,0 +1,35 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.dto.LoanSummary;
+import com.library.loanservice.model.Loan;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Runs the specification as a constructor select, so a listing reads only the summary columns and no Loan entity
+// enters the persistence context, however many pages a client walks through.
+@RequiredArgsConstructor
+class LoanSummaryRepositoryImpl implements LoanSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<LoanSummary> findSummaries(Specification<Loan> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LoanSummary> query = cb.createQuery(LoanSummary.class);
+        Root<Loan> root = query.from(Loan.class);
+        query.select(cb.construct(LoanSummary.class,
+                root.get("id"), root.get("bookId"), root.get("userId"), root.get("loanDate"), root.get("dueDate"),
+                root.get("returnDate"), root.get("status"), root.get("fineAmount")));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
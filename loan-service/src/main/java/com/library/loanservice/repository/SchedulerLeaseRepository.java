@@ -0,0 +1,41 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    List<SchedulerLease> findByNameStartingWith(String prefix);
+
+    // A single conditional UPDATE, so of several replicas racing for an expired lease exactly one sees a row change.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease s SET s.owner = :owner, s.lockedUntil = :until, s.version = s.version + 1 "
+            + "WHERE s.name = :name AND s.completedAt IS NULL AND (s.lockedUntil < :now OR s.owner = :owner)")
+    int acquire(String name, String owner, Instant now, Instant until);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease s SET s.checkpoint = :checkpoint, s.lockedUntil = :until, s.version = s.version + 1 "
+            + "WHERE s.name = :name AND s.owner = :owner AND s.completedAt IS NULL")
+    int advance(String name, String owner, UUID checkpoint, Instant until);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease s SET s.lockedUntil = :until, s.version = s.version + 1 "
+            + "WHERE s.name = :name AND s.owner = :owner AND s.completedAt IS NULL")
+    int renew(String name, String owner, Instant until);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease s SET s.completedAt = :now, s.version = s.version + 1 "
+            + "WHERE s.name = :name AND s.owner = :owner AND s.completedAt IS NULL")
+    int complete(String name, String owner, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SchedulerLease s SET s.lockedUntil = :now, s.version = s.version + 1 "
+            + "WHERE s.name = :name AND s.owner = :owner AND s.completedAt IS NULL")
+    int release(String name, String owner, Instant now);
+}
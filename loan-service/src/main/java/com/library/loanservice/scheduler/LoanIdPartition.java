@@ -0,0 +1,40 @@
+package com.library.loanservice.scheduler;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// One of count equal slices of the loan id space. Loan ids are random UUIDs, so slicing them by their leading bits
+// spreads loans evenly across slices and lets every query select a slice with a plain range on the primary key.
+public record LoanIdPartition(int index, int count, UUID after, UUID last) {
+
+    private static final BigInteger ID_SPACE = BigInteger.ONE.shiftLeft(64);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    public static LoanIdPartition of(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Partition " + index + " of " + count + " does not exist");
+        }
+        UUID after = index == 0 ? FIRST_ID : new UUID(boundary(index, count) - 1, -1L);
+        UUID last = index == count - 1 ? new UUID(-1L, -1L) : new UUID(boundary(index + 1, count) - 1, -1L);
+        return new LoanIdPartition(index, count, after, last);
+    }
+
+    public static List<LoanIdPartition> all(int count) {
+        List<LoanIdPartition> partitions = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            partitions.add(of(index, count));
+        }
+        return partitions;
+    }
+
+    public String label() {
+        return index + "-of-" + count;
+    }
+
+    // Leading 64 bits of the first id in the slice, as the unsigned value databases compare UUIDs by.
+    private static long boundary(int index, int count) {
+        return ID_SPACE.multiply(BigInteger.valueOf(index)).divide(BigInteger.valueOf(count)).longValue();
+    }
+}
@@ -3,4 +3,5 @@ package com.library.loanservice.scheduler;
 public interface LoanReminderScheduler {
     void sendLoanReminders();
     void processOverdueLoans();
+    void resumeUnfinishedRuns();
 }
@@ -2,22 +2,25 @@ package com.library.loanservice.scheduler;
 
 import com.library.common.dto.BookDTO;
 import com.library.common.dto.UserDTO;
-import com.library.common.event.LoanOverdueEvent;
 import com.library.common.event.LoanReminderEvent;
 import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanOverdueRun;
 import com.library.loanservice.model.LoanStatus;
-import com.library.loanservice.producer.LoanEventProducer;
+import com.library.loanservice.producer.LoanEventOutbox;
 import com.library.loanservice.repository.LoanRepository;
-import com.library.loanservice.service.RestClientService;
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -26,97 +29,132 @@ public class LoanReminderSchedulerImpl implements LoanReminderScheduler {
     private static final Logger logger = LoggerFactory.getLogger(LoanReminderSchedulerImpl.class);
 
     private final LoanRepository loanRepository;
-    private final RestClientService restClientService;
-    private final LoanEventProducer loanEventProducer;
+    private final LoanEventOutbox loanEventOutbox;
+    private final TransactionOperations transactionOperations;
+    private final OverdueLoanProcessor overdueLoanProcessor;
+    private final SchedulerLookups schedulerLookups;
+    private final SchedulerLeases schedulerLeases;
 
     private static final int REMINDER_DAYS_BEFORE_DUE = 3;
-    private static final double DAILY_FINE_AMOUNT = 5;
+    static final String REMINDER_JOB = "loan-reminders";
+    static final String OVERDUE_JOB = "loan-overdue";
 
     @Scheduled(cron = "0 0 8 * * *")
     @Override
     public void sendLoanReminders() {
         logger.info("Starting scheduled task: Sending loan reminders.");
-        LocalDate reminderDate = LocalDate.now().plusDays(REMINDER_DAYS_BEFORE_DUE);
+        LocalDate today = LocalDate.now();
+        for (LocalDate day : missedReminderDaysBefore(today)) {
+            logger.warn("Catching up the reminder run of {}.", day);
+            sendLoanReminders(day);
+        }
+        int partitions = sendLoanReminders(today);
+        logger.info("Finished scheduled task: Sending loan reminders for {} partitions.", partitions);
+    }
 
-        List<Loan> loansDueSoon = loanRepository.findByStatusAndDueDate(LoanStatus.BORROWED, reminderDate);
+    // Between the daily runs: finishes every run whose holder failed or died once its lease has run out, and catches up
+    // on days no replica ran at all. Today's runs are only resumed, never started ahead of their cron time.
+    @Scheduled(fixedDelayString = "${loans.scheduler.lease-duration:PT30M}", initialDelayString = "${loans.scheduler.lease-duration:PT30M}")
+    @Override
+    public void resumeUnfinishedRuns() {
+        LocalDate today = LocalDate.now();
+        for (LocalDate day : missedReminderDaysBefore(today)) {
+            logger.warn("Resuming the reminder run of {}.", day);
+            sendLoanReminders(day);
+        }
+        if (schedulerLeases.state(REMINDER_JOB, today) == SchedulerLeases.RunState.UNFINISHED) {
+            logger.info("Resuming the reminder run of {}.", today);
+            sendLoanReminders(today);
+        }
+        for (LocalDate day : overdueLoanProcessor.unfinishedDaysBefore(today)) {
+            logger.warn("Resuming the overdue run of {}.", day);
+            processOverdueLoans(day);
+        }
+        if (schedulerLeases.state(OVERDUE_JOB, today) == SchedulerLeases.RunState.UNFINISHED) {
+            logger.info("Resuming the overdue run of {}.", today);
+            processOverdueLoans(today);
+        }
+    }
 
-        if (loansDueSoon.isEmpty()) {
-            logger.info("No loans due for reminder today.");
-            return;
+    // Earlier days whose reminders are still ahead of the due date, if their run never started or never finished.
+    private List<LocalDate> missedReminderDaysBefore(LocalDate today) {
+        List<LocalDate> days = new ArrayList<>();
+        for (int daysBack = REMINDER_DAYS_BEFORE_DUE - 1; daysBack > 0; daysBack--) {
+            LocalDate day = today.minusDays(daysBack);
+            if (schedulerLeases.state(REMINDER_JOB, day) != SchedulerLeases.RunState.FINISHED) {
+                days.add(day);
+            }
         }
+        return days;
+    }
+
+    private int sendLoanReminders(LocalDate day) {
+        LocalDate reminderDate = day.plusDays(REMINDER_DAYS_BEFORE_DUE);
+        return schedulerLeases.runPartitions(REMINDER_JOB, day, lease -> sendLoanReminders(reminderDate, lease));
+    }
 
-        logger.info("Found {} loans due for reminder.", loansDueSoon.size());
-        for (Loan loan : loansDueSoon) {
-            try {
-                UserDTO user = restClientService.getUserById(loan.getUserId());
-                BookDTO book = restClientService.getBookById(loan.getBookId());
+    // Each chunk's reminders commit together with the lease checkpoint, so a successor resumes after the last chunk.
+    private void sendLoanReminders(LocalDate reminderDate, SchedulerLeases.Lease lease) {
+        LoanIdPartition partition = lease.getPartition();
+        SchedulerLookups.Run lookups = schedulerLookups.startRun("reminders");
+        UUID after = lease.getCheckpoint();
+        while (true) {
+            List<Loan> chunk = loanRepository.findDueAfter(LoanStatus.BORROWED, reminderDate, after, partition.last(),
+                    Limit.of(SchedulerLookups.MAX_IDS_PER_CALL));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lookups.load(chunk);
+            List<LoanReminderEvent> events = new ArrayList<>();
+            for (Loan loan : chunk) {
+                UserDTO user = lookups.user(loan.getUserId());
+                BookDTO book = lookups.book(loan.getBookId());
 
                 if (user != null && book != null) {
-                    LoanReminderEvent event = new LoanReminderEvent(
+                    events.add(new LoanReminderEvent(
                             loan.getId(),
                             user,
                             book,
                             loan.getLoanDate(),
                             loan.getDueDate()
-                    );
-                    loanEventProducer.publishLoanReminderEvent(event);
-                    logger.debug("Published loan reminder event for loan ID: {}", loan.getId());
+                    ));
                 } else {
                     logger.warn("Could not send reminder for loan ID {} due to missing user or book data. User exists: {}, Book exists: {}",
                             loan.getId(), user != null, book != null);
                 }
-            } catch (Exception e) {
-                logger.error("Error sending loan reminder for loan ID {}: {}", loan.getId(), e.getMessage(), e);
             }
+            UUID last = chunk.get(chunk.size() - 1).getId();
+            transactionOperations.executeWithoutResult(status -> {
+                events.forEach(loanEventOutbox::loanReminder);
+                lease.advance(last);
+            });
+            logger.debug("Queued {} loan reminder events for partition {}.", events.size(), partition.label());
+            if (chunk.size() < SchedulerLookups.MAX_IDS_PER_CALL) {
+                break;
+            }
+            after = last;
         }
-        logger.info("Finished scheduled task: Sending loan reminders.");
+        lookups.finish();
     }
 
     @Scheduled(cron = "0 0 8 * * *")
     @Override
     public void processOverdueLoans() {
         logger.info("Starting scheduled task: Processing overdue loans.");
-        List<Loan> overdueLoans = loanRepository.findByStatusAndDueDateBefore(LoanStatus.BORROWED, LocalDate.now());
-
-        if (overdueLoans.isEmpty()) {
-            logger.info("No overdue loans to process.");
-            return;
-        }
-
-        logger.info("Found {} overdue loans to process.", overdueLoans.size());
-        for (Loan loan : overdueLoans) {
-            try {
-                loan.increaseFineAmount(DAILY_FINE_AMOUNT);
-                logger.info("Increased fine for overdue loan ID {} to {}", loan.getId(), loan.getFineAmount());
-
-                if (loan.getStatus() != LoanStatus.OVERDUE) {
-                    loan.setStatus(LoanStatus.OVERDUE);
-                    logger.info("Loan ID {} marked as OVERDUE.", loan.getId());
-                }
-
-                loanRepository.save(loan);
-
-                UserDTO user = restClientService.getUserById(loan.getUserId());
-                BookDTO book = restClientService.getBookById(loan.getBookId());
-
-                if (user != null && book != null) {
-                    LoanOverdueEvent event = new LoanOverdueEvent(
-                            loan.getId(),
-                            user,
-                            book,
-                            loan.getLoanDate(),
-                            loan.getDueDate()
-                    );
-                    loanEventProducer.publishLoanOverdueEvent(event);
-                    logger.debug("Published loan overdue event for loan ID: {}", loan.getId());
-                } else {
-                    logger.warn("Could not process overdue loan for loan ID {} due to missing user or book data. User exists: {}, Book exists: {}",
-                            loan.getId(), user != null, book != null);
-                }
-            } catch (Exception e) {
-                logger.error("Error processing overdue loan for loan ID {}: {}", loan.getId(), e.getMessage(), e);
-            }
+        LocalDate today = LocalDate.now();
+        for (LocalDate day : overdueLoanProcessor.unfinishedDaysBefore(today)) {
+            logger.warn("Resuming the overdue run of {}.", day);
+            processOverdueLoans(day);
         }
+        processOverdueLoans(today);
         logger.info("Finished scheduled task: Processing overdue loans.");
     }
-}
\ No newline at end of file
+
+    private void processOverdueLoans(LocalDate day) {
+        schedulerLeases.runPartitions(OVERDUE_JOB, day, lease -> {
+            LoanOverdueRun run = overdueLoanProcessor.process(day, lease.getPartition());
+            logger.info("Overdue run of {} ({}): {} loans marked OVERDUE, {} overdue notices queued.",
+                    run.getRunDate(), lease.getPartition().label(), run.getMarkedOverdue(), run.getNoticesQueued());
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.library.loanservice.scheduler;
+
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.UserDTO;
+import com.library.common.event.LoanOverdueEvent;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanOverdueRun;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanOverdueRunRepository;
+import com.library.loanservice.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Moves one day's past-due loans of a partition to OVERDUE with bulk updates over id-ordered chunks, then queues an
+// overdue notice for every loan that turned overdue that day. Both phases checkpoint in loan_overdue_runs together with
+// the rows they change. Fines are not written here; FinePolicy derives them from the loan's dates.
+@Component
+public class OverdueLoanProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueLoanProcessor.class);
+
+    private final LoanRepository loanRepository;
+    private final LoanOverdueRunRepository loanOverdueRunRepository;
+    private final SchedulerLookups schedulerLookups;
+    private final LoanEventOutbox loanEventOutbox;
+    private final TransactionOperations transactionOperations;
+    private final int chunkSize;
+    private final int noticePageSize;
+
+    public OverdueLoanProcessor(LoanRepository loanRepository,
+                                LoanOverdueRunRepository loanOverdueRunRepository,
+                                SchedulerLookups schedulerLookups,
+                                LoanEventOutbox loanEventOutbox,
+                                TransactionOperations transactionOperations,
+                                @Value("${loans.overdue.chunk-size:1000}") int chunkSize,
+                                @Value("${loans.overdue.notice-page-size:200}") int noticePageSize) {
+        this.loanRepository = loanRepository;
+        this.loanOverdueRunRepository = loanOverdueRunRepository;
+        this.schedulerLookups = schedulerLookups;
+        this.loanEventOutbox = loanEventOutbox;
+        this.transactionOperations = transactionOperations;
+        this.chunkSize = chunkSize;
+        this.noticePageSize = noticePageSize;
+    }
+
+    // Days whose run was cut short; they are finished before today's, so after a crash every loan that fell due that day
+    // is still marked OVERDUE and gets exactly one overdue notice.
+    public List<LocalDate> unfinishedDaysBefore(LocalDate today) {
+        return loanOverdueRunRepository.findUnfinishedRunDatesBefore(today);
+    }
+
+    public LoanOverdueRun process(LocalDate day, LoanIdPartition partition) {
+        LoanOverdueRun run = startOrResume(day, partition);
+        if (run.getCompletedAt() != null) {
+            logger.info("Overdue run of {} ({}) already completed at {}.", day, partition.label(), run.getCompletedAt());
+            return run;
+        }
+        while (Boolean.TRUE.equals(transactionOperations.execute(status -> markNextChunk(day, partition)))) {
+            logger.debug("Marked an overdue chunk for {} ({}).", day, partition.label());
+        }
+        SchedulerLookups.Run lookups = schedulerLookups.startRun("overdue-notices");
+        queueNotices(day, partition, lookups);
+        lookups.finish();
+        return transactionOperations.execute(status -> {
+            LoanOverdueRun finished = lockRun(day, partition);
+            if (finished.getCompletedAt() == null) {
+                finished.setCompletedAt(Instant.now());
+            }
+            return loanOverdueRunRepository.save(finished);
+        });
+    }
+
+    private LoanOverdueRun startOrResume(LocalDate day, LoanIdPartition partition) {
+        LoanOverdueRun.Key key = new LoanOverdueRun.Key(day, partition.index());
+        LoanOverdueRun existing = loanOverdueRunRepository.findById(key).orElseGet(() -> {
+            LoanOverdueRun run = new LoanOverdueRun();
+            run.setRunDate(day);
+            run.setPartitionIndex(partition.index());
+            run.setPartitionCount(partition.count());
+            run.setOverdueCheckpoint(partition.after());
+            run.setNoticeCheckpoint(partition.after());
+            run.setStartedAt(Instant.now());
+            try {
+                return loanOverdueRunRepository.saveAndFlush(run);
+            } catch (DataIntegrityViolationException e) {
+                logger.info("Overdue run of {} ({}) was started by another instance; joining it.", day, partition.label());
+                return loanOverdueRunRepository.findById(key).orElseThrow(() -> e);
+            }
+        });
+        if (existing.getPartitionCount() != partition.count()) {
+            throw new IllegalStateException("Overdue run of " + day + " was started with " + existing.getPartitionCount()
+                    + " partitions, not " + partition.count());
+        }
+        return existing;
+    }
+
+    private boolean markNextChunk(LocalDate day, LoanIdPartition partition) {
+        LoanOverdueRun run = lockRun(day, partition);
+        if (run.getMarkingCompletedAt() != null) {
+            return false;
+        }
+        UUID after = run.getOverdueCheckpoint();
+        List<UUID> ids = loanRepository.findOverdueIdsAfter(LoanStatus.BORROWED, day, after, partition.last(), Limit.of(chunkSize));
+        if (!ids.isEmpty()) {
+            UUID upTo = ids.get(ids.size() - 1);
+            int markedOverdue = loanRepository.markOverdue(LoanStatus.BORROWED, LoanStatus.OVERDUE, day, after, upTo);
+            logger.debug("Marked {} loans OVERDUE up to loan ID {}.", markedOverdue, upTo);
+            run.setOverdueCheckpoint(upTo);
+            run.setMarkedOverdue(run.getMarkedOverdue() + markedOverdue);
+        }
+        boolean more = ids.size() == chunkSize;
+        if (!more) {
+            run.setMarkingCompletedAt(Instant.now());
+            logger.info("Overdue run of {} ({}) marked {} loans OVERDUE.", day, partition.label(), run.getMarkedOverdue());
+        }
+        loanOverdueRunRepository.save(run);
+        return more;
+    }
+
+    // Lookups run outside any transaction; a page is only queued if no other instance queued it in the meantime.
+    private void queueNotices(LocalDate day, LoanIdPartition partition, SchedulerLookups.Run lookups) {
+        while (true) {
+            UUID after = loanOverdueRunRepository.findById(new LoanOverdueRun.Key(day, partition.index())).orElseThrow().getNoticeCheckpoint();
+            List<Loan> page = loanRepository.findOverdueSinceAfter(LoanStatus.OVERDUE, day, after, partition.last(), Limit.of(noticePageSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            lookups.load(page);
+            List<LoanOverdueEvent> events = buildEvents(page, lookups);
+            UUID last = page.get(page.size() - 1).getId();
+            transactionOperations.executeWithoutResult(status -> {
+                LoanOverdueRun run = lockRun(day, partition);
+                if (!run.getNoticeCheckpoint().equals(after)) {
+                    return;
+                }
+                events.forEach(loanEventOutbox::loanOverdue);
+                run.setNoticeCheckpoint(last);
+                run.setNoticesQueued(run.getNoticesQueued() + events.size());
+                loanOverdueRunRepository.save(run);
+            });
+            if (page.size() < noticePageSize) {
+                return;
+            }
+        }
+    }
+
+    private List<LoanOverdueEvent> buildEvents(List<Loan> page, SchedulerLookups.Run lookups) {
+        List<LoanOverdueEvent> events = new ArrayList<>();
+        for (Loan loan : page) {
+            UserDTO user = lookups.user(loan.getUserId());
+            BookDTO book = lookups.book(loan.getBookId());
+            if (user == null || book == null) {
+                logger.warn("Could not send overdue notice for loan ID {} due to missing user or book data. User exists: {}, Book exists: {}",
+                        loan.getId(), user != null, book != null);
+                continue;
+            }
+            events.add(new LoanOverdueEvent(loan.getId(), user, book, loan.getLoanDate(), loan.getDueDate()));
+        }
+        return events;
+    }
+
+    private LoanOverdueRun lockRun(LocalDate day, LoanIdPartition partition) {
+        return loanOverdueRunRepository.findByRunDateAndPartitionIndex(day, partition.index())
+                .orElseThrow(() -> new IllegalStateException("Overdue run of " + day + " (" + partition.label() + ") does not exist"));
+    }
+}
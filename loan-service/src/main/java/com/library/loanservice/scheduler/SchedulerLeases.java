@@ -0,0 +1,180 @@
+package com.library.loanservice.scheduler;
+
+import com.library.loanservice.model.SchedulerLease;
+import com.library.loanservice.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Makes each run of a scheduled job happen once across all replicas. A run is split into loans.scheduler.partitions
+// slices of the loan id space and every slice is leased in scheduler_leases, so replicas that fire together share the
+// work instead of repeating it. The holder renews its lease while it works; a replica that dies mid-run stops renewing
+// and leaves its slice to the recovery pass of whichever replica runs next after the lease ends.
+@Component
+public class SchedulerLeases {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeases.class);
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionOperations transactionOperations;
+    private final int partitions;
+    private final Duration leaseDuration;
+    private final String owner;
+
+    public enum RunState {
+        NOT_STARTED,
+        UNFINISHED,
+        FINISHED
+    }
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheduler-lease-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SchedulerLeases(SchedulerLeaseRepository schedulerLeaseRepository,
+                           TransactionOperations transactionOperations,
+                           @Value("${loans.scheduler.partitions:1}") int partitions,
+                           @Value("${loans.scheduler.lease-duration:PT30M}") Duration leaseDuration) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.transactionOperations = transactionOperations;
+        this.partitions = partitions;
+        this.leaseDuration = leaseDuration;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // Starts at a random slice so replicas firing at the same moment do not all queue up behind the first lease.
+    public int runPartitions(String job, LocalDate day, Consumer<Lease> work) {
+        List<LoanIdPartition> slices = LoanIdPartition.all(partitions);
+        int offset = ThreadLocalRandom.current().nextInt(partitions);
+        int completed = 0;
+        for (int i = 0; i < partitions; i++) {
+            LoanIdPartition partition = slices.get((offset + i) % partitions);
+            String name = job + "/" + day + "/" + partition.label();
+            Optional<Lease> lease = tryAcquire(name, partition);
+            if (lease.isEmpty()) {
+                logger.debug("Skipping {}: completed or leased by another instance.", name);
+                continue;
+            }
+            long renewEvery = Math.max(leaseDuration.toMillis() / 3, 1);
+            ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(() -> renew(name), renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+            boolean failed = false;
+            try {
+                work.accept(lease.get());
+            } catch (Exception e) {
+                logger.error("Run {} failed and is released for another instance: {}", name, e.getMessage(), e);
+                failed = true;
+            } finally {
+                heartbeat.cancel(false);
+            }
+            if (failed) {
+                transactionOperations.executeWithoutResult(status -> schedulerLeaseRepository.release(name, owner, Instant.now()));
+                continue;
+            }
+            Integer done = transactionOperations.execute(status -> schedulerLeaseRepository.complete(name, owner, Instant.now()));
+            if (done != null && done == 1) {
+                completed++;
+            } else {
+                logger.warn("Run {} finished after its lease passed to another instance.", name);
+            }
+        }
+        return completed;
+    }
+
+    // Whether any replica has leased a slice of the run yet, and if so whether every slice has been completed.
+    public RunState state(String job, LocalDate day) {
+        List<SchedulerLease> leases = schedulerLeaseRepository.findByNameStartingWith(job + "/" + day + "/");
+        if (leases.isEmpty()) {
+            return RunState.NOT_STARTED;
+        }
+        boolean finished = leases.size() >= partitions && leases.stream().allMatch(lease -> lease.getCompletedAt() != null);
+        return finished ? RunState.FINISHED : RunState.UNFINISHED;
+    }
+
+    @PreDestroy
+    void stopHeartbeats() {
+        heartbeats.shutdownNow();
+    }
+
+    // Keeps a slow but live holder's lease from expiring under it; a failure only means the lease may be taken over.
+    private void renew(String name) {
+        try {
+            Integer renewed = transactionOperations.execute(status ->
+                    schedulerLeaseRepository.renew(name, owner, Instant.now().plus(leaseDuration)));
+            if (renewed == null || renewed != 1) {
+                logger.warn("Could not renew lease {}: it is no longer held by {}.", name, owner);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to renew lease {}: {}", name, e.getMessage());
+        }
+    }
+
+    private Optional<Lease> tryAcquire(String name, LoanIdPartition partition) {
+        if (!schedulerLeaseRepository.existsById(name)) {
+            try {
+                transactionOperations.executeWithoutResult(status ->
+                        schedulerLeaseRepository.saveAndFlush(new SchedulerLease(name, null, Instant.EPOCH, null, null, null)));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Lease {} was created by another instance.", name);
+            }
+        }
+        Instant now = Instant.now();
+        Integer acquired = transactionOperations.execute(status -> schedulerLeaseRepository.acquire(name, owner, now, now.plus(leaseDuration)));
+        if (acquired == null || acquired != 1) {
+            return Optional.empty();
+        }
+        UUID checkpoint = schedulerLeaseRepository.findById(name).map(SchedulerLease::getCheckpoint).orElse(null);
+        logger.info("Instance {} leased {} until {}.", owner, name, now.plus(leaseDuration));
+        return Optional.of(new Lease(name, partition, checkpoint));
+    }
+
+    public class Lease {
+
+        private final String name;
+        private final LoanIdPartition partition;
+        private final UUID checkpoint;
+
+        private Lease(String name, LoanIdPartition partition, UUID checkpoint) {
+            this.name = name;
+            this.partition = partition;
+            this.checkpoint = checkpoint;
+        }
+
+        public LoanIdPartition getPartition() {
+            return partition;
+        }
+
+        // Where a previous holder of this run stopped, or the start of the slice.
+        public UUID getCheckpoint() {
+            return checkpoint != null ? checkpoint : partition.after();
+        }
+
+        // Call inside the transaction that commits the work up to checkpoint. Fails it if the lease was taken over, so
+        // work is committed by whichever instance holds the lease and never by both.
+        public void advance(UUID checkpoint) {
+            Instant now = Instant.now();
+            if (schedulerLeaseRepository.advance(name, owner, checkpoint, now.plus(leaseDuration)) != 1) {
+                throw new IllegalStateException("Lease " + name + " is no longer held by " + owner);
+            }
+        }
+    }
+}
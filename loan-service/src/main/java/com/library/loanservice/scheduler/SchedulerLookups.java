@@ -0,0 +1,105 @@
+package com.library.loanservice.scheduler;
+
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.UserDTO;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.service.RestClientService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Resolves the users and books behind a scheduler run's loans with bulk calls. A run remembers every id it asked for,
+// so a reader with many loans or a popular book is fetched once per run instead of once per loan.
+@Component
+public class SchedulerLookups {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLookups.class);
+
+    static final String SAVED_CALLS_METRIC = "loans.scheduler.lookups.saved";
+
+    // Matches the largest batch User Service and Book Service accept in one request.
+    static final int MAX_IDS_PER_CALL = 1000;
+
+    private final RestClientService restClientService;
+    private final MeterRegistry meterRegistry;
+
+    public SchedulerLookups(RestClientService restClientService, MeterRegistry meterRegistry) {
+        this.restClientService = restClientService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Run startRun(String job) {
+        return new Run(job);
+    }
+
+    public class Run {
+
+        private final String job;
+        private final Map<UUID, UserDTO> users = new HashMap<>();
+        private final Map<UUID, BookDTO> books = new HashMap<>();
+        private final Set<UUID> requestedUsers = new HashSet<>();
+        private final Set<UUID> requestedBooks = new HashSet<>();
+        private long loans;
+        private long remoteCalls;
+
+        private Run(String job) {
+            this.job = job;
+        }
+
+        // Fetches whatever this run has not asked for yet. A failed call is not remembered, so a later chunk retries it.
+        public void load(Collection<Loan> chunk) {
+            loans += chunk.size();
+            fetchMissing(chunk.stream().map(Loan::getUserId).toList(), requestedUsers, users, restClientService::getUsersByIds, "users");
+            fetchMissing(chunk.stream().map(Loan::getBookId).toList(), requestedBooks, books, restClientService::getBooksByIds, "books");
+        }
+
+        public UserDTO user(UUID userId) {
+            return users.get(userId);
+        }
+
+        public BookDTO book(UUID bookId) {
+            return books.get(bookId);
+        }
+
+        // Each loan used to cost one user and one book call.
+        public long savedCalls() {
+            return Math.max(0, 2 * loans - remoteCalls);
+        }
+
+        public void finish() {
+            long saved = savedCalls();
+            DistributionSummary.builder(SAVED_CALLS_METRIC)
+                    .description("Remote user and book calls a scheduler run avoided by batching and memoizing lookups")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .record(saved);
+            logger.info("Scheduler run '{}' resolved {} loans with {} remote calls, saving {} calls.", job, loans, remoteCalls, saved);
+        }
+
+        private <T> void fetchMissing(List<UUID> ids, Set<UUID> requested, Map<UUID, T> found,
+                                      Function<Collection<UUID>, Map<UUID, T>> bulkLookup, String kind) {
+            List<UUID> missing = ids.stream().filter(id -> !requested.contains(id)).distinct().toList();
+            for (int from = 0; from < missing.size(); from += MAX_IDS_PER_CALL) {
+                List<UUID> batch = missing.subList(from, Math.min(from + MAX_IDS_PER_CALL, missing.size()));
+                remoteCalls++;
+                try {
+                    found.putAll(bulkLookup.apply(batch));
+                    requested.addAll(batch);
+                } catch (Exception e) {
+                    logger.warn("Could not look up {} {} for scheduler run '{}': {}", batch.size(), kind, job, e.getMessage());
+                }
+            }
+        }
+    }
+}
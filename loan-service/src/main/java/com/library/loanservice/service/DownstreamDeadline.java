@@ -0,0 +1,34 @@
+package com.library.loanservice.service;
+
+import com.library.loanservice.exception.ServiceCommunicationException;
+
+import java.time.Duration;
+
+// One wall-clock allowance shared by every downstream call a request makes, so slow hops eat into the same budget
+// instead of each getting a fresh timeout.
+final class DownstreamDeadline {
+
+    private final Duration budget;
+    private final long deadlineNanos;
+
+    private DownstreamDeadline(Duration budget) {
+        this.budget = budget;
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    static DownstreamDeadline after(Duration budget) {
+        return new DownstreamDeadline(budget);
+    }
+
+    Duration remaining(String serviceName) {
+        long left = deadlineNanos - System.nanoTime();
+        if (left <= 0) {
+            throw exceeded(serviceName);
+        }
+        return Duration.ofNanos(left);
+    }
+
+    ServiceCommunicationException exceeded(String serviceName) {
+        return new ServiceCommunicationException(serviceName, "Request did not complete within its " + budget.toMillis() + " ms budget.");
+    }
+}
@@ -0,0 +1,57 @@
+package com.library.loanservice.service;
+
+import com.library.loanservice.dto.LoanSummary;
+import com.library.loanservice.model.Loan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+// Late fines follow from the loan's dates alone: every day past the due date and the grace period, up to the day the
+// book came back, costs the daily rate. No job has to run for a fine to be right, and running one twice changes nothing.
+@Component
+public class FinePolicy {
+
+    private final double dailyRate;
+    private final int graceDays;
+    private final double maxAmount;
+
+    public FinePolicy(@Value("${loans.fines.daily-rate:5}") double dailyRate,
+                      @Value("${loans.fines.grace-days:0}") int graceDays,
+                      @Value("${loans.fines.max-amount:0}") double maxAmount) {
+        this.dailyRate = dailyRate;
+        this.graceDays = graceDays;
+        this.maxAmount = maxAmount;
+    }
+
+    // Fine of a returned loan as of its return, of an open one as if it came back on asOf.
+    public double fineFor(Loan loan, LocalDate asOf) {
+        return fineFor(loan.getDueDate(), loan.getReturnDate(), asOf);
+    }
+
+    // The settled amount once a loan is returned, otherwise what it would cost to return it today.
+    public Loan withFineDue(Loan loan, LocalDate today) {
+        loan.setFineDue(fineDue(loan.getDueDate(), loan.getReturnDate(), loan.getFineAmount(), today));
+        return loan;
+    }
+
+    public LoanSummary withFineDue(LoanSummary loan, LocalDate today) {
+        loan.setFineDue(fineDue(loan.getDueDate(), loan.getReturnDate(), loan.getFineAmount(), today));
+        return loan;
+    }
+
+    private double fineDue(LocalDate dueDate, LocalDate returnDate, Double fineAmount, LocalDate today) {
+        return returnDate != null && fineAmount != null ? fineAmount : fineFor(dueDate, returnDate, today);
+    }
+
+    private double fineFor(LocalDate dueDate, LocalDate returnDate, LocalDate asOf) {
+        LocalDate end = returnDate != null ? returnDate : asOf;
+        long chargeableDays = ChronoUnit.DAYS.between(dueDate, end) - graceDays;
+        if (chargeableDays <= 0) {
+            return 0;
+        }
+        double fine = chargeableDays * dailyRate;
+        return maxAmount > 0 ? Math.min(fine, maxAmount) : fine;
+    }
+}
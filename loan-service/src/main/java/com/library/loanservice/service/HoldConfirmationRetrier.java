@@ -0,0 +1,110 @@
+package com.library.loanservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.dto.BookHoldDTO;
+import com.library.loanservice.model.LoanOutboxEvent;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import com.library.loanservice.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+// Retries the hold confirmations borrowBook queued when Book Service answered neither the confirmation nor the release
+// of a new loan's hold. Both calls are idempotent and releasing an expired hold is a no-op, so every queued hold ends up
+// confirmed, and the loan stays, or released, and the loan is undone.
+@Component
+@ConditionalOnProperty(name = "loans.holds.confirmation-retry-enabled", havingValue = "true", matchIfMissing = true)
+public class HoldConfirmationRetrier {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldConfirmationRetrier.class);
+
+    private final LoanOutboxRepository loanOutboxRepository;
+    private final LoanRepository loanRepository;
+    private final LoanEventOutbox loanEventOutbox;
+    private final RestClientService restClientService;
+    private final ObjectMapper objectMapper;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+
+    public HoldConfirmationRetrier(LoanOutboxRepository loanOutboxRepository,
+                                   LoanRepository loanRepository,
+                                   LoanEventOutbox loanEventOutbox,
+                                   RestClientService restClientService,
+                                   ObjectMapper objectMapper,
+                                   TransactionOperations transactionOperations,
+                                   @Value("${loans.holds.confirmation-retry-batch-size:100}") int batchSize) {
+        this.loanOutboxRepository = loanOutboxRepository;
+        this.loanRepository = loanRepository;
+        this.loanEventOutbox = loanEventOutbox;
+        this.restClientService = restClientService;
+        this.objectMapper = objectMapper;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${loans.holds.confirmation-retry-interval-millis:5000}")
+    public int retry() {
+        List<LoanOutboxEvent> pending = loanOutboxRepository.findAllByEventTypeOrderByIdAsc(LoanEventOutbox.HOLD_CONFIRMATION, Limit.of(batchSize));
+        int settled = 0;
+        for (LoanOutboxEvent confirmation : pending) {
+            try {
+                if (settle(confirmation)) {
+                    settled++;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not settle the hold of loan ID: {}, retrying on the next poll: {}", confirmation.getLoanId(), e.getMessage());
+            }
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Settled {} of {} queued hold confirmations.", settled, pending.size());
+        }
+        return settled;
+    }
+
+    private boolean settle(LoanOutboxEvent confirmation) {
+        BookHoldDTO hold = read(confirmation);
+        switch (HoldOutcome.confirmOrRelease(restClientService, confirmation.getLoanId(), hold.getId())) {
+            case CONFIRMED -> {
+                transactionOperations.executeWithoutResult(status -> loanOutboxRepository.delete(confirmation));
+                logger.info("Hold {} of loan ID: {} confirmed on retry.", hold.getId(), confirmation.getLoanId());
+            }
+            case RELEASED -> transactionOperations.executeWithoutResult(status -> undoLoan(confirmation, hold));
+            case UNKNOWN -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A relay pass may have sent the LoanCreatedEvent long ago; only unsent events are dropped, as in borrowBook.
+    private void undoLoan(LoanOutboxEvent confirmation, BookHoldDTO hold) {
+        loanOutboxRepository.delete(confirmation);
+        loanRepository.findById(confirmation.getLoanId()).ifPresentOrElse(loan -> {
+            if (loan.getStatus() == LoanStatus.RETURNED) {
+                logger.warn("Hold {} was released, but loan ID: {} has been returned meanwhile; keeping it.", hold.getId(), loan.getId());
+                return;
+            }
+            loanEventOutbox.discard(loan.getId());
+            loanRepository.delete(loan);
+            logger.warn("Loan ID: {} rolled back because its hold {} was released instead of confirmed.", loan.getId(), hold.getId());
+        }, () -> logger.debug("Hold {} released; loan ID: {} no longer exists.", hold.getId(), confirmation.getLoanId()));
+    }
+
+    private BookHoldDTO read(LoanOutboxEvent confirmation) {
+        try {
+            return objectMapper.readValue(confirmation.getPayload(), BookHoldDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read the queued hold of loan ID " + confirmation.getLoanId(), e);
+        }
+    }
+}
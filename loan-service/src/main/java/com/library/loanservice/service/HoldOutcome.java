@@ -0,0 +1,38 @@
+package com.library.loanservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+// What became of a new loan's hold after an attempt to confirm it. A failed confirmation falls back to a release, as only
+// a definite release proves the copy went back to stock; if the release fails too, the confirmation may still have gone
+// through and the outcome is unknown.
+public enum HoldOutcome {
+    CONFIRMED,
+    RELEASED,
+    UNKNOWN;
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldOutcome.class);
+
+    public static HoldOutcome confirmOrRelease(RestClientService restClientService, UUID loanId, UUID holdId) {
+        try {
+            restClientService.confirmHoldInBookService(holdId);
+            logger.debug("Hold {} confirmed for loan ID: {}.", holdId, loanId);
+            return CONFIRMED;
+        } catch (RuntimeException e) {
+            logger.error("Failed to confirm hold {} for loan ID: {}. Error: {}", holdId, loanId, e.getMessage());
+        }
+
+        try {
+            if (restClientService.releaseHoldInBookService(holdId)) {
+                return RELEASED;
+            }
+            logger.warn("Hold {} turned out to be confirmed already; keeping loan ID: {}.", holdId, loanId);
+            return CONFIRMED;
+        } catch (RuntimeException e) {
+            logger.error("Hold {} of loan ID: {} could be neither confirmed nor released ({}).", holdId, loanId, e.getMessage());
+            return UNKNOWN;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.library.loanservice.service;
 
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.dto.LoanPageResponse;
 import com.library.loanservice.model.Loan;
 
 import java.util.List;
@@ -7,9 +9,8 @@ import java.util.UUID;
 
 public interface LoanService {
     List<Loan> getAllLoans();
+    LoanPageResponse getLoans(LoanFilter filter, String cursor, int size);
     Loan getLoanById(UUID id);
-    List<Loan> getLoansByUserId(UUID userId);
-    List<Loan> getLoansByBookId(UUID bookId);
     Loan borrowBook(UUID userId, UUID bookId);
     Loan returnBook(UUID loanId);
 }
\ No newline at end of file
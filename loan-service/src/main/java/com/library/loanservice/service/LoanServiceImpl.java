@@ -1,23 +1,37 @@
 package com.library.loanservice.service;
 
 import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
 import com.library.common.dto.UserDTO;
 import com.library.common.event.LoanCreatedEvent;
 import com.library.common.event.LoanReturnedEvent;
 import com.library.common.exception.BookNotFoundException;
 import com.library.common.exception.UserNotFoundException;
+import com.library.loanservice.dto.LoanCursor;
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.dto.LoanPageResponse;
+import com.library.loanservice.dto.LoanSummary;
 import com.library.loanservice.exception.*;
 import com.library.loanservice.model.Loan;
 import com.library.loanservice.model.LoanStatus;
-import com.library.loanservice.producer.LoanEventProducer;
+import com.library.loanservice.producer.LoanEventOutbox;
 import com.library.loanservice.repository.LoanRepository;
+import com.library.loanservice.repository.LoanSpecifications;
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,70 +44,56 @@ public class LoanServiceImpl implements LoanService {
 
     private final LoanRepository loanRepository;
     private final RestClientService restClientService;
-    private final LoanEventProducer loanEventProducer;
+    private final LoanEventOutbox loanEventOutbox;
+    private final TransactionOperations transactionOperations;
+    private final FinePolicy finePolicy;
 
     private static final int DEFAULT_LOAN_PERIOD_DAYS = 14;
 
+    @Value("${loans.downstream.timeout:3s}")
+    private Duration downstreamTimeout;
+
     @Override
     public List<Loan> getAllLoans() {
         logger.info("Fetching all loans.");
         List<Loan> loans = loanRepository.findAll();
         logger.debug("Found {} loans.", loans.size());
-        return loans;
+        return withFinesDue(loans);
+    }
+
+    @Override
+    public LoanPageResponse getLoans(LoanFilter filter, String cursor, int size) {
+        logger.debug("Fetching page of {} loans matching {} after cursor: {}", size, filter, cursor);
+        LoanCursor after = cursor != null && !cursor.isBlank() ? LoanCursor.decode(cursor) : null;
+        LocalDate today = LocalDate.now();
+        Specification<Loan> specification = LoanSpecifications.matching(filter, today)
+                .and(LoanSpecifications.after(after));
+
+        List<LoanSummary> loans = loanRepository.findSummaries(specification, size + 1);
+
+        boolean hasNext = loans.size() > size;
+        List<LoanSummary> content = hasNext ? new ArrayList<>(loans.subList(0, size)) : loans;
+        content.forEach(loan -> finePolicy.withFineDue(loan, today));
+        String nextCursor = hasNext ? LoanCursor.from(content.get(content.size() - 1)).encode() : null;
+        return new LoanPageResponse(content, content.size(), nextCursor, hasNext);
     }
 
     @Override
     public Loan getLoanById(UUID id) {
         logger.info("Attempting to retrieve loan with ID: {}", id);
         return loanRepository.findById(id)
+                .map(loan -> finePolicy.withFineDue(loan, LocalDate.now()))
                 .orElseThrow(() -> {
                     logger.warn("Loan with ID: {} not found.", id);
                     return new LoanNotFoundException(id, "loan");
                 });
     }
 
-    @Override
-    public List<Loan> getLoansByUserId(UUID userId) {
-        logger.info("Attempting to retrieve loans for user with ID: {}", userId);
-        List<Loan> loans = loanRepository.findByUserId(userId);
-        if (loans.isEmpty()) {
-            logger.warn("No loans found for user with ID: {}", userId);
-            throw new LoanNotFoundException(userId, "user");
-        }
-        logger.debug("Found {} loans for user with ID: {}", loans.size(), userId);
-        return loans;
-    }
-
-    @Override
-    public List<Loan> getLoansByBookId(UUID bookId) {
-        logger.info("Attempting to retrieve loans for book with ID: {}", bookId);
-        List<Loan> loans = loanRepository.findByBookId(bookId);
-        if (loans.isEmpty()) {
-            logger.warn("No loans found for book with ID: {}", bookId);
-            throw new LoanNotFoundException(bookId, "book");
-        }
-        logger.debug("Found {} loans for book with ID: {}", loans.size(), bookId);
-        return loans;
-    }
-
     @Override
     public Loan borrowBook(UUID userId, UUID bookId) {
         logger.info("Attempting to borrow book with ID: {} by user with ID: {}.", bookId, userId);
 
-        UserDTO user = restClientService.getUserById(userId);
-        if (user == null) {
-            logger.error("User with ID: {} not found.", userId);
-            throw new UserNotFoundException(userId);
-        }
-        logger.debug("User found: {}", user.getId());
-
-        BookDTO book = restClientService.getBookById(bookId);
-        if (book == null) {
-            logger.error("Book with ID: {} not found.", bookId);
-            throw new BookNotFoundException(bookId);
-        }
-        logger.debug("Book found: {}", book.getId());
-
+        // Only spares the downstream calls; the single active loan itself is enforced by uq_loans_borrowed_user_id_book_id.
         Optional<Loan> activeLoan = loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED);
         if (activeLoan.isPresent()) {
             logger.warn("Book with ID: {} is already borrowed by user with ID: {}.", bookId, userId);
@@ -101,16 +101,14 @@ public class LoanServiceImpl implements LoanService {
         }
         logger.debug("No active loan found for user {} and book {}.", userId, bookId);
 
-        Boolean bookServiceResult = restClientService.borrowBookInBookService(bookId).block();
-        if (Boolean.FALSE.equals(bookServiceResult)) {
-            logger.error("Book with ID: {} not available for borrowing in Book Service.", bookId);
-            throw new BookNotAvailableException(bookId);
-        }
-        else if (bookServiceResult == null) {
-            logger.error("Unexpected null response from Book Service when borrowing book ID: {}.", bookId);
-            throw new ServiceCommunicationException("Book Service", "Unexpected response during book borrowing.");
-        }
-        logger.debug("Book Service confirmed availability for book ID: {}.", bookId);
+        DownstreamDeadline deadline = DownstreamDeadline.after(downstreamTimeout);
+        Tuple2<UserDTO, BookDTO> userAndBook = fetchUserAndBook(userId, bookId, deadline);
+        UserDTO user = userAndBook.getT1();
+        BookDTO book = userAndBook.getT2();
+        logger.debug("User {} and book {} found.", user.getId(), book.getId());
+
+        BookHoldDTO hold = restClientService.reserveBookInBookService(bookId, deadline.remaining("Book Service"));
+        logger.debug("Book Service placed hold {} on book ID: {} until {}.", hold.getId(), bookId, hold.getExpiresAt());
 
         Loan newLoan = new Loan();
         newLoan.setUserId(userId);
@@ -119,20 +117,31 @@ public class LoanServiceImpl implements LoanService {
         newLoan.setDueDate(LocalDate.now().plusDays(DEFAULT_LOAN_PERIOD_DAYS));
         newLoan.setStatus(LoanStatus.BORROWED);
 
-        Loan savedLoan = loanRepository.save(newLoan);
+        // The loan and its LoanCreatedEvent commit together; the outbox relay hands the event to Kafka afterwards.
+        Loan savedLoan;
+        try {
+            savedLoan = transactionOperations.execute(status -> {
+                Loan loan = loanRepository.saveAndFlush(newLoan);
+                loanEventOutbox.loanCreated(new LoanCreatedEvent(loan.getId(), user, book, loan.getLoanDate(), loan.getDueDate()));
+                return loan;
+            });
+        } catch (DataIntegrityViolationException e) {
+            releaseHoldQuietly(hold);
+            if (loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED).isPresent()) {
+                logger.warn("A concurrent request of user {} borrowed book {} first. Released hold {}.", userId, bookId, hold.getId());
+                throw new BookAlreadyBorrowedException(userId, bookId);
+            }
+            logger.error("Failed to save loan for user {} and book {}. Released hold {}.", userId, bookId, hold.getId());
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("Failed to save loan for user {} and book {}. Releasing hold {}.", userId, bookId, hold.getId());
+            releaseHoldQuietly(hold);
+            throw e;
+        }
+        confirmHoldOrUndoLoan(savedLoan, hold);
         logger.info("New loan created with ID: {} for user {} and book {}. Due date: {}", savedLoan.getId(), userId, bookId, savedLoan.getDueDate());
 
-        LoanCreatedEvent event = new LoanCreatedEvent(
-                savedLoan.getId(),
-                user,
-                book,
-                savedLoan.getLoanDate(),
-                savedLoan.getDueDate()
-        );
-        loanEventProducer.publishLoanCreatedEvent(event);
-        logger.info("LoanCreatedEvent published for loan ID: {}.", savedLoan.getId());
-
-        return savedLoan;
+        return finePolicy.withFineDue(savedLoan, LocalDate.now());
     }
 
     @Override
@@ -146,28 +155,21 @@ public class LoanServiceImpl implements LoanService {
                 });
         logger.debug("Loan found: {}", loan.getId());
 
-        UserDTO user = restClientService.getUserById(loan.getUserId());
-        if (user == null) {
-            logger.error("User with ID: {} associated with loan {} not found.", loan.getUserId(), loanId);
-            throw new UserNotFoundException(loan.getUserId());
-        }
-        logger.debug("User associated with loan found: {}", user.getId());
-
-        BookDTO book = restClientService.getBookById(loan.getBookId());
-        if (book == null) {
-            logger.error("Book with ID: {} associated with loan {} not found.", loan.getBookId(), loanId);
-            throw new BookNotFoundException(loan.getBookId());
-        }
-        logger.debug("Book associated with loan found: {}", book.getId());
-
         if (loan.getStatus() == LoanStatus.RETURNED) {
             logger.warn("Loan with ID: {} has already been returned.", loanId);
             throw new LoanAlreadyReturnedException(loanId);
         }
         logger.debug("Loan with ID: {} is not yet returned. Current status: {}.", loanId, loan.getStatus());
 
+        DownstreamDeadline deadline = DownstreamDeadline.after(downstreamTimeout);
+        Tuple2<UserDTO, BookDTO> userAndBook = fetchUserAndBook(loan.getUserId(), loan.getBookId(), deadline);
+        UserDTO user = userAndBook.getT1();
+        BookDTO book = userAndBook.getT2();
+        logger.debug("User {} and book {} associated with loan {} found.", user.getId(), book.getId(), loanId);
 
-        Boolean bookServiceResult = restClientService.returnBookInBookService(loan.getBookId()).block();
+        Boolean bookServiceResult = restClientService.returnBookInBookService(loan.getBookId())
+                .timeout(deadline.remaining("Book Service"), Mono.error(() -> deadline.exceeded("Book Service")))
+                .block();
         if (Boolean.FALSE.equals(bookServiceResult)) {
             logger.error("Book Service failed to confirm return for book ID: {} linked to loan ID: {}.", loan.getBookId(), loanId);
             throw new ServiceCommunicationException("Book Service", "Failed to confirm book return in Book Service for ID: " + loan.getBookId());
@@ -180,21 +182,74 @@ public class LoanServiceImpl implements LoanService {
 
         loan.setReturnDate(LocalDate.now());
         loan.setStatus(LoanStatus.RETURNED);
+        // The only time a fine is written: settled from the dates, whatever the overdue job did or missed.
+        loan.setFineAmount(finePolicy.fineFor(loan, loan.getReturnDate()));
+
+        Loan returnedLoan = transactionOperations.execute(status -> {
+            Loan saved = loanRepository.save(loan);
+            loanEventOutbox.loanReturned(new LoanReturnedEvent(saved.getId(), user, book, saved.getLoanDate(),
+                    saved.getDueDate(), saved.getReturnDate()));
+            return saved;
+        });
+        logger.info("Loan with ID: {} successfully returned. Return date: {}, fine: {}", returnedLoan.getId(), returnedLoan.getReturnDate(), returnedLoan.getFineAmount());
+
+        return finePolicy.withFineDue(returnedLoan, returnedLoan.getReturnDate());
+    }
 
-        Loan returnedLoan = loanRepository.save(loan);
-        logger.info("Loan with ID: {} successfully returned. Return date: {}", returnedLoan.getId(), returnedLoan.getReturnDate());
-
-        LoanReturnedEvent event = new LoanReturnedEvent(
-                returnedLoan.getId(),
-                user,
-                book,
-                returnedLoan.getLoanDate(),
-                returnedLoan.getDueDate(),
-                returnedLoan.getReturnDate()
-        );
-        loanEventProducer.publishLoanReturnedEvent(event);
-        logger.info("LoanReturnedEvent published for loan ID: {}.", returnedLoan.getId());
-
-        return returnedLoan;
+    private List<Loan> withFinesDue(List<Loan> loans) {
+        LocalDate today = LocalDate.now();
+        loans.forEach(loan -> finePolicy.withFineDue(loan, today));
+        return loans;
+    }
+
+    // Both lookups only read, so they go out together and the request waits for the slower one, not their sum.
+    private Tuple2<UserDTO, BookDTO> fetchUserAndBook(UUID userId, UUID bookId, DownstreamDeadline deadline) {
+        Mono<UserDTO> user = restClientService.fetchUserById(userId)
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("User with ID: {} not found.", userId);
+                    return new UserNotFoundException(userId);
+                }));
+        Mono<BookDTO> book = restClientService.fetchBookById(bookId)
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("Book with ID: {} not found.", bookId);
+                    return new BookNotFoundException(bookId);
+                }));
+        return Mono.zip(user, book)
+                .timeout(deadline.remaining("User and Book"), Mono.error(() -> deadline.exceeded("User and Book")))
+                .block();
+    }
+
+    private void confirmHoldOrUndoLoan(Loan savedLoan, BookHoldDTO hold) {
+        HoldOutcome outcome = HoldOutcome.confirmOrRelease(restClientService, savedLoan.getId(), hold.getId());
+        if (outcome == HoldOutcome.CONFIRMED) {
+            return;
+        }
+        if (outcome == HoldOutcome.UNKNOWN) {
+            // A confirmed copy without its loan would be lost for good, so the loan is kept and HoldConfirmationRetrier
+            // retries the confirmation until Book Service confirms or releases the hold.
+            try {
+                transactionOperations.executeWithoutResult(status -> loanEventOutbox.holdConfirmationPending(savedLoan.getId(), hold));
+                logger.warn("Keeping loan ID: {} and queueing the confirmation of hold {} for retry.", savedLoan.getId(), hold.getId());
+            } catch (RuntimeException e) {
+                logger.error("Keeping loan ID: {}, but its hold {} could not be queued for confirmation ({}); reconcile it with "
+                        + "Book Service before the hold expires at {}.", savedLoan.getId(), hold.getId(), e.getMessage(), hold.getExpiresAt());
+            }
+            return;
+        }
+        // A relay pass that ran since the save may already have sent the LoanCreatedEvent; only unsent ones are dropped.
+        transactionOperations.executeWithoutResult(status -> {
+            loanEventOutbox.discard(savedLoan.getId());
+            loanRepository.delete(savedLoan);
+        });
+        logger.warn("Loan ID: {} rolled back because its stock hold could not be confirmed.", savedLoan.getId());
+        throw new ServiceCommunicationException("Book Service", "Failed to confirm the reserved copy of book ID: " + savedLoan.getBookId());
+    }
+
+    private void releaseHoldQuietly(BookHoldDTO hold) {
+        try {
+            restClientService.releaseHoldInBookService(hold.getId());
+        } catch (RuntimeException e) {
+            logger.error("Failed to release hold {}; it will be returned to stock when it expires at {}.", hold.getId(), hold.getExpiresAt());
+        }
     }
-}
\ No newline at end of file
+}
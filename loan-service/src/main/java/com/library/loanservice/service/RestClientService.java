@@ -1,14 +1,24 @@
 package com.library.loanservice.service;
 
 import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
 import com.library.common.dto.UserDTO;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 public interface RestClientService {
     BookDTO getBookById(UUID bookId);
+    Mono<BookDTO> fetchBookById(UUID bookId);
+    Map<UUID, BookDTO> getBooksByIds(Collection<UUID> bookIds);
     UserDTO getUserById(UUID userId);
-    Mono<Boolean> borrowBookInBookService(UUID bookId);
+    Mono<UserDTO> fetchUserById(UUID userId);
+    Map<UUID, UserDTO> getUsersByIds(Collection<UUID> userIds);
+    BookHoldDTO reserveBookInBookService(UUID bookId, Duration timeout);
+    void confirmHoldInBookService(UUID holdId);
+    boolean releaseHoldInBookService(UUID holdId);
     Mono<Boolean> returnBookInBookService(UUID bookId);
 }
\ No newline at end of file
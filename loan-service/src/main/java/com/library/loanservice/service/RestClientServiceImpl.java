@@ -1,20 +1,33 @@
 package com.library.loanservice.service;
 
+import com.library.common.config.ServiceWebClients;
 import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
 import com.library.common.dto.UserDTO;
 import com.library.common.exception.BookNotFoundException;
+import com.library.common.exception.DownstreamUnavailableException;
 import com.library.common.exception.UserNotFoundException;
+import com.library.loanservice.exception.BookNotAvailableException;
 import com.library.loanservice.exception.ServiceCommunicationException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -23,81 +36,225 @@ public class RestClientServiceImpl implements RestClientService {
 
     private static final Logger logger = LoggerFactory.getLogger(RestClientServiceImpl.class);
 
-    private final WebClient.Builder webClientBuilder;
+    private final ServiceWebClients serviceWebClients;
+    private final static String BOOK_SERVICE = "BOOK-SERVICE";
+    private final static String USER_SERVICE = "USER-SERVICE";
     private final static String bookServiceUrl = "http://BOOK-SERVICE/api/books/";
     private final static String userServiceUrl = "http://USER-SERVICE/api/users/";
+    private final static int BOOK_BATCH_SIZE = 1000;
+    private final static int USER_BATCH_SIZE = 1000;
+    private final static int HOLD_CALL_RETRIES = 2;
+    private final static Duration HOLD_CALL_BACKOFF = Duration.ofMillis(200);
 
     @Override
     public BookDTO getBookById(UUID bookId) {
+        return fetchBookById(bookId).block();
+    }
+
+    @Override
+    public Mono<BookDTO> fetchBookById(UUID bookId) {
         String url = bookServiceUrl + bookId;
-        logger.info("Attempting to get book by ID: {} from Book Service at URL: {}", bookId, url);
+        return Mono.defer(() -> {
+                    logger.info("Attempting to get book by ID: {} from Book Service at URL: {}", bookId, url);
+                    return bookService().get()
+                            .uri(url)
+                            .retrieve()
+                            .bodyToMono(BookDTO.class);
+                })
+                .onErrorMap(e -> !(e instanceof BookNotFoundException), e -> {
+                    if (e instanceof WebClientResponseException.NotFound notFound) {
+                        logger.warn("Book not found for ID: {}. Status: {}", bookId, notFound.getStatusCode());
+                        return new BookNotFoundException("Book with ID: " + bookId + " not found.");
+                    }
+                    if (e instanceof WebClientResponseException response) {
+                        logger.error("Error communicating with Book Service when getting book ID: {}. Status: {}, Body: {}", bookId, response.getStatusCode(), response.getResponseBodyAsString());
+                        return new ServiceCommunicationException("Book Service", "Failed to get book. Status: " + response.getStatusCode());
+                    }
+                    logger.error("An unexpected error occurred when getting book ID: {}. Error: {}", bookId, e.getMessage());
+                    return unexpected("Book Service", e, "An unexpected error occurred.");
+                });
+    }
+
+    @Override
+    public Map<UUID, BookDTO> getBooksByIds(Collection<UUID> bookIds) {
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        Map<UUID, BookDTO> books = new HashMap<>();
+        if (distinctIds.isEmpty()) {
+            return books;
+        }
+        String url = bookServiceUrl + "batch";
+        logger.info("Attempting to get {} books by ID from Book Service at URL: {}", distinctIds.size(), url);
+        for (int from = 0; from < distinctIds.size(); from += BOOK_BATCH_SIZE) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + BOOK_BATCH_SIZE, distinctIds.size()));
+            try {
+                Map<UUID, BookDTO> response = bookService().post()
+                        .uri(url)
+                        .bodyValue(Map.of("ids", chunk))
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<Map<UUID, BookDTO>>() {})
+                        .block();
+                if (response != null) {
+                    books.putAll(response);
+                }
+            } catch (WebClientResponseException e) {
+                logger.error("Error communicating with Book Service when getting {} books. Status: {}, Body: {}", chunk.size(), e.getStatusCode(), e.getResponseBodyAsString());
+                throw new ServiceCommunicationException("Book Service", "Failed to get books. Status: " + e.getStatusCode());
+            } catch (Exception e) {
+                logger.error("An unexpected error occurred when getting {} books. Error: {}", chunk.size(), e.getMessage());
+                throw unexpected("Book Service", e, "An unexpected error occurred.");
+            }
+        }
+        logger.debug("Book Service returned {} of {} requested books.", books.size(), distinctIds.size());
+        return books;
+    }
+
+    @Override
+    public UserDTO getUserById(UUID userId) {
+        return fetchUserById(userId).block();
+    }
+
+    @Override
+    public Mono<UserDTO> fetchUserById(UUID userId) {
+        String url = userServiceUrl + userId;
+        return Mono.defer(() -> {
+                    logger.info("Attempting to get user by ID: {} from User Service at URL: {}", userId, url);
+                    return userService().get()
+                            .uri(url)
+                            .retrieve()
+                            .bodyToMono(UserDTO.class);
+                })
+                .onErrorMap(e -> !(e instanceof UserNotFoundException), e -> {
+                    if (e instanceof WebClientResponseException.NotFound notFound) {
+                        logger.warn("User not found for ID: {}. Status: {}", userId, notFound.getStatusCode());
+                        return new UserNotFoundException("User with ID: " + userId + " not found.");
+                    }
+                    if (e instanceof WebClientResponseException response) {
+                        logger.error("Error communicating with User Service when getting user ID: {}. Status: {}, Body: {}", userId, response.getStatusCode(), response.getResponseBodyAsString());
+                        return new ServiceCommunicationException("User Service", "Failed to get user. Status: " + response.getStatusCode());
+                    }
+                    logger.error("An unexpected error occurred when getting user ID: {}. Error: {}", userId, e.getMessage());
+                    return unexpected("User Service", e, "An unexpected error occurred.");
+                });
+    }
+
+    @Override
+    public Map<UUID, UserDTO> getUsersByIds(Collection<UUID> userIds) {
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        Map<UUID, UserDTO> users = new HashMap<>();
+        if (distinctIds.isEmpty()) {
+            return users;
+        }
+        String url = userServiceUrl + "batch";
+        logger.info("Attempting to get {} users by ID from User Service at URL: {}", distinctIds.size(), url);
+        for (int from = 0; from < distinctIds.size(); from += USER_BATCH_SIZE) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + USER_BATCH_SIZE, distinctIds.size()));
+            try {
+                Map<UUID, UserDTO> response = userService().post()
+                        .uri(url)
+                        .bodyValue(Map.of("ids", chunk))
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<Map<UUID, UserDTO>>() {})
+                        .block();
+                if (response != null) {
+                    users.putAll(response);
+                }
+            } catch (WebClientResponseException e) {
+                logger.error("Error communicating with User Service when getting {} users. Status: {}, Body: {}", chunk.size(), e.getStatusCode(), e.getResponseBodyAsString());
+                throw new ServiceCommunicationException("User Service", "Failed to get users. Status: " + e.getStatusCode());
+            } catch (Exception e) {
+                logger.error("An unexpected error occurred when getting {} users. Error: {}", chunk.size(), e.getMessage());
+                throw unexpected("User Service", e, "An unexpected error occurred.");
+            }
+        }
+        logger.debug("User Service returned {} of {} requested users.", users.size(), distinctIds.size());
+        return users;
+    }
+
+    @Override
+    public BookHoldDTO reserveBookInBookService(UUID bookId, Duration timeout) {
+        String url = bookServiceUrl + bookId + "/holds";
+        logger.info("Attempting to reserve book with ID: {} in Book Service at URL: {}", bookId, url);
         try {
-            return webClientBuilder.build().get()
+            // A hold left behind by a timed-out call expires on its own in Book Service.
+            BookHoldDTO hold = bookService().post()
                     .uri(url)
                     .retrieve()
-                    .bodyToMono(BookDTO.class)
+                    .bodyToMono(BookHoldDTO.class)
+                    .timeout(timeout, Mono.error(() -> new ServiceCommunicationException("Book Service", "Timed out reserving book after " + timeout.toMillis() + " ms.")))
                     .block();
+            if (hold == null) {
+                throw new ServiceCommunicationException("Book Service", "Unexpected response during book reservation.");
+            }
+            return hold;
         } catch (WebClientResponseException.NotFound e) {
-            logger.warn("Book not found for ID: {}. Status: {}", bookId, e.getStatusCode());
+            logger.warn("Book not found for reservation, ID: {}. Status: {}", bookId, e.getStatusCode());
             throw new BookNotFoundException("Book with ID: " + bookId + " not found.");
+        } catch (WebClientResponseException.BadRequest e) {
+            logger.warn("Book with ID: {} has no copies left to reserve. Body: {}", bookId, e.getResponseBodyAsString());
+            throw new BookNotAvailableException(bookId);
         } catch (WebClientResponseException e) {
-            logger.error("Error communicating with Book Service when getting book ID: {}. Status: {}, Body: {}", bookId, e.getStatusCode(), e.getResponseBodyAsString());
-            throw new ServiceCommunicationException("Book Service", "Failed to get book. Status: " + e.getStatusCode());
+            logger.error("Error communicating with Book Service when reserving book ID: {}. Status: {}, Body: {}", bookId, e.getStatusCode(), e.getResponseBodyAsString());
+            throw new ServiceCommunicationException("Book Service", "Failed to reserve book. Status: " + e.getStatusCode());
+        } catch (ServiceCommunicationException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("An unexpected error occurred when getting book ID: {}. Error: {}", bookId, e.getMessage());
-            throw new ServiceCommunicationException("Book Service", "An unexpected error occurred.");
+            logger.error("An unexpected error occurred when reserving book ID: {}. Error: {}", bookId, e.getMessage());
+            throw unexpected("Book Service", e, "An unexpected error occurred during book reservation.");
         }
     }
 
     @Override
-    public UserDTO getUserById(UUID userId) {
-        String url = userServiceUrl + userId;
-        logger.info("Attempting to get user by ID: {} from User Service at URL: {}", userId, url);
+    public void confirmHoldInBookService(UUID holdId) {
+        String url = bookServiceUrl + "holds/" + holdId + "/confirm";
+        logger.info("Attempting to confirm hold with ID: {} in Book Service at URL: {}", holdId, url);
         try {
-            return webClientBuilder.build().get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(UserDTO.class)
-                    .block();
-        } catch (WebClientResponseException.NotFound e) {
-            logger.warn("User not found for ID: {}. Status: {}", userId, e.getStatusCode());
-            throw new UserNotFoundException("User with ID: " + userId + " not found.");
+            postHoldTransition(url);
         } catch (WebClientResponseException e) {
-            logger.error("Error communicating with User Service when getting user ID: {}. Status: {}, Body: {}", userId, e.getStatusCode(), e.getResponseBodyAsString());
-            throw new ServiceCommunicationException("User Service", "Failed to get user. Status: " + e.getStatusCode());
+            logger.error("Book Service refused to confirm hold ID: {}. Status: {}, Body: {}", holdId, e.getStatusCode(), e.getResponseBodyAsString());
+            throw new ServiceCommunicationException("Book Service", "Failed to confirm hold. Status: " + e.getStatusCode());
         } catch (Exception e) {
-            logger.error("An unexpected error occurred when getting user ID: {}. Error: {}", userId, e.getMessage());
-            throw new ServiceCommunicationException("User Service", "An unexpected error occurred.");
+            logger.error("An unexpected error occurred when confirming hold ID: {}. Error: {}", holdId, e.getMessage());
+            throw unexpected("Book Service", e, "An unexpected error occurred during hold confirmation.");
         }
     }
 
     @Override
-    public Mono<Boolean> borrowBookInBookService(UUID bookId) {
-        String url = bookServiceUrl + bookId + "/borrow";
-        logger.info("Attempting to borrow book with ID: {} in Book Service at URL: {}", bookId, url);
-        return webClientBuilder.build().put()
+    public boolean releaseHoldInBookService(UUID holdId) {
+        String url = bookServiceUrl + "holds/" + holdId + "/release";
+        logger.info("Attempting to release hold with ID: {} in Book Service at URL: {}", holdId, url);
+        try {
+            postHoldTransition(url);
+            return true;
+        } catch (WebClientResponseException.Conflict e) {
+            logger.warn("Hold ID: {} was already confirmed and cannot be released.", holdId);
+            return false;
+        } catch (WebClientResponseException e) {
+            logger.error("Book Service refused to release hold ID: {}. Status: {}, Body: {}", holdId, e.getStatusCode(), e.getResponseBodyAsString());
+            throw new ServiceCommunicationException("Book Service", "Failed to release hold. Status: " + e.getStatusCode());
+        } catch (Exception e) {
+            logger.error("An unexpected error occurred when releasing hold ID: {}. Error: {}", holdId, e.getMessage());
+            throw unexpected("Book Service", e, "An unexpected error occurred during hold release.");
+        }
+    }
+
+    // Hold transitions are idempotent in Book Service, so transient failures are safe to retry.
+    private void postHoldTransition(String url) {
+        bookService().post()
                 .uri(url)
                 .retrieve()
-                .bodyToMono(Void.class)
-                .thenReturn(true)
-                .onErrorResume(WebClientResponseException.class, e -> {
-                    logger.error("WebClientResponseException when borrowing book ID: {}. Status: {}, Body: {}", bookId, e.getStatusCode(), e.getResponseBodyAsString());
-                    if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                        return Mono.error(new BookNotFoundException("Book not found for borrowing."));
-                    }
-                    return Mono.error(new ServiceCommunicationException("Book Service", "An error occurred during borrowing. Status: " + e.getStatusCode()));
-                })
-                .onErrorResume(e -> {
-                    logger.error("An unexpected error occurred during borrowing book ID: {}. Error: {}", bookId, e.getMessage());
-                    return Mono.error(new ServiceCommunicationException("Book Service", "An unexpected error occurred during borrowing."));
-                });
+                .toBodilessEntity()
+                .retryWhen(Retry.backoff(HOLD_CALL_RETRIES, HOLD_CALL_BACKOFF)
+                        .filter(e -> !(e instanceof DownstreamUnavailableException)
+                                && (!(e instanceof WebClientResponseException response) || response.getStatusCode().is5xxServerError()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .block();
     }
 
     @Override
     public Mono<Boolean> returnBookInBookService(UUID bookId) {
         String url = bookServiceUrl + bookId + "/return";
         logger.info("Attempting to return book with ID: {} in Book Service at URL: {}", bookId, url);
-        return webClientBuilder.build().put()
+        return bookService().put()
                 .uri(url)
                 .retrieve()
                 .bodyToMono(Void.class)
@@ -111,7 +268,21 @@ public class RestClientServiceImpl implements RestClientService {
                 })
                 .onErrorResume(e -> {
                     logger.error("An unexpected error occurred during returning book ID: {}. Error: {}", bookId, e.getMessage());
-                    return Mono.error(new ServiceCommunicationException("Book Service", "An unexpected error occurred during returning."));
+                    return Mono.error(unexpected("Book Service", e, "An unexpected error occurred during returning."));
                 });
     }
-}
\ No newline at end of file
+
+    // An open circuit or a full bulkhead is reported as such rather than as an unexpected error.
+    private static ServiceCommunicationException unexpected(String serviceName, Throwable e, String message) {
+        return new ServiceCommunicationException(serviceName,
+                e instanceof DownstreamUnavailableException unavailable ? unavailable.getReason() : message);
+    }
+
+    private WebClient bookService() {
+        return serviceWebClients.forService(BOOK_SERVICE);
+    }
+
+    private WebClient userService() {
+        return serviceWebClients.forService(USER_SERVICE);
+    }
+}
@@ -0,0 +1,14 @@
+-- The loans table as ddl-auto: update created it before the schema moved to migrations. Existing databases are
+-- baselined at this version; everything added since comes in the versions after it.
+
+CREATE TABLE loans (
+    id          UUID         NOT NULL,
+    book_id     UUID         NOT NULL,
+    user_id     UUID         NOT NULL,
+    loan_date   DATE         NOT NULL,
+    due_date    DATE         NOT NULL,
+    return_date DATE,
+    status      VARCHAR(255) NOT NULL CHECK (status IN ('BORROWED', 'RETURNED', 'OVERDUE')),
+    fine_amount FLOAT(53),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,13 @@
+-- Loan events written in the loan's transaction and relayed to Kafka afterwards. IF NOT EXISTS, as databases that
+-- ran under ddl-auto: update may already have the table.
+
+CREATE TABLE IF NOT EXISTS loan_outbox (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    loan_id    UUID                        NOT NULL,
+    event_type VARCHAR(255)                NOT NULL,
+    payload    VARCHAR(8000)               NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_loan_outbox_loan_id ON loan_outbox (loan_id);
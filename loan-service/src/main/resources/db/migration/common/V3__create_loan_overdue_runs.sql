@@ -0,0 +1,19 @@
+-- Checkpoints of the nightly overdue run per day and partition, and the day each loan was marked overdue. IF NOT
+-- EXISTS, as databases that ran under ddl-auto: update may already have them.
+
+CREATE TABLE IF NOT EXISTS loan_overdue_runs (
+    run_date             DATE    NOT NULL,
+    partition_index      INTEGER NOT NULL,
+    partition_count      INTEGER NOT NULL,
+    overdue_checkpoint   UUID    NOT NULL,
+    notice_checkpoint    UUID    NOT NULL,
+    marked_overdue       BIGINT  NOT NULL,
+    notices_queued       BIGINT  NOT NULL,
+    started_at           TIMESTAMP(6) WITH TIME ZONE,
+    marking_completed_at TIMESTAMP(6) WITH TIME ZONE,
+    completed_at         TIMESTAMP(6) WITH TIME ZONE,
+    version              BIGINT,
+    PRIMARY KEY (partition_index, run_date)
+);
+
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS overdue_since DATE;
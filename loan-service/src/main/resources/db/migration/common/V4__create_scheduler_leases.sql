@@ -0,0 +1,12 @@
+-- Leases that let one replica at a time run a scheduled job's partition. IF NOT EXISTS, as databases that ran under
+-- ddl-auto: update may already have the table.
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name         VARCHAR(255) NOT NULL,
+    owner        VARCHAR(255),
+    locked_until TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    checkpoint   UUID,
+    completed_at TIMESTAMP(6) WITH TIME ZONE,
+    version      BIGINT,
+    PRIMARY KEY (name)
+);
@@ -0,0 +1,6 @@
+-- Before fines were derived from the loan's dates, the nightly overdue job added the daily fine to fine_amount of every
+-- open overdue loan, so a missed night undercharged and a repeated one overcharged. Open loans now report the fine
+-- from their dates and returnBook settles fine_amount on return, so the amounts accrued on loans that are still open
+-- are dropped here rather than silently replaced later. Fines of returned loans are settled and kept.
+
+UPDATE loans SET fine_amount = NULL WHERE return_date IS NULL AND fine_amount IS NOT NULL;
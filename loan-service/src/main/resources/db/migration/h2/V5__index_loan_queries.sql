@@ -0,0 +1,7 @@
+-- The PostgreSQL indexes of this version for the H2 used by the repository tests, which has no partial indexes:
+-- the borrowed-loan index folds into the user and book one, the overdue one takes status as its leading column.
+
+CREATE INDEX idx_loans_user_id_book_id ON loans (user_id, book_id, status);
+CREATE INDEX idx_loans_book_id ON loans (book_id);
+CREATE INDEX idx_loans_status_due_date_id ON loans (status, due_date, id);
+CREATE INDEX idx_loans_overdue_since_id ON loans (status, overdue_since, id);
@@ -0,0 +1,5 @@
+-- The PostgreSQL partial unique index of this version for H2: a column that holds the book only while the loan is
+-- BORROWED, unique with the user. NULLs never collide, so returned and overdue loans are not constrained.
+
+ALTER TABLE loans ADD COLUMN borrowed_book_id UUID GENERATED ALWAYS AS (CASE WHEN status = 'BORROWED' THEN book_id END);
+ALTER TABLE loans ADD CONSTRAINT uq_loans_borrowed_user_id_book_id UNIQUE (borrowed_book_id, user_id);
@@ -0,0 +1,7 @@
+-- The PostgreSQL indexes of this version for the H2 used by the repository tests. idx_loans_user_id_book_id stays
+-- here, as H2's unique constraint of V6 is on the generated column and cannot serve the active-loan check.
+
+CREATE INDEX idx_loans_user_id_id ON loans (user_id, id);
+CREATE INDEX idx_loans_book_id_id ON loans (book_id, id);
+DROP INDEX idx_loans_book_id;
+CREATE INDEX idx_loans_loan_date_id ON loans (loan_date, id);
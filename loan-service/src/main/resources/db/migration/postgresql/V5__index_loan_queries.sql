@@ -0,0 +1,14 @@
+-- One index per LoanRepository access path; built CONCURRENTLY so a large loans table stays writable meanwhile.
+
+-- findByUserId by its leading column, findByBookId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_user_id_book_id ON loans (user_id, book_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_book_id ON loans (book_id);
+
+-- findByUserIdAndBookIdAndStatus(BORROWED), the active-loan check of every borrow
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_borrowed_user_id_book_id ON loans (user_id, book_id) WHERE status = 'BORROWED';
+
+-- findDueAfter, findOverdueIdsAfter and markOverdue: status and due date first, then the id ranges of the partitions
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_status_due_date_id ON loans (status, due_date, id);
+
+-- findOverdueSinceAfter; only loans the overdue job has marked carry overdue_since
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_overdue_since_id ON loans (overdue_since, id) WHERE status = 'OVERDUE';
@@ -0,0 +1,6 @@
+-- At most one BORROWED loan per user and book, whatever borrowBook's pre-check saw. Duplicates left by the former
+-- check-then-insert have to be returned first: a failed CONCURRENTLY build leaves an invalid index to drop and retry.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_loans_borrowed_user_id_book_id ON loans (user_id, book_id) WHERE status = 'BORROWED';
+
+-- Same columns and predicate as the unique index, which now serves findByUserIdAndBookIdAndStatus(BORROWED).
+DROP INDEX CONCURRENTLY IF EXISTS idx_loans_borrowed_user_id_book_id;
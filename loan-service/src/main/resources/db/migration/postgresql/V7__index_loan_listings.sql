@@ -0,0 +1,13 @@
+-- Keyset pages of GET /api/loans run in id order, so the user and book filters lead indexes that go on with the id
+-- and a page reads only its own rows.
+
+-- ?userId= and /user/{userId}; the active-loan check keeps uq_loans_borrowed_user_id_book_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_user_id_id ON loans (user_id, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_loans_user_id_book_id;
+
+-- ?bookId= and /book/{bookId}
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_book_id_id ON loans (book_id, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_loans_book_id;
+
+-- ?loanedFrom=&loanedTo=; the range rows are sorted by id afterwards, so narrow ranges are the ones it serves
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loans_loan_date_id ON loans (loan_date, id);
@@ -0,0 +1,165 @@
+package com.library.loanservice.config;
+
+import com.library.common.config.ServiceClientProperties;
+import com.library.common.config.ServiceWebClients;
+import com.library.common.dto.BookDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compares the pooled per-service client with a client that opens a new connection for every call, against a
+// local server that counts accepted connections.
+@DisplayName("ServiceWebClients connection reuse")
+class ServiceWebClientsReuseTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceWebClientsReuseTest.class);
+
+    private static final int REQUESTS = Integer.getInteger("loans.benchmark.requests", 300);
+    private static final int CONCURRENCY = 16;
+    private static final int BATCH_SIZE = 1000;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer server;
+    private ServiceWebClients serviceWebClients;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .doOnChannelInit((observer, channel, remoteAddress) -> connections.incrementAndGet())
+                .route(routes -> routes.get("/api/books/{id}", (request, response) -> response
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendString(Mono.just("{\"id\":\"" + request.param("id") + "\",\"title\":\"Solaris\"}")))
+                        .post("/api/books/batch", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just(batchResponse(BATCH_SIZE)))))
+                .bindNow();
+        serviceWebClients = new ServiceWebClients(WebClient.builder(), new ServiceClientProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        serviceWebClients.destroy();
+        server.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Pooled client should reuse connections and record a timer per call")
+    void pooledClient_shouldReuseConnections() {
+        WebClient pooled = serviceWebClients.forService("BOOK-SERVICE");
+        ConnectionProvider unpooledProvider = ConnectionProvider.newConnection();
+        WebClient unpooled = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(unpooledProvider)))
+                .build();
+        run(pooled, 20);
+        run(unpooled, 20);
+
+        connections.set(0);
+        long[] unpooledLatencies = run(unpooled, REQUESTS);
+        int unpooledConnections = connections.getAndSet(0);
+        long[] pooledLatencies = run(pooled, REQUESTS);
+        int pooledConnections = connections.getAndSet(0);
+
+        long start = System.nanoTime();
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> get(pooled), CONCURRENCY)
+                .blockLast();
+        long concurrentMillis = (System.nanoTime() - start) / 1_000_000;
+        int concurrentConnections = connections.get();
+
+        logger.info("{} sequential calls: new connection per call p50 {} us, p99 {} us over {} connections; "
+                        + "pooled p50 {} us, p99 {} us over {} connections. {} calls at concurrency {} took {} ms over {} new connections.",
+                REQUESTS, micros(percentile(unpooledLatencies, 50)), micros(percentile(unpooledLatencies, 99)), unpooledConnections,
+                micros(percentile(pooledLatencies, 50)), micros(percentile(pooledLatencies, 99)), pooledConnections,
+                REQUESTS, CONCURRENCY, concurrentMillis, concurrentConnections);
+        unpooledProvider.dispose();
+
+        assertEquals(REQUESTS, unpooledConnections);
+        assertTrue(pooledConnections <= 1);
+        assertTrue(concurrentConnections <= CONCURRENCY);
+        assertEquals(2L * REQUESTS + 20, meterRegistry.get("library.http.client.requests")
+                .tags("target", "book-service", "method", "GET", "outcome", "SUCCESS", "status", "200")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("Pooled client should decode a full batch response larger than the default in-memory buffer")
+    void pooledClient_shouldDecodeFullBatchResponse() {
+        String body = batchResponse(BATCH_SIZE);
+        assertTrue(body.length() > 256 * 1024);
+
+        Map<UUID, BookDTO> books = serviceWebClients.forService("BOOK-SERVICE").post()
+                .uri("http://localhost:" + server.port() + "/api/books/batch")
+                .bodyValue(Map.of("ids", List.of()))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<UUID, BookDTO>>() {})
+                .block();
+
+        assertNotNull(books);
+        assertEquals(BATCH_SIZE, books.size());
+    }
+
+    private long[] run(WebClient client, int requests) {
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            assertNotNull(get(client).block());
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private Mono<BookDTO> get(WebClient client) {
+        return client.get()
+                .uri("http://localhost:" + server.port() + "/api/books/" + UUID.randomUUID())
+                .retrieve()
+                .bodyToMono(BookDTO.class);
+    }
+
+    private static String batchResponse(int books) {
+        StringJoiner body = new StringJoiner(",", "{", "}");
+        for (int i = 0; i < books; i++) {
+            UUID id = new UUID(0, i);
+            body.add("\"" + id + "\":{\"id\":\"" + id + "\",\"title\":\"Solaris\",\"author\":\"Stanisław Lem\","
+                    + "\"isbn\":\"978-83-08-05244-0\",\"publicationYear\":1961,\"publisher\":\"Wydawnictwo Literackie\","
+                    + "\"genre\":\"Science Fiction\",\"stock\":{\"quantity\":5,\"availableCopies\":3}}");
+        }
+        return body.toString();
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+}
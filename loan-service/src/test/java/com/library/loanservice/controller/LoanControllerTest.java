@@ -1,13 +1,24 @@
 package com.library.loanservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.config.ServiceWebClients;
 import com.library.common.security.CustomUserDetails;
 import com.library.common.security.CustomUserDetailsService;
 import com.library.common.security.JwtTokenProvider;
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.dto.LoanPageResponse;
+import com.library.loanservice.dto.LoanSummary;
+import com.library.loanservice.exception.InvalidCursorException;
 import com.library.loanservice.exception.LoanNotFoundException;
 import com.library.loanservice.model.Loan;
 import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.producer.LoanOutboxRelay;
 import com.library.loanservice.scheduler.LoanReminderScheduler;
+import com.library.loanservice.scheduler.OverdueLoanProcessor;
+import com.library.loanservice.scheduler.SchedulerLeases;
+import com.library.loanservice.scheduler.SchedulerLookups;
+import com.library.loanservice.service.HoldConfirmationRetrier;
 import com.library.loanservice.service.LoanService;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,13 +30,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,11 +55,29 @@ class LoanControllerTest {
     private LoanService loanService;
 
     @MockBean
-    private WebClient webClient;
+    private ServiceWebClients serviceWebClients;
 
     @MockBean
     private LoanReminderScheduler loanReminderScheduler;
 
+    @MockBean
+    private OverdueLoanProcessor overdueLoanProcessor;
+
+    @MockBean
+    private SchedulerLookups schedulerLookups;
+
+    @MockBean
+    private SchedulerLeases schedulerLeases;
+
+    @MockBean
+    private LoanEventOutbox loanEventOutbox;
+
+    @MockBean
+    private LoanOutboxRelay loanOutboxRelay;
+
+    @MockBean
+    private HoldConfirmationRetrier holdConfirmationRetrier;
+
     @MockBean
     private CustomUserDetailsService userDetailsService;
 
@@ -83,7 +114,7 @@ class LoanControllerTest {
         sampleLoanId = UUID.randomUUID();
         sampleBookId = UUID.randomUUID();
         sampleUserId = UUID.randomUUID();
-        sampleLoan = new Loan(sampleLoanId, sampleBookId, sampleUserId, LocalDate.now(), LocalDate.now().plusDays(14), null, LoanStatus.BORROWED);
+        sampleLoan = new Loan(sampleLoanId, sampleBookId, sampleUserId, LocalDate.now(), LocalDate.now().plusDays(14), null, LoanStatus.BORROWED, null, null, null);
 
         adminUserId = UUID.randomUUID();
         adminUserDetails = new CustomUserDetails(
@@ -144,15 +175,21 @@ class LoanControllerTest {
                 .thenReturn(otherUserDetails);
     }
 
+    private LoanPageResponse samplePage() {
+        LoanSummary summary = new LoanSummary(sampleLoanId, sampleBookId, sampleUserId, sampleLoan.getLoanDate(),
+                sampleLoan.getDueDate(), null, LoanStatus.BORROWED, null);
+        return new LoanPageResponse(List.of(summary), 1, null, false);
+    }
+
     private Cookie generateTestJwtCookie(CustomUserDetails userDetails) {
         String token = jwtTokenProvider.generateTokenForTest(userDetails);
         return new Cookie("token", token);
     }
 
     @Test
-    @DisplayName("GET /api/loans should return 200 OK and all loans for ADMIN")
-    void getAllLoans_shouldReturnListOfLoans_asAdmin() throws Exception {
-        when(loanService.getAllLoans()).thenReturn(Arrays.asList(sampleLoan));
+    @DisplayName("GET /api/loans should return 200 OK and a page of loans for ADMIN")
+    void getLoans_shouldReturnPageOfLoans_asAdmin() throws Exception {
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20))).thenReturn(samplePage());
 
         mockMvc.perform(get("/api/loans")
                         .with(user(adminUserDetails))
@@ -160,17 +197,18 @@ class LoanControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id").value(sampleLoanId.toString()))
-                .andExpect(jsonPath("$[0].bookId").value(sampleBookId.toString()))
-                .andExpect(jsonPath("$[0].userId").value(sampleUserId.toString()));
-        verify(loanService, times(1)).getAllLoans();
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(sampleLoanId.toString()))
+                .andExpect(jsonPath("$.content[0].bookId").value(sampleBookId.toString()))
+                .andExpect(jsonPath("$.content[0].userId").value(sampleUserId.toString()))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        verify(loanService, times(1)).getLoans(any(LoanFilter.class), isNull(), eq(20));
     }
 
     @Test
-    @DisplayName("GET /api/loans should return 200 OK and all loans for EDITOR")
-    void getAllLoans_shouldReturnListOfLoans_asEditor() throws Exception {
-        when(loanService.getAllLoans()).thenReturn(Arrays.asList(sampleLoan));
+    @DisplayName("GET /api/loans should return 200 OK and a page of loans for EDITOR")
+    void getLoans_shouldReturnPageOfLoans_asEditor() throws Exception {
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20))).thenReturn(samplePage());
 
         mockMvc.perform(get("/api/loans")
                         .with(user(editorUserDetails))
@@ -178,10 +216,50 @@ class LoanControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(sampleLoanId.toString()))
+                .andExpect(jsonPath("$.content[0].bookId").value(sampleBookId.toString()))
+                .andExpect(jsonPath("$.content[0].userId").value(sampleUserId.toString()))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        verify(loanService, times(1)).getLoans(any(LoanFilter.class), isNull(), eq(20));
+    }
+
+    @Test
+    @DisplayName("GET /api/loans should pass the filters, cursor and a capped page size to the service")
+    void getLoans_shouldPassFiltersAndCappedSize_asAdmin() throws Exception {
+        when(loanService.getLoans(any(LoanFilter.class), eq("abc"), eq(100))).thenReturn(samplePage());
+
+        mockMvc.perform(get("/api/loans")
+                        .param("status", "BORROWED")
+                        .param("dueFrom", "2024-06-01")
+                        .param("dueTo", "2024-06-30")
+                        .param("overdue", "true")
+                        .param("cursor", "abc")
+                        .param("size", "1000")
+                        .with(user(adminUserDetails))
+                        .cookie(adminJwtCookie)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk());
+        verify(loanService, times(1)).getLoans(
+                eq(new LoanFilter(null, null, LoanStatus.BORROWED, null, null, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30), true)),
+                eq("abc"), eq(100));
+    }
+
+    @Test
+    @DisplayName("GET /api/loans?unpaged=true should return 200 OK and all loans for ADMIN")
+    void getAllLoans_shouldReturnListOfLoans_asAdmin() throws Exception {
+        when(loanService.getAllLoans()).thenReturn(Arrays.asList(sampleLoan));
+
+        mockMvc.perform(get("/api/loans")
+                        .param("unpaged", "true")
+                        .with(user(adminUserDetails))
+                        .cookie(adminJwtCookie)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id").value(sampleLoanId.toString()))
-                .andExpect(jsonPath("$[0].bookId").value(sampleBookId.toString()))
-                .andExpect(jsonPath("$[0].userId").value(sampleUserId.toString()));
+                .andExpect(jsonPath("$[0].id").value(sampleLoanId.toString()));
         verify(loanService, times(1)).getAllLoans();
     }
 
@@ -273,7 +351,7 @@ class LoanControllerTest {
     @Test
     @DisplayName("GET /api/loans/user/{userId} should return 200 OK and loans for ADMIN")
     void getLoansByUserId_shouldReturnListOfLoans_asAdmin() throws Exception {
-        when(loanService.getLoansByUserId(janeUserId)).thenReturn(Arrays.asList(sampleLoan));
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20))).thenReturn(samplePage());
 
         mockMvc.perform(get("/api/loans/user/{userId}", janeUserId)
                         .with(user(adminUserDetails)) // Use .with(user())
@@ -281,15 +359,15 @@ class LoanControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].userId").value(janeUserId.toString()));
-        verify(loanService, times(1)).getLoansByUserId(janeUserId);
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].userId").value(janeUserId.toString()));
+        verify(loanService, times(1)).getLoans(argThat(filter -> janeUserId.equals(filter.getUserId())), isNull(), eq(20));
     }
 
     @Test
     @DisplayName("GET /api/loans/user/{userId} should return 200 OK and loans for EDITOR")
     void getLoansByUserId_shouldReturnListOfLoans_asEditor() throws Exception {
-        when(loanService.getLoansByUserId(janeUserId)).thenReturn(Arrays.asList(sampleLoan));
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20))).thenReturn(samplePage());
 
         mockMvc.perform(get("/api/loans/user/{userId}", janeUserId)
                         .with(user(editorUserDetails)) // Use .with(user())
@@ -297,15 +375,15 @@ class LoanControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].userId").value(janeUserId.toString()));
-        verify(loanService, times(1)).getLoansByUserId(janeUserId);
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].userId").value(janeUserId.toString()));
+        verify(loanService, times(1)).getLoans(argThat(filter -> janeUserId.equals(filter.getUserId())), isNull(), eq(20));
     }
 
     @Test
     @DisplayName("GET /api/loans/user/{userId} should return 200 OK for owner USER")
     void getLoansByUserId_shouldReturnListOfLoans_asOwnerUser() throws Exception {
-        when(loanService.getLoansByUserId(janeUserId)).thenReturn(Arrays.asList(sampleLoan));
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20))).thenReturn(samplePage());
 
         mockMvc.perform(get("/api/loans/user/{userId}", janeUserId)
                         .with(user(janeUserDetails)) // Use .with(user())
@@ -313,9 +391,40 @@ class LoanControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].userId").value(janeUserId.toString()));
-        verify(loanService, times(1)).getLoansByUserId(janeUserId);
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].userId").value(janeUserId.toString()));
+        verify(loanService, times(1)).getLoans(argThat(filter -> janeUserId.equals(filter.getUserId())), isNull(), eq(20));
+    }
+
+    @Test
+    @DisplayName("GET /api/loans/user/{userId} should return 200 OK and an empty page when the user has no loans")
+    void getLoansByUserId_shouldReturnEmptyPage_whenUserHasNoLoans() throws Exception {
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20)))
+                .thenReturn(new LoanPageResponse(List.of(), 0, null, false));
+
+        mockMvc.perform(get("/api/loans/user/{userId}", janeUserId)
+                        .with(user(janeUserDetails))
+                        .cookie(janeJwtCookie)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /api/loans/user/{userId} should return 400 Bad Request for a malformed cursor")
+    void getLoansByUserId_shouldReturnBadRequest_whenCursorIsMalformed() throws Exception {
+        when(loanService.getLoans(any(LoanFilter.class), eq("broken"), eq(20)))
+                .thenThrow(new InvalidCursorException("The cursor is malformed."));
+
+        mockMvc.perform(get("/api/loans/user/{userId}", janeUserId)
+                        .param("cursor", "broken")
+                        .with(user(janeUserDetails))
+                        .cookie(janeJwtCookie)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -334,7 +443,7 @@ class LoanControllerTest {
     @Test
     @DisplayName("GET /api/loans/book/{bookId} should return 200 OK and loans for ADMIN")
     void getLoansByBookId_shouldReturnListOfLoans_asAdmin() throws Exception {
-        when(loanService.getLoansByBookId(sampleBookId)).thenReturn(Arrays.asList(sampleLoan));
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20))).thenReturn(samplePage());
 
         mockMvc.perform(get("/api/loans/book/{bookId}", sampleBookId)
                         .with(user(adminUserDetails)) // Use .with(user())
@@ -342,15 +451,15 @@ class LoanControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].bookId").value(sampleBookId.toString()));
-        verify(loanService, times(1)).getLoansByBookId(sampleBookId);
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].bookId").value(sampleBookId.toString()));
+        verify(loanService, times(1)).getLoans(argThat(filter -> sampleBookId.equals(filter.getBookId())), isNull(), eq(20));
     }
 
     @Test
     @DisplayName("GET /api/loans/book/{bookId} should return 200 OK and loans for EDITOR")
     void getLoansByBookId_shouldReturnListOfLoans_asEditor() throws Exception {
-        when(loanService.getLoansByBookId(sampleBookId)).thenReturn(Arrays.asList(sampleLoan));
+        when(loanService.getLoans(any(LoanFilter.class), isNull(), eq(20))).thenReturn(samplePage());
 
         mockMvc.perform(get("/api/loans/book/{bookId}", sampleBookId)
                         .with(user(editorUserDetails)) // Use .with(user())
@@ -358,9 +467,9 @@ class LoanControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].bookId").value(sampleBookId.toString()));
-        verify(loanService, times(1)).getLoansByBookId(sampleBookId);
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].bookId").value(sampleBookId.toString()));
+        verify(loanService, times(1)).getLoans(argThat(filter -> sampleBookId.equals(filter.getBookId())), isNull(), eq(20));
     }
 
     @Test
@@ -378,7 +487,7 @@ class LoanControllerTest {
 //    @Test
 //    @DisplayName("POST /api/loans/borrow should create and return a borrowed loan successfully for ADMIN")
 //    void borrowBook_shouldReturnCreatedLoan_asAdmin() throws Exception {
-//        Loan createdLoan = new Loan(UUID.randomUUID(), sampleBookId, sampleUserId, LocalDate.now(), LocalDate.now().plusDays(14), null, LoanStatus.BORROWED);
+//        Loan createdLoan = new Loan(UUID.randomUUID(), sampleBookId, sampleUserId, LocalDate.now(), LocalDate.now().plusDays(14), null, LoanStatus.BORROWED, null);
 //        when(loanService.borrowBook(sampleUserId, sampleBookId)).thenReturn(createdLoan);
 //
 //        mockMvc.perform(post("/api/loans/borrow")
@@ -398,7 +507,7 @@ class LoanControllerTest {
     @Test
     @DisplayName("POST /api/loans/borrow should create and return a borrowed loan successfully for owner USER")
     void borrowBook_shouldReturnCreatedLoan_asOwnerUser() throws Exception {
-        Loan createdLoan = new Loan(UUID.randomUUID(), sampleBookId, janeUserId, LocalDate.now(), LocalDate.now().plusDays(14), null, LoanStatus.BORROWED);
+        Loan createdLoan = new Loan(UUID.randomUUID(), sampleBookId, janeUserId, LocalDate.now(), LocalDate.now().plusDays(14), null, LoanStatus.BORROWED, null, null, null);
         when(loanService.borrowBook(janeUserId, sampleBookId)).thenReturn(createdLoan);
 
         mockMvc.perform(post("/api/loans/borrow")
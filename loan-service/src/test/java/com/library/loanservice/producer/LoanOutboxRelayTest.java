@@ -0,0 +1,227 @@
+package com.library.loanservice.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
+import com.library.common.dto.UserDTO;
+import com.library.common.event.LoanCreatedEvent;
+import com.library.common.event.LoanReturnedEvent;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import com.library.loanservice.repository.LoanRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ContextConfiguration(classes = LoanOutboxRelayTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("LoanOutboxRelay Tests")
+class LoanOutboxRelayTest {
+
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private LoanOutboxRepository loanOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BrokerStandIn broker = new BrokerStandIn();
+    private TransactionTemplate transactionTemplate;
+    private LoanEventOutbox outbox;
+    private LoanOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outbox = new LoanEventOutbox(loanOutboxRepository, objectMapper);
+        KafkaLoanEventPublisher publisher = new KafkaLoanEventPublisher(new KafkaTemplate<>(() -> broker), "loan-events", 1000);
+        relay = new LoanOutboxRelay(loanOutboxRepository, publisher, transactionManager, meterRegistry, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanOutboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should deliver every outbox row once and in per-loan order across a broker outage")
+    void relay_shouldDeliverEachEventOnce_whenBrokerDiesMidBatch() {
+        List<UUID> loanIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (int round = 0; round < 10; round++) {
+            for (UUID loanId : loanIds) {
+                transactionTemplate.executeWithoutResult(status -> outbox.loanCreated(created(loanId)));
+            }
+        }
+        broker.crashAfter(7);
+
+        int beforeCrash = relay.relay();
+
+        assertEquals(7, beforeCrash);
+        assertEquals(23, loanOutboxRepository.count());
+        assertEquals(23.0, meterRegistry.get("loans.outbox.depth").gauge().value());
+        assertTrue(meterRegistry.get("loans.outbox.failures").counter().count() >= 1);
+
+        broker.recover();
+        int afterRecovery = relay.relay();
+
+        assertEquals(23, afterRecovery);
+        assertEquals(0, loanOutboxRepository.count());
+        assertEquals(30.0, meterRegistry.get("loans.outbox.relayed").counter().count());
+        assertEquals(0.0, meterRegistry.get("loans.outbox.depth").gauge().value());
+        assertEquals(0.0, meterRegistry.get("loans.outbox.lag").gauge().value());
+
+        List<ProducerRecord<String, String>> delivered = broker.history();
+        assertEquals(30, delivered.size());
+        Set<Long> eventIds = new HashSet<>();
+        Map<String, Long> lastIdPerLoan = new HashMap<>();
+        for (ProducerRecord<String, String> record : delivered) {
+            long eventId = Long.parseLong(new String(record.headers().lastHeader(KafkaLoanEventPublisher.EVENT_ID_HEADER).value(),
+                    StandardCharsets.UTF_8));
+            assertTrue(eventIds.add(eventId));
+            Long previous = lastIdPerLoan.put(record.key(), eventId);
+            assertTrue(previous == null || previous < eventId);
+        }
+        assertEquals(Set.of(loanIds.get(0).toString(), loanIds.get(1).toString(), loanIds.get(2).toString()), lastIdPerLoan.keySet());
+    }
+
+    @Test
+    @DisplayName("Should not relay events of a rolled back or undone loan")
+    void relay_shouldSkipRolledBackAndDiscardedEvents() throws Exception {
+        UUID rolledBack = UUID.randomUUID();
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            outbox.loanCreated(created(rolledBack));
+            throw new IllegalStateException("Loan save failed");
+        }));
+        UUID undone = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.loanCreated(created(undone));
+            outbox.loanCreated(created(kept));
+        });
+        transactionTemplate.executeWithoutResult(status -> outbox.discard(undone));
+        transactionTemplate.executeWithoutResult(status -> outbox.loanReturned(new LoanReturnedEvent(kept, user(), book(),
+                LocalDate.now(), LocalDate.now().plusDays(14), LocalDate.now())));
+
+        assertEquals(2, relay.relay());
+
+        List<ProducerRecord<String, String>> delivered = broker.history();
+        assertEquals(List.of(kept.toString(), kept.toString()), delivered.stream().map(ProducerRecord::key).toList());
+        assertEquals(LoanCreatedEvent.class.getName(), new String(delivered.get(0).headers()
+                .lastHeader("__TypeId__").value(), StandardCharsets.UTF_8));
+        assertEquals(kept, objectMapper.readValue(delivered.get(1).value(), LoanReturnedEvent.class).getLoanId());
+    }
+
+    @Test
+    @DisplayName("Should leave queued hold confirmations to the retrier and out of the backlog metrics")
+    void relay_shouldSkipQueuedHoldConfirmations() {
+        UUID loanId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.holdConfirmationPending(loanId, new BookHoldDTO(UUID.randomUUID(), UUID.randomUUID(), "HELD", Instant.now()));
+            outbox.loanCreated(created(loanId));
+        });
+
+        assertEquals(1, relay.relay());
+
+        assertEquals(1, broker.history().size());
+        assertEquals(1, loanOutboxRepository.count());
+        assertEquals(0.0, meterRegistry.get("loans.outbox.depth").gauge().value());
+        assertEquals(0.0, meterRegistry.get("loans.outbox.lag").gauge().value());
+    }
+
+    private static LoanCreatedEvent created(UUID loanId) {
+        return new LoanCreatedEvent(loanId, user(), book(), LocalDate.now(), LocalDate.now().plusDays(14));
+    }
+
+    private static UserDTO user() {
+        return new UserDTO(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", "123456789", "Gdańsk, Gdańska 9",
+                LocalDate.now(), true, Set.of("ROLE_USER"));
+    }
+
+    private static BookDTO book() {
+        return new BookDTO(UUID.randomUUID(), "Solaris", "Stanisław Lem", "978-83-08-05244-0", 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(3, 2));
+    }
+
+    // Acknowledges sends until it is killed, then fails every send like an unreachable broker would.
+    private static class BrokerStandIn extends MockProducer<String, String> {
+
+        private final List<ProducerRecord<String, String>> delivered = new ArrayList<>();
+        private int sendsLeft = Integer.MAX_VALUE;
+
+        BrokerStandIn() {
+            super(true, new StringSerializer(), new StringSerializer());
+        }
+
+        void crashAfter(int sends) {
+            sendsLeft = sends;
+        }
+
+        void recover() {
+            sendsLeft = Integer.MAX_VALUE;
+        }
+
+        @Override
+        public synchronized Future<RecordMetadata> send(ProducerRecord<String, String> record, Callback callback) {
+            if (sendsLeft <= 0) {
+                TimeoutException down = new TimeoutException("Broker stand-in is down");
+                callback.onCompletion(null, down);
+                return CompletableFuture.failedFuture(down);
+            }
+            sendsLeft--;
+            delivered.add(record);
+            return super.send(record, callback);
+        }
+
+        @Override
+        public synchronized List<ProducerRecord<String, String>> history() {
+            return new ArrayList<>(delivered);
+        }
+
+        @Override
+        public void close(Duration timeout) {
+            // KafkaTemplate closes its producer after every send; the stand-in lives for the whole test.
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.dto.LoanCursor;
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.scheduler.LoanIdPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Seeds a loans table of library size into the migrated H2 schema and checks the SQL of every LoanRepository query
+// against it: the plan has to use the index a migration built for it, and the query has to stay well ahead of the
+// same query forced into a full scan.
+// Runs with mvn -Pbenchmarks test; add -Dloans.benchmark.indexed-loans=2000000 for a table of production size.
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = LoanQueryPlanBenchmarkTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("LoanRepository query plan benchmark")
+class LoanQueryPlanBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanQueryPlanBenchmarkTest.class);
+
+    private static final int LOANS = Integer.getInteger("loans.benchmark.indexed-loans", 300_000);
+    // How many times faster than a full scan an indexed query has to be.
+    private static final int MIN_SPEEDUP = Integer.getInteger("loans.benchmark.min-speedup", 5);
+    private static final int ROUNDS = 15;
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+    private static final LoanIdPartition WHOLE = LoanIdPartition.of(0, 1);
+    private static final int PAGE_SIZE = 20;
+    private static final String SUMMARY_SQL =
+            "SELECT id, book_id, user_id, loan_date, due_date, return_date, status, fine_amount FROM loans %s";
+
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> users = new ArrayList<>();
+    private final List<UUID> books = new ArrayList<>();
+    private UUID borrowingUser;
+    private UUID borrowedBook;
+
+    @BeforeEach
+    void setUp() {
+        seedLoans();
+        jdbcTemplate.execute("ANALYZE TABLE loans");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE loans");
+    }
+
+    @Test
+    @DisplayName("Should serve every loan query from its index, well ahead of a full scan")
+    void queries_shouldUseTheirIndexes() {
+        UUID after = WHOLE.after();
+        UUID last = WHOLE.last();
+        LoanFilter byUser = new LoanFilter();
+        byUser.setUserId(borrowingUser);
+        LoanFilter byBook = new LoanFilter();
+        byBook.setBookId(borrowedBook);
+        // A day of the returned loans, about LOANS / 3750 of them.
+        LocalDate loanDay = TODAY.minusDays(1_500);
+        LoanFilter byLoanDay = new LoanFilter();
+        byLoanDay.setLoanedFrom(loanDay);
+        byLoanDay.setLoanedTo(loanDay);
+        List<QueryCase> cases = List.of(
+                new QueryCase("findByUserId", "idx_loans_user_id_id",
+                        "SELECT * FROM loans %s WHERE user_id = '" + borrowingUser + "'",
+                        () -> loanRepository.findByUserId(borrowingUser)),
+                new QueryCase("findByBookId", "idx_loans_book_id_id",
+                        "SELECT * FROM loans %s WHERE book_id = '" + borrowedBook + "'",
+                        () -> loanRepository.findByBookId(borrowedBook)),
+                // PostgreSQL answers this one from the partial uq_loans_borrowed_user_id_book_id.
+                new QueryCase("findByUserIdAndBookIdAndStatus", "idx_loans_user_id_book_id",
+                        "SELECT * FROM loans %s WHERE user_id = '" + borrowingUser + "' AND book_id = '" + borrowedBook
+                                + "' AND status = 'BORROWED'",
+                        () -> loanRepository.findByUserIdAndBookIdAndStatus(borrowingUser, borrowedBook, LoanStatus.BORROWED).stream().toList()),
+                new QueryCase("findDueAfter", "idx_loans_status_due_date_id",
+                        "SELECT * FROM loans %s WHERE status = 'BORROWED' AND due_date = DATE '" + TODAY.plusDays(3)
+                                + "' AND id > '" + after + "' AND id <= '" + last + "' ORDER BY id LIMIT 1000",
+                        () -> loanRepository.findDueAfter(LoanStatus.BORROWED, TODAY.plusDays(3), after, last, Limit.of(1000))),
+                new QueryCase("findOverdueIdsAfter", "idx_loans_status_due_date_id",
+                        "SELECT id FROM loans %s WHERE status = 'BORROWED' AND due_date < DATE '" + TODAY
+                                + "' AND id > '" + after + "' AND id <= '" + last + "' ORDER BY id LIMIT 1000",
+                        () -> loanRepository.findOverdueIdsAfter(LoanStatus.BORROWED, TODAY, after, last, Limit.of(1000))),
+                new QueryCase("findOverdueSinceAfter", "idx_loans_overdue_since_id",
+                        "SELECT * FROM loans %s WHERE status = 'OVERDUE' AND overdue_since = DATE '" + TODAY.minusDays(1)
+                                + "' AND id > '" + after + "' AND id <= '" + last + "' ORDER BY id LIMIT 1000",
+                        () -> loanRepository.findOverdueSinceAfter(LoanStatus.OVERDUE, TODAY.minusDays(1), after, last, Limit.of(1000))),
+                // The keyset pages of GET /api/loans, which run in id order whatever the filter.
+                new QueryCase("findSummaries(userId)", "idx_loans_user_id_id",
+                        SUMMARY_SQL + " WHERE user_id = '" + borrowingUser + "' AND id > '" + after + "' ORDER BY id LIMIT " + PAGE_SIZE,
+                        () -> loanRepository.findSummaries(page(byUser, after), PAGE_SIZE)),
+                new QueryCase("findSummaries(bookId)", "idx_loans_book_id_id",
+                        SUMMARY_SQL + " WHERE book_id = '" + borrowedBook + "' AND id > '" + after + "' ORDER BY id LIMIT " + PAGE_SIZE,
+                        () -> loanRepository.findSummaries(page(byBook, after), PAGE_SIZE)),
+                new QueryCase("findSummaries(loanedFrom, loanedTo)", "idx_loans_loan_date_id",
+                        SUMMARY_SQL + " WHERE loan_date >= DATE '" + loanDay + "' AND loan_date <= DATE '" + loanDay
+                                + "' AND id > '" + after + "' ORDER BY id LIMIT " + PAGE_SIZE,
+                        () -> loanRepository.findSummaries(page(byLoanDay, after), PAGE_SIZE)));
+
+        for (QueryCase query : cases) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + query.sql(""), String.class);
+            assertTrue(plan.contains(query.index().toUpperCase()), query.name() + " no longer uses " + query.index() + ":\n" + plan);
+
+            int rows = jdbcTemplate.queryForList(query.sql("")).size();
+            long indexed = medianNanos(() -> jdbcTemplate.queryForList(query.sql("")).size());
+            long scan = medianNanos(() -> jdbcTemplate.queryForList(query.sql("USE INDEX ()")).size());
+            long repository = medianNanos(() -> query.call().get().size());
+            logger.info("{} over {} loans: {} rows in {} us through {}, {} us by full scan ({}x), {} us through the repository",
+                    query.name(), LOANS, rows, indexed / 1_000, query.index(), scan / 1_000, scan / Math.max(indexed, 1),
+                    repository / 1_000);
+            assertTrue(indexed * MIN_SPEEDUP < scan, query.name() + " took " + indexed / 1_000 + " us, a full scan "
+                    + scan / 1_000 + " us; expected it at least " + MIN_SPEEDUP + "x faster");
+        }
+    }
+
+    private static Specification<Loan> page(LoanFilter filter, UUID after) {
+        return LoanSpecifications.matching(filter, TODAY).and(LoanSpecifications.after(new LoanCursor(after)));
+    }
+
+    // Median of ROUNDS runs, after as many untimed ones to warm up the JIT and the page cache.
+    private static long medianNanos(Supplier<Integer> query) {
+        for (int i = 0; i < ROUNDS; i++) {
+            query.get();
+        }
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[ROUNDS / 2];
+    }
+
+    // Mostly returned loans, as in a library that has been lending for years. Open loans are due over the next two
+    // weeks or turned overdue on one of the last 30 nights, so a night's jobs touch about one open loan in fifteen.
+    private void seedLoans() {
+        Random random = new Random(42);
+        for (int i = 0; i < Math.max(LOANS / 20, 1); i++) {
+            users.add(UUID.randomUUID());
+        }
+        for (int i = 0; i < Math.max(LOANS / 10, 1); i++) {
+            books.add(UUID.randomUUID());
+        }
+        borrowingUser = users.get(0);
+        borrowedBook = books.get(0);
+
+        Set<List<UUID>> borrowedPairs = new HashSet<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < LOANS; i++) {
+            int kind = i % 20;
+            LoanStatus status = kind < 3 ? LoanStatus.BORROWED : kind < 4 ? LoanStatus.OVERDUE : LoanStatus.RETURNED;
+            LocalDate due = switch (status) {
+                case BORROWED -> TODAY.plusDays(random.nextInt(15) - 1);
+                case OVERDUE -> TODAY.minusDays(2 + random.nextInt(30));
+                case RETURNED -> TODAY.minusDays(random.nextInt(3_000));
+            };
+            LocalDate overdueSince = status == LoanStatus.OVERDUE ? due.plusDays(1) : null;
+            LocalDate returnDate = status == LoanStatus.RETURNED ? due.minusDays(random.nextInt(7)) : null;
+            UUID user = i == 0 ? borrowingUser : users.get(random.nextInt(users.size()));
+            UUID book = i == 0 ? borrowedBook : books.get(random.nextInt(books.size()));
+            // uq_loans_borrowed_user_id_book_id allows one open BORROWED loan per user and book.
+            while (status == LoanStatus.BORROWED && !borrowedPairs.add(List.of(user, book))) {
+                book = books.get(random.nextInt(books.size()));
+            }
+            batch.add(new Object[]{UUID.randomUUID(), book, user, due.minusDays(14), due, returnDate, status.name(), overdueSince});
+            if (batch.size() == 10_000 || i == LOANS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO loans (id, book_id, user_id, loan_date, due_date, return_date, status, "
+                        + "overdue_since) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private record QueryCase(String name, String index, String sqlTemplate, Supplier<List<?>> call) {
+
+        String sql(String indexHint) {
+            return String.format(sqlTemplate, indexHint);
+        }
+    }
+}
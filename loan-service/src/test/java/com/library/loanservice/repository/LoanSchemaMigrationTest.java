@@ -0,0 +1,78 @@
+package com.library.loanservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the migrations the way the application does (baseline-on-migrate at V1) on a database that ddl-auto: update
+// created before the schema moved to Flyway, and on an empty one.
+@DisplayName("Loan schema migrations")
+class LoanSchemaMigrationTest {
+
+    private static final List<String> TABLES = List.of("LOANS", "LOAN_OUTBOX", "LOAN_OVERDUE_RUNS", "SCHEDULER_LEASES");
+
+    @Test
+    @DisplayName("Should bring a database holding only the original loans table up to the current schema and drop fines accrued on open loans")
+    void migrate_shouldUpgradeBaselinedDatabase() {
+        DataSource dataSource = dataSource();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE loans (id UUID NOT NULL, book_id UUID NOT NULL, user_id UUID NOT NULL, "
+                + "loan_date DATE NOT NULL, due_date DATE NOT NULL, return_date DATE, status VARCHAR(255) NOT NULL, "
+                + "fine_amount FLOAT(53), PRIMARY KEY (id))");
+        UUID openLoan = UUID.randomUUID();
+        UUID returnedLoan = UUID.randomUUID();
+        String insert = "INSERT INTO loans (id, book_id, user_id, loan_date, due_date, return_date, status, fine_amount) "
+                + "VALUES (?, ?, ?, DATE '2024-01-01', DATE '2024-01-15', ?, ?, ?)";
+        jdbcTemplate.update(insert, openLoan, UUID.randomUUID(), UUID.randomUUID(), null, "OVERDUE", 35.0);
+        jdbcTemplate.update(insert, returnedLoan, UUID.randomUUID(), UUID.randomUUID(), LocalDate.of(2024, 1, 20), "RETURNED", 25.0);
+
+        MigrateResult result = flyway(dataSource).migrate();
+
+        assertEquals("1", result.initialSchemaVersion);
+        assertCurrentSchema(jdbcTemplate);
+        assertNull(jdbcTemplate.queryForObject("SELECT fine_amount FROM loans WHERE id = ?", Double.class, openLoan));
+        assertEquals(25.0, jdbcTemplate.queryForObject("SELECT fine_amount FROM loans WHERE id = ?", Double.class, returnedLoan));
+    }
+
+    @Test
+    @DisplayName("Should create the current schema on an empty database")
+    void migrate_shouldCreateSchemaOnEmptyDatabase() {
+        DataSource dataSource = dataSource();
+
+        flyway(dataSource).migrate();
+
+        assertCurrentSchema(new JdbcTemplate(dataSource));
+    }
+
+    private static void assertCurrentSchema(JdbcTemplate jdbcTemplate) {
+        for (String table : TABLES) {
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ?", Integer.class, table), table);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'LOANS' AND COLUMN_NAME = 'OVERDUE_SINCE'", Integer.class));
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private static DataSource dataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
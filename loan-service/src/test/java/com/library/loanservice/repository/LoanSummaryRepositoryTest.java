@@ -0,0 +1,116 @@
+package com.library.loanservice.repository;
+
+import com.library.loanservice.dto.LoanCursor;
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.dto.LoanSummary;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = LoanSummaryRepositoryTest.JpaTestConfig.class)
+@DisplayName("LoanSummaryRepository Tests")
+class LoanSummaryRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private final UUID userId = UUID.randomUUID();
+    private List<Loan> loans;
+
+    @BeforeEach
+    void setUp() {
+        List<Loan> seeded = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            seeded.add(loan(userId, LoanStatus.BORROWED, TODAY.plusDays(i)));
+        }
+        seeded.add(loan(userId, LoanStatus.BORROWED, TODAY.minusDays(1)));
+        seeded.add(loan(userId, LoanStatus.OVERDUE, TODAY.minusDays(5)));
+        seeded.add(loan(userId, LoanStatus.RETURNED, TODAY.minusDays(20)));
+        seeded.add(loan(UUID.randomUUID(), LoanStatus.BORROWED, TODAY.plusDays(3)));
+        loans = loanRepository.saveAll(seeded);
+    }
+
+    @Test
+    @DisplayName("Should walk every matching loan once in id order, page by page")
+    void findSummaries_shouldPageThroughMatchingLoans() {
+        LoanFilter filter = new LoanFilter();
+        filter.setUserId(userId);
+        List<UUID> seen = new ArrayList<>();
+        LoanCursor cursor = null;
+        do {
+            List<LoanSummary> page = loanRepository.findSummaries(
+                    LoanSpecifications.matching(filter, TODAY).and(LoanSpecifications.after(cursor)), 4);
+            page.forEach(loan -> seen.add(loan.getId()));
+            cursor = page.size() == 4 ? LoanCursor.from(page.get(3)) : null;
+        } while (cursor != null);
+
+        List<UUID> expected = loans.stream()
+                .filter(loan -> loan.getUserId().equals(userId))
+                .map(Loan::getId)
+                .sorted(Comparator.comparing(UUID::toString))
+                .toList();
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @DisplayName("Should count loans past their due date as overdue before the overdue job has marked them")
+    void findSummaries_shouldMatchOverdueLoansByStatusOrDueDate() {
+        LoanFilter filter = new LoanFilter();
+        filter.setOverdue(true);
+
+        List<LoanSummary> overdue = loanRepository.findSummaries(LoanSpecifications.matching(filter, TODAY), 100);
+
+        assertEquals(2, overdue.size());
+        assertTrue(overdue.stream().allMatch(loan -> loan.getDueDate().isBefore(TODAY) && loan.getReturnDate() == null));
+    }
+
+    @Test
+    @DisplayName("Should combine status and due date range filters")
+    void findSummaries_shouldCombineStatusAndDueDateRange() {
+        LoanFilter filter = new LoanFilter(userId, null, LoanStatus.BORROWED, null, null, TODAY.plusDays(2), TODAY.plusDays(4), null);
+
+        List<LoanSummary> loans = loanRepository.findSummaries(LoanSpecifications.matching(filter, TODAY), 100);
+
+        assertEquals(3, loans.size());
+        assertTrue(loans.stream().allMatch(loan -> loan.getUserId().equals(userId) && loan.getStatus() == LoanStatus.BORROWED));
+    }
+
+    @Test
+    @DisplayName("Should return no summaries when no loan matches")
+    void findSummaries_shouldReturnEmptyList_whenNoLoanMatches() {
+        LoanFilter filter = new LoanFilter();
+        filter.setBookId(UUID.randomUUID());
+
+        assertTrue(loanRepository.findSummaries(LoanSpecifications.matching(filter, TODAY), 100).isEmpty());
+    }
+
+    private static Loan loan(UUID userId, LoanStatus status, LocalDate dueDate) {
+        Loan loan = new Loan(UUID.randomUUID(), userId, dueDate.minusDays(14),
+                status == LoanStatus.RETURNED ? dueDate : null, status);
+        loan.setDueDate(dueDate);
+        return loan;
+    }
+}
@@ -0,0 +1,304 @@
+package com.library.loanservice.scheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.UserDTO;
+import com.library.common.event.LoanOverdueEvent;
+import com.library.common.event.LoanReminderEvent;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanOutboxEvent;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.model.SchedulerLease;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import com.library.loanservice.repository.LoanOverdueRunRepository;
+import com.library.loanservice.repository.LoanRepository;
+import com.library.loanservice.repository.SchedulerLeaseRepository;
+import com.library.loanservice.service.RestClientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Several scheduler replicas sharing one database, as three loan-service pods share Postgres.
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = LoanSchedulerClusterTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Loan scheduler cluster Tests")
+class LoanSchedulerClusterTest {
+
+    private static final int REPLICAS = 3;
+
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanOverdueRunRepository loanOverdueRunRepository;
+
+    @Autowired
+    private LoanOutboxRepository loanOutboxRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RestClientService restClientService = mock(RestClientService.class, withSettings().stubOnly());
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final LocalDate today = LocalDate.now();
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        when(restClientService.getUsersByIds(any())).thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).stream()
+                .collect(Collectors.toMap(Function.identity(), id -> new UserDTO(id, "John", "Doe", "john.doe@example.com",
+                        "123456789", "Gdańsk, Gdańska 9", LocalDate.now(), true, Set.of("ROLE_USER")))));
+        when(restClientService.getBooksByIds(any())).thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).stream()
+                .collect(Collectors.toMap(Function.identity(), id -> new BookDTO(id, "Solaris", "Stanisław Lem", "978-83-08-05244-0",
+                        1961, "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(3, 2)))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanOutboxRepository.deleteAllInBatch();
+        loanOverdueRunRepository.deleteAllInBatch();
+        schedulerLeaseRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should process each loan exactly once per day when every replica fires both jobs, twice")
+    void replicas_shouldShareEachDaysRunWithoutRepeatingIt() throws Exception {
+        Map<UUID, Loan> before = seedLoans(120);
+        List<LoanReminderSchedulerImpl> replicas = new ArrayList<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            replicas.add(replica(4, new LoanEventOutbox(loanOutboxRepository, objectMapper)));
+        }
+
+        fireTogether(replicas);
+        fireTogether(replicas);
+
+        assertProcessedOnce(before);
+        List<SchedulerLease> leases = schedulerLeaseRepository.findAll();
+        // The reminder runs of the two days before are caught up too, as no replica ran them.
+        Set<String> expected = LoanIdPartition.all(4).stream()
+                .flatMap(partition -> Stream.of(
+                        LoanReminderSchedulerImpl.REMINDER_JOB + "/" + today.minusDays(2),
+                        LoanReminderSchedulerImpl.REMINDER_JOB + "/" + today.minusDays(1),
+                        LoanReminderSchedulerImpl.REMINDER_JOB + "/" + today,
+                        LoanReminderSchedulerImpl.OVERDUE_JOB + "/" + today)
+                        .map(run -> run + "/" + partition.label()))
+                .collect(Collectors.toSet());
+        assertEquals(expected, leases.stream().map(SchedulerLease::getName).collect(Collectors.toSet()));
+        assertTrue(leases.stream().allMatch(lease -> lease.getCompletedAt() != null));
+    }
+
+    @Test
+    @DisplayName("Should let another replica resume a run after the replica holding it fails mid-run")
+    void replicas_shouldResumeFromCheckpoint_afterHolderFails() {
+        Map<UUID, Loan> before = seedLoans(SchedulerLookups.MAX_IDS_PER_CALL * 2 + 300);
+        AtomicInteger appended = new AtomicInteger();
+        LoanEventOutbox failingOutbox = new LoanEventOutbox(loanOutboxRepository, objectMapper) {
+            @Override
+            public void loanReminder(LoanReminderEvent event) {
+                if (appended.incrementAndGet() > SchedulerLookups.MAX_IDS_PER_CALL + 10) {
+                    throw new IllegalStateException("Replica lost its database connection");
+                }
+                super.loanReminder(event);
+            }
+        };
+
+        replica(1, failingOutbox).sendLoanReminders();
+        assertEquals(SchedulerLookups.MAX_IDS_PER_CALL, reminders().size());
+
+        replica(1, new LoanEventOutbox(loanOutboxRepository, objectMapper)).resumeUnfinishedRuns();
+
+        assertRemindedOnce(before);
+        assertTrue(schedulerLeaseRepository.findAll().stream().allMatch(lease -> lease.getCompletedAt() != null));
+    }
+
+    @Test
+    @DisplayName("Should keep a slow run's lease renewed so other replicas' recovery passes do not take it over")
+    void replicas_shouldNotTakeOverRun_whileHolderRenewsLease() throws Exception {
+        Map<UUID, Loan> before = seedLoans(50);
+        Duration leaseDuration = Duration.ofMillis(300);
+        AtomicInteger slowed = new AtomicInteger();
+        LoanEventOutbox slowOutbox = new LoanEventOutbox(loanOutboxRepository, objectMapper) {
+            @Override
+            public void loanReminder(LoanReminderEvent event) {
+                if (slowed.getAndIncrement() == 0) {
+                    sleep(leaseDuration.multipliedBy(4));
+                }
+                super.loanReminder(event);
+            }
+        };
+        AtomicInteger takenOver = new AtomicInteger();
+        LoanEventOutbox otherOutbox = new LoanEventOutbox(loanOutboxRepository, objectMapper) {
+            @Override
+            public void loanReminder(LoanReminderEvent event) {
+                takenOver.incrementAndGet();
+                super.loanReminder(event);
+            }
+        };
+        LoanReminderSchedulerImpl holder = replica(1, slowOutbox, leaseDuration);
+        LoanReminderSchedulerImpl other = replica(1, otherOutbox, leaseDuration);
+
+        ExecutorService pod = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> run = pod.submit(holder::sendLoanReminders);
+            while (!run.isDone()) {
+                other.resumeUnfinishedRuns();
+                sleep(leaseDuration.dividedBy(6));
+            }
+            run.get();
+        } finally {
+            pod.shutdownNow();
+        }
+
+        assertEquals(0, takenOver.get());
+        assertRemindedOnce(before);
+    }
+
+    private void fireTogether(List<LoanReminderSchedulerImpl> replicas) throws Exception {
+        ExecutorService pods = Executors.newFixedThreadPool(replicas.size());
+        try {
+            CountDownLatch eight = new CountDownLatch(1);
+            List<Future<?>> runs = new ArrayList<>();
+            for (LoanReminderSchedulerImpl replica : replicas) {
+                runs.add(pods.submit(() -> {
+                    eight.await();
+                    replica.sendLoanReminders();
+                    replica.processOverdueLoans();
+                    return null;
+                }));
+            }
+            eight.countDown();
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            pods.shutdownNow();
+        }
+    }
+
+    private void assertProcessedOnce(Map<UUID, Loan> before) {
+        Map<UUID, Long> reminders = reminders();
+        Map<UUID, Long> notices = events(LoanOverdueEvent.class);
+        for (Loan after : loanRepository.findAll()) {
+            Loan original = before.get(after.getId());
+            boolean turnedOverdue = original.getDueDate().isBefore(today) && original.getStatus() == LoanStatus.BORROWED;
+            assertEquals(turnedOverdue ? LoanStatus.OVERDUE : original.getStatus(), after.getStatus(), "status of " + original);
+            assertEquals(original.getFineAmount(), after.getFineAmount(), "fine of " + original);
+            assertEquals(turnedOverdue ? 1L : 0L, notices.getOrDefault(after.getId(), 0L), "notices of " + original);
+            boolean dueSoon = original.getStatus() == LoanStatus.BORROWED && original.getDueDate().equals(today.plusDays(3));
+            assertEquals(dueSoon ? 1L : 0L, reminders.getOrDefault(after.getId(), 0L), "reminders of " + original);
+        }
+    }
+
+    private void assertRemindedOnce(Map<UUID, Loan> before) {
+        Map<UUID, Long> reminders = reminders();
+        for (Loan loan : before.values()) {
+            boolean dueSoon = loan.getStatus() == LoanStatus.BORROWED && loan.getDueDate().equals(today.plusDays(3));
+            assertEquals(dueSoon ? 1L : 0L, reminders.getOrDefault(loan.getId(), 0L), "reminders of " + loan);
+        }
+    }
+
+    private Map<UUID, Long> reminders() {
+        return events(LoanReminderEvent.class);
+    }
+
+    private Map<UUID, Long> events(Class<?> type) {
+        return loanOutboxRepository.findAll().stream()
+                .filter(event -> event.getEventType().equals(type.getName()))
+                .collect(Collectors.groupingBy(LoanOutboxEvent::getLoanId, Collectors.counting()));
+    }
+
+    private LoanReminderSchedulerImpl replica(int partitions, LoanEventOutbox outbox) {
+        return replica(partitions, outbox, Duration.ofMinutes(30));
+    }
+
+    private LoanReminderSchedulerImpl replica(int partitions, LoanEventOutbox outbox, Duration leaseDuration) {
+        SchedulerLookups lookups = new SchedulerLookups(restClientService, new SimpleMeterRegistry());
+        OverdueLoanProcessor processor = new OverdueLoanProcessor(loanRepository, loanOverdueRunRepository, lookups, outbox,
+                transactionTemplate, 7, 5);
+        SchedulerLeases leases = new SchedulerLeases(schedulerLeaseRepository, transactionTemplate, partitions, leaseDuration);
+        return new LoanReminderSchedulerImpl(loanRepository, outbox, transactionTemplate, processor, lookups, leases);
+    }
+
+    // Due in three days, turning overdue, already overdue, not due yet and returned, in equal parts.
+    private Map<UUID, Loan> seedLoans(int perKind) {
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < perKind; i++) {
+            loans.add(loan(LoanStatus.BORROWED, today.plusDays(3), null));
+            loans.add(loan(LoanStatus.BORROWED, today.minusDays(1 + i % 20), null));
+            loans.add(loan(LoanStatus.OVERDUE, today.minusDays(2 + i % 20), 10.0));
+            loans.add(loan(LoanStatus.BORROWED, today.plusDays(4 + i % 10), null));
+            loans.add(loan(LoanStatus.RETURNED, today.minusDays(i % 30), null));
+        }
+        return loanRepository.saveAll(loans).stream().collect(Collectors.toMap(Loan::getId, LoanSchedulerClusterTest::copy));
+    }
+
+    private static Loan loan(LoanStatus status, LocalDate dueDate, Double fine) {
+        Loan loan = new Loan(UUID.randomUUID(), UUID.randomUUID(), dueDate.minusDays(14), null, status);
+        loan.setDueDate(dueDate);
+        loan.setFineAmount(fine);
+        return loan;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Loan copy(Loan loan) {
+        Loan copy = new Loan();
+        copy.setId(loan.getId());
+        copy.setStatus(loan.getStatus());
+        copy.setDueDate(loan.getDueDate());
+        copy.setFineAmount(loan.getFineAmount());
+        return copy;
+    }
+}
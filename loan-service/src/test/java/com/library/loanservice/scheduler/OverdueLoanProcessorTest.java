@@ -0,0 +1,334 @@
+package com.library.loanservice.scheduler;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.UserDTO;
+import com.library.common.event.LoanOverdueEvent;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanOutboxEvent;
+import com.library.loanservice.model.LoanOverdueRun;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import com.library.loanservice.repository.LoanOverdueRunRepository;
+import com.library.loanservice.repository.LoanRepository;
+import com.library.loanservice.service.FinePolicy;
+import com.library.loanservice.service.RestClientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = OverdueLoanProcessorTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("OverdueLoanProcessor Tests")
+class OverdueLoanProcessorTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueLoanProcessorTest.class);
+
+    private static final int BENCHMARK_LOANS = Integer.getInteger("loans.benchmark.overdue-loans", 1_000_000);
+    private static final int LEGACY_SAMPLE = Integer.getInteger("loans.benchmark.legacy-sample", 5_000);
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+    private static final LoanIdPartition WHOLE = LoanIdPartition.of(0, 1);
+
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanOverdueRunRepository loanOverdueRunRepository;
+
+    @Autowired
+    private LoanOutboxRepository loanOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RestClientService restClientService = mock(RestClientService.class, withSettings().stubOnly());
+    private TransactionTemplate transactionTemplate;
+    private LoanEventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outbox = new LoanEventOutbox(loanOutboxRepository, JsonMapper.builder().findAndAddModules().build());
+        when(restClientService.getUsersByIds(any())).thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).stream()
+                .collect(Collectors.toMap(Function.identity(), id -> new UserDTO(id, "John", "Doe", "john.doe@example.com",
+                        "123456789", "Gdańsk, Gdańska 9", LocalDate.now(), true, Set.of("ROLE_USER")))));
+        when(restClientService.getBooksByIds(any())).thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).stream()
+                .collect(Collectors.toMap(Function.identity(), id -> new BookDTO(id, "Solaris", "Stanisław Lem", "978-83-08-05244-0",
+                        1961, "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(3, 2)))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanOutboxRepository.deleteAllInBatch();
+        loanOverdueRunRepository.deleteAllInBatch();
+        // A DELETE of the benchmark's million loans keeps every row and index entry for undo and exhausts H2's heap.
+        jdbcTemplate.execute("TRUNCATE TABLE loans");
+    }
+
+    @Test
+    @DisplayName("Should mark each past-due loan OVERDUE and queue one notice for it wherever the job crashes")
+    void process_shouldResumeWithoutRepeatingNotices_afterCrashAtAnyPoint() {
+        int transactions = countingTransactions(Integer.MAX_VALUE).run();
+        assertTrue(transactions > 3);
+
+        for (int crashAt = 0; crashAt < transactions; crashAt++) {
+            tearDown();
+            Map<UUID, Loan> before = seedLoans();
+            int crashPoint = crashAt;
+            assertThrows(IllegalStateException.class, () -> processor(countingTransactions(crashPoint)).process(TODAY, WHOLE));
+
+            processor(transactionTemplate).process(TODAY, WHOLE);
+
+            assertMarkedOnce(before);
+            assertNotNull(loanOverdueRunRepository.findById(new LoanOverdueRun.Key(TODAY, 0)).orElseThrow().getCompletedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave a completed day untouched when it runs again")
+    void process_shouldBeIdempotentPerDay() {
+        Map<UUID, Loan> before = seedLoans();
+
+        processor(transactionTemplate).process(TODAY, WHOLE);
+        processor(transactionTemplate).process(TODAY, WHOLE);
+
+        assertMarkedOnce(before);
+        assertEquals(4, loanOverdueRunRepository.findById(new LoanOverdueRun.Key(TODAY, 0)).orElseThrow().getNoticesQueued());
+    }
+
+    @Test
+    @DisplayName("Should derive the same fines whether nightly runs are missed or doubled")
+    void fines_shouldNotDependOnHowOftenTheJobRan() {
+        FinePolicy finePolicy = new FinePolicy(5, 0, 0);
+        LocalDate first = TODAY.minusDays(30);
+        Map<UUID, LocalDate> returnDays = new HashMap<>();
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Loan loan = loan(LoanStatus.BORROWED, first.plusDays(2 + i % 25), null);
+            loans.add(loan);
+        }
+        loanRepository.saveAll(loans);
+        for (int i = 0; i < loans.size(); i += 3) {
+            returnDays.put(loans.get(i).getId(), loans.get(i).getDueDate().plusDays(i % 7 - 2));
+        }
+
+        int runs = 0;
+        for (LocalDate day = first; !day.isAfter(TODAY); day = day.plusDays(1)) {
+            for (Map.Entry<UUID, LocalDate> returned : returnDays.entrySet()) {
+                if (returned.getValue().equals(day)) {
+                    // What LoanServiceImpl.returnBook does on the day the book comes back.
+                    Loan loan = loanRepository.findById(returned.getKey()).orElseThrow();
+                    loan.setReturnDate(day);
+                    loan.setStatus(LoanStatus.RETURNED);
+                    loan.setFineAmount(finePolicy.fineFor(loan, day));
+                    loanRepository.save(loan);
+                }
+            }
+            if (day.getDayOfMonth() % 4 == 1) {
+                continue;
+            }
+            processor(transactionTemplate).process(day, WHOLE);
+            runs++;
+            if (day.getDayOfMonth() % 5 == 0) {
+                processor(transactionTemplate).process(day, WHOLE);
+                runs++;
+            }
+        }
+
+        assertTrue(runs < 31 && runs > 20);
+        for (Loan loan : loanRepository.findAll()) {
+            LocalDate end = returnDays.getOrDefault(loan.getId(), TODAY);
+            double expected = 5 * Math.max(0, ChronoUnit.DAYS.between(loan.getDueDate(), end));
+            assertEquals(expected, finePolicy.withFineDue(loan, TODAY).getFineDue(), "fine due of " + loan);
+            if (loan.getStatus() == LoanStatus.RETURNED) {
+                assertEquals(expected, loan.getFineAmount(), "settled fine of " + loan);
+            } else {
+                assertNull(loan.getFineAmount());
+                assertEquals(loan.getDueDate().isBefore(TODAY) ? LoanStatus.OVERDUE : LoanStatus.BORROWED, loan.getStatus());
+            }
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: nightly bulk status run against the former per-loan fine saves on synthetic loans")
+    void benchmark_bulkRunComparedWithPerLoanFineSaves() {
+        int overdue = insertSyntheticLoans(BENCHMARK_LOANS);
+        // Two in three past-due synthetic loans are still BORROWED; the third is OVERDUE already.
+        int turningOverdue = overdue * 2 / 3;
+
+        long start = System.nanoTime();
+        List<Loan> sample = loanRepository.findAll(PageRequest.of(0, LEGACY_SAMPLE)).getContent();
+        for (Loan loan : sample) {
+            loan.setFineAmount((loan.getFineAmount() == null ? 0 : loan.getFineAmount()) + 5);
+            loanRepository.save(loan);
+        }
+        long legacyNanos = System.nanoTime() - start;
+        jdbcTemplate.update("UPDATE loans SET fine_amount = NULL WHERE fine_amount IS NOT NULL");
+
+        OverdueLoanProcessor processor = new OverdueLoanProcessor(loanRepository, loanOverdueRunRepository, lookups(),
+                mock(LoanEventOutbox.class, withSettings().stubOnly()), transactionTemplate, 5_000, 1_000);
+        start = System.nanoTime();
+        LoanOverdueRun run = processor.process(TODAY, WHOLE);
+        long bulkNanos = System.nanoTime() - start;
+
+        double legacyPerSecond = sample.size() / (legacyNanos / 1e9);
+        double bulkPerSecond = overdue / (bulkNanos / 1e9);
+        logger.info("{} synthetic loans, {} overdue: the nightly run marked {} OVERDUE and queued {} notices in {} ms ({} overdue loans/s) "
+                        + "without writing fines; per-loan fine saves managed {} loans/s on a {} loan sample, about {} s per night.",
+                BENCHMARK_LOANS, overdue, run.getMarkedOverdue(), run.getNoticesQueued(), bulkNanos / 1_000_000,
+                Math.round(bulkPerSecond), Math.round(legacyPerSecond), sample.size(), Math.round(overdue / legacyPerSecond));
+        assertEquals(turningOverdue, run.getMarkedOverdue());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE fine_amount IS NOT NULL", Integer.class));
+        assertTrue(bulkPerSecond > legacyPerSecond);
+    }
+
+    private void assertMarkedOnce(Map<UUID, Loan> before) {
+        Map<UUID, Long> notices = loanOutboxRepository.findAll().stream()
+                .peek(event -> assertEquals(LoanOverdueEvent.class.getName(), event.getEventType()))
+                .collect(Collectors.groupingBy(LoanOutboxEvent::getLoanId, Collectors.counting()));
+        for (Loan after : loanRepository.findAll()) {
+            Loan original = before.get(after.getId());
+            assertEquals(original.getFineAmount(), after.getFineAmount(), "fine of " + original);
+            boolean turnedOverdue = original.getDueDate().isBefore(TODAY) && original.getStatus() == LoanStatus.BORROWED;
+            assertEquals(turnedOverdue ? LoanStatus.OVERDUE : original.getStatus(), after.getStatus());
+            assertEquals(turnedOverdue ? 1L : 0L, notices.getOrDefault(after.getId(), 0L), "notices of " + original);
+        }
+    }
+
+    // Ten loans: four turn overdue, two are already overdue, the rest are not due or returned.
+    private Map<UUID, Loan> seedLoans() {
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            loans.add(loan(LoanStatus.BORROWED, TODAY.minusDays(1 + i), null));
+        }
+        loans.add(loan(LoanStatus.OVERDUE, TODAY.minusDays(5), 20.0));
+        loans.add(loan(LoanStatus.OVERDUE, TODAY.minusDays(2), 5.0));
+        loans.add(loan(LoanStatus.BORROWED, TODAY, null));
+        loans.add(loan(LoanStatus.BORROWED, TODAY.plusDays(3), null));
+        loans.add(loan(LoanStatus.RETURNED, TODAY.minusDays(4), null));
+        loans.add(loan(LoanStatus.RETURNED, TODAY.minusDays(9), 15.0));
+        return loanRepository.saveAll(loans).stream().collect(Collectors.toMap(Loan::getId, loan -> copy(loan)));
+    }
+
+    private int insertSyntheticLoans(int count) {
+        int overdue = 0;
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int kind = i % 10;
+            LoanStatus status = kind < 2 ? LoanStatus.BORROWED : kind < 3 ? LoanStatus.OVERDUE : kind < 8 ? LoanStatus.BORROWED : LoanStatus.RETURNED;
+            LocalDate due = kind < 3 ? TODAY.minusDays(1 + i % 30) : kind < 8 ? TODAY.plusDays(1 + i % 14) : TODAY.minusDays(i % 60);
+            if (kind < 3) {
+                overdue++;
+            }
+            batch.add(new Object[]{UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), due.minusDays(14), due, status.name()});
+            if (batch.size() == 10_000 || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO loans (id, book_id, user_id, loan_date, due_date, status) VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return overdue;
+    }
+
+    private OverdueLoanProcessor processor(TransactionOperations transactions) {
+        return new OverdueLoanProcessor(loanRepository, loanOverdueRunRepository, lookups(), outbox, transactions, 3, 3);
+    }
+
+    private SchedulerLookups lookups() {
+        return new SchedulerLookups(restClientService, new SimpleMeterRegistry());
+    }
+
+    // Fails the given transaction before it starts, like a crash between two committed chunks.
+    private CrashingTransactions countingTransactions(int crashAt) {
+        return new CrashingTransactions(transactionTemplate, crashAt);
+    }
+
+    private Loan loan(LoanStatus status, LocalDate dueDate, Double fine) {
+        Loan loan = new Loan(UUID.randomUUID(), UUID.randomUUID(), dueDate.minusDays(14), null, status);
+        loan.setDueDate(dueDate);
+        loan.setFineAmount(fine);
+        return loan;
+    }
+
+    private static Loan copy(Loan loan) {
+        Loan copy = new Loan();
+        copy.setId(loan.getId());
+        copy.setStatus(loan.getStatus());
+        copy.setDueDate(loan.getDueDate());
+        copy.setFineAmount(loan.getFineAmount());
+        return copy;
+    }
+
+    private class CrashingTransactions implements TransactionOperations {
+
+        private final TransactionOperations delegate;
+        private final int crashAt;
+        private final AtomicInteger started = new AtomicInteger();
+
+        CrashingTransactions(TransactionOperations delegate, int crashAt) {
+            this.delegate = delegate;
+            this.crashAt = crashAt;
+        }
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            if (started.getAndIncrement() == crashAt) {
+                throw new IllegalStateException("Crashed before transaction " + crashAt);
+            }
+            return delegate.execute(action);
+        }
+
+        // Runs a full day on fresh loans and returns how many transactions it took.
+        int run() {
+            seedLoans();
+            processor(this).process(TODAY, WHOLE);
+            tearDown();
+            return started.get();
+        }
+    }
+}
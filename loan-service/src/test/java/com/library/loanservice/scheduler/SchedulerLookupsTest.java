@@ -0,0 +1,113 @@
+package com.library.loanservice.scheduler;
+
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.UserDTO;
+import com.library.loanservice.exception.ServiceCommunicationException;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.service.RestClientService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLookupsTest {
+
+    @Mock
+    private RestClientService restClientService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SchedulerLookups schedulerLookups;
+
+    private final UUID readerId = UUID.randomUUID();
+    private final UUID otherReaderId = UUID.randomUUID();
+    private final UUID popularBookId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        schedulerLookups = new SchedulerLookups(restClientService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should fetch each user and book once per run and record the saved calls")
+    void load_shouldFetchEachEntityOncePerRun() {
+        stubUsers();
+        stubBooks();
+        UUID secondBookId = UUID.randomUUID();
+
+        SchedulerLookups.Run run = schedulerLookups.startRun("reminders");
+        run.load(List.of(loan(readerId, popularBookId), loan(otherReaderId, popularBookId), loan(readerId, secondBookId)));
+        run.load(List.of(loan(readerId, popularBookId), loan(otherReaderId, secondBookId)));
+        run.finish();
+
+        assertEquals(readerId, run.user(readerId).getId());
+        assertEquals(secondBookId, run.book(secondBookId).getId());
+        verify(restClientService, times(1)).getUsersByIds(List.of(readerId, otherReaderId));
+        verify(restClientService, times(1)).getBooksByIds(List.of(popularBookId, secondBookId));
+        verifyNoMoreInteractions(restClientService);
+        // Five loans used to cost ten calls; the run made two.
+        assertEquals(8, run.savedCalls());
+        DistributionSummary saved = meterRegistry.get(SchedulerLookups.SAVED_CALLS_METRIC).tag("job", "reminders").summary();
+        assertEquals(1, saved.count());
+        assertEquals(8, saved.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should leave entities unresolved when a bulk call fails and retry them with the next chunk")
+    void load_shouldRetryFailedLookupsWithNextChunk() {
+        stubBooks();
+        when(restClientService.getUsersByIds(any()))
+                .thenThrow(new ServiceCommunicationException("User Service", "Failed to get users. Status: 503 SERVICE_UNAVAILABLE"))
+                .thenAnswer(invocation -> users(invocation.getArgument(0)));
+
+        SchedulerLookups.Run run = schedulerLookups.startRun("overdue-notices");
+        run.load(List.of(loan(readerId, popularBookId)));
+        assertNull(run.user(readerId));
+        assertNotNull(run.book(popularBookId));
+
+        run.load(List.of(loan(readerId, popularBookId)));
+        assertEquals(readerId, run.user(readerId).getId());
+        verify(restClientService, times(2)).getUsersByIds(List.of(readerId));
+        verify(restClientService, times(1)).getBooksByIds(any());
+    }
+
+    private void stubUsers() {
+        when(restClientService.getUsersByIds(any())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+    }
+
+    private void stubBooks() {
+        when(restClientService.getBooksByIds(any())).thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).stream()
+                .collect(Collectors.toMap(Function.identity(), id -> new BookDTO(id, "Solaris", "Stanisław Lem", "978-83-08-05244-0",
+                        1961, "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(3, 2)))));
+    }
+
+    private static Map<UUID, UserDTO> users(Collection<UUID> ids) {
+        return ids.stream().collect(Collectors.toMap(Function.identity(), id -> new UserDTO(id, "John", "Doe",
+                "john.doe@example.com", "123456789", "Gdańsk, Gdańska 9", LocalDate.now(), true, Set.of("ROLE_USER"))));
+    }
+
+    private static Loan loan(UUID userId, UUID bookId) {
+        Loan loan = new Loan(bookId, userId, LocalDate.now().minusDays(11), null, LoanStatus.BORROWED);
+        loan.setId(UUID.randomUUID());
+        return loan;
+    }
+}
@@ -0,0 +1,136 @@
+package com.library.loanservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.config.ServiceClientProperties;
+import com.library.common.config.ServiceWebClients;
+import com.library.common.dto.BookDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Looks up N books one GET at a time, as loan listings did before, and with one POST /api/books/batch call against a
+// stand-in Book Service that answers every request after a fixed latency. Runs with mvn -Pbenchmarks test; the
+// latency can be changed with -Dloans.benchmark.batch-latency-ms.
+@Tag("benchmark")
+@DisplayName("Book batch lookup benchmark")
+class BookBatchLookupBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookBatchLookupBenchmarkTest.class);
+
+    private static final Duration LATENCY = Duration.ofMillis(Long.getLong("loans.benchmark.batch-latency-ms", 5));
+    private static final int[] SIZES = {10, 100, 1000};
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ServiceClientProperties properties = new ServiceClientProperties();
+    private final RestClientService restClientService = new RestClientServiceImpl(new ServiceWebClients(
+            WebClient.builder().exchangeFunction(this::standIn), properties, new SimpleMeterRegistry()));
+    // Responses built here do not go through the client's connector, so they are decoded with the same buffer limit
+    // the client would apply.
+    private final ExchangeStrategies strategies = ExchangeStrategies.builder()
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(
+                    (int) properties.forService("book-service").getMaxInMemorySize().toBytes()))
+            .build();
+    private List<UUID> requestedIds = List.of();
+
+    @Test
+    @DisplayName("One batch call should be faster than N single calls for 10, 100 and 1000 books")
+    void getBooksByIds_latencyComparedWithSingleCalls() {
+        lookUp(10);
+
+        for (int size : SIZES) {
+            List<UUID> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(UUID.randomUUID());
+            }
+            requestedIds = ids;
+
+            requests.set(0);
+            long start = System.nanoTime();
+            for (UUID id : ids) {
+                assertEquals(id, restClientService.getBookById(id).getId());
+            }
+            long singleNanos = System.nanoTime() - start;
+            int singleRequests = requests.get();
+
+            requests.set(0);
+            start = System.nanoTime();
+            Map<UUID, BookDTO> books = restClientService.getBooksByIds(ids);
+            long batchNanos = System.nanoTime() - start;
+
+            assertEquals(size, books.size());
+            assertEquals(size, singleRequests);
+            assertEquals(1, requests.get());
+            logger.info("{} books with {} ms per request: {} single calls took {} ms, one batch call took {} ms.",
+                    size, LATENCY.toMillis(), singleRequests, millis(singleNanos), millis(batchNanos));
+            assertTrue(batchNanos < singleNanos);
+        }
+    }
+
+    private void lookUp(int size) {
+        List<UUID> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        requestedIds = ids;
+        ids.forEach(restClientService::getBookById);
+        restClientService.getBooksByIds(ids);
+    }
+
+    // The batch request body is not readable from an exchange function, so the stand-in answers with the ids the
+    // test is looking up.
+    private Mono<ClientResponse> standIn(ClientRequest request) {
+        requests.incrementAndGet();
+        String path = request.url().getPath();
+        if (request.method() == HttpMethod.POST && path.endsWith("/batch")) {
+            Map<UUID, BookDTO> books = new LinkedHashMap<>();
+            requestedIds.forEach(id -> books.put(id, book(id)));
+            return respond(books);
+        }
+        return respond(book(UUID.fromString(path.split("/")[3])));
+    }
+
+    private Mono<ClientResponse> respond(Object body) {
+        try {
+            return Mono.delay(LATENCY).thenReturn(ClientResponse.create(HttpStatus.OK, strategies)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(objectMapper.writeValueAsString(body))
+                    .build());
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static BookDTO book(UUID id) {
+        return new BookDTO(id, "Solaris", "Stanisław Lem", "978-83-08-05244-0", 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(5, 3));
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,69 @@
+package com.library.loanservice.service;
+
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FinePolicy Tests")
+class FinePolicyTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+
+    private final FinePolicy finePolicy = new FinePolicy(5, 0, 0);
+
+    @Test
+    @DisplayName("Should charge nothing until the due date has passed")
+    void fineFor_shouldBeZero_untilDueDatePassed() {
+        assertEquals(0, finePolicy.fineFor(loan(TODAY.plusDays(2), null), TODAY));
+        assertEquals(0, finePolicy.fineFor(loan(TODAY, null), TODAY));
+    }
+
+    @Test
+    @DisplayName("Should charge the daily rate for every day an open loan is past due")
+    void fineFor_shouldChargeEveryDayPastDue_forOpenLoan() {
+        assertEquals(5, finePolicy.fineFor(loan(TODAY.minusDays(1), null), TODAY));
+        assertEquals(35, finePolicy.fineFor(loan(TODAY.minusDays(7), null), TODAY));
+    }
+
+    @Test
+    @DisplayName("Should stop charging on the return date of a returned loan")
+    void fineFor_shouldStopAtReturnDate() {
+        Loan returned = loan(TODAY.minusDays(10), TODAY.minusDays(6));
+
+        assertEquals(20, finePolicy.fineFor(returned, TODAY));
+        assertEquals(20, finePolicy.fineFor(returned, TODAY.plusDays(30)));
+    }
+
+    @Test
+    @DisplayName("Should waive the grace period and cap a single fine")
+    void fineFor_shouldApplyGraceDaysAndCap() {
+        FinePolicy lenient = new FinePolicy(2.5, 2, 50);
+
+        assertEquals(0, lenient.fineFor(loan(TODAY.minusDays(2), null), TODAY));
+        assertEquals(2.5, lenient.fineFor(loan(TODAY.minusDays(3), null), TODAY));
+        assertEquals(50, lenient.fineFor(loan(TODAY.minusDays(90), null), TODAY));
+    }
+
+    @Test
+    @DisplayName("Should report the settled fine of a returned loan as its fine due")
+    void withFineDue_shouldUseSettledFine_forReturnedLoan() {
+        Loan returned = loan(TODAY.minusDays(10), TODAY.minusDays(6));
+        returned.setFineAmount(12.0);
+
+        assertEquals(12.0, finePolicy.withFineDue(returned, TODAY).getFineDue());
+        assertEquals(15.0, finePolicy.withFineDue(loan(TODAY.minusDays(3), null), TODAY).getFineDue());
+    }
+
+    private static Loan loan(LocalDate dueDate, LocalDate returnDate) {
+        Loan loan = new Loan(UUID.randomUUID(), UUID.randomUUID(), dueDate.minusDays(14), returnDate,
+                returnDate != null ? LoanStatus.RETURNED : LoanStatus.BORROWED);
+        loan.setDueDate(dueDate);
+        return loan;
+    }
+}
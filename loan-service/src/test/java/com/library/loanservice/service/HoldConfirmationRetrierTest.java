@@ -0,0 +1,168 @@
+package com.library.loanservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
+import com.library.common.dto.UserDTO;
+import com.library.common.event.LoanCreatedEvent;
+import com.library.loanservice.exception.ServiceCommunicationException;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanOutboxEvent;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import com.library.loanservice.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = HoldConfirmationRetrierTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("HoldConfirmationRetrier Tests")
+class HoldConfirmationRetrierTest {
+
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanOutboxRepository loanOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final RestClientService restClientService = mock(RestClientService.class);
+    private TransactionTemplate transactionTemplate;
+    private LoanEventOutbox outbox;
+    private HoldConfirmationRetrier retrier;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outbox = new LoanEventOutbox(loanOutboxRepository, objectMapper);
+        retrier = new HoldConfirmationRetrier(loanOutboxRepository, loanRepository, outbox, restClientService, objectMapper,
+                transactionTemplate, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanOutboxRepository.deleteAll();
+        loanRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should keep retrying while Book Service gives no answer, and keep the loan once the hold is confirmed")
+    void retry_shouldKeepLoan_whenHoldIsConfirmedOnRetry() {
+        Loan loan = saveLoanWithQueuedHold(LoanStatus.BORROWED);
+        BookHoldDTO hold = queuedHold(loan);
+        doThrow(new ServiceCommunicationException("Book Service", "Book Service is unavailable."))
+                .doNothing()
+                .when(restClientService).confirmHoldInBookService(hold.getId());
+        when(restClientService.releaseHoldInBookService(hold.getId()))
+                .thenThrow(new ServiceCommunicationException("Book Service", "Book Service is unavailable."));
+
+        assertEquals(0, retrier.retry());
+        assertEquals(1, pendingConfirmations().size());
+
+        assertEquals(1, retrier.retry());
+        assertTrue(pendingConfirmations().isEmpty());
+        assertTrue(loanRepository.existsById(loan.getId()));
+        assertEquals(1, loanOutboxRepository.count());
+        verify(restClientService, times(2)).confirmHoldInBookService(hold.getId());
+    }
+
+    @Test
+    @DisplayName("Should undo the loan and drop its unsent events once the hold turns out to be released")
+    void retry_shouldUndoLoan_whenHoldIsReleased() {
+        Loan loan = saveLoanWithQueuedHold(LoanStatus.BORROWED);
+        BookHoldDTO hold = queuedHold(loan);
+        doThrow(new ServiceCommunicationException("Book Service", "Failed to confirm hold. Status: 409 CONFLICT"))
+                .when(restClientService).confirmHoldInBookService(hold.getId());
+        when(restClientService.releaseHoldInBookService(hold.getId())).thenReturn(true);
+
+        assertEquals(1, retrier.retry());
+
+        assertFalse(loanRepository.existsById(loan.getId()));
+        assertEquals(0, loanOutboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should keep a loan returned meanwhile even when its hold was released")
+    void retry_shouldKeepReturnedLoan_whenHoldIsReleased() {
+        Loan loan = saveLoanWithQueuedHold(LoanStatus.RETURNED);
+        BookHoldDTO hold = queuedHold(loan);
+        doThrow(new ServiceCommunicationException("Book Service", "Failed to confirm hold. Status: 409 CONFLICT"))
+                .when(restClientService).confirmHoldInBookService(hold.getId());
+        when(restClientService.releaseHoldInBookService(hold.getId())).thenReturn(true);
+
+        assertEquals(1, retrier.retry());
+
+        assertTrue(loanRepository.existsById(loan.getId()));
+        assertTrue(pendingConfirmations().isEmpty());
+    }
+
+    private Loan saveLoanWithQueuedHold(LoanStatus status) {
+        return transactionTemplate.execute(tx -> {
+            Loan newLoan = new Loan(UUID.randomUUID(), UUID.randomUUID(), LocalDate.now(),
+                    status == LoanStatus.RETURNED ? LocalDate.now() : null, status);
+            newLoan.setDueDate(LocalDate.now().plusDays(14));
+            Loan loan = loanRepository.saveAndFlush(newLoan);
+            outbox.loanCreated(new LoanCreatedEvent(loan.getId(), user(), book(), loan.getLoanDate(), loan.getDueDate()));
+            outbox.holdConfirmationPending(loan.getId(), new BookHoldDTO(UUID.randomUUID(), loan.getBookId(), "HELD",
+                    Instant.now().plusSeconds(300)));
+            return loan;
+        });
+    }
+
+    private BookHoldDTO queuedHold(Loan loan) {
+        try {
+            return objectMapper.readValue(pendingConfirmations().stream()
+                    .filter(event -> event.getLoanId().equals(loan.getId()))
+                    .findFirst().orElseThrow().getPayload(), BookHoldDTO.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<LoanOutboxEvent> pendingConfirmations() {
+        return loanOutboxRepository.findAll().stream()
+                .filter(event -> LoanEventOutbox.HOLD_CONFIRMATION.equals(event.getEventType()))
+                .toList();
+    }
+
+    private static UserDTO user() {
+        return new UserDTO(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", "123456789", "Gdańsk, Gdańska 9",
+                LocalDate.now(), true, Set.of("ROLE_USER"));
+    }
+
+    private static BookDTO book() {
+        return new BookDTO(UUID.randomUUID(), "Solaris", "Stanisław Lem", "978-83-08-05244-0", 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(3, 2));
+    }
+}
@@ -0,0 +1,153 @@
+package com.library.loanservice.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
+import com.library.common.dto.UserDTO;
+import com.library.loanservice.exception.BookAlreadyBorrowedException;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanOutboxRepository;
+import com.library.loanservice.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Parallel borrow requests of one user for one book against the migrated schema. The stand-in Book Service lets every
+// request past the active-loan check and its stock hold before any loan is inserted, so only the database can stop
+// the duplicates.
+@DataJpaTest(showSql = false)
+@ContextConfiguration(classes = LoanBorrowConcurrencyTest.JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Loan borrow concurrency Tests")
+class LoanBorrowConcurrencyTest {
+
+    private static final int REQUESTS = 8;
+
+    @EntityScan(basePackageClasses = Loan.class)
+    @EnableJpaRepositories(basePackageClasses = LoanRepository.class)
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanOutboxRepository loanOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RestClientService restClientService = mock(RestClientService.class);
+    private final UUID userId = UUID.randomUUID();
+    private final UUID bookId = UUID.randomUUID();
+    private final CountDownLatch allHeld = new CountDownLatch(REQUESTS);
+    private final CountDownLatch firstConfirmed = new CountDownLatch(1);
+    private final AtomicBoolean firstToInsert = new AtomicBoolean(true);
+    private final AtomicInteger holdsPlaced = new AtomicInteger();
+    private final AtomicInteger holdsReleased = new AtomicInteger();
+    private LoanServiceImpl loanService;
+
+    @BeforeEach
+    void setUp() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(new UserDTO(userId, "John", "Doe",
+                "john.doe@example.com", "123456789", "Gdańsk, Gdańska 9", LocalDate.now(), true, Set.of("ROLE_USER"))));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(new BookDTO(bookId, "Solaris", "Stanisław Lem",
+                "978-83-08-05244-0", 1961, "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(REQUESTS, REQUESTS))));
+        // Every request has passed the check once all hold a copy. One inserts first; the rest insert together once
+        // it has committed, so on H2 they meet a committed row as they meet PostgreSQL's unique index wait.
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenAnswer(invocation -> {
+            holdsPlaced.incrementAndGet();
+            allHeld.countDown();
+            assertTrue(allHeld.await(10, TimeUnit.SECONDS), "not every request got past the active-loan check");
+            if (!firstToInsert.getAndSet(false)) {
+                assertTrue(firstConfirmed.await(10, TimeUnit.SECONDS), "the first loan was never confirmed");
+            }
+            return new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        });
+        doAnswer(invocation -> {
+            firstConfirmed.countDown();
+            return null;
+        }).when(restClientService).confirmHoldInBookService(any());
+        when(restClientService.releaseHoldInBookService(any())).thenAnswer(invocation -> {
+            holdsReleased.incrementAndGet();
+            return true;
+        });
+
+        loanService = new LoanServiceImpl(loanRepository, restClientService,
+                new LoanEventOutbox(loanOutboxRepository, JsonMapper.builder().findAndAddModules().build()),
+                new TransactionTemplate(transactionManager), new FinePolicy(5, 0, 0));
+        ReflectionTestUtils.setField(loanService, "downstreamTimeout", Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanOutboxRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should create one loan and release every other hold when the same borrow arrives in parallel")
+    void borrowBook_shouldCreateOneLoan_whenRequestsRace() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(REQUESTS);
+        List<Future<Loan>> requests = new ArrayList<>();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                requests.add(clients.submit(() -> loanService.borrowBook(userId, bookId)));
+            }
+            int borrowed = 0;
+            for (Future<Loan> request : requests) {
+                try {
+                    request.get(30, TimeUnit.SECONDS);
+                    borrowed++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(BookAlreadyBorrowedException.class, e.getCause());
+                }
+            }
+            assertEquals(1, borrowed);
+        } finally {
+            clients.shutdownNow();
+        }
+
+        List<Loan> loans = loanRepository.findByUserId(userId);
+        assertEquals(1, loans.size());
+        assertEquals(LoanStatus.BORROWED, loans.get(0).getStatus());
+        assertEquals(REQUESTS, holdsPlaced.get());
+        assertEquals(REQUESTS - 1, holdsReleased.get());
+        assertEquals(1, loanOutboxRepository.count());
+    }
+}
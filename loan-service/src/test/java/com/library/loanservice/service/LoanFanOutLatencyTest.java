@@ -0,0 +1,156 @@
+package com.library.loanservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.config.ServiceClientProperties;
+import com.library.common.config.ServiceWebClients;
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
+import com.library.common.dto.UserDTO;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Runs borrowBook against a stand-in User/Book Service that answers every call after a fixed latency and compares
+// it with the previous one-call-at-a-time order. Runs with mvn -Pbenchmarks test; latencies can be changed with
+// -Dloans.benchmark.*-latency-ms.
+@Tag("benchmark")
+@DisplayName("Loan downstream fan-out latency")
+class LoanFanOutLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanFanOutLatencyTest.class);
+
+    private static final Duration USER_LATENCY = Duration.ofMillis(Long.getLong("loans.benchmark.user-latency-ms", 25));
+    private static final Duration BOOK_LATENCY = Duration.ofMillis(Long.getLong("loans.benchmark.book-latency-ms", 25));
+    private static final int ITERATIONS = Integer.getInteger("loans.benchmark.iterations", 60);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private RestClientService restClientService;
+    private LoanServiceImpl loanService;
+    private LoanRepository loanRepository;
+
+    @BeforeEach
+    void setUp() {
+        restClientService = new RestClientServiceImpl(new ServiceWebClients(
+                WebClient.builder().exchangeFunction(this::standIn), new ServiceClientProperties(), new SimpleMeterRegistry()));
+        loanRepository = mock(LoanRepository.class);
+        when(loanRepository.findByUserIdAndBookIdAndStatus(any(), any(), eq(LoanStatus.BORROWED))).thenReturn(Optional.empty());
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenAnswer(invocation -> {
+            Loan loan = invocation.getArgument(0);
+            loan.setId(UUID.randomUUID());
+            return loan;
+        });
+        loanService = new LoanServiceImpl(loanRepository, restClientService, mock(LoanEventOutbox.class),
+                TransactionOperations.withoutTransaction(), new FinePolicy(5, 0, 0));
+        ReflectionTestUtils.setField(loanService, "downstreamTimeout", Duration.ofSeconds(3));
+    }
+
+    @Test
+    @DisplayName("borrowBook should be faster than the sequential call order at p50")
+    void borrowBook_latencyComparedWithSequentialCalls() {
+        for (int i = 0; i < 10; i++) {
+            borrowSequentially(UUID.randomUUID(), UUID.randomUUID());
+            loanService.borrowBook(UUID.randomUUID(), UUID.randomUUID());
+        }
+
+        long[] sequential = new long[ITERATIONS];
+        long[] fannedOut = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            UUID userId = UUID.randomUUID();
+            UUID bookId = UUID.randomUUID();
+            long start = System.nanoTime();
+            borrowSequentially(userId, bookId);
+            sequential[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            loanService.borrowBook(userId, bookId);
+            fannedOut[i] = System.nanoTime() - start;
+        }
+
+        logger.info("borrowBook over {} runs with {} ms user / {} ms book latency: sequential p50 {} ms, p99 {} ms; "
+                        + "fanned out p50 {} ms, p99 {} ms.", ITERATIONS, USER_LATENCY.toMillis(), BOOK_LATENCY.toMillis(),
+                millis(percentile(sequential, 50)), millis(percentile(sequential, 99)),
+                millis(percentile(fannedOut, 50)), millis(percentile(fannedOut, 99)));
+        assertTrue(percentile(fannedOut, 50) < percentile(sequential, 50));
+    }
+
+    // The order borrowBook used before: user, then book, then the hold, each waiting for the previous call.
+    private void borrowSequentially(UUID userId, UUID bookId) {
+        assertNotNull(restClientService.getUserById(userId));
+        assertNotNull(restClientService.getBookById(bookId));
+        loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED);
+        BookHoldDTO hold = restClientService.reserveBookInBookService(bookId, Duration.ofSeconds(3));
+        restClientService.confirmHoldInBookService(hold.getId());
+    }
+
+    private Mono<ClientResponse> standIn(ClientRequest request) {
+        String path = request.url().getPath();
+        if (path.startsWith("/api/books/holds/")) {
+            return respond(BOOK_LATENCY, null);
+        }
+        UUID id = UUID.fromString(path.split("/")[3]);
+        if (path.startsWith("/api/users/")) {
+            return respond(USER_LATENCY, new UserDTO(id, "John", "Doe", "john.doe@example.com", "123456789",
+                    "Gdańsk, Gdańska 9", LocalDate.now(), true, Set.of("ROLE_USER")));
+        }
+        if (request.method() == HttpMethod.POST && path.endsWith("/holds")) {
+            return respond(BOOK_LATENCY, new BookHoldDTO(UUID.randomUUID(), id, "HELD", Instant.now().plusSeconds(300)));
+        }
+        return respond(BOOK_LATENCY, new BookDTO(id, "Solaris", "Stanisław Lem", "978-83-08-05244-0", 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(5, 3)));
+    }
+
+    private Mono<ClientResponse> respond(Duration latency, Object body) {
+        ClientResponse.Builder response = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        if (body != null) {
+            try {
+                response.body(objectMapper.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+        }
+        return Mono.delay(latency).thenReturn(response.build());
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
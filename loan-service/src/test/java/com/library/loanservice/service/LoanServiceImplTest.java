@@ -1,13 +1,19 @@
 package com.library.loanservice.service;
 
 import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
 import com.library.common.dto.UserDTO;
 import com.library.common.event.LoanCreatedEvent;
 import com.library.common.event.LoanReturnedEvent;
+import com.library.common.exception.UserNotFoundException;
+import com.library.loanservice.dto.LoanCursor;
+import com.library.loanservice.dto.LoanFilter;
+import com.library.loanservice.dto.LoanPageResponse;
+import com.library.loanservice.dto.LoanSummary;
 import com.library.loanservice.exception.*;
 import com.library.loanservice.model.Loan;
 import com.library.loanservice.model.LoanStatus;
-import com.library.loanservice.producer.LoanEventProducer;
+import com.library.loanservice.producer.LoanEventOutbox;
 import com.library.loanservice.repository.LoanRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,9 +21,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -35,7 +47,13 @@ class LoanServiceImplTest {
     private RestClientService restClientService;
 
     @Mock
-    private LoanEventProducer loanEventProducer;
+    private LoanEventOutbox loanEventOutbox;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Spy
+    private FinePolicy finePolicy = new FinePolicy(5, 0, 0);
 
     @InjectMocks
     private LoanServiceImpl loanService;
@@ -59,18 +77,23 @@ class LoanServiceImplTest {
         loan.setUserId(userId);
         loan.setBookId(bookId);
         loan.setLoanDate(LocalDate.now());
+        loan.setDueDate(LocalDate.now().plusDays(14));
         loan.setStatus(LoanStatus.BORROWED);
 
         roles = Collections.singleton("ROLE_USER");
 
         userDTO = new UserDTO(userId, "John", "Doe", "john.doe@example.com", "123456789", "Gdańsk, Gdańska 9", LocalDate.now(), true, roles);
         bookDTO = new BookDTO(bookId, "Test Title", "Test Author", "1234567890", 2000, "Publisher", "Genre", new BookDTO.Stock(5, 3));
+
+        ReflectionTestUtils.setField(loanService, "downstreamTimeout", Duration.ofSeconds(2));
     }
 
     @Test
     @DisplayName("Should return all loans when loans exist")
     void getAllLoans_shouldReturnAllLoans_whenLoansExist() {
-        when(loanRepository.findAll()).thenReturn(Arrays.asList(loan, new Loan()));
+        Loan otherLoan = new Loan(UUID.randomUUID(), UUID.randomUUID(), LocalDate.now(), null, LoanStatus.BORROWED);
+        otherLoan.setDueDate(LocalDate.now().plusDays(14));
+        when(loanRepository.findAll()).thenReturn(Arrays.asList(loan, otherLoan));
 
         List<Loan> result = loanService.getAllLoans();
 
@@ -117,83 +140,221 @@ class LoanServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should return loans by user ID when loans exist for user")
-    void getLoansByUserId_shouldReturnLoans_whenLoansExistForUser() {
-        when(loanRepository.findByUserId(userId)).thenReturn(Arrays.asList(loan));
+    @DisplayName("getLoans should return a page with a cursor when more loans match")
+    void getLoans_shouldReturnPageWithCursor_whenMoreLoansMatch() {
+        LoanSummary first = summary(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        LoanSummary second = summary(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+        LoanSummary third = summary(UUID.fromString("00000000-0000-0000-0000-000000000003"));
+        when(loanRepository.findSummaries(any(), eq(3))).thenReturn(new ArrayList<>(List.of(first, second, third)));
+
+        LoanPageResponse page = loanService.getLoans(new LoanFilter(), null, 2);
+
+        assertEquals(List.of(first, second), page.getContent());
+        assertEquals(2, page.getSize());
+        assertTrue(page.isHasNext());
+        assertEquals(second.getId(), LoanCursor.decode(page.getNextCursor()).getId());
+        assertEquals(0.0, first.getFineDue());
+    }
+
+    @Test
+    @DisplayName("getLoans should return an empty page when no loans match")
+    void getLoans_shouldReturnEmptyPage_whenNoLoansMatch() {
+        when(loanRepository.findSummaries(any(), eq(21))).thenReturn(new ArrayList<>());
+
+        LoanPageResponse page = loanService.getLoans(new LoanFilter(userId, null, null, null, null, null, null, null), null, 20);
+
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("getLoans should throw InvalidCursorException for a malformed cursor")
+    void getLoans_shouldThrowInvalidCursorException_whenCursorIsMalformed() {
+        assertThrows(InvalidCursorException.class, () -> loanService.getLoans(new LoanFilter(), "not-a-cursor", 20));
 
-        List<Loan> result = loanService.getLoansByUserId(userId);
+        verifyNoInteractions(loanRepository);
+    }
+
+    @Test
+    @DisplayName("borrowBook should successfully borrow a book and publish event")
+    void borrowBook_shouldSucceed_andPublishEvent() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty());
+        BookHoldDTO hold = new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenReturn(hold);
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenReturn(loan);
+
+        Loan result = loanService.borrowBook(userId, bookId);
 
         assertNotNull(result);
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(userId, result.get(0).getUserId());
-        verify(loanRepository, times(1)).findByUserId(userId);
+        assertEquals(userId, result.getUserId());
+        assertEquals(bookId, result.getBookId());
+        assertEquals(LoanStatus.BORROWED, result.getStatus());
+        assertNotNull(result.getLoanDate());
+
+        verify(restClientService, times(1)).fetchUserById(userId);
+        verify(restClientService, times(1)).fetchBookById(bookId);
+        verify(loanRepository, times(1)).findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED);
+        verify(restClientService, times(1)).reserveBookInBookService(eq(bookId), any(Duration.class));
+        verify(loanRepository, times(1)).saveAndFlush(any(Loan.class));
+        verify(restClientService, times(1)).confirmHoldInBookService(hold.getId());
+        verify(loanEventOutbox, times(1)).loanCreated(any(LoanCreatedEvent.class));
     }
 
     @Test
-    @DisplayName("Should throw LoanNotFoundException when no loans exist for user ID")
-    void getLoansByUserId_shouldThrowLoanNotFoundException_whenNoLoansExistForUser() {
-        when(loanRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
+    @DisplayName("borrowBook should release the hold when the loan cannot be saved")
+    void borrowBook_shouldReleaseHold_whenLoanSaveFails() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty());
+        BookHoldDTO hold = new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenReturn(hold);
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenThrow(new IllegalStateException("database down"));
 
-        LoanNotFoundException thrown = assertThrows(LoanNotFoundException.class, () -> {
-            loanService.getLoansByUserId(userId);
-        });
+        assertThrows(IllegalStateException.class, () -> loanService.borrowBook(userId, bookId));
 
-        assertEquals("Loan(s) for user with ID " + userId + " not found.", thrown.getMessage());
-        verify(loanRepository, times(1)).findByUserId(userId);
+        verify(restClientService, times(1)).releaseHoldInBookService(hold.getId());
+        verify(restClientService, never()).confirmHoldInBookService(any());
+        verify(loanEventOutbox, never()).loanCreated(any());
     }
 
     @Test
-    @DisplayName("Should return loans by book ID when loans exist for book")
-    void getLoansByBookId_shouldReturnLoans_whenLoansExistForBook() {
-        when(loanRepository.findByBookId(bookId)).thenReturn(Arrays.asList(loan));
+    @DisplayName("borrowBook should release the hold and throw BookAlreadyBorrowedException when a concurrent borrow inserted first")
+    void borrowBook_shouldThrowBookAlreadyBorrowedException_whenActiveLoanConstraintIsViolated() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty(), Optional.of(loan));
+        BookHoldDTO hold = new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenReturn(hold);
+        when(loanRepository.saveAndFlush(any(Loan.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_loans_borrowed_user_id_book_id"));
+        when(restClientService.releaseHoldInBookService(hold.getId())).thenReturn(true);
+
+        assertThrows(BookAlreadyBorrowedException.class, () -> loanService.borrowBook(userId, bookId));
+
+        verify(restClientService, times(1)).releaseHoldInBookService(hold.getId());
+        verify(restClientService, never()).confirmHoldInBookService(any());
+        verify(loanEventOutbox, never()).loanCreated(any());
+    }
 
-        List<Loan> result = loanService.getLoansByBookId(bookId);
+    @Test
+    @DisplayName("borrowBook should delete the saved loan when its hold cannot be confirmed")
+    void borrowBook_shouldUndoLoan_whenHoldConfirmationFails() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty());
+        BookHoldDTO hold = new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenReturn(hold);
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenReturn(loan);
+        doThrow(new ServiceCommunicationException("Book Service", "Failed to confirm hold. Status: 409 CONFLICT"))
+                .when(restClientService).confirmHoldInBookService(hold.getId());
+        when(restClientService.releaseHoldInBookService(hold.getId())).thenReturn(true);
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(bookId, result.get(0).getBookId());
-        verify(loanRepository, times(1)).findByBookId(bookId);
+        assertThrows(ServiceCommunicationException.class, () -> loanService.borrowBook(userId, bookId));
+
+        verify(loanRepository, times(1)).delete(loan);
+        verify(loanEventOutbox, times(1)).discard(loanId);
     }
 
     @Test
-    @DisplayName("Should throw LoanNotFoundException when no loans exist for book ID")
-    void getLoansByBookId_shouldThrowLoanNotFoundException_whenNoLoansExistForBook() {
-        when(loanRepository.findByBookId(bookId)).thenReturn(Collections.emptyList());
+    @DisplayName("borrowBook should keep the loan when a failed confirmation had in fact gone through")
+    void borrowBook_shouldKeepLoan_whenHoldWasAlreadyConfirmed() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty());
+        BookHoldDTO hold = new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenReturn(hold);
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenReturn(loan);
+        doThrow(new ServiceCommunicationException("Book Service", "An unexpected error occurred during hold confirmation."))
+                .when(restClientService).confirmHoldInBookService(hold.getId());
+        when(restClientService.releaseHoldInBookService(hold.getId())).thenReturn(false);
 
-        LoanNotFoundException thrown = assertThrows(LoanNotFoundException.class, () -> {
-            loanService.getLoansByBookId(bookId);
-        });
+        Loan result = loanService.borrowBook(userId, bookId);
 
-        assertEquals("Loan(s) for book with ID " + bookId + " not found.", thrown.getMessage());
-        verify(loanRepository, times(1)).findByBookId(bookId);
+        assertEquals(loan, result);
+        verify(loanRepository, never()).delete(any(Loan.class));
+        verify(loanEventOutbox, times(1)).loanCreated(any(LoanCreatedEvent.class));
     }
 
     @Test
-    @DisplayName("borrowBook should successfully borrow a book and publish event")
-    void borrowBook_shouldSucceed_andPublishEvent() {
-        when(restClientService.getUserById(userId)).thenReturn(userDTO);
-        when(restClientService.getBookById(bookId)).thenReturn(bookDTO);
+    @DisplayName("borrowBook should keep the loan and queue its hold confirmation when neither the confirmation nor the release gets an answer")
+    void borrowBook_shouldKeepLoanAndQueueConfirmation_whenHoldReleaseOutcomeIsUnknown() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
         when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
                 .thenReturn(Optional.empty());
-        when(restClientService.borrowBookInBookService(bookId)).thenReturn(Mono.just(true));
-        when(loanRepository.save(any(Loan.class))).thenReturn(loan);
+        BookHoldDTO hold = new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenReturn(hold);
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenReturn(loan);
+        doThrow(new ServiceCommunicationException("Book Service", "An unexpected error occurred during hold confirmation."))
+                .when(restClientService).confirmHoldInBookService(hold.getId());
+        when(restClientService.releaseHoldInBookService(hold.getId()))
+                .thenThrow(new ServiceCommunicationException("Book Service", "An unexpected error occurred during hold release."));
 
         Loan result = loanService.borrowBook(userId, bookId);
 
-        assertNotNull(result);
-        assertEquals(userId, result.getUserId());
-        assertEquals(bookId, result.getBookId());
-        assertEquals(LoanStatus.BORROWED, result.getStatus());
-        assertNotNull(result.getLoanDate());
+        assertEquals(loan, result);
+        verify(loanRepository, never()).delete(any(Loan.class));
+        verify(loanEventOutbox, times(1)).holdConfirmationPending(loanId, hold);
+        verify(loanEventOutbox, never()).discard(any());
+    }
 
-        verify(restClientService, times(1)).getUserById(userId);
-        verify(restClientService, times(1)).getBookById(bookId);
-        verify(loanRepository, times(1)).findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED);
-        verify(restClientService, times(1)).borrowBookInBookService(bookId);
-        verify(loanRepository, times(1)).save(any(Loan.class));
-        verify(loanEventProducer, times(1)).publishLoanCreatedEvent(any(LoanCreatedEvent.class));
+    @Test
+    @DisplayName("borrowBook should look up the user and the book concurrently")
+    void borrowBook_shouldLookUpUserAndBookConcurrently() {
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty());
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO).delayElement(Duration.ofMillis(300)));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO).delayElement(Duration.ofMillis(300)));
+        BookHoldDTO hold = new BookHoldDTO(UUID.randomUUID(), bookId, "HELD", Instant.now().plusSeconds(300));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenReturn(hold);
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenReturn(loan);
+
+        long start = System.nanoTime();
+        loanService.borrowBook(userId, bookId);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 550, "Lookups took " + elapsedMillis + " ms, as if run one after another");
+        verify(loanEventOutbox, times(1)).loanCreated(any(LoanCreatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("borrowBook should give up once the request budget is spent and never reserve stock")
+    void borrowBook_shouldFailFast_whenDownstreamBudgetIsExceeded() {
+        ReflectionTestUtils.setField(loanService, "downstreamTimeout", Duration.ofMillis(100));
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty());
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO).delayElement(Duration.ofSeconds(5)));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+
+        long start = System.nanoTime();
+        ServiceCommunicationException thrown = assertThrows(ServiceCommunicationException.class,
+                () -> loanService.borrowBook(userId, bookId));
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        assertTrue(thrown.getMessage().contains("100 ms budget"));
+        verify(restClientService, never()).reserveBookInBookService(any(), any());
+        verify(loanRepository, never()).saveAndFlush(any(Loan.class));
+    }
+
+    @Test
+    @DisplayName("borrowBook should throw UserNotFoundException when User Service returns no user")
+    void borrowBook_shouldThrowUserNotFoundException_whenUserServiceReturnsNoUser() {
+        when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
+                .thenReturn(Optional.empty());
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.empty());
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+
+        assertThrows(UserNotFoundException.class, () -> loanService.borrowBook(userId, bookId));
+
+        verify(restClientService, never()).reserveBookInBookService(any(), any());
     }
 
 //    @Test
@@ -206,15 +367,13 @@ class LoanServiceImplTest {
 //        });
 //
 //        assertEquals("User with ID: " + userId + " not found.", thrown.getMessage());
-//        verify(restClientService, times(1)).getUserById(userId);
+//        verify(restClientService, times(1)).fetchUserById(userId);
 //        verify(loanRepository, never()).findByUserIdAndBookIdAndStatus(any(), any(), any());
 //    }
 
     @Test
     @DisplayName("borrowBook should throw BookAlreadyBorrowedException when book is already borrowed by user")
     void borrowBook_shouldThrowBookAlreadyBorrowedException_whenBookAlreadyBorrowedByUser() {
-        when(restClientService.getUserById(userId)).thenReturn(userDTO);
-        when(restClientService.getBookById(bookId)).thenReturn(bookDTO);
         when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
                 .thenReturn(Optional.of(loan));
 
@@ -223,31 +382,29 @@ class LoanServiceImplTest {
         });
 
         assertEquals("User with ID " + userId + " already has book with ID " + bookId + " currently borrowed.", thrown.getMessage());
-        verify(restClientService, times(1)).getUserById(userId);
-        verify(restClientService, times(1)).getBookById(bookId);
         verify(loanRepository, times(1)).findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED);
-        verify(restClientService, never()).borrowBookInBookService(any());
+        verifyNoInteractions(restClientService);
     }
 
     @Test
-    @DisplayName("borrowBook should throw BookNotAvailableException when Book Service returns false")
-    void borrowBook_shouldThrowBookNotAvailableException_whenBookServiceReturnsFalse() {
-        when(restClientService.getUserById(userId)).thenReturn(userDTO);
-        when(restClientService.getBookById(bookId)).thenReturn(bookDTO);
+    @DisplayName("borrowBook should throw BookNotAvailableException when Book Service has no copy to reserve")
+    void borrowBook_shouldThrowBookNotAvailableException_whenBookServiceHasNoCopyToReserve() {
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
         when(loanRepository.findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED))
                 .thenReturn(Optional.empty());
-        when(restClientService.borrowBookInBookService(bookId)).thenReturn(Mono.just(false));
+        when(restClientService.reserveBookInBookService(eq(bookId), any(Duration.class))).thenThrow(new BookNotAvailableException(bookId));
 
         BookNotAvailableException thrown = assertThrows(BookNotAvailableException.class, () -> {
             loanService.borrowBook(userId, bookId);
         });
 
         assertEquals("Book with ID " + bookId + " is currently not available for borrowing.", thrown.getMessage());
-        verify(restClientService, times(1)).getUserById(userId);
-        verify(restClientService, times(1)).getBookById(bookId);
+        verify(restClientService, times(1)).fetchUserById(userId);
+        verify(restClientService, times(1)).fetchBookById(bookId);
         verify(loanRepository, times(1)).findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED);
-        verify(restClientService, times(1)).borrowBookInBookService(bookId);
-        verify(loanRepository, never()).save(any(Loan.class));
+        verify(restClientService, times(1)).reserveBookInBookService(eq(bookId), any(Duration.class));
+        verify(loanRepository, never()).saveAndFlush(any(Loan.class));
     }
 
 //    @Test
@@ -266,7 +423,7 @@ class LoanServiceImplTest {
 //        });
 //
 //        assertEquals("Unexpected response during book borrowing.", thrown.getMessage());
-//        verify(restClientService, times(1)).getUserById(userId);
+//        verify(restClientService, times(1)).fetchUserById(userId);
 //        verify(loanRepository, times(1)).findByUserIdAndBookIdAndStatus(userId, bookId, LoanStatus.BORROWED);
 //        verify(restClientService, times(1)).borrowBookInBookService(bookId);
 //        verify(loanRepository, never()).save(any(Loan.class));
@@ -280,11 +437,12 @@ class LoanServiceImplTest {
         loanToReturn.setBookId(bookId);
         loanToReturn.setUserId(userId);
         loanToReturn.setLoanDate(LocalDate.now());
+        loanToReturn.setDueDate(LocalDate.now().plusDays(14));
         loanToReturn.setStatus(LoanStatus.BORROWED);
 
         when(loanRepository.findById(loanId)).thenReturn(Optional.of(loanToReturn));
-        when(restClientService.getUserById(userId)).thenReturn(userDTO);
-        when(restClientService.getBookById(bookId)).thenReturn(bookDTO);
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
         when(restClientService.returnBookInBookService(bookId)).thenReturn(Mono.just(true));
         when(loanRepository.save(any(Loan.class))).thenReturn(loanToReturn);
 
@@ -296,11 +454,45 @@ class LoanServiceImplTest {
         assertEquals(loanId, result.getId());
 
         verify(loanRepository, times(1)).findById(loanId);
-        verify(restClientService, times(1)).getUserById(userId);
-        verify(restClientService, times(1)).getBookById(bookId);
+        verify(restClientService, times(1)).fetchUserById(userId);
+        verify(restClientService, times(1)).fetchBookById(bookId);
         verify(restClientService, times(1)).returnBookInBookService(bookId);
         verify(loanRepository, times(1)).save(any(Loan.class));
-        verify(loanEventProducer, times(1)).publishLoanReturnedEvent(any(LoanReturnedEvent.class));
+        verify(loanEventOutbox, times(1)).loanReturned(any(LoanReturnedEvent.class));
+    }
+
+    @Test
+    @DisplayName("returnBook should settle the fine from the due date, however much the overdue job had written")
+    void returnBook_shouldSettleFineFromDueDate() {
+        Loan lateLoan = new Loan(bookId, userId, LocalDate.now().minusDays(17), null, LoanStatus.OVERDUE);
+        lateLoan.setId(loanId);
+        lateLoan.setDueDate(LocalDate.now().minusDays(3));
+        lateLoan.setFineAmount(40.0);
+
+        when(loanRepository.findById(loanId)).thenReturn(Optional.of(lateLoan));
+        when(restClientService.fetchUserById(userId)).thenReturn(Mono.just(userDTO));
+        when(restClientService.fetchBookById(bookId)).thenReturn(Mono.just(bookDTO));
+        when(restClientService.returnBookInBookService(bookId)).thenReturn(Mono.just(true));
+        when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Loan result = loanService.returnBook(loanId);
+
+        assertEquals(15.0, result.getFineAmount());
+        assertEquals(15.0, result.getFineDue());
+        verify(loanRepository).save(argThat(saved -> saved.getFineAmount() == 15.0));
+    }
+
+    @Test
+    @DisplayName("getLoanById should report the fine accrued so far on an open loan without writing it")
+    void getLoanById_shouldDeriveFineDueForOpenLoan() {
+        loan.setDueDate(LocalDate.now().minusDays(4));
+        when(loanRepository.findById(loanId)).thenReturn(Optional.of(loan));
+
+        Loan result = loanService.getLoanById(loanId);
+
+        assertEquals(20.0, result.getFineDue());
+        assertNull(result.getFineAmount());
+        verify(loanRepository, never()).save(any());
     }
 
     @Test
@@ -322,8 +514,6 @@ class LoanServiceImplTest {
     void returnBook_shouldThrowLoanAlreadyReturnedException_whenLoanIsAlreadyReturned() {
         loan.setStatus(LoanStatus.RETURNED);
         when(loanRepository.findById(loanId)).thenReturn(Optional.of(loan));
-        when(restClientService.getBookById(bookId)).thenReturn(bookDTO);
-        when(restClientService.getUserById(userId)).thenReturn(userDTO);
 
         LoanAlreadyReturnedException thrown = assertThrows(LoanAlreadyReturnedException.class, () -> {
             loanService.returnBook(loanId);
@@ -331,7 +521,7 @@ class LoanServiceImplTest {
 
         assertEquals("Loan with ID " + loanId + " has already been returned.", thrown.getMessage());
         verify(loanRepository, times(1)).findById(loanId);
-        verify(restClientService, never()).returnBookInBookService(any());
+        verifyNoInteractions(restClientService);
     }
 
 //    @Test
@@ -365,4 +555,8 @@ class LoanServiceImplTest {
 //        verify(restClientService, times(1)).returnBookInBookService(bookId);
 //        verify(loanRepository, never()).save(any(Loan.class));
 //    }
-}
\ No newline at end of file
+
+    private LoanSummary summary(UUID id) {
+        return new LoanSummary(id, bookId, userId, LocalDate.now(), LocalDate.now().plusDays(14), null, LoanStatus.BORROWED, null);
+    }
+}
@@ -0,0 +1,181 @@
+package com.library.loanservice.service;
+
+import com.library.common.config.ServiceClientProperties;
+import com.library.common.config.ServiceWebClients;
+import com.library.loanservice.exception.ServiceCommunicationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Drives RestClientServiceImpl against a local stand-in for Book and User Service that can stall or fail on demand.
+@DisplayName("RestClientService fault injection")
+class RestClientFaultInjectionTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestClientFaultInjectionTest.class);
+
+    private static final int MAX_CONCURRENT_CALLS = 4;
+    private static final int CALLERS = 32;
+
+    private final AtomicBoolean bookServiceStalled = new AtomicBoolean();
+    private final AtomicInteger bookRequests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger userFailuresLeft = new AtomicInteger();
+    private final AtomicInteger userRequests = new AtomicInteger();
+    private final AtomicInteger holdRequests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer server;
+    private ServiceWebClients serviceWebClients;
+    private RestClientService restClientService;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/books/{id}", (request, response) -> {
+                            bookRequests.incrementAndGet();
+                            if (bookServiceStalled.get()) {
+                                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                return Mono.<Void>never().doFinally(signal -> inFlight.decrementAndGet());
+                            }
+                            return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .sendString(Mono.just("{\"id\":\"" + request.param("id") + "\",\"title\":\"Solaris\"}"));
+                        })
+                        .post("/api/books/{id}/holds", (request, response) -> {
+                            holdRequests.incrementAndGet();
+                            return response.status(503).send();
+                        })
+                        .get("/api/users/{id}", (request, response) -> {
+                            userRequests.incrementAndGet();
+                            if (userFailuresLeft.getAndDecrement() > 0) {
+                                return response.status(503).send();
+                            }
+                            return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .sendString(Mono.just("{\"id\":\"" + request.param("id") + "\",\"firstName\":\"John\"}"));
+                        }))
+                .bindNow();
+
+        ServiceClientProperties.Client bookService = new ServiceClientProperties.Client();
+        bookService.setMaxConcurrentCalls(MAX_CONCURRENT_CALLS);
+        bookService.setResponseTimeout(Duration.ofMillis(500));
+        bookService.setSlidingWindowSize(4);
+        bookService.setMinimumNumberOfCalls(4);
+        bookService.setOpenStateWait(Duration.ofMinutes(1));
+        ServiceClientProperties properties = new ServiceClientProperties();
+        properties.getServices().put("book-service", bookService);
+
+        // Stands in for the load balancer: every service id resolves to the local server.
+        WebClient.Builder builder = WebClient.builder().filter((request, next) -> next.exchange(ClientRequest.from(request)
+                .url(UriComponentsBuilder.fromUri(request.url()).host("localhost").port(server.port()).build(true).toUri())
+                .build()));
+        serviceWebClients = new ServiceWebClients(builder, properties, meterRegistry);
+        restClientService = new RestClientServiceImpl(serviceWebClients);
+    }
+
+    @AfterEach
+    void tearDown() {
+        serviceWebClients.destroy();
+        server.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Callers should fail fast instead of piling up on a stalled Book Service")
+    void stalledBookService_shouldNotPileUpCallers() throws Exception {
+        assertNotNull(restClientService.getBookById(UUID.randomUUID()));
+        bookServiceStalled.set(true);
+
+        List<Long> firstWave = callConcurrently();
+        long slowCalls = firstWave.stream().filter(millis -> millis >= 400).count();
+        int requestsAfterFirstWave = bookRequests.get();
+        double openRejectionsAfterFirstWave = circuitOpenRejections();
+
+        List<Long> secondWave = callConcurrently();
+
+        logger.info("Stalled Book Service: first wave {} of {} callers waited for the timeout (max {} in flight), slowest "
+                        + "fast failure {} ms; second wave slowest call {} ms with the circuit open.", slowCalls, CALLERS,
+                maxInFlight.get(), firstWave.stream().filter(millis -> millis < 400).max(Long::compare).orElse(0L),
+                secondWave.stream().max(Long::compare).orElse(0L));
+        assertTrue(maxInFlight.get() <= MAX_CONCURRENT_CALLS);
+        assertTrue(slowCalls <= MAX_CONCURRENT_CALLS);
+        assertEquals(requestsAfterFirstWave, bookRequests.get());
+        assertTrue(secondWave.stream().allMatch(millis -> millis < 400));
+        assertEquals(CALLERS, circuitOpenRejections() - openRejectionsAfterFirstWave);
+        assertTrue(meterRegistry.get("library.http.client.rejections")
+                .tags("target", "book-service", "reason", "bulkhead_full").counter().count() > 0);
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tags("name", "book-service", "state", "open").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed GET but never a POST")
+    void transientFailures_shouldOnlyBeRetriedForGets() {
+        userFailuresLeft.set(1);
+
+        assertNotNull(restClientService.getUserById(UUID.randomUUID()));
+        ServiceCommunicationException exception = assertThrows(ServiceCommunicationException.class,
+                () -> restClientService.reserveBookInBookService(UUID.randomUUID(), Duration.ofSeconds(2)));
+
+        assertEquals(2, userRequests.get());
+        assertEquals(1, holdRequests.get());
+        assertTrue(exception.getMessage().contains("503"));
+        assertEquals(1.0, meterRegistry.get("library.http.client.retries")
+                .tags("target", "user-service", "outcome", "retried").counter().count());
+    }
+
+    private double circuitOpenRejections() {
+        return meterRegistry.find("library.http.client.rejections")
+                .tags("target", "book-service", "reason", "circuit_open")
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    // Each caller blocks on getBookById like a servlet thread would; returns how long each one was held.
+    private List<Long> callConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    assertThrows(ServiceCommunicationException.class, () -> restClientService.getBookById(UUID.randomUUID()));
+                    return (System.nanoTime() - begin) / 1_000_000;
+                }));
+            }
+            start.countDown();
+            List<Long> durations = new ArrayList<>();
+            for (Future<Long> call : calls) {
+                durations.add(call.get());
+            }
+            return durations;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.library.loanservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.config.ServiceClientProperties;
+import com.library.common.config.ServiceWebClients;
+import com.library.common.config.VirtualThreadPinningMonitor;
+import com.library.common.dto.BookDTO;
+import com.library.common.dto.BookHoldDTO;
+import com.library.common.dto.UserDTO;
+import com.library.loanservice.model.Loan;
+import com.library.loanservice.model.LoanStatus;
+import com.library.loanservice.producer.LoanEventOutbox;
+import com.library.loanservice.repository.LoanRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Runs borrowBook for 2k concurrent clients against a stand-in User/Book Service, once on a 200-thread pool (Tomcat's
+// default worker count) and once on one virtual thread per client. Needs Java 21: mvn -Pvirtual-threads,benchmarks test.
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@DisplayName("Borrow throughput on virtual threads")
+class VirtualThreadBorrowBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadBorrowBenchmarkTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("loans.benchmark.clients", 2000);
+    private static final int PLATFORM_THREADS = Integer.getInteger("loans.benchmark.platform-threads", 200);
+    private static final Duration LATENCY = Duration.ofMillis(Long.getLong("loans.benchmark.latency-ms", 50));
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ServiceWebClients serviceWebClients;
+    private LoanServiceImpl loanService;
+
+    @BeforeEach
+    void setUp() {
+        // Lifted so the bulkhead measures threads, not itself; on virtual threads it becomes the real concurrency cap.
+        ServiceClientProperties properties = new ServiceClientProperties();
+        properties.getDefaults().setMaxConcurrentCalls(CLIENTS * 2);
+        serviceWebClients = new ServiceWebClients(WebClient.builder().exchangeFunction(this::standIn), properties, meterRegistry);
+
+        LoanRepository loanRepository = mock(LoanRepository.class, withSettings().stubOnly());
+        when(loanRepository.findByUserIdAndBookIdAndStatus(any(), any(), eq(LoanStatus.BORROWED))).thenReturn(Optional.empty());
+        when(loanRepository.saveAndFlush(any(Loan.class))).thenAnswer(invocation -> {
+            Loan loan = invocation.getArgument(0);
+            loan.setId(UUID.randomUUID());
+            return loan;
+        });
+        loanService = new LoanServiceImpl(loanRepository, new RestClientServiceImpl(serviceWebClients),
+                mock(LoanEventOutbox.class, withSettings().stubOnly()), TransactionOperations.withoutTransaction(),
+                new FinePolicy(5, 0, 0));
+        ReflectionTestUtils.setField(loanService, "downstreamTimeout", Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        serviceWebClients.destroy();
+    }
+
+    @Test
+    @DisplayName("Virtual threads should serve more borrows per second than the platform worker pool")
+    void borrowBook_throughputOnVirtualThreads() throws Exception {
+        ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        ExecutorService virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(1));
+        try {
+            borrowConcurrently(platform, PLATFORM_THREADS);
+            borrowConcurrently(virtual, PLATFORM_THREADS);
+
+            long platformMillis = borrowConcurrently(platform, CLIENTS);
+            pinningMonitor.start();
+            long virtualMillis = borrowConcurrently(virtual, CLIENTS);
+            pinningMonitor.stop();
+
+            long pinned = meterRegistry.find("jvm.threads.virtual.pinned").timers().stream().mapToLong(timer -> timer.count()).sum();
+            logger.info("{} concurrent borrows with {} ms per downstream call: {} platform threads took {} ms ({} borrows/s), "
+                            + "virtual threads took {} ms ({} borrows/s) with {} pinned virtual threads.", CLIENTS,
+                    LATENCY.toMillis(), PLATFORM_THREADS, platformMillis, CLIENTS * 1000L / Math.max(1, platformMillis),
+                    virtualMillis, CLIENTS * 1000L / Math.max(1, virtualMillis), pinned);
+            assertTrue(virtualMillis < platformMillis);
+        } finally {
+            pinningMonitor.stop();
+            platform.shutdownNow();
+            virtual.shutdownNow();
+        }
+    }
+
+    // Each client blocks in borrowBook the way a servlet thread does; returns the wall time until the last one is served.
+    private long borrowConcurrently(ExecutorService executor, int clients) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Loan>> borrows = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            borrows.add(executor.submit(() -> {
+                start.await();
+                return loanService.borrowBook(UUID.randomUUID(), UUID.randomUUID());
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Loan> borrow : borrows) {
+            assertNotNull(borrow.get().getId());
+        }
+        return (System.nanoTime() - begin) / 1_000_000;
+    }
+
+    private Mono<ClientResponse> standIn(ClientRequest request) {
+        String path = request.url().getPath();
+        if (path.startsWith("/api/books/holds/")) {
+            return respond(null);
+        }
+        UUID id = UUID.fromString(path.split("/")[3]);
+        if (path.startsWith("/api/users/")) {
+            return respond(new UserDTO(id, "John", "Doe", "john.doe@example.com", "123456789",
+                    "Gdańsk, Gdańska 9", LocalDate.now(), true, Set.of("ROLE_USER")));
+        }
+        if (request.method() == HttpMethod.POST && path.endsWith("/holds")) {
+            return respond(new BookHoldDTO(UUID.randomUUID(), id, "HELD", Instant.now().plusSeconds(300)));
+        }
+        return respond(new BookDTO(id, "Solaris", "Stanisław Lem", "978-83-08-05244-0", 1961,
+                "Wydawnictwo Literackie", "Science Fiction", new BookDTO.Stock(5, 3)));
+    }
+
+    private Mono<ClientResponse> respond(Object body) {
+        ClientResponse.Builder response = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        if (body != null) {
+            try {
+                response.body(objectMapper.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+        }
+        return Mono.delay(LATENCY).thenReturn(response.build());
+    }
+}
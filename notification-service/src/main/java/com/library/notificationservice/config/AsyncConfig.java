@@ -0,0 +1,43 @@
+package com.library.notificationservice.config;
+
+import com.library.common.config.VirtualThreadConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+@Configuration
+@EnableAsync
+@Import(VirtualThreadConfig.class)
+public class AsyncConfig {
+
+    private static final String THREAD_NAME_PREFIX = "email-";
+
+    // Runs EmailService.sendEmail. On virtual threads every email gets its own thread, capped so a burst of loan
+    // events cannot open more concurrent calls to the mail API than the pool would have.
+    @Bean(name = "threadPoolTaskExecutor")
+    public AsyncTaskExecutor threadPoolTaskExecutor(Environment environment,
+                                                    ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                                    SimpleAsyncTaskExecutorBuilder virtualThreadBuilder,
+                                                    @Value("${notifications.email.max-concurrency:16}") int maxConcurrency) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreadBuilder
+                    .virtualThreads(true)
+                    .threadNamePrefix(THREAD_NAME_PREFIX)
+                    .concurrencyLimit(maxConcurrency)
+                    .build();
+        }
+        return threadPoolBuilder
+                .corePoolSize(4)
+                .maxPoolSize(maxConcurrency)
+                .queueCapacity(500)
+                .threadNamePrefix(THREAD_NAME_PREFIX)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.library.userservice.controller;
 
 import com.library.common.dto.ResponseDTO;
 import com.library.common.dto.UserAuthDTO;
+import com.library.userservice.dto.UserBatchRequest;
 import com.library.userservice.dto.UserResponseDTO;
 import com.library.userservice.model.User;
 import com.library.userservice.service.UserService;
@@ -21,7 +22,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -82,6 +85,29 @@ public class UserController {
         return ResponseEntity.ok(new UserResponseDTO(user));
     }
 
+    @Operation(summary = "Get users by IDs", description = "Retrieves many users in one call for internal services. Unknown IDs are omitted from the result.")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved users keyed by ID",
+            content = @Content(mediaType = "application/json"))
+    @ApiResponse(responseCode = "400", description = "Invalid request (missing IDs or more than " + UserBatchRequest.MAX_BATCH_SIZE + " IDs)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or token invalid",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions (requires INTERNAL_SERVICE or ADMIN role)",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResponseDTO.class)))
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE') or hasRole('ADMIN')")
+    public ResponseEntity<Map<UUID, UserResponseDTO>> getUsersByIds(@Valid @RequestBody UserBatchRequest request) {
+        logger.info("Received request to get {} users by ID.", request.getIds().size());
+        Map<UUID, UserResponseDTO> users = new LinkedHashMap<>();
+        userService.getUsersByIds(request.getIds())
+                .forEach((id, user) -> users.put(id, new UserResponseDTO(user)));
+        logger.debug("Returning {} of {} requested users.", users.size(), request.getIds().size());
+        return ResponseEntity.ok(users);
+    }
+
     @Operation(summary = "Create a new user", description = "Adds a new user to the system.")
     @ApiResponse(responseCode = "201", description = "User created successfully",
             content = @Content(mediaType = "application/json",
@@ -0,0 +1,22 @@
+package com.library.userservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @NotNull(message = "User IDs are required")
+    @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " user IDs can be requested at once")
+    private List<@NotNull UUID> ids;
+}
@@ -2,12 +2,15 @@ package com.library.userservice.service;
 
 import com.library.common.dto.UserAuthDTO;
 import com.library.userservice.model.User;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface UserService {
     List<User> getAllUsers();
     User getUserById(UUID id);
+    Map<UUID, User> getUsersByIds(Collection<UUID> ids);
     User createUser(User user);
     User updateUser(UUID id, User userDetails);
     void deleteUser(UUID id);
@@ -11,9 +11,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,6 +46,16 @@ public class UserServiceImpl implements UserService {
                 });
     }
 
+    @Override
+    public Map<UUID, User> getUsersByIds(Collection<UUID> ids) {
+        logger.debug("Fetching {} users by ID in one query.", ids.size());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
     @Override
     public User createUser(User user) {
         logger.info("Attempting to create a new user with email: {}", user.getEmail().getValue());
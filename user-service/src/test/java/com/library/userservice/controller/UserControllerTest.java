@@ -6,6 +6,7 @@ import com.library.common.security.CustomUserDetails;
 import com.library.common.security.CustomUserDetailsService;
 import com.library.common.security.JwtTokenProvider;
 import com.library.userservice.config.UserDataLoader;
+import com.library.userservice.dto.UserBatchRequest;
 import com.library.userservice.dto.UserResponseDTO;
 import com.library.userservice.model.User;
 import com.library.userservice.model.enums.Role;
@@ -27,6 +28,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -195,6 +197,54 @@ class UserControllerTest {
         verify(userService, times(1)).getUserById(adminUserId);
     }
 
+    @Test
+    @DisplayName("POST /api/users/batch should return 200 OK and users keyed by ID for ADMIN")
+    @WithMockUser(roles = "ADMIN")
+    void getUsersByIds_shouldReturnUsersKeyedById_asAdmin() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        List<UUID> ids = List.of(adminUserId, annaUserId, missingId);
+        when(userService.getUsersByIds(ids)).thenReturn(Map.of(adminUserId, adminUser, annaUserId, annaUser));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .cookie(adminJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserBatchRequest(ids))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + adminUserId + "'].email", is(adminUserResponseDTO.getEmail())))
+                .andExpect(jsonPath("$['" + annaUserId + "'].firstName", is("Ania")))
+                .andExpect(jsonPath("$['" + missingId + "']").doesNotExist());
+
+        verify(userService, times(1)).getUsersByIds(ids);
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch should return 403 Forbidden for ROLE_USER")
+    @WithMockUser(roles = "USER")
+    void getUsersByIds_shouldReturnForbidden_asUser() throws Exception {
+        mockMvc.perform(post("/api/users/batch")
+                        .cookie(annaJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserBatchRequest(List.of(annaUserId)))))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch should return 400 Bad Request when too many IDs are requested")
+    @WithMockUser(roles = "ADMIN")
+    void getUsersByIds_shouldReturnBadRequest_whenTooManyIds() throws Exception {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(UserBatchRequest.MAX_BATCH_SIZE + 1).toList();
+
+        mockMvc.perform(post("/api/users/batch")
+                        .cookie(adminJwtCookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserBatchRequest(ids))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     @DisplayName("POST /api/users should create a new user successfully for ADMIN")
     @WithMockUser(roles = "ADMIN")
@@ -18,12 +18,15 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -95,6 +98,25 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findById(userId);
     }
 
+    @Test
+    @DisplayName("Should return users keyed by ID using a single query")
+    void getUsersByIds_shouldReturnUsersKeyedById() {
+        UUID missingId = UUID.randomUUID();
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+
+        Map<UUID, User> result = userService.getUsersByIds(List.of(userId, missingId, userId));
+
+        assertThat(result).containsExactly(Map.entry(userId, user));
+        verify(userRepository, times(1)).findAllById(Set.of(userId, missingId));
+    }
+
+    @Test
+    @DisplayName("Should not query the repository for an empty ID list")
+    void getUsersByIds_shouldReturnEmptyMapForNoIds() {
+        assertThat(userService.getUsersByIds(List.of())).isEmpty();
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("getUserById should throw UserNotFoundException when user not found")
     void getUserById_shouldThrowUserNotFoundExceptionWhenNotFound() {